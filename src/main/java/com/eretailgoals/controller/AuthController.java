@@ -0,0 +1,41 @@
+package com.eretailgoals.controller;
+
+import com.eretailgoals.dto.LoginRequest;
+import com.eretailgoals.dto.LoginResponse;
+import com.eretailgoals.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for authentication
+ * Issues the JWT bearer tokens that authenticate every other endpoint
+ */
+@RestController
+@RequestMapping("/auth")
+@Tag(name = "Authentication", description = "APIs for logging in and obtaining bearer tokens")
+public class AuthController {
+
+    private final AuthService authService;
+
+    @Autowired
+    public AuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Operation(summary = "Log in", description = "Checks a username or email and password and issues a JWT bearer token")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Token issued"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "401", description = "Invalid username or password")
+    })
+    @PostMapping("/login")
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+        return ResponseEntity.ok(authService.login(request));
+    }
+}
@@ -1,8 +1,17 @@
 package com.eretailgoals.controller;
 
+import com.eretailgoals.dto.BatchResult;
+import com.eretailgoals.dto.CursorPage;
+import com.eretailgoals.dto.InvoiceDetailView;
+import com.eretailgoals.dto.InvoiceStatistics;
+import com.eretailgoals.dto.InvoiceSummaryView;
+import com.eretailgoals.dto.ReceivablesDriftReport;
 import com.eretailgoals.entity.Invoice;
 import com.eretailgoals.entity.InvoiceItem;
+import com.eretailgoals.service.InvoiceBatchService;
 import com.eretailgoals.service.InvoiceService;
+import com.eretailgoals.service.InvoiceStatisticsService;
+import com.eretailgoals.service.ReceivablesVerificationJob;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -33,10 +42,18 @@ import java.util.Map;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final InvoiceBatchService invoiceBatchService;
+    private final InvoiceStatisticsService invoiceStatisticsService;
+    private final ReceivablesVerificationJob receivablesVerificationJob;
 
     @Autowired
-    public InvoiceController(InvoiceService invoiceService) {
+    public InvoiceController(InvoiceService invoiceService, InvoiceBatchService invoiceBatchService,
+                             InvoiceStatisticsService invoiceStatisticsService,
+                             ReceivablesVerificationJob receivablesVerificationJob) {
         this.invoiceService = invoiceService;
+        this.invoiceBatchService = invoiceBatchService;
+        this.invoiceStatisticsService = invoiceStatisticsService;
+        this.receivablesVerificationJob = receivablesVerificationJob;
     }
 
     @Operation(summary = "Create a new invoice", description = "Creates a new invoice for a user")
@@ -51,11 +68,33 @@ public class InvoiceController {
         return new ResponseEntity<>(createdInvoice, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Get all invoices", description = "Retrieves a list of all invoices")
-    @ApiResponse(responseCode = "200", description = "Invoices retrieved successfully")
+    @Operation(summary = "Create invoices in bulk",
+               description = "Creates up to 10000 invoices with their items and reports the outcome of every record; "
+                           + "invoices without a number are numbered from the tenant's sequence")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All invoices created successfully"),
+        @ApiResponse(responseCode = "207", description = "Some invoices were rejected, see the per-record results"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createInvoices(@RequestBody List<Invoice> invoices) {
+        BatchResult result = invoiceBatchService.createInvoices(invoices);
+        HttpStatus status = result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(result, status);
+    }
+
+    @Operation(summary = "List invoices",
+               description = "Retrieves invoices newest first using cursor pagination; pass nextCursor to fetch the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Invoices retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
     @GetMapping
-    public ResponseEntity<List<Invoice>> getAllInvoices() {
-        List<Invoice> invoices = invoiceService.getAllInvoices();
+    public ResponseEntity<CursorPage<InvoiceSummaryView>> getAllInvoices(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 500)") @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Admin ID filter") @RequestParam(required = false) Long adminId) {
+        CursorPage<InvoiceSummaryView> invoices = invoiceService.getInvoicePage(cursor, size, adminId);
         return ResponseEntity.ok(invoices);
     }
 
@@ -65,9 +104,9 @@ public class InvoiceController {
         @ApiResponse(responseCode = "404", description = "Invoice not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Invoice> getInvoiceById(
+    public ResponseEntity<InvoiceDetailView> getInvoiceById(
             @Parameter(description = "Invoice ID") @PathVariable Long id) {
-        Invoice invoice = invoiceService.getInvoiceById(id);
+        InvoiceDetailView invoice = invoiceService.getInvoiceDetail(id);
         return ResponseEntity.ok(invoice);
     }
 
@@ -77,9 +116,9 @@ public class InvoiceController {
         @ApiResponse(responseCode = "404", description = "Invoice not found")
     })
     @GetMapping("/number/{invoiceNumber}")
-    public ResponseEntity<Invoice> getInvoiceByNumber(
+    public ResponseEntity<InvoiceDetailView> getInvoiceByNumber(
             @Parameter(description = "Invoice number") @PathVariable String invoiceNumber) {
-        return invoiceService.getInvoiceByNumber(invoiceNumber)
+        return invoiceService.getInvoiceDetailByNumber(invoiceNumber)
                 .map(invoice -> ResponseEntity.ok(invoice))
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -170,7 +209,7 @@ public class InvoiceController {
     @Operation(summary = "Search invoices", description = "Search invoices with pagination and filtering")
     @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
     @GetMapping("/search")
-    public ResponseEntity<Page<Invoice>> searchInvoices(
+    public ResponseEntity<Page<InvoiceSummaryView>> searchInvoices(
             @Parameter(description = "User ID filter") @RequestParam(required = false) Long userId,
             @Parameter(description = "Admin ID filter") @RequestParam(required = false) Long adminId,
             @Parameter(description = "Invoice status filter") @RequestParam(required = false) Invoice.InvoiceStatus status,
@@ -179,7 +218,7 @@ public class InvoiceController {
             @Parameter(description = "Search term") @RequestParam(required = false) String searchTerm,
             @PageableDefault(size = 20) Pageable pageable) {
         
-        Page<Invoice> invoices = invoiceService.searchInvoices(userId, adminId, status, startDate, endDate, searchTerm, pageable);
+        Page<InvoiceSummaryView> invoices = invoiceService.searchInvoices(userId, adminId, status, startDate, endDate, searchTerm, pageable);
         return ResponseEntity.ok(invoices);
     }
 
@@ -232,11 +271,12 @@ public class InvoiceController {
         return ResponseEntity.ok(updatedInvoice);
     }
 
-    @Operation(summary = "Generate next invoice number", description = "Generates the next available invoice number")
+    @Operation(summary = "Generate next invoice number", description = "Allocates the next invoice number from the tenant's yearly sequence")
     @ApiResponse(responseCode = "200", description = "Invoice number generated successfully")
     @GetMapping("/next-number")
-    public ResponseEntity<Map<String, String>> generateNextInvoiceNumber() {
-        String nextNumber = invoiceService.generateNextInvoiceNumber();
+    public ResponseEntity<Map<String, String>> generateNextInvoiceNumber(
+            @Parameter(description = "Admin ID the number is allocated for") @RequestParam(required = false) Long adminId) {
+        String nextNumber = invoiceService.generateNextInvoiceNumber(adminId);
         return ResponseEntity.ok(Map.of("invoiceNumber", nextNumber));
     }
 
@@ -250,16 +290,13 @@ public class InvoiceController {
         return ResponseEntity.ok(invoices);
     }
 
-    @Operation(summary = "Get invoice statistics", description = "Retrieves invoice statistics and totals")
+    @Operation(summary = "Get invoice statistics",
+               description = "Retrieves invoice counts and amounts for every status; served from a snapshot refreshed every few seconds")
     @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
     @GetMapping("/statistics")
-    public ResponseEntity<Map<String, Object>> getInvoiceStatistics() {
-        Map<String, Object> statistics = Map.of(
-            "totalOpen", invoiceService.countInvoicesByStatus(Invoice.InvoiceStatus.OPEN),
-            "totalPaid", invoiceService.countInvoicesByStatus(Invoice.InvoiceStatus.PAID),
-            "totalOverdue", invoiceService.countInvoicesByStatus(Invoice.InvoiceStatus.OVERDUE),
-            "totalOutstanding", invoiceService.calculateTotalOutstandingAmount()
-        );
+    public ResponseEntity<InvoiceStatistics> getInvoiceStatistics(
+            @Parameter(description = "Admin ID filter") @RequestParam(required = false) Long adminId) {
+        InvoiceStatistics statistics = invoiceStatisticsService.getStatistics(adminId);
         return ResponseEntity.ok(statistics);
     }
 
@@ -272,4 +309,15 @@ public class InvoiceController {
         BigDecimal outstandingAmount = invoiceService.calculateTotalOutstandingAmountByUser(userId);
         return ResponseEntity.ok(Map.of("outstandingAmount", outstandingAmount));
     }
+
+    @Operation(summary = "Verify receivables summary",
+               description = "Rebuilds the receivables summary from the invoices table and reports any drift")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Verification completed"),
+        @ApiResponse(responseCode = "409", description = "Verification is already running on another node")
+    })
+    @PostMapping("/receivables/verify")
+    public ResponseEntity<ReceivablesDriftReport> verifyReceivables() {
+        return ResponseEntity.ok(receivablesVerificationJob.verify());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,294 @@
+package com.eretailgoals.controller;
+
+import com.eretailgoals.dto.AccountBalanceView;
+import com.eretailgoals.dto.BalanceCheckpointRebuildReport;
+import com.eretailgoals.dto.BankAccountActivityBackfillReport;
+import com.eretailgoals.dto.ReconciliationReport;
+import com.eretailgoals.dto.StatementImportStatus;
+import com.eretailgoals.dto.TransactionView;
+import com.eretailgoals.dto.TransferRequest;
+import com.eretailgoals.dto.TransferView;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.service.BalanceCheckpointRebuildJob;
+import com.eretailgoals.service.BankAccountActivityBackfillJob;
+import com.eretailgoals.service.IdempotencyService;
+import com.eretailgoals.service.ReconciliationService;
+import com.eretailgoals.service.TransactionExportFormat;
+import com.eretailgoals.service.TransactionExportService;
+import com.eretailgoals.service.TransactionService;
+import com.eretailgoals.service.TransferService;
+import com.eretailgoals.service.statement.StatementFormat;
+import com.eretailgoals.service.statement.StatementImportService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * REST Controller for bank transaction operations
+ * Provides endpoints for posting transactions against bank accounts and reading them back
+ */
+@RestController
+@RequestMapping("/transactions")
+@Tag(name = "Transaction Management", description = "APIs for posting and retrieving bank transactions")
+public class TransactionController {
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final TypeReference<TransactionView> TRANSACTION_VIEW = new TypeReference<>() {};
+    private static final TypeReference<List<TransactionView>> TRANSACTION_VIEWS = new TypeReference<>() {};
+    private static final TypeReference<StatementImportStatus> IMPORT_STATUS = new TypeReference<>() {};
+    private static final TypeReference<List<TransferView>> TRANSFER_VIEWS = new TypeReference<>() {};
+
+    private final TransactionService transactionService;
+    private final StatementImportService statementImportService;
+    private final ReconciliationService reconciliationService;
+    private final BalanceCheckpointRebuildJob checkpointRebuildJob;
+    private final TransactionExportService exportService;
+    private final IdempotencyService idempotencyService;
+    private final TransferService transferService;
+    private final BankAccountActivityBackfillJob activityBackfillJob;
+
+    @Autowired
+    public TransactionController(TransactionService transactionService,
+                                 StatementImportService statementImportService,
+                                 ReconciliationService reconciliationService,
+                                 BalanceCheckpointRebuildJob checkpointRebuildJob,
+                                 TransactionExportService exportService,
+                                 IdempotencyService idempotencyService,
+                                 TransferService transferService,
+                                 BankAccountActivityBackfillJob activityBackfillJob) {
+        this.transactionService = transactionService;
+        this.statementImportService = statementImportService;
+        this.reconciliationService = reconciliationService;
+        this.checkpointRebuildJob = checkpointRebuildJob;
+        this.exportService = exportService;
+        this.idempotencyService = idempotencyService;
+        this.transferService = transferService;
+        this.activityBackfillJob = activityBackfillJob;
+    }
+
+    @Operation(summary = "Post a transaction",
+               description = "Records a transaction and moves the bank account balance in the same database transaction; " +
+                             "a repeated Idempotency-Key returns the original response without posting again")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Transaction posted successfully, or replayed for a repeated key"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data, unknown bank account or key reused for a different request"),
+        @ApiResponse(responseCode = "409", description = "Bank account is inactive or a request with the same key is in progress")
+    })
+    @PostMapping
+    public ResponseEntity<TransactionView> postTransaction(
+            @Parameter(description = "Client-chosen key that makes retries safe")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody Transaction transaction) {
+        if (idempotencyKey == null) {
+            Transaction posted = transactionService.postTransaction(transaction);
+            return new ResponseEntity<>(TransactionView.of(posted), HttpStatus.CREATED);
+        }
+        IdempotencyService.Result<TransactionView> result = idempotencyService.execute("transactions.post",
+                idempotencyKey, TransactionView.of(transaction), TRANSACTION_VIEW,
+                () -> TransactionView.of(transactionService.postTransaction(transaction)));
+        return idempotentResponse(result, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Post transactions in bulk",
+               description = "Posts several transactions, possibly against different accounts, all or nothing; " +
+                             "a repeated Idempotency-Key returns the original response without posting again")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All transactions posted successfully, or replayed for a repeated key"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data, unknown bank account or key reused for a different request"),
+        @ApiResponse(responseCode = "409", description = "A bank account is inactive or a request with the same key is in progress")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<TransactionView>> postTransactions(
+            @Parameter(description = "Client-chosen key that makes retries safe")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody List<Transaction> transactions) {
+        if (idempotencyKey == null) {
+            List<Transaction> posted = transactionService.postBatch(transactions);
+            return new ResponseEntity<>(posted.stream().map(TransactionView::of).toList(), HttpStatus.CREATED);
+        }
+        List<TransactionView> request = transactions.stream().map(TransactionView::of).toList();
+        IdempotencyService.Result<List<TransactionView>> result = idempotencyService.execute("transactions.batch",
+                idempotencyKey, request, TRANSACTION_VIEWS,
+                () -> transactionService.postBatch(transactions).stream().map(TransactionView::of).toList());
+        return idempotentResponse(result, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Transfer between bank accounts in bulk",
+               description = "Posts a TRANSFER debit and a TRANSFER_IN credit leg per transfer, all or nothing; " +
+                             "a repeated Idempotency-Key returns the original response without posting again")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All transfers posted successfully, or replayed for a repeated key"),
+        @ApiResponse(responseCode = "400", description = "Invalid transfer, unknown bank account, transfer across tenants or key reused for a different request"),
+        @ApiResponse(responseCode = "409", description = "A bank account is inactive or a request with the same key is in progress")
+    })
+    @PostMapping("/transfers")
+    public ResponseEntity<List<TransferView>> postTransfers(
+            @Parameter(description = "Client-chosen key that makes retries safe")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody List<TransferRequest> transfers) {
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(transferService.transfer(transfers), HttpStatus.CREATED);
+        }
+        IdempotencyService.Result<List<TransferView>> result = idempotencyService.execute("transactions.transfers",
+                idempotencyKey, transfers, TRANSFER_VIEWS, () -> transferService.transfer(transfers));
+        return idempotentResponse(result, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Import a bank statement",
+               description = "Uploads a CSV, OFX, camt.053 or MT940 statement and imports its lines in the background; poll the returned job for progress")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import accepted, or the original job reported for a repeated key"),
+        @ApiResponse(responseCode = "400", description = "Missing file, unknown bank account or key reused for a different request"),
+        @ApiResponse(responseCode = "409", description = "Bank account is inactive, too many imports are running or a request with the same key is in progress")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StatementImportStatus> importStatement(
+            @Parameter(description = "Client-chosen key that makes retries safe")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Parameter(description = "Bank account ID") @RequestParam Long bankAccountId,
+            @Parameter(description = "Statement file") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "Statement format, guessed from the file name when omitted")
+            @RequestParam(required = false) StatementFormat format) {
+        if (idempotencyKey == null) {
+            StatementImportStatus status = statementImportService.submit(bankAccountId, file, format);
+            return new ResponseEntity<>(status, HttpStatus.ACCEPTED);
+        }
+        // Hashing a multi-gigabyte upload would cost more than the import; name and size identify the resend
+        List<Object> request = Arrays.asList(bankAccountId, format, file.getOriginalFilename(), file.getSize());
+        IdempotencyService.Result<StatementImportStatus> result = idempotencyService.execute("transactions.import",
+                idempotencyKey, request, IMPORT_STATUS,
+                () -> statementImportService.submit(bankAccountId, file, format));
+        if (result.replayed()) {
+            // Report the original job's current progress while it is still tracked
+            StatementImportStatus original = result.response();
+            result = new IdempotencyService.Result<>(
+                    statementImportService.getStatus(original.jobId()).orElse(original), true);
+        }
+        return idempotentResponse(result, HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Get statement import progress", description = "Reports the counters and state of an import job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import job found"),
+        @ApiResponse(responseCode = "404", description = "Import job not found or expired")
+    })
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<StatementImportStatus> getImportStatus(
+            @Parameter(description = "Import job ID") @PathVariable String jobId) {
+        return statementImportService.getStatus(jobId)
+                .map(status -> ResponseEntity.ok(status))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Reconcile transactions against open invoices",
+               description = "Matches unreconciled incoming transactions to open invoices by invoice number and amount, " +
+                             "links and reconciles the confident matches and reports every match with its confidence")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reconciliation completed"),
+        @ApiResponse(responseCode = "400", description = "Unknown bank account")
+    })
+    @PostMapping("/reconcile")
+    public ResponseEntity<ReconciliationReport> reconcile(
+            @Parameter(description = "Bank account ID, all accounts when omitted") @RequestParam(required = false) Long bankAccountId,
+            @Parameter(description = "Only report the matches") @RequestParam(defaultValue = "false") boolean dryRun) {
+        return ResponseEntity.ok(reconciliationService.reconcile(bankAccountId, dryRun));
+    }
+
+    @Operation(summary = "Get account balance as of a date",
+               description = "Computes a bank account's balance at the end of a day from the nearest month-end checkpoint")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Balance computed"),
+        @ApiResponse(responseCode = "400", description = "Unknown bank account")
+    })
+    @GetMapping("/balance")
+    public ResponseEntity<AccountBalanceView> getBalanceAsOf(
+            @Parameter(description = "Bank account ID") @RequestParam Long bankAccountId,
+            @Parameter(description = "Day to compute the closing balance for, today when omitted")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(transactionService.getBalanceAsOf(bankAccountId, asOf != null ? asOf : LocalDate.now()));
+    }
+
+    @Operation(summary = "Rebuild balance checkpoints",
+               description = "Regenerates the month-end balance checkpoints of every bank account from its transactions")
+    @ApiResponse(responseCode = "200", description = "Rebuild completed")
+    @PostMapping("/balance/checkpoints/rebuild")
+    public ResponseEntity<BalanceCheckpointRebuildReport> rebuildBalanceCheckpoints() {
+        return ResponseEntity.ok(checkpointRebuildJob.rebuildAll());
+    }
+
+    @Operation(summary = "Backfill bank account activity",
+               description = "Recounts the last transaction date and transaction count of every bank account from its transactions")
+    @ApiResponse(responseCode = "200", description = "Backfill completed")
+    @PostMapping("/activity/backfill")
+    public ResponseEntity<BankAccountActivityBackfillReport> backfillAccountActivity() {
+        return ResponseEntity.ok(activityBackfillJob.backfillAll());
+    }
+
+    @Operation(summary = "Export transactions",
+               description = "Streams the matching transactions, oldest first, as CSV or newline-delimited JSON")
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Parameter(description = "Bank account ID filter") @RequestParam(required = false) Long bankAccountId,
+            @Parameter(description = "Admin ID filter") @RequestParam(required = false) Long adminId,
+            @Parameter(description = "Start date filter") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date filter") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Export format") @RequestParam(defaultValue = "CSV") TransactionExportFormat format) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        StreamingResponseBody body = out -> exportService.export(format, bankAccountId, adminId, startDate, endDate, out);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Get transaction by ID", description = "Retrieves a specific transaction by its ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transaction found"),
+        @ApiResponse(responseCode = "400", description = "Transaction not found")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<TransactionView> getTransactionById(
+            @Parameter(description = "Transaction ID") @PathVariable Long id) {
+        return ResponseEntity.ok(TransactionView.of(transactionService.getTransactionById(id)));
+    }
+
+    @Operation(summary = "Get transactions by bank account",
+               description = "Retrieves all transactions posted against a bank account")
+    @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully")
+    @GetMapping
+    public ResponseEntity<List<TransactionView>> getTransactionsByBankAccount(
+            @Parameter(description = "Bank account ID") @RequestParam Long bankAccountId) {
+        List<TransactionView> transactions = transactionService.getTransactionsByBankAccount(bankAccountId).stream()
+                .map(TransactionView::of)
+                .toList();
+        return ResponseEntity.ok(transactions);
+    }
+
+    private static <T> ResponseEntity<T> idempotentResponse(IdempotencyService.Result<T> result, HttpStatus status) {
+        return ResponseEntity.status(status)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+}
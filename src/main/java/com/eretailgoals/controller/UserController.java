@@ -1,6 +1,9 @@
 package com.eretailgoals.controller;
 
+import com.eretailgoals.dto.BatchResult;
+import com.eretailgoals.dto.UserSuggestion;
 import com.eretailgoals.entity.User;
+import com.eretailgoals.service.UserBatchService;
 import com.eretailgoals.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -29,10 +32,12 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final UserBatchService userBatchService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserBatchService userBatchService) {
         this.userService = userService;
+        this.userBatchService = userBatchService;
     }
 
     @Operation(summary = "Create a new user", description = "Creates a new user (client, supplier, or admin)")
@@ -47,6 +52,21 @@ public class UserController {
         return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Create users in bulk",
+               description = "Creates up to 10000 clients, suppliers or admin users and reports the outcome of every record")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All users created successfully"),
+        @ApiResponse(responseCode = "207", description = "Some users were rejected, see the per-record results"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+        @ApiResponse(responseCode = "429", description = "Password hashing is saturated")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createUsers(@RequestBody List<User> users) {
+        BatchResult result = userBatchService.createUsers(users);
+        HttpStatus status = result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(result, status);
+    }
+
     @Operation(summary = "Get all users", description = "Retrieves a list of all users")
     @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
     @GetMapping
@@ -152,6 +172,22 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @Operation(summary = "Suggest users",
+               description = "Autocomplete of active users whose name, company or email words start with every word of the query")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Missing query")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UserSuggestion>> suggestUsers(
+            @Parameter(description = "Query prefix") @RequestParam String q,
+            @Parameter(description = "Admin ID (tenant)") @RequestParam(required = false) Long adminId,
+            @Parameter(description = "User type filter") @RequestParam(required = false) User.UserType userType,
+            @Parameter(description = "Maximum number of suggestions (up to 50)") @RequestParam(defaultValue = "10") int limit) {
+        List<UserSuggestion> suggestions = userService.suggestUsers(adminId, userType, q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @Operation(summary = "Get users with outstanding invoices", 
                description = "Retrieves users who have unpaid or partially paid invoices")
     @ApiResponse(responseCode = "200", description = "Users with outstanding invoices retrieved successfully")
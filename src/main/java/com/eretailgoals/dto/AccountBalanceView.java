@@ -0,0 +1,14 @@
+package com.eretailgoals.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Balance of a bank account at the end of a day
+ * checkpointDate names the month-end checkpoint the balance was computed from, null when there was none
+ */
+public record AccountBalanceView(Long bankAccountId,
+                                 LocalDate asOf,
+                                 BigDecimal balance,
+                                 LocalDate checkpointDate) {
+}
@@ -0,0 +1,15 @@
+package com.eretailgoals.dto;
+
+import com.eretailgoals.entity.User;
+
+import java.time.Instant;
+
+/**
+ * Principal of a request authenticated by a bearer token, built from the token's claims alone
+ */
+public record AuthenticatedUser(Long userId,
+                                String username,
+                                User.UserType userType,
+                                Long adminId,
+                                Instant expiresAt) {
+}
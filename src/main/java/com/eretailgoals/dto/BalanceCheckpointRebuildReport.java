@@ -0,0 +1,15 @@
+package com.eretailgoals.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of regenerating the balance checkpoints of every bank account from its transactions
+ * Accounts whose rebuild failed keep their previous checkpoints and are listed by ID
+ */
+public record BalanceCheckpointRebuildReport(int accountsRebuilt,
+                                             long checkpointsWritten,
+                                             List<Long> failedAccountIds,
+                                             long elapsedMillis,
+                                             LocalDateTime rebuiltAt) {
+}
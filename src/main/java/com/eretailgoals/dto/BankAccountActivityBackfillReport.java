@@ -0,0 +1,11 @@
+package com.eretailgoals.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of recounting the last transaction date and transaction count of every bank account
+ */
+public record BankAccountActivityBackfillReport(long accountsUpdated,
+                                                long elapsedMillis,
+                                                LocalDateTime backfilledAt) {
+}
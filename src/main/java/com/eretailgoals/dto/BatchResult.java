@@ -0,0 +1,40 @@
+package com.eretailgoals.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-record outcome of a batch create request
+ * Items are reported in request order so clients can match them by index
+ */
+public record BatchResult(int total,
+                          int succeeded,
+                          int failed,
+                          List<Item> items) {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    public record Item(int index,
+                       Long id,
+                       String reference,
+                       Status status,
+                       String error) {
+
+        public static Item created(int index, Long id, String reference) {
+            return new Item(index, id, reference, Status.CREATED, null);
+        }
+
+        public static Item failed(int index, String reference, String error) {
+            return new Item(index, null, reference, Status.FAILED, error);
+        }
+    }
+
+    public static BatchResult of(List<Item> items) {
+        List<Item> ordered = items.stream().sorted(Comparator.comparingInt(Item::index)).toList();
+        int succeeded = (int) ordered.stream().filter(item -> item.status() == Status.CREATED).count();
+        return new BatchResult(ordered.size(), succeeded, ordered.size() - succeeded, ordered);
+    }
+}
@@ -0,0 +1,14 @@
+package com.eretailgoals.dto;
+
+import java.util.List;
+
+/**
+ * Cursor-based page of results returned by keyset-paginated endpoints
+ * The nextCursor token is opaque to clients and is passed back to fetch the following page
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore, int size) {
+
+    public static <T> CursorPage<T> of(List<T> items, String nextCursor) {
+        return new CursorPage<>(items, nextCursor, nextCursor != null, items.size());
+    }
+}
@@ -0,0 +1,40 @@
+package com.eretailgoals.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position within the invoice listing ordered by (invoiceDate DESC, id DESC)
+ * Encoded as an opaque URL-safe token so clients never depend on its structure
+ */
+public record InvoiceCursor(LocalDate invoiceDate, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Encode cursor into an opaque token
+     */
+    public String encode() {
+        String raw = STR."\{invoiceDate}\{SEPARATOR}\{id}";
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     */
+    public static InvoiceCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new InvoiceCursor(LocalDate.parse(raw.substring(0, separatorIndex)),
+                                     Long.valueOf(raw.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
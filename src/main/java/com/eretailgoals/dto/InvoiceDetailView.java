@@ -0,0 +1,73 @@
+package com.eretailgoals.dto;
+
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.InvoiceItem;
+import com.eretailgoals.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read model for a single invoice with its client and items
+ * Built from an invoice whose user and items were fetched together by an entity graph
+ */
+public record InvoiceDetailView(Long id,
+                                Long adminId,
+                                String invoiceNumber,
+                                LocalDate invoiceDate,
+                                LocalDate dueDate,
+                                Invoice.InvoiceType invoiceType,
+                                Invoice.InvoiceStatus invoiceStatus,
+                                String invoiceNote,
+                                BigDecimal invoiceAmount,
+                                BigDecimal vatAmount,
+                                BigDecimal invoicePaidAmount,
+                                BigDecimal totalAmount,
+                                BigDecimal outstandingAmount,
+                                Long version,
+                                LocalDateTime dateCreated,
+                                LocalDateTime lastModified,
+                                ClientView client,
+                                List<ItemView> items) {
+
+    public record ClientView(Long id,
+                             String firstName,
+                             String lastName,
+                             String companyName,
+                             String email) {
+
+        static ClientView of(User user) {
+            return new ClientView(user.getId(), user.getFirstName(), user.getLastName(),
+                                  user.getCompanyName(), user.getEmail());
+        }
+    }
+
+    public record ItemView(Long id,
+                           String itemCode,
+                           String itemDescription,
+                           Integer quantity,
+                           String unit,
+                           BigDecimal unitPrice,
+                           BigDecimal discount,
+                           BigDecimal vatRate,
+                           BigDecimal lineTotal) {
+
+        static ItemView of(InvoiceItem item) {
+            return new ItemView(item.getId(), item.getItemCode(), item.getItemDescription(), item.getQuantity(),
+                                item.getUnit(), item.getUnitPrice(), item.getDiscount(), item.getVatRate(),
+                                item.getLineTotal());
+        }
+    }
+
+    public static InvoiceDetailView of(Invoice invoice) {
+        return new InvoiceDetailView(invoice.getId(), invoice.getAdminId(), invoice.getInvoiceNumber(),
+                invoice.getInvoiceDate(), invoice.getDueDate(), invoice.getInvoiceType(), invoice.getInvoiceStatus(),
+                invoice.getInvoiceNote(), invoice.getInvoiceAmount(), invoice.getVatAmount(),
+                invoice.getInvoicePaidAmount(), invoice.getTotalAmount(), invoice.getOutstandingAmount(),
+                invoice.getVersion(), invoice.getDateCreated(), invoice.getLastModified(),
+                invoice.getUser() != null ? ClientView.of(invoice.getUser()) : null,
+                invoice.getInvoiceItems().stream().map(ItemView::of).toList());
+    }
+}
@@ -0,0 +1,25 @@
+package com.eretailgoals.dto;
+
+import com.eretailgoals.entity.Invoice;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Snapshot of invoice counts and amounts for every invoice status
+ */
+public record InvoiceStatistics(long totalOpen,
+                                long totalPartialPaid,
+                                long totalPaid,
+                                long totalOverdue,
+                                long totalCancelled,
+                                BigDecimal totalOutstanding,
+                                Map<Invoice.InvoiceStatus, StatusTotals> byStatus,
+                                LocalDateTime generatedAt) {
+
+    public record StatusTotals(long count, BigDecimal totalAmount, BigDecimal outstandingAmount) {
+
+        public static final StatusTotals EMPTY = new StatusTotals(0, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+}
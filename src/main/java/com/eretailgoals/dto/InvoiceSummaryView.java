@@ -0,0 +1,61 @@
+package com.eretailgoals.dto;
+
+import com.eretailgoals.entity.Invoice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read model for invoice list and search results
+ * Loaded with a JPQL constructor expression, so only these columns and the client's name are selected
+ */
+public record InvoiceSummaryView(Long id,
+                                 Long adminId,
+                                 String invoiceNumber,
+                                 LocalDate invoiceDate,
+                                 LocalDate dueDate,
+                                 Invoice.InvoiceType invoiceType,
+                                 Invoice.InvoiceStatus invoiceStatus,
+                                 BigDecimal invoiceAmount,
+                                 BigDecimal vatAmount,
+                                 BigDecimal invoicePaidAmount,
+                                 BigDecimal totalAmount,
+                                 BigDecimal outstandingAmount,
+                                 Long userId,
+                                 String clientName,
+                                 String companyName) {
+
+    /**
+     * Constructor used by the repository's constructor expressions
+     */
+    public InvoiceSummaryView(Long id, Long adminId, String invoiceNumber, LocalDate invoiceDate, LocalDate dueDate,
+                              Invoice.InvoiceType invoiceType, Invoice.InvoiceStatus invoiceStatus,
+                              BigDecimal invoiceAmount, BigDecimal vatAmount, BigDecimal invoicePaidAmount,
+                              Long userId, String firstName, String lastName, String companyName) {
+        this(id, adminId, invoiceNumber, invoiceDate, dueDate, invoiceType, invoiceStatus,
+             invoiceAmount, vatAmount, invoicePaidAmount,
+             total(invoiceAmount, vatAmount), total(invoiceAmount, vatAmount).subtract(orZero(invoicePaidAmount)),
+             userId, clientName(firstName, lastName), companyName);
+    }
+
+    /**
+     * Join the name parts that are present, so a missing first or last name leaves no "null" behind
+     */
+    static String clientName(String firstName, String lastName) {
+        String name = Stream.of(firstName, lastName)
+                .filter(part -> part != null && !part.isBlank())
+                .map(String::trim)
+                .collect(Collectors.joining(" "));
+        return name.isEmpty() ? null : name;
+    }
+
+    private static BigDecimal total(BigDecimal invoiceAmount, BigDecimal vatAmount) {
+        return orZero(invoiceAmount).add(orZero(vatAmount));
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
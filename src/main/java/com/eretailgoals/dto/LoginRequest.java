@@ -0,0 +1,10 @@
+package com.eretailgoals.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Credentials for POST /auth/login; login accepts a username or an email address
+ */
+public record LoginRequest(@NotBlank(message = "Username or email is required") String login,
+                           @NotBlank(message = "Password is required") String password) {
+}
@@ -0,0 +1,14 @@
+package com.eretailgoals.dto;
+
+import com.eretailgoals.entity.User;
+
+/**
+ * Bearer token issued on login, with its lifetime in seconds and the user it was issued to
+ */
+public record LoginResponse(String accessToken,
+                            String tokenType,
+                            long expiresIn,
+                            Long userId,
+                            String username,
+                            User.UserType userType) {
+}
@@ -0,0 +1,12 @@
+package com.eretailgoals.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model of an invoice that can still receive payments, as indexed by the reconciliation engine
+ */
+public record OpenInvoiceView(Long id,
+                              Long adminId,
+                              String invoiceNumber,
+                              BigDecimal outstandingAmount) {
+}
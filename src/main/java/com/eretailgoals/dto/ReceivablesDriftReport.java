@@ -0,0 +1,22 @@
+package com.eretailgoals.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of rebuilding the receivables summary table from the invoices table
+ * Lists every (adminId, userId) row whose maintained values differed from the recomputed ones
+ */
+public record ReceivablesDriftReport(int rowsChecked,
+                                     int rowsDrifted,
+                                     List<Drift> drifts,
+                                     LocalDateTime verifiedAt) {
+
+    public record Drift(Long adminId,
+                        Long userId,
+                        BigDecimal expectedAmount,
+                        BigDecimal actualAmount,
+                        long expectedCount,
+                        long actualCount) {}
+}
@@ -0,0 +1,48 @@
+package com.eretailgoals.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of an auto-reconciliation run
+ * Matches below the configured confidence are reported but not applied; only the first matches are
+ * listed, the counters cover the whole run
+ */
+public record ReconciliationReport(long transactionsScanned,
+                                   long invoicesIndexed,
+                                   long matched,
+                                   long applied,
+                                   long ambiguous,
+                                   Map<MatchRule, Long> matchesByRule,
+                                   List<Match> matches,
+                                   boolean truncated,
+                                   boolean dryRun,
+                                   long elapsedMillis) {
+
+    /**
+     * How a transaction was matched to an invoice, strongest first
+     */
+    public enum MatchRule {
+        REFERENCE_AND_AMOUNT(1.00),
+        REFERENCE(0.85),
+        AMOUNT(0.60);
+
+        private final double confidence;
+
+        MatchRule(double confidence) {
+            this.confidence = confidence;
+        }
+
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+
+    public record Match(Long transactionId,
+                        Long invoiceId,
+                        String invoiceNumber,
+                        MatchRule rule,
+                        double confidence,
+                        boolean applied) {
+    }
+}
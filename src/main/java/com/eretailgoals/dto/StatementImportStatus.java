@@ -0,0 +1,30 @@
+package com.eretailgoals.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bank statement import job
+ * Counters are live while the job runs; errors hold the first rejected lines as "line N: reason"
+ */
+public record StatementImportStatus(String jobId,
+                                    Long bankAccountId,
+                                    String fileName,
+                                    String format,
+                                    State state,
+                                    long linesRead,
+                                    long transactionsPosted,
+                                    long linesRejected,
+                                    List<String> errors,
+                                    String failure,
+                                    LocalDateTime submittedAt,
+                                    LocalDateTime startedAt,
+                                    LocalDateTime finishedAt) {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,37 @@
+package com.eretailgoals.dto;
+
+import com.eretailgoals.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for a posted transaction
+ * Related records are referenced by ID so serializing it never touches lazy associations
+ */
+public record TransactionView(Long id,
+                              Long adminId,
+                              Long bankAccountId,
+                              Long userId,
+                              Long invoiceId,
+                              LocalDate transactionDate,
+                              Transaction.TransactionType transactionType,
+                              Transaction.ExpenseType expenseType,
+                              BigDecimal transactionAmount,
+                              BigDecimal endingBalance,
+                              String referenceNumber,
+                              String notes,
+                              Boolean isReconciled,
+                              LocalDateTime dateCreated) {
+
+    public static TransactionView of(Transaction transaction) {
+        return new TransactionView(transaction.getId(), transaction.getAdminId(),
+                transaction.getBankAccount() != null ? transaction.getBankAccount().getId() : null,
+                transaction.getUser() != null ? transaction.getUser().getId() : null,
+                transaction.getInvoice() != null ? transaction.getInvoice().getId() : null,
+                transaction.getTransactionDate(), transaction.getTransactionType(), transaction.getExpenseType(),
+                transaction.getTransactionAmount(), transaction.getEndingBalance(), transaction.getReferenceNumber(),
+                transaction.getNotes(), transaction.getIsReconciled(), transaction.getDateCreated());
+    }
+}
@@ -0,0 +1,16 @@
+package com.eretailgoals.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One transfer of a bulk transfer request, moving an amount from one bank account to another
+ * transferDate defaults to today and reference to a generated TRF- value shared by both legs
+ */
+public record TransferRequest(Long fromBankAccountId,
+                              Long toBankAccountId,
+                              BigDecimal amount,
+                              LocalDate transferDate,
+                              String reference,
+                              String notes) {
+}
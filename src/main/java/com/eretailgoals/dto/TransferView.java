@@ -0,0 +1,18 @@
+package com.eretailgoals.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Posted transfer with the IDs and ending balances of its TRANSFER debit leg and TRANSFER_IN credit leg
+ */
+public record TransferView(String reference,
+                           Long fromBankAccountId,
+                           Long toBankAccountId,
+                           BigDecimal amount,
+                           LocalDate transferDate,
+                           Long debitTransactionId,
+                           Long creditTransactionId,
+                           BigDecimal fromEndingBalance,
+                           BigDecimal toEndingBalance) {
+}
@@ -0,0 +1,13 @@
+package com.eretailgoals.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model of an unreconciled transaction with only the columns reconciliation matches on
+ */
+public record UnreconciledTransactionView(Long id,
+                                          Long adminId,
+                                          BigDecimal transactionAmount,
+                                          String referenceNumber,
+                                          String notes) {
+}
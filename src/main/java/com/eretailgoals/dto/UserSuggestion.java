@@ -0,0 +1,21 @@
+package com.eretailgoals.dto;
+
+import com.eretailgoals.entity.User;
+
+/**
+ * Autocomplete entry for a client, supplier or admin user
+ * Carries only the fields shown while picking a user, so suggestions never load the full entity
+ */
+public record UserSuggestion(Long id,
+                             Long adminId,
+                             User.UserType userType,
+                             String firstName,
+                             String lastName,
+                             String companyName,
+                             String email) {
+
+    public static UserSuggestion of(User user) {
+        return new UserSuggestion(user.getId(), user.getAdminId(), user.getUserType(), user.getFirstName(),
+                                  user.getLastName(), user.getCompanyName(), user.getEmail());
+    }
+}
@@ -0,0 +1,91 @@
+package com.eretailgoals.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Closing balance of a bank account at a month end
+ * Holds the opening balance plus every transaction dated on or before the checkpoint date,
+ * maintained in the same transaction as every posting to the account
+ */
+@Entity
+@Table(name = "balance_checkpoints",
+       uniqueConstraints = @UniqueConstraint(name = "uk_balance_checkpoints_account_date",
+                                             columnNames = {"bank_account_id", "checkpoint_date"}))
+public class BalanceCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bank_account_id", nullable = false)
+    private Long bankAccountId;
+
+    @Column(name = "checkpoint_date", nullable = false)
+    private LocalDate checkpointDate;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "last_modified")
+    private LocalDateTime lastModified;
+
+    // Constructors
+    public BalanceCheckpoint() {}
+
+    public BalanceCheckpoint(Long bankAccountId, LocalDate checkpointDate, BigDecimal balance, LocalDateTime lastModified) {
+        this.bankAccountId = bankAccountId;
+        this.checkpointDate = checkpointDate;
+        this.balance = balance;
+        this.lastModified = lastModified;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBankAccountId() {
+        return bankAccountId;
+    }
+
+    public void setBankAccountId(Long bankAccountId) {
+        this.bankAccountId = bankAccountId;
+    }
+
+    public LocalDate getCheckpointDate() {
+        return checkpointDate;
+    }
+
+    public void setCheckpointDate(LocalDate checkpointDate) {
+        this.checkpointDate = checkpointDate;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return STR."BalanceCheckpoint{bankAccountId=\{bankAccountId}, checkpointDate=\{checkpointDate}, balance=\{balance}}";
+    }
+}
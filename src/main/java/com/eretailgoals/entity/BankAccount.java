@@ -10,6 +10,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,7 +20,14 @@ import java.util.List;
  * Migrated from legacy BankBO with modern JPA annotations
  */
 @Entity
-@Table(name = "bank_accounts")
+@Table(name = "bank_accounts", indexes = {
+        @Index(name = "idx_bank_accounts_number", columnList = "account_number"),
+        @Index(name = "idx_bank_accounts_admin_active", columnList = "admin_id, is_active"),
+        @Index(name = "idx_bank_accounts_type_admin", columnList = "account_type, admin_id"),
+        @Index(name = "idx_bank_accounts_active_name", columnList = "is_active, account_name"),
+        @Index(name = "idx_bank_accounts_balance", columnList = "current_balance"),
+        @Index(name = "idx_bank_accounts_last_transaction_date", columnList = "last_transaction_date")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class BankAccount {
 
@@ -60,6 +68,14 @@ public class BankAccount {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    @Column(name = "last_transaction_date")
+    private LocalDate lastTransactionDate;
+
+    // Starts at 0 for new accounts; only rows written by nodes running code from before V13 are null,
+    // until the backfill job has counted their transactions
+    @Column(name = "transaction_count")
+    private Long transactionCount = 0L;
+
     @CreatedDate
     @Column(name = "date_created", nullable = false, updatable = false)
     private LocalDateTime dateCreated;
@@ -173,6 +189,22 @@ public class BankAccount {
         this.isActive = isActive;
     }
 
+    public LocalDate getLastTransactionDate() {
+        return lastTransactionDate;
+    }
+
+    public void setLastTransactionDate(LocalDate lastTransactionDate) {
+        this.lastTransactionDate = lastTransactionDate;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
     public LocalDateTime getDateCreated() {
         return dateCreated;
     }
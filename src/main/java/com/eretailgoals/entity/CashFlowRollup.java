@@ -0,0 +1,149 @@
+package com.eretailgoals.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated cash flow per tenant, bank account, day, transaction type and expense type
+ * Holds the summed amount and number of transactions, maintained in the same transaction as every posting
+ */
+@Entity
+@Table(name = "cash_flow_rollups", indexes = {
+        @Index(name = "idx_cash_flow_rollups_account_date", columnList = "bank_account_id, rollup_date"),
+        @Index(name = "idx_cash_flow_rollups_date_type", columnList = "rollup_date, transaction_type"),
+        @Index(name = "idx_cash_flow_rollups_expense_date", columnList = "expense_type, rollup_date")
+})
+public class CashFlowRollup {
+
+    /**
+     * Tenant key used for transactions that are not owned by an admin
+     */
+    public static final long NO_TENANT = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "admin_id", nullable = false)
+    private Long adminId;
+
+    @Column(name = "bank_account_id", nullable = false)
+    private Long bankAccountId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private Transaction.TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "expense_type")
+    private Transaction.ExpenseType expenseType;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount = 0L;
+
+    @Column(name = "last_modified")
+    private LocalDateTime lastModified;
+
+    // Constructors
+    public CashFlowRollup() {}
+
+    public CashFlowRollup(Long adminId, Long bankAccountId, LocalDate rollupDate,
+                          Transaction.TransactionType transactionType, Transaction.ExpenseType expenseType) {
+        this.adminId = adminId;
+        this.bankAccountId = bankAccountId;
+        this.rollupDate = rollupDate;
+        this.transactionType = transactionType;
+        this.expenseType = expenseType;
+    }
+
+    public static long tenantKey(Long adminId) {
+        return adminId != null ? adminId : NO_TENANT;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAdminId() {
+        return adminId;
+    }
+
+    public void setAdminId(Long adminId) {
+        this.adminId = adminId;
+    }
+
+    public Long getBankAccountId() {
+        return bankAccountId;
+    }
+
+    public void setBankAccountId(Long bankAccountId) {
+        this.bankAccountId = bankAccountId;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    public Transaction.TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(Transaction.TransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public Transaction.ExpenseType getExpenseType() {
+        return expenseType;
+    }
+
+    public void setExpenseType(Transaction.ExpenseType expenseType) {
+        this.expenseType = expenseType;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return STR."CashFlowRollup{bankAccountId=\{bankAccountId}, rollupDate=\{rollupDate}, transactionType=\{transactionType}, expenseType=\{expenseType}, totalAmount=\{totalAmount}, transactionCount=\{transactionCount}}";
+    }
+}
@@ -1,5 +1,8 @@
 package com.eretailgoals.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.eretailgoals.entity.listener.InvoiceSearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -20,12 +23,23 @@ import java.util.List;
  * Migrated from legacy InvoiceBO with modern JPA annotations and relationships
  */
 @Entity
-@Table(name = "invoices")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "invoices", indexes = {
+        @Index(name = "idx_invoices_admin_date_id", columnList = "admin_id, invoice_date, id"),
+        @Index(name = "idx_invoices_date_id", columnList = "invoice_date, id"),
+        @Index(name = "idx_invoices_user_status", columnList = "user_id, invoice_status"),
+        @Index(name = "idx_invoices_status_due", columnList = "invoice_status, due_date"),
+        @Index(name = "idx_invoices_due_date", columnList = "due_date"),
+        @Index(name = "idx_invoices_date_created", columnList = "date_created DESC"),
+        @Index(name = "idx_invoices_last_modified", columnList = "last_modified")
+})
+@EntityListeners({AuditingEntityListener.class, InvoiceSearchIndexListener.class})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Invoice {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "invoice_id")
+    @TableGenerator(name = "invoice_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "invoices", allocationSize = 50)
     private Long id;
 
     @Column(name = "admin_id")
@@ -67,6 +81,10 @@ public class Invoice {
     @Column(name = "invoice_status", nullable = false)
     private InvoiceStatus invoiceStatus = InvoiceStatus.OPEN;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreatedDate
     @Column(name = "date_created", nullable = false, updatable = false)
     private LocalDateTime dateCreated;
@@ -83,6 +101,7 @@ public class Invoice {
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<InvoiceItem> invoiceItems = new ArrayList<>();
 
+    @JsonIgnore
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaction> transactions = new ArrayList<>();
 
@@ -221,6 +240,14 @@ public class Invoice {
         this.invoiceStatus = invoiceStatus;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getDateCreated() {
         return dateCreated;
     }
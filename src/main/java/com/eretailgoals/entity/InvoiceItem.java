@@ -1,5 +1,6 @@
 package com.eretailgoals.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
@@ -23,7 +24,9 @@ import java.time.LocalDateTime;
 public class InvoiceItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "invoice_item_id")
+    @TableGenerator(name = "invoice_item_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "invoice_items", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Item description is required")
@@ -69,6 +72,7 @@ public class InvoiceItem {
     private LocalDateTime lastModified;
 
     // Relationships
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "invoice_id", nullable = false)
     private Invoice invoice;
@@ -0,0 +1,96 @@
+package com.eretailgoals.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counter row backing invoice number allocation, one per tenant and calendar year
+ * Application nodes reserve blocks of numbers from nextValue under a row lock
+ */
+@Entity
+@Table(name = "invoice_number_sequences",
+       uniqueConstraints = @UniqueConstraint(name = "uk_invoice_number_sequences_admin_year",
+                                             columnNames = {"admin_id", "sequence_year"}))
+@EntityListeners(AuditingEntityListener.class)
+public class InvoiceNumberSequence {
+
+    /**
+     * Tenant key used for invoices that are not owned by an admin
+     */
+    public static final long NO_TENANT = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "admin_id", nullable = false)
+    private Long adminId;
+
+    @Column(name = "sequence_year", nullable = false)
+    private Integer sequenceYear;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @LastModifiedDate
+    @Column(name = "last_modified")
+    private LocalDateTime lastModified;
+
+    // Constructors
+    public InvoiceNumberSequence() {}
+
+    public InvoiceNumberSequence(Long adminId, Integer sequenceYear, Long nextValue) {
+        this.adminId = adminId;
+        this.sequenceYear = sequenceYear;
+        this.nextValue = nextValue;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAdminId() {
+        return adminId;
+    }
+
+    public void setAdminId(Long adminId) {
+        this.adminId = adminId;
+    }
+
+    public Integer getSequenceYear() {
+        return sequenceYear;
+    }
+
+    public void setSequenceYear(Integer sequenceYear) {
+        this.sequenceYear = sequenceYear;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return STR."InvoiceNumberSequence{adminId=\{adminId}, sequenceYear=\{sequenceYear}, nextValue=\{nextValue}}";
+    }
+}
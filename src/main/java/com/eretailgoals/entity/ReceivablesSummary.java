@@ -0,0 +1,113 @@
+package com.eretailgoals.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated receivables per tenant and client
+ * Holds the outstanding amount and number of open invoices (OPEN, PARTIAL_PAID, OVERDUE),
+ * maintained in the same transaction as every invoice write
+ */
+@Entity
+@Table(name = "receivables_summaries",
+       uniqueConstraints = @UniqueConstraint(name = "uk_receivables_summaries_admin_user",
+                                             columnNames = {"admin_id", "user_id"}),
+       indexes = @Index(name = "idx_receivables_summaries_user", columnList = "user_id"))
+@EntityListeners(AuditingEntityListener.class)
+public class ReceivablesSummary {
+
+    /**
+     * Tenant key used for invoices that are not owned by an admin
+     */
+    public static final long NO_TENANT = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "admin_id", nullable = false)
+    private Long adminId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "outstanding_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal outstandingAmount = BigDecimal.ZERO;
+
+    @Column(name = "open_invoice_count", nullable = false)
+    private Long openInvoiceCount = 0L;
+
+    @LastModifiedDate
+    @Column(name = "last_modified")
+    private LocalDateTime lastModified;
+
+    // Constructors
+    public ReceivablesSummary() {}
+
+    public ReceivablesSummary(Long adminId, Long userId) {
+        this.adminId = adminId;
+        this.userId = userId;
+    }
+
+    public static long tenantKey(Long adminId) {
+        return adminId != null ? adminId : NO_TENANT;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAdminId() {
+        return adminId;
+    }
+
+    public void setAdminId(Long adminId) {
+        this.adminId = adminId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getOutstandingAmount() {
+        return outstandingAmount;
+    }
+
+    public void setOutstandingAmount(BigDecimal outstandingAmount) {
+        this.outstandingAmount = outstandingAmount;
+    }
+
+    public Long getOpenInvoiceCount() {
+        return openInvoiceCount;
+    }
+
+    public void setOpenInvoiceCount(Long openInvoiceCount) {
+        this.openInvoiceCount = openInvoiceCount;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return STR."ReceivablesSummary{adminId=\{adminId}, userId=\{userId}, outstandingAmount=\{outstandingAmount}, openInvoiceCount=\{openInvoiceCount}}";
+    }
+}
@@ -17,12 +17,24 @@ import java.time.LocalDateTime;
  * Migrated from legacy TransactionBO with modern JPA annotations and relationships
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_date", columnList = "bank_account_id, transaction_date, date_created"),
+        @Index(name = "idx_transactions_account_reconciled", columnList = "bank_account_id, is_reconciled"),
+        @Index(name = "idx_transactions_reconciled", columnList = "is_reconciled"),
+        @Index(name = "idx_transactions_admin_date_created", columnList = "admin_id, transaction_date, date_created"),
+        @Index(name = "idx_transactions_date_created", columnList = "transaction_date DESC, date_created DESC"),
+        @Index(name = "idx_transactions_date_created_asc", columnList = "transaction_date, date_created"),
+        @Index(name = "idx_transactions_type_date", columnList = "transaction_type, transaction_date"),
+        @Index(name = "idx_transactions_expense_date", columnList = "expense_type, transaction_date"),
+        @Index(name = "idx_transactions_reference", columnList = "reference_number")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id")
+    @TableGenerator(name = "transaction_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "transactions", allocationSize = 50)
     private Long id;
 
     @Column(name = "admin_id")
@@ -103,6 +115,7 @@ public class Transaction {
         RECEIVE("Receive Payment"),
         PAYMENT("Make Payment"),
         TRANSFER("Bank Transfer"),
+        TRANSFER_IN("Incoming Transfer"),
         DEPOSIT("Deposit"),
         WITHDRAWAL("Withdrawal"),
         FEE("Bank Fee"),
@@ -283,7 +296,8 @@ public class Transaction {
     public boolean isCredit() {
         return transactionType == TransactionType.RECEIVE || 
                transactionType == TransactionType.DEPOSIT ||
-               transactionType == TransactionType.INTEREST;
+               transactionType == TransactionType.INTEREST ||
+               transactionType == TransactionType.TRANSFER_IN;
     }
 
     public boolean isDebit() {
@@ -1,5 +1,10 @@
 package com.eretailgoals.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.eretailgoals.entity.listener.InvoiceSearchIndexListener;
+import com.eretailgoals.entity.listener.UserSuggestIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -17,8 +22,13 @@ import java.util.List;
  * Migrated from legacy UserBO with modern JPA annotations and Java 21 features
  */
 @Entity
-@Table(name = "users")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_admin_active", columnList = "admin_id, is_active"),
+        @Index(name = "idx_users_type_active", columnList = "user_type, is_active"),
+        @Index(name = "idx_users_last_modified", columnList = "last_modified")
+})
+@EntityListeners({AuditingEntityListener.class, InvoiceSearchIndexListener.class, UserSuggestIndexListener.class})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
 
     @Id
@@ -52,6 +62,7 @@ public class User {
     private String username;
 
     @Size(min = 8, message = "Password must be at least 8 characters")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Column(columnDefinition = "TEXT")
@@ -107,9 +118,11 @@ public class User {
     private Boolean isActive = true;
 
     // Relationships
+    @JsonIgnore
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Invoice> invoices = new ArrayList<>();
 
+    @JsonIgnore
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaction> transactions = new ArrayList<>();
 
@@ -0,0 +1,40 @@
+package com.eretailgoals.entity.listener;
+
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.service.InvoiceSearchIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener feeding invoice and user writes into the invoice search index
+ * Resolved through Spring's bean container, with the index looked up lazily because the
+ * listener is created while the entity manager factory itself is being built
+ */
+@Component
+public class InvoiceSearchIndexListener {
+
+    private final ObjectProvider<InvoiceSearchIndex> searchIndex;
+
+    @Autowired
+    public InvoiceSearchIndexListener(ObjectProvider<InvoiceSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onWrite(Object entity) {
+        InvoiceSearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        if (entity instanceof Invoice invoice) {
+            index.indexInvoice(invoice.getId(), invoice.getInvoiceNumber(), invoice.getInvoiceNote());
+        } else if (entity instanceof User user) {
+            index.indexUser(user.getId(), user.getFirstName(), user.getLastName(), user.getCompanyName());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.eretailgoals.entity.listener;
+
+import com.eretailgoals.entity.User;
+import com.eretailgoals.service.UserSuggestIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener keeping the user suggest index in step with user writes
+ * Changes are applied after the surrounding transaction commits, so a rolled back write never shows up
+ * in suggestions; the index is looked up lazily for the same reason as the invoice search index listener
+ */
+@Component
+public class UserSuggestIndexListener {
+
+    private final ObjectProvider<UserSuggestIndex> suggestIndex;
+
+    @Autowired
+    public UserSuggestIndexListener(ObjectProvider<UserSuggestIndex> suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onWrite(User user) {
+        afterCommit(() -> {
+            UserSuggestIndex index = suggestIndex.getIfAvailable();
+            if (index != null) {
+                index.index(user);
+            }
+        });
+    }
+
+    @PostRemove
+    void onRemove(User user) {
+        Long id = user.getId();
+        afterCommit(() -> {
+            UserSuggestIndex index = suggestIndex.getIfAvailable();
+            if (index != null) {
+                index.remove(id);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
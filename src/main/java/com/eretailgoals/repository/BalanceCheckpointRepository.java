@@ -0,0 +1,56 @@
+package com.eretailgoals.repository;
+
+import com.eretailgoals.entity.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for BalanceCheckpoint entity operations
+ * Provides the nearest-checkpoint lookups and the delta updates that keep later checkpoints current
+ */
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    /**
+     * Find the latest checkpoint of an account on or before a date
+     */
+    Optional<BalanceCheckpoint> findFirstByBankAccountIdAndCheckpointDateLessThanEqualOrderByCheckpointDateDesc(
+            Long bankAccountId, LocalDate date);
+
+    /**
+     * Find the latest checkpoint of an account strictly before a date
+     */
+    Optional<BalanceCheckpoint> findFirstByBankAccountIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(
+            Long bankAccountId, LocalDate date);
+
+    /**
+     * Check if an account has a checkpoint on a date
+     */
+    boolean existsByBankAccountIdAndCheckpointDate(Long bankAccountId, LocalDate checkpointDate);
+
+    /**
+     * Add a signed amount to every checkpoint of an account on or after a date
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BalanceCheckpoint c SET c.balance = c.balance + :delta, c.lastModified = :now " +
+           "WHERE c.bankAccountId = :bankAccountId AND c.checkpointDate >= :fromDate")
+    int applyDeltaFrom(@Param("bankAccountId") Long bankAccountId,
+                       @Param("fromDate") LocalDate fromDate,
+                       @Param("delta") BigDecimal delta,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Delete every checkpoint of an account
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM BalanceCheckpoint c WHERE c.bankAccountId = :bankAccountId")
+    int deleteByBankAccountId(@Param("bankAccountId") Long bankAccountId);
+}
@@ -1,12 +1,17 @@
 package com.eretailgoals.repository;
 
 import com.eretailgoals.entity.BankAccount;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -86,11 +91,10 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
     BigDecimal calculateTotalBalanceByAccountType(@Param("accountType") BankAccount.AccountType accountType);
 
     /**
-     * Find bank accounts with recent transactions
+     * Find bank accounts with recent transactions from their maintained last transaction date
      */
-    @Query("SELECT DISTINCT ba FROM BankAccount ba " +
-           "JOIN ba.transactions t " +
-           "WHERE t.transactionDate >= :sinceDate " +
+    @Query("SELECT ba FROM BankAccount ba " +
+           "WHERE ba.lastTransactionDate >= :sinceDate " +
            "ORDER BY ba.accountName")
     List<BankAccount> findAccountsWithRecentTransactions(@Param("sinceDate") java.time.LocalDate sinceDate);
 
@@ -129,4 +133,60 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
      * Find bank accounts ordered by account name
      */
     List<BankAccount> findByIsActiveTrueOrderByAccountNameAsc();
-}
\ No newline at end of file
+
+    /**
+     * Add a signed amount to the current balance of an active account in place, together with the
+     * latest date and the number of the transactions posted
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankAccount ba SET ba.currentBalance = ba.currentBalance + :delta, " +
+           "ba.lastTransactionDate = CASE WHEN ba.lastTransactionDate IS NULL OR ba.lastTransactionDate < :transactionDate " +
+           "THEN :transactionDate ELSE ba.lastTransactionDate END, " +
+           "ba.transactionCount = COALESCE(ba.transactionCount, 0) + :count, ba.lastModified = :now " +
+           "WHERE ba.id = :id AND ba.isActive = true")
+    int applyBalanceDelta(@Param("id") Long id,
+                          @Param("delta") BigDecimal delta,
+                          @Param("transactionDate") LocalDate transactionDate,
+                          @Param("count") long count,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * Recount the latest transaction date and the transaction count of the accounts in an ID range
+     */
+    @Modifying
+    @Query("UPDATE BankAccount ba SET " +
+           "ba.lastTransactionDate = (SELECT MAX(t.transactionDate) FROM Transaction t WHERE t.bankAccount.id = ba.id), " +
+           "ba.transactionCount = (SELECT COUNT(t) FROM Transaction t WHERE t.bankAccount.id = ba.id) " +
+           "WHERE ba.id BETWEEN :fromId AND :toId")
+    int recountActivity(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Check for accounts whose transactions have not been counted yet
+     */
+    boolean existsByTransactionCountIsNull();
+
+    /**
+     * Read the current balance of an account without loading the entity
+     */
+    @Query("SELECT ba.currentBalance FROM BankAccount ba WHERE ba.id = :id")
+    Optional<BigDecimal> findCurrentBalance(@Param("id") Long id);
+
+    /**
+     * Read the opening balance of an account without loading the entity
+     */
+    @Query("SELECT ba.openingBalance FROM BankAccount ba WHERE ba.id = :id")
+    Optional<BigDecimal> findOpeningBalance(@Param("id") Long id);
+
+    /**
+     * Find an account, holding its row lock until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ba FROM BankAccount ba WHERE ba.id = :id")
+    Optional<BankAccount> findForUpdate(@Param("id") Long id);
+
+    /**
+     * Find the IDs of all bank accounts in ID order
+     */
+    @Query("SELECT ba.id FROM BankAccount ba ORDER BY ba.id")
+    List<Long> findAllIds();
+}
@@ -0,0 +1,40 @@
+package com.eretailgoals.repository;
+
+import com.eretailgoals.entity.CashFlowRollup;
+import com.eretailgoals.entity.Transaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for CashFlowRollup entity operations
+ * Provides the delta updates applied on posting; the cash-flow reports query the rollups from TransactionRepository
+ */
+@Repository
+public interface CashFlowRollupRepository extends JpaRepository<CashFlowRollup, Long> {
+
+    /**
+     * Apply an amount and count delta to the rollup row of one account, day, tenant and type pair
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CashFlowRollup r SET " +
+           "r.totalAmount = r.totalAmount + :amountDelta, " +
+           "r.transactionCount = r.transactionCount + :countDelta, " +
+           "r.lastModified = :now " +
+           "WHERE r.bankAccountId = :bankAccountId AND r.rollupDate = :rollupDate AND r.adminId = :adminId " +
+           "AND r.transactionType = :transactionType AND r.expenseType IS NOT DISTINCT FROM :expenseType")
+    int applyDelta(@Param("adminId") Long adminId,
+                   @Param("bankAccountId") Long bankAccountId,
+                   @Param("rollupDate") LocalDate rollupDate,
+                   @Param("transactionType") Transaction.TransactionType transactionType,
+                   @Param("expenseType") Transaction.ExpenseType expenseType,
+                   @Param("amountDelta") BigDecimal amountDelta,
+                   @Param("countDelta") long countDelta,
+                   @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,31 @@
+package com.eretailgoals.repository;
+
+import com.eretailgoals.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for IdempotencyKey entity operations
+ * Provides key lookups for replays and the purge of expired keys
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    /**
+     * Find the stored key of an endpoint
+     */
+    Optional<IdempotencyKey> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    /**
+     * Delete keys created before a point in time
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.dateCreated < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,27 @@
+package com.eretailgoals.repository;
+
+import com.eretailgoals.entity.InvoiceNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for InvoiceNumberSequence entity operations
+ * Provides locked access to the per-tenant, per-year invoice number counters
+ */
+@Repository
+public interface InvoiceNumberSequenceRepository extends JpaRepository<InvoiceNumberSequence, Long> {
+
+    /**
+     * Find the counter row for a tenant and year, holding a row lock until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InvoiceNumberSequence s WHERE s.adminId = :adminId AND s.sequenceYear = :sequenceYear")
+    Optional<InvoiceNumberSequence> findForUpdate(@Param("adminId") Long adminId,
+                                                  @Param("sequenceYear") Integer sequenceYear);
+}
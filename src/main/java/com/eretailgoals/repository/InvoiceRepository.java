@@ -1,16 +1,22 @@
 package com.eretailgoals.repository;
 
+import com.eretailgoals.dto.InvoiceSummaryView;
+import com.eretailgoals.dto.OpenInvoiceView;
 import com.eretailgoals.entity.Invoice;
 import com.eretailgoals.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,15 +32,99 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
      */
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
 
+    /**
+     * Select clause building InvoiceSummaryView rows from an invoice joined to its client
+     */
+    String SUMMARY_VIEW = "SELECT new com.eretailgoals.dto.InvoiceSummaryView(i.id, i.adminId, i.invoiceNumber, " +
+            "i.invoiceDate, i.dueDate, i.invoiceType, i.invoiceStatus, i.invoiceAmount, i.vatAmount, " +
+            "i.invoicePaidAmount, u.id, u.firstName, u.lastName, u.companyName) FROM Invoice i JOIN i.user u ";
+
+    /**
+     * Where clause shared by the search query and its count query
+     * searchTerm is matched literally, so callers escape '%', '_' and '!' in it with '!'
+     */
+    String SEARCH_CRITERIA = "(:userId IS NULL OR u.id = :userId) AND " +
+           "(:adminId IS NULL OR i.adminId = :adminId) AND " +
+           "(:status IS NULL OR i.invoiceStatus = :status) AND " +
+           "(:startDate IS NULL OR i.invoiceDate >= :startDate) AND " +
+           "(:endDate IS NULL OR i.invoiceDate <= :endDate) AND " +
+           "(:searchTerm IS NULL OR " +
+           "LOWER(i.invoiceNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ESCAPE '!' OR " +
+           "LOWER(i.invoiceNote) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ESCAPE '!' OR " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ESCAPE '!' OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ESCAPE '!' OR " +
+           "LOWER(u.companyName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ESCAPE '!')";
+
+    /**
+     * Find the searchable text of invoices after the given id, for building the search index
+     */
+    @Query("SELECT i.id, i.invoiceNumber, i.invoiceNote FROM Invoice i WHERE i.id > :afterId ORDER BY i.id")
+    List<Object[]> findSearchTextAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find the searchable text of invoices modified since the given time, for refreshing the search index
+     */
+    @Query("SELECT i.id, i.invoiceNumber, i.invoiceNote FROM Invoice i WHERE i.lastModified >= :since")
+    List<Object[]> findSearchTextModifiedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Search invoice summaries among index candidates, re-checking the criteria on those rows only
+     */
+    @Query(value = SUMMARY_VIEW + "WHERE (i.id IN :invoiceIds OR u.id IN :userIds) AND " + SEARCH_CRITERIA,
+           countQuery = "SELECT COUNT(i) FROM Invoice i JOIN i.user u " +
+                        "WHERE (i.id IN :invoiceIds OR u.id IN :userIds) AND " + SEARCH_CRITERIA)
+    Page<InvoiceSummaryView> searchInvoicesAmong(@Param("invoiceIds") Collection<Long> invoiceIds,
+                                                 @Param("userIds") Collection<Long> userIds,
+                                                 @Param("userId") Long userId,
+                                                 @Param("adminId") Long adminId,
+                                                 @Param("status") Invoice.InvoiceStatus status,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate,
+                                                 @Param("searchTerm") String searchTerm,
+                                                 Pageable pageable);
+
+    /**
+     * Find invoice with its client and items in one statement
+     */
+    @EntityGraph(attributePaths = {"user", "invoiceItems"})
+    @Query("SELECT i FROM Invoice i WHERE i.id = :id")
+    Optional<Invoice> findDetailById(@Param("id") Long id);
+
+    /**
+     * Find invoice by invoice number with its client and items in one statement
+     */
+    @EntityGraph(attributePaths = {"user", "invoiceItems"})
+    @Query("SELECT i FROM Invoice i WHERE i.invoiceNumber = :invoiceNumber")
+    Optional<Invoice> findDetailByInvoiceNumber(@Param("invoiceNumber") String invoiceNumber);
+
+    /**
+     * Find the first page of invoice summaries in keyset order (invoiceDate DESC, id DESC)
+     */
+    @Query(SUMMARY_VIEW + "WHERE (:adminId IS NULL OR i.adminId = :adminId) " +
+           "ORDER BY i.invoiceDate DESC, i.id DESC")
+    List<InvoiceSummaryView> findFirstKeysetPage(@Param("adminId") Long adminId, Pageable pageable);
+
+    /**
+     * Find the page of invoice summaries that follows the given (invoiceDate, id) position in keyset order
+     */
+    @Query(SUMMARY_VIEW + "WHERE (:adminId IS NULL OR i.adminId = :adminId) AND " +
+           "(i.invoiceDate < :invoiceDate OR (i.invoiceDate = :invoiceDate AND i.id < :id)) " +
+           "ORDER BY i.invoiceDate DESC, i.id DESC")
+    List<InvoiceSummaryView> findKeysetPageAfter(@Param("adminId") Long adminId,
+                                                 @Param("invoiceDate") LocalDate invoiceDate,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+
     /**
      * Find all invoices by user
      */
     List<Invoice> findByUser(User user);
 
     /**
-     * Find all invoices by user ID
+     * Find all invoices by user ID, filtering on the foreign key instead of joining users
      */
-    List<Invoice> findByUserId(Long userId);
+    @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId")
+    List<Invoice> findByUserId(@Param("userId") Long userId);
 
     /**
      * Find all invoices by status
@@ -62,15 +152,39 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT i FROM Invoice i WHERE i.dueDate < :currentDate AND i.invoiceStatus NOT IN ('PAID', 'CANCELLED')")
     List<Invoice> findOverdueInvoices(@Param("currentDate") LocalDate currentDate);
 
+    /**
+     * Find the next page of IDs of invoices in a status that fell due before a date, in ID order
+     */
+    @Query("SELECT i.id FROM Invoice i WHERE i.invoiceStatus = :status AND i.dueDate < :currentDate " +
+           "AND i.id > :afterId ORDER BY i.id")
+    List<Long> findPastDueIdsAfter(@Param("status") Invoice.InvoiceStatus status,
+                                   @Param("currentDate") LocalDate currentDate,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    /**
+     * Move the given invoices from one status to another if they are still in it and past due
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Invoice i SET i.invoiceStatus = :toStatus, i.version = i.version + 1, i.lastModified = :now " +
+           "WHERE i.id IN :ids AND i.invoiceStatus = :fromStatus AND i.dueDate < :currentDate")
+    int updatePastDueStatus(@Param("ids") Collection<Long> ids,
+                            @Param("fromStatus") Invoice.InvoiceStatus fromStatus,
+                            @Param("toStatus") Invoice.InvoiceStatus toStatus,
+                            @Param("currentDate") LocalDate currentDate,
+                            @Param("now") LocalDateTime now);
+
     /**
      * Find invoices by user and status
      */
     List<Invoice> findByUserAndInvoiceStatus(User user, Invoice.InvoiceStatus status);
 
     /**
-     * Find invoices by user ID and status
+     * Find invoices by user ID and status, filtering on the foreign key instead of joining users
      */
-    List<Invoice> findByUserIdAndInvoiceStatus(Long userId, Invoice.InvoiceStatus status);
+    @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId AND i.invoiceStatus = :status")
+    List<Invoice> findByUserIdAndInvoiceStatus(@Param("userId") Long userId,
+                                               @Param("status") Invoice.InvoiceStatus status);
 
     /**
      * Check if invoice number exists
@@ -78,27 +192,48 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     boolean existsByInvoiceNumber(String invoiceNumber);
 
     /**
-     * Search invoices with multiple criteria
+     * Apply a payment in one conditional update, only while it does not push the paid amount past the total
+     * Status is assigned first because MySQL evaluates SET clauses left to right against updated values
      */
-    @Query("SELECT i FROM Invoice i WHERE " +
-           "(:userId IS NULL OR i.user.id = :userId) AND " +
-           "(:adminId IS NULL OR i.adminId = :adminId) AND " +
-           "(:status IS NULL OR i.invoiceStatus = :status) AND " +
-           "(:startDate IS NULL OR i.invoiceDate >= :startDate) AND " +
-           "(:endDate IS NULL OR i.invoiceDate <= :endDate) AND " +
-           "(:searchTerm IS NULL OR " +
-           "LOWER(i.invoiceNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(i.invoiceNote) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(i.user.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(i.user.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(i.user.companyName) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<Invoice> searchInvoices(@Param("userId") Long userId,
-                                @Param("adminId") Long adminId,
-                                @Param("status") Invoice.InvoiceStatus status,
-                                @Param("startDate") LocalDate startDate,
-                                @Param("endDate") LocalDate endDate,
-                                @Param("searchTerm") String searchTerm,
-                                Pageable pageable);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Invoice i SET " +
+           "i.invoiceStatus = CASE WHEN COALESCE(i.invoicePaidAmount, 0) + :amount >= i.invoiceAmount + COALESCE(i.vatAmount, 0) " +
+           "THEN :paidStatus ELSE :partialStatus END, " +
+           "i.invoicePaidAmount = COALESCE(i.invoicePaidAmount, 0) + :amount, " +
+           "i.version = i.version + 1, i.lastModified = :now " +
+           "WHERE i.id = :id AND i.invoiceStatus <> :cancelledStatus " +
+           "AND COALESCE(i.invoicePaidAmount, 0) + :amount <= i.invoiceAmount + COALESCE(i.vatAmount, 0)")
+    int applyPayment(@Param("id") Long id,
+                     @Param("amount") BigDecimal amount,
+                     @Param("paidStatus") Invoice.InvoiceStatus paidStatus,
+                     @Param("partialStatus") Invoice.InvoiceStatus partialStatus,
+                     @Param("cancelledStatus") Invoice.InvoiceStatus cancelledStatus,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Find which of the given invoice numbers already exist
+     */
+    @Query("SELECT i.invoiceNumber FROM Invoice i WHERE i.invoiceNumber IN :invoiceNumbers")
+    List<String> findExistingInvoiceNumbers(@Param("invoiceNumbers") Collection<String> invoiceNumbers);
+
+    /**
+     * Find the invoice numbers matching a LIKE pattern
+     */
+    @Query("SELECT i.invoiceNumber FROM Invoice i WHERE i.invoiceNumber LIKE :pattern")
+    List<String> findInvoiceNumbersLike(@Param("pattern") String pattern);
+
+    /**
+     * Search invoice summaries with multiple criteria
+     */
+    @Query(value = SUMMARY_VIEW + "WHERE " + SEARCH_CRITERIA,
+           countQuery = "SELECT COUNT(i) FROM Invoice i JOIN i.user u WHERE " + SEARCH_CRITERIA)
+    Page<InvoiceSummaryView> searchInvoices(@Param("userId") Long userId,
+                                            @Param("adminId") Long adminId,
+                                            @Param("status") Invoice.InvoiceStatus status,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate,
+                                            @Param("searchTerm") String searchTerm,
+                                            Pageable pageable);
 
     /**
      * Find invoices with outstanding amounts
@@ -106,6 +241,15 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT i FROM Invoice i WHERE i.invoiceStatus IN ('OPEN', 'PARTIAL_PAID', 'OVERDUE')")
     List<Invoice> findInvoicesWithOutstandingAmounts();
 
+    /**
+     * Find the number and outstanding amount of every payable invoice, optionally for one tenant
+     */
+    @Query("SELECT new com.eretailgoals.dto.OpenInvoiceView(i.id, i.adminId, i.invoiceNumber, " +
+           "i.invoiceAmount + COALESCE(i.vatAmount, 0) - COALESCE(i.invoicePaidAmount, 0)) " +
+           "FROM Invoice i WHERE i.invoiceStatus IN ('OPEN', 'PARTIAL_PAID', 'OVERDUE') " +
+           "AND (:adminId IS NULL OR i.adminId = :adminId)")
+    List<OpenInvoiceView> findOpenInvoiceViews(@Param("adminId") Long adminId);
+
     /**
      * Calculate total outstanding amount
      */
@@ -120,6 +264,23 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
            "FROM Invoice i WHERE i.user.id = :userId AND i.invoiceStatus IN ('OPEN', 'PARTIAL_PAID', 'OVERDUE')")
     BigDecimal calculateTotalOutstandingAmountByUser(@Param("userId") Long userId);
 
+    /**
+     * Summarize outstanding amount and open invoice count per admin ID and user ID
+     */
+    @Query("SELECT i.adminId, i.user.id, " +
+           "SUM(i.invoiceAmount + COALESCE(i.vatAmount, 0) - COALESCE(i.invoicePaidAmount, 0)), COUNT(i) " +
+           "FROM Invoice i WHERE i.invoiceStatus IN ('OPEN', 'PARTIAL_PAID', 'OVERDUE') " +
+           "GROUP BY i.adminId, i.user.id")
+    List<Object[]> summarizeOutstandingByAdminAndUser();
+
+    /**
+     * Summarize outstanding amount and open invoice count of one client, invoices without an admin ID under 0
+     */
+    @Query("SELECT COALESCE(SUM(i.invoiceAmount + COALESCE(i.vatAmount, 0) - COALESCE(i.invoicePaidAmount, 0)), 0), " +
+           "COUNT(i) FROM Invoice i WHERE i.user.id = :userId AND COALESCE(i.adminId, 0) = :adminId " +
+           "AND i.invoiceStatus IN ('OPEN', 'PARTIAL_PAID', 'OVERDUE')")
+    List<Object[]> summarizeOutstandingByAdminAndUser(@Param("adminId") Long adminId, @Param("userId") Long userId);
+
     /**
      * Calculate total invoice amount for a date range
      */
@@ -139,6 +300,16 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
      */
     long countByInvoiceStatus(Invoice.InvoiceStatus status);
 
+    /**
+     * Count invoices and sum total and outstanding amounts per status in a single grouped scan
+     */
+    @Query("SELECT i.invoiceStatus, COUNT(i), " +
+           "COALESCE(SUM(i.invoiceAmount + COALESCE(i.vatAmount, 0)), 0), " +
+           "COALESCE(SUM(i.invoiceAmount + COALESCE(i.vatAmount, 0) - COALESCE(i.invoicePaidAmount, 0)), 0) " +
+           "FROM Invoice i WHERE (:adminId IS NULL OR i.adminId = :adminId) " +
+           "GROUP BY i.invoiceStatus")
+    List<Object[]> summarizeByStatus(@Param("adminId") Long adminId);
+
     /**
      * Count invoices by user
      */
@@ -0,0 +1,61 @@
+package com.eretailgoals.repository;
+
+import com.eretailgoals.entity.ReceivablesSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for ReceivablesSummary entity operations
+ * Provides delta updates and cheap reads of the pre-aggregated outstanding amounts
+ */
+@Repository
+public interface ReceivablesSummaryRepository extends JpaRepository<ReceivablesSummary, Long> {
+
+    /**
+     * Find summary row for a tenant and client
+     */
+    Optional<ReceivablesSummary> findByAdminIdAndUserId(Long adminId, Long userId);
+
+    /**
+     * Find summary row for a tenant and client, holding its row lock until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReceivablesSummary r WHERE r.adminId = :adminId AND r.userId = :userId")
+    Optional<ReceivablesSummary> findForUpdate(@Param("adminId") Long adminId, @Param("userId") Long userId);
+
+    /**
+     * Apply an outstanding amount and open invoice count delta to a summary row
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ReceivablesSummary r SET " +
+           "r.outstandingAmount = r.outstandingAmount + :amountDelta, " +
+           "r.openInvoiceCount = r.openInvoiceCount + :countDelta, " +
+           "r.lastModified = :now " +
+           "WHERE r.adminId = :adminId AND r.userId = :userId")
+    int applyDelta(@Param("adminId") Long adminId,
+                   @Param("userId") Long userId,
+                   @Param("amountDelta") BigDecimal amountDelta,
+                   @Param("countDelta") long countDelta,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Calculate total outstanding amount across all summary rows
+     */
+    @Query("SELECT COALESCE(SUM(r.outstandingAmount), 0) FROM ReceivablesSummary r")
+    BigDecimal sumOutstandingAmount();
+
+    /**
+     * Calculate total outstanding amount for a client
+     */
+    @Query("SELECT COALESCE(SUM(r.outstandingAmount), 0) FROM ReceivablesSummary r WHERE r.userId = :userId")
+    BigDecimal sumOutstandingAmountByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,39 @@
+package com.eretailgoals.repository;
+
+import com.eretailgoals.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for SchedulerLock entity operations
+ * Leases are taken and given back with conditional updates so that only one node can win a lock
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Take over a lock whose lease has expired
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil, l.lockedAt = :now, l.lockedBy = :owner " +
+           "WHERE l.lockName = :lockName AND l.lockedUntil <= :now")
+    int acquire(@Param("lockName") String lockName,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * End the lease of a lock held by the given owner
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now " +
+           "WHERE l.lockName = :lockName AND l.lockedBy = :owner AND l.lockedUntil > :now")
+    int release(@Param("lockName") String lockName,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
@@ -1,5 +1,6 @@
 package com.eretailgoals.repository;
 
+import com.eretailgoals.dto.UnreconciledTransactionView;
 import com.eretailgoals.entity.BankAccount;
 import com.eretailgoals.entity.Transaction;
 import com.eretailgoals.entity.User;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,9 +29,10 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByBankAccount(BankAccount bankAccount);
 
     /**
-     * Find all transactions by bank account ID
+     * Find all transactions by bank account ID, filtering on the foreign key instead of joining bank_accounts
      */
-    List<Transaction> findByBankAccountId(Long bankAccountId);
+    @Query("SELECT t FROM Transaction t WHERE t.bankAccount.id = :bankAccountId")
+    List<Transaction> findByBankAccountId(@Param("bankAccountId") Long bankAccountId);
 
     /**
      * Find all transactions by user
@@ -37,9 +40,10 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByUser(User user);
 
     /**
-     * Find all transactions by user ID
+     * Find all transactions by user ID, filtering on the foreign key instead of joining users
      */
-    List<Transaction> findByUserId(Long userId);
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId")
+    List<Transaction> findByUserId(@Param("userId") Long userId);
 
     /**
      * Find all transactions by transaction type
@@ -66,9 +70,11 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     /**
      * Find transactions by bank account ID and date range
      */
-    List<Transaction> findByBankAccountIdAndTransactionDateBetween(Long bankAccountId, 
-                                                                  LocalDate startDate, 
-                                                                  LocalDate endDate);
+    @Query("SELECT t FROM Transaction t WHERE t.bankAccount.id = :bankAccountId " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate")
+    List<Transaction> findByBankAccountIdAndTransactionDateBetween(@Param("bankAccountId") Long bankAccountId,
+                                                                  @Param("startDate") LocalDate startDate,
+                                                                  @Param("endDate") LocalDate endDate);
 
     /**
      * Find unreconciled transactions
@@ -80,6 +86,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     List<Transaction> findByBankAccountAndIsReconciledFalse(BankAccount bankAccount);
 
+    /**
+     * Find the next page of unreconciled transactions without an invoice link, in ID order
+     */
+    @Query("SELECT new com.eretailgoals.dto.UnreconciledTransactionView(t.id, t.adminId, t.transactionAmount, " +
+           "t.referenceNumber, t.notes) FROM Transaction t WHERE t.isReconciled = false AND t.invoice.id IS NULL " +
+           "AND t.transactionType IN :types AND t.id > :afterId ORDER BY t.id")
+    List<UnreconciledTransactionView> findUnreconciledAfter(@Param("types") Collection<Transaction.TransactionType> types,
+                                                            @Param("afterId") Long afterId,
+                                                            Pageable pageable);
+
+    /**
+     * Find the next page of one bank account's unreconciled transactions without an invoice link, in ID order
+     */
+    @Query("SELECT new com.eretailgoals.dto.UnreconciledTransactionView(t.id, t.adminId, t.transactionAmount, " +
+           "t.referenceNumber, t.notes) FROM Transaction t WHERE t.bankAccount.id = :bankAccountId " +
+           "AND t.isReconciled = false AND t.invoice.id IS NULL " +
+           "AND t.transactionType IN :types AND t.id > :afterId ORDER BY t.id")
+    List<UnreconciledTransactionView> findUnreconciledByBankAccountAfter(@Param("bankAccountId") Long bankAccountId,
+                                                                         @Param("types") Collection<Transaction.TransactionType> types,
+                                                                         @Param("afterId") Long afterId,
+                                                                         Pageable pageable);
+
     /**
      * Find transactions by reference number
      */
@@ -110,45 +138,75 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                         Pageable pageable);
 
     /**
-     * Calculate total income for date range
+     * Calculate total income for date range from the daily cash-flow rollups
      */
-    @Query("SELECT COALESCE(SUM(t.transactionAmount), 0) FROM Transaction t " +
-           "WHERE t.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST') " +
-           "AND t.transactionDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM CashFlowRollup r " +
+           "WHERE r.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST') " +
+           "AND r.rollupDate BETWEEN :startDate AND :endDate")
     BigDecimal calculateTotalIncomeByDateRange(@Param("startDate") LocalDate startDate,
                                               @Param("endDate") LocalDate endDate);
 
     /**
-     * Calculate total expenses for date range
+     * Calculate total expenses for date range from the daily cash-flow rollups
      */
-    @Query("SELECT COALESCE(SUM(t.transactionAmount), 0) FROM Transaction t " +
-           "WHERE t.transactionType IN ('PAYMENT', 'WITHDRAWAL', 'FEE') " +
-           "AND t.transactionDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM CashFlowRollup r " +
+           "WHERE r.transactionType IN ('PAYMENT', 'WITHDRAWAL', 'FEE') " +
+           "AND r.rollupDate BETWEEN :startDate AND :endDate")
     BigDecimal calculateTotalExpensesByDateRange(@Param("startDate") LocalDate startDate,
                                                 @Param("endDate") LocalDate endDate);
 
     /**
-     * Calculate net cash flow for date range
+     * Calculate net cash flow for date range from the daily cash-flow rollups
      */
     @Query("SELECT COALESCE(SUM(CASE " +
-           "WHEN t.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST') THEN t.transactionAmount " +
-           "WHEN t.transactionType IN ('PAYMENT', 'WITHDRAWAL', 'FEE') THEN -t.transactionAmount " +
-           "ELSE 0 END), 0) FROM Transaction t " +
-           "WHERE t.transactionDate BETWEEN :startDate AND :endDate")
+           "WHEN r.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST') THEN r.totalAmount " +
+           "WHEN r.transactionType IN ('PAYMENT', 'WITHDRAWAL', 'FEE') THEN -r.totalAmount " +
+           "ELSE 0 END), 0) FROM CashFlowRollup r " +
+           "WHERE r.rollupDate BETWEEN :startDate AND :endDate")
     BigDecimal calculateNetCashFlowByDateRange(@Param("startDate") LocalDate startDate,
                                               @Param("endDate") LocalDate endDate);
 
+    /**
+     * Sum the signed amounts of an account's transactions dated after one date up to and including another
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST', 'TRANSFER_IN') " +
+           "THEN t.transactionAmount ELSE -t.transactionAmount END), 0) FROM Transaction t " +
+           "WHERE t.bankAccount.id = :bankAccountId AND t.transactionDate > :afterDate AND t.transactionDate <= :toDate")
+    BigDecimal sumEffectiveAmountByBankAccountBetween(@Param("bankAccountId") Long bankAccountId,
+                                                     @Param("afterDate") LocalDate afterDate,
+                                                     @Param("toDate") LocalDate toDate);
+
+    /**
+     * Sum the signed amounts of an account's transactions dated up to and including a date
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST', 'TRANSFER_IN') " +
+           "THEN t.transactionAmount ELSE -t.transactionAmount END), 0) FROM Transaction t " +
+           "WHERE t.bankAccount.id = :bankAccountId AND t.transactionDate <= :toDate")
+    BigDecimal sumEffectiveAmountByBankAccountUpTo(@Param("bankAccountId") Long bankAccountId,
+                                                  @Param("toDate") LocalDate toDate);
+
+    /**
+     * Sum the signed amounts of an account's transactions per year and month, oldest first
+     */
+    @Query("SELECT YEAR(t.transactionDate), MONTH(t.transactionDate), " +
+           "SUM(CASE WHEN t.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST', 'TRANSFER_IN') " +
+           "THEN t.transactionAmount ELSE -t.transactionAmount END) FROM Transaction t " +
+           "WHERE t.bankAccount.id = :bankAccountId " +
+           "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate) " +
+           "ORDER BY YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<Object[]> summarizeMonthlyEffectiveAmountByBankAccount(@Param("bankAccountId") Long bankAccountId);
+
     /**
      * Find transactions by expense type
      */
     List<Transaction> findByExpenseType(Transaction.ExpenseType expenseType);
 
     /**
-     * Calculate total expenses by expense type and date range
+     * Calculate total expenses by expense type and date range from the daily cash-flow rollups
      */
-    @Query("SELECT COALESCE(SUM(t.transactionAmount), 0) FROM Transaction t " +
-           "WHERE t.expenseType = :expenseType " +
-           "AND t.transactionDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM CashFlowRollup r " +
+           "WHERE r.expenseType = :expenseType " +
+           "AND r.rollupDate BETWEEN :startDate AND :endDate")
     BigDecimal calculateTotalExpensesByTypeAndDateRange(@Param("expenseType") Transaction.ExpenseType expenseType,
                                                        @Param("startDate") LocalDate startDate,
                                                        @Param("endDate") LocalDate endDate);
@@ -180,15 +238,15 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     long countByBankAccount(BankAccount bankAccount);
 
     /**
-     * Find monthly transaction summary
+     * Find monthly transaction summary from the daily cash-flow rollups
      */
-    @Query("SELECT YEAR(t.transactionDate), MONTH(t.transactionDate), " +
-           "SUM(CASE WHEN t.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST') THEN t.transactionAmount ELSE 0 END), " +
-           "SUM(CASE WHEN t.transactionType IN ('PAYMENT', 'WITHDRAWAL', 'FEE') THEN t.transactionAmount ELSE 0 END) " +
-           "FROM Transaction t " +
-           "WHERE t.transactionDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate) " +
-           "ORDER BY YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    @Query("SELECT YEAR(r.rollupDate), MONTH(r.rollupDate), " +
+           "SUM(CASE WHEN r.transactionType IN ('RECEIVE', 'DEPOSIT', 'INTEREST') THEN r.totalAmount ELSE 0 END), " +
+           "SUM(CASE WHEN r.transactionType IN ('PAYMENT', 'WITHDRAWAL', 'FEE') THEN r.totalAmount ELSE 0 END) " +
+           "FROM CashFlowRollup r " +
+           "WHERE r.rollupDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY YEAR(r.rollupDate), MONTH(r.rollupDate) " +
+           "ORDER BY YEAR(r.rollupDate), MONTH(r.rollupDate)")
     List<Object[]> findMonthlyTransactionSummary(@Param("startDate") LocalDate startDate,
                                                  @Param("endDate") LocalDate endDate);
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +30,46 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Find the searchable text of users after the given id, for building the invoice search index
+     */
+    @Query("SELECT u.id, u.firstName, u.lastName, u.companyName FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findSearchTextAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find the searchable text of users modified since the given time, for refreshing the invoice search index
+     */
+    @Query("SELECT u.id, u.firstName, u.lastName, u.companyName FROM User u WHERE u.lastModified >= :since")
+    List<Object[]> findSearchTextModifiedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Find active users after the given id with the fields offered as suggestions, for building the suggest index
+     */
+    @Query("SELECT u.id, u.adminId, u.userType, u.firstName, u.lastName, u.companyName, u.email, u.lastModified " +
+           "FROM User u WHERE u.isActive = true AND u.id > :afterId ORDER BY u.id")
+    List<Object[]> findSuggestionsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find users modified since the given time with the fields offered as suggestions and whether they are active,
+     * for refreshing the suggest index
+     */
+    @Query("SELECT u.id, u.adminId, u.userType, u.firstName, u.lastName, u.companyName, u.email, u.lastModified, " +
+           "u.isActive FROM User u WHERE u.lastModified >= :since")
+    List<Object[]> findSuggestionsModifiedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Find which of the given user IDs exist
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the email and username of every user holding one of the given emails or usernames
+     */
+    @Query("SELECT u.email, u.username FROM User u WHERE u.email IN :emails OR u.username IN :usernames")
+    List<Object[]> findTakenEmailsAndUsernames(@Param("emails") Collection<String> emails,
+                                               @Param("usernames") Collection<String> usernames);
+
     /**
      * Find user by email or username
      */
@@ -0,0 +1,64 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.LoginRequest;
+import com.eretailgoals.dto.LoginResponse;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Service class for login
+ * Checks a user's credentials once and issues a bearer token; later requests are authenticated from the
+ * token without touching the users table. Unknown users, inactive users and wrong passwords all fail with
+ * the same message, and all pay for one BCrypt check, so neither the response nor its timing reveals which
+ * accounts exist.
+ */
+@Service
+public class AuthService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
+    static final String TOKEN_TYPE = "Bearer";
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final JwtService jwtService;
+    // Hash of a random value at the configured cost, checked when there is no usable stored hash
+    private final String dummyPasswordHash;
+
+    @Autowired
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService, JwtService jwtService) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.jwtService = jwtService;
+        this.dummyPasswordHash = passwordHashingService.encode(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Verify a username or email and password and issue a token for the user
+     * Not transactional, so no connection is held while the password hash is checked
+     */
+    public LoginResponse login(LoginRequest request) {
+        User user = userRepository.findByUsername(request.login())
+                .or(() -> userRepository.findByEmail(request.login()))
+                .filter(candidate -> Boolean.TRUE.equals(candidate.getIsActive()) && candidate.getPassword() != null)
+                .orElse(null);
+
+        boolean matches = passwordHashingService.matches(request.password(),
+                                                         user != null ? user.getPassword() : dummyPasswordHash);
+        if (user == null || !matches) {
+            logger.warn("Failed login for {}", request.login());
+            throw new BadCredentialsException("Invalid username or password");
+        }
+
+        String token = jwtService.issueToken(user);
+        return new LoginResponse(token, TOKEN_TYPE, jwtService.getExpiration().toSeconds(),
+                                 user.getId(), user.getUsername(), user.getUserType());
+    }
+}
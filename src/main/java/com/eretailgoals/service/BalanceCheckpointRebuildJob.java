@@ -0,0 +1,129 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.BalanceCheckpointRebuildReport;
+import com.eretailgoals.repository.BalanceCheckpointRepository;
+import com.eretailgoals.repository.BankAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Job that regenerates the balance checkpoints of every bank account from its transactions
+ * Accounts are rebuilt in parallel, each in its own transaction under its row lock, so postings
+ * to an account only wait for that account. Seeds the table on startup when it is still empty and
+ * can run on a schedule, both guarded by the cluster-wide lock.
+ */
+@Component
+public class BalanceCheckpointRebuildJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCheckpointRebuildJob.class);
+
+    static final String LOCK_NAME = "balance-checkpoint-rebuild";
+
+    private final BalanceCheckpointService checkpointService;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final SchedulerLockService lockService;
+    private final int parallelism;
+    private final Duration lockLease;
+
+    @Autowired
+    public BalanceCheckpointRebuildJob(BalanceCheckpointService checkpointService,
+                                       BalanceCheckpointRepository checkpointRepository,
+                                       BankAccountRepository bankAccountRepository,
+                                       SchedulerLockService lockService,
+                                       @Value("${transaction.checkpoints.rebuild-parallelism:4}") int parallelism,
+                                       @Value("${transaction.checkpoints.lock-lease:1h}") Duration lockLease) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Checkpoint rebuild parallelism must be positive");
+        }
+        this.checkpointService = checkpointService;
+        this.checkpointRepository = checkpointRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.lockService = lockService;
+        this.parallelism = parallelism;
+        this.lockLease = lockLease;
+    }
+
+    /**
+     * Seed the checkpoint table for databases that predate it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            logger.debug("Checkpoint seeding skipped, lock {} is held by another node", LOCK_NAME);
+            return;
+        }
+        try {
+            if (checkpointRepository.count() == 0) {
+                BalanceCheckpointRebuildReport report = rebuildAll();
+                logger.info("Seeded {} balance checkpoints for {} accounts", report.checkpointsWritten(), report.accountsRebuilt());
+            }
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Scheduled run, disabled unless transaction.checkpoints.rebuild-cron is set
+     */
+    @Scheduled(cron = "${transaction.checkpoints.rebuild-cron:-}")
+    public void run() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            logger.debug("Checkpoint rebuild skipped, lock {} is held by another node", LOCK_NAME);
+            return;
+        }
+        try {
+            rebuildAll();
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Rebuild the checkpoints of every account, reporting the accounts that failed instead of stopping
+     */
+    public BalanceCheckpointRebuildReport rebuildAll() {
+        long started = System.nanoTime();
+        List<Long> accountIds = bankAccountRepository.findAllIds();
+        List<Long> failed = new ArrayList<>();
+        long written = 0;
+        AtomicInteger threadCount = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-rebuild-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        })) {
+            List<CompletableFuture<Integer>> rebuilds = accountIds.stream()
+                    .map(accountId -> CompletableFuture.supplyAsync(() -> checkpointService.rebuild(accountId), executor))
+                    .toList();
+            for (int i = 0; i < rebuilds.size(); i++) {
+                try {
+                    written += rebuilds.get(i).join();
+                } catch (RuntimeException e) {
+                    logger.warn("Checkpoint rebuild failed for bank account {}", accountIds.get(i), e);
+                    failed.add(accountIds.get(i));
+                }
+            }
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        logger.info("Rebuilt {} balance checkpoints for {} accounts in {} ms, {} failed",
+                    written, accountIds.size() - failed.size(), elapsedMillis, failed.size());
+        return new BalanceCheckpointRebuildReport(accountIds.size() - failed.size(), written, failed,
+                                                  elapsedMillis, LocalDateTime.now());
+    }
+}
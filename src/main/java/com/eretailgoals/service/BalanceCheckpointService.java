@@ -0,0 +1,217 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.AccountBalanceView;
+import com.eretailgoals.entity.BalanceCheckpoint;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BalanceCheckpointRepository;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Service class maintaining month-end balance checkpoints per bank account
+ * Postings shift every checkpoint from their own month onward in the caller's transaction, creating
+ * the month's checkpoint first if the account has none, so back-dated postings keep later months
+ * correct. A balance as of a day is then the nearest earlier checkpoint plus at most a month of
+ * transactions. Writers hold the bank account row lock, which serializes them per account.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class BalanceCheckpointService {
+
+    static final String INSERT_SQL = "INSERT INTO balance_checkpoints (bank_account_id, checkpoint_date, balance, last_modified) " +
+                                     "VALUES (?, ?, ?, ?)";
+
+    static final String SHIFT_SQL = "UPDATE balance_checkpoints SET balance = balance + ?, last_modified = ? " +
+                                    "WHERE bank_account_id = ? AND checkpoint_date >= ?";
+
+    static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BalanceCheckpointService(BalanceCheckpointRepository checkpointRepository,
+                                    TransactionRepository transactionRepository,
+                                    BankAccountRepository bankAccountRepository,
+                                    JdbcTemplate jdbcTemplate) {
+        this.checkpointRepository = checkpointRepository;
+        this.transactionRepository = transactionRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record postings to an account that has already been locked by its balance update
+     * Must run before the postings are saved, since a missing checkpoint is computed from the stored transactions
+     */
+    public void recordPostings(Long bankAccountId, List<Transaction> postings) {
+        Map<LocalDate, BigDecimal> byMonthEnd = new TreeMap<>();
+        for (Transaction posting : postings) {
+            byMonthEnd.merge(monthEnd(posting.getTransactionDate()), posting.getEffectiveAmount(), BigDecimal::add);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Oldest month first, so a checkpoint created for a later month already includes the earlier deltas;
+        // new rows go in through JDBC so no managed entity can miss the bulk updates that follow
+        byMonthEnd.forEach((monthEnd, delta) -> {
+            if (!checkpointRepository.existsByBankAccountIdAndCheckpointDate(bankAccountId, monthEnd)) {
+                jdbcTemplate.update(INSERT_SQL, bankAccountId, Date.valueOf(monthEnd),
+                                    computeBalance(bankAccountId, monthEnd), Timestamp.valueOf(now));
+            }
+            if (delta.signum() != 0) {
+                checkpointRepository.applyDeltaFrom(bankAccountId, monthEnd, delta, now);
+            }
+        });
+    }
+
+    /**
+     * Record postings to several accounts that have already been locked by their balance updates
+     * Accounts that already have every touched month's checkpoint are shifted in one JDBC batch; the others
+     * go through the single-account path, which creates the missing checkpoints first
+     */
+    public void recordPostings(Map<Long, List<Transaction>> postingsByAccount) {
+        Map<Long, Map<LocalDate, BigDecimal>> deltas = new TreeMap<>();
+        Set<LocalDate> monthEnds = new TreeSet<>();
+        postingsByAccount.forEach((accountId, postings) -> {
+            Map<LocalDate, BigDecimal> byMonthEnd = deltas.computeIfAbsent(accountId, id -> new TreeMap<>());
+            for (Transaction posting : postings) {
+                LocalDate monthEnd = monthEnd(posting.getTransactionDate());
+                byMonthEnd.merge(monthEnd, posting.getEffectiveAmount(), BigDecimal::add);
+                monthEnds.add(monthEnd);
+            }
+        });
+        Set<AccountMonth> existing = findExistingCheckpoints(new ArrayList<>(deltas.keySet()), new ArrayList<>(monthEnds));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> shifts = new ArrayList<>();
+        deltas.forEach((accountId, byMonthEnd) -> {
+            if (!byMonthEnd.keySet().stream().allMatch(monthEnd -> existing.contains(new AccountMonth(accountId, monthEnd)))) {
+                recordPostings(accountId, postingsByAccount.get(accountId));
+                return;
+            }
+            byMonthEnd.forEach((monthEnd, delta) -> {
+                if (delta.signum() != 0) {
+                    shifts.add(new Object[] {delta, now, accountId, Date.valueOf(monthEnd)});
+                }
+            });
+        });
+        if (!shifts.isEmpty()) {
+            jdbcTemplate.batchUpdate(SHIFT_SQL, shifts);
+        }
+    }
+
+    /**
+     * Get the balance of an account at the end of a day
+     */
+    @Transactional(readOnly = true)
+    public AccountBalanceView getBalanceAsOf(Long bankAccountId, LocalDate asOf) {
+        BigDecimal openingBalance = bankAccountRepository.findOpeningBalance(bankAccountId)
+                .orElseThrow(() -> new IllegalArgumentException("Bank account not found with id: " + bankAccountId));
+        Optional<BalanceCheckpoint> checkpoint = checkpointRepository
+                .findFirstByBankAccountIdAndCheckpointDateLessThanEqualOrderByCheckpointDateDesc(bankAccountId, asOf);
+        if (checkpoint.isEmpty()) {
+            BigDecimal balance = openingBalance.add(transactionRepository.sumEffectiveAmountByBankAccountUpTo(bankAccountId, asOf));
+            return new AccountBalanceView(bankAccountId, asOf, balance, null);
+        }
+        LocalDate checkpointDate = checkpoint.get().getCheckpointDate();
+        BigDecimal balance = checkpoint.get().getBalance();
+        if (checkpointDate.isBefore(asOf)) {
+            balance = balance.add(transactionRepository.sumEffectiveAmountByBankAccountBetween(bankAccountId, checkpointDate, asOf));
+        }
+        return new AccountBalanceView(bankAccountId, asOf, balance, checkpointDate);
+    }
+
+    /**
+     * Regenerate every checkpoint of an account from its transactions and return how many were written
+     */
+    @Transactional
+    public int rebuild(Long bankAccountId) {
+        BankAccount account = bankAccountRepository.findForUpdate(bankAccountId)
+                .orElseThrow(() -> new IllegalArgumentException("Bank account not found with id: " + bankAccountId));
+        checkpointRepository.deleteByBankAccountId(bankAccountId);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        BigDecimal balance = account.getOpeningBalance();
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] month : transactionRepository.summarizeMonthlyEffectiveAmountByBankAccount(bankAccountId)) {
+            balance = balance.add((BigDecimal) month[2]);
+            LocalDate monthEnd = YearMonth.of(((Number) month[0]).intValue(), ((Number) month[1]).intValue()).atEndOfMonth();
+            rows.add(new Object[] {bankAccountId, Date.valueOf(monthEnd), balance, now});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+        return rows.size();
+    }
+
+    /**
+     * Opening balance plus every stored transaction up to a date, starting from the nearest earlier checkpoint
+     */
+    private BigDecimal computeBalance(Long bankAccountId, LocalDate date) {
+        Optional<BalanceCheckpoint> previous = checkpointRepository
+                .findFirstByBankAccountIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(bankAccountId, date);
+        if (previous.isPresent()) {
+            return previous.get().getBalance().add(transactionRepository.sumEffectiveAmountByBankAccountBetween(
+                    bankAccountId, previous.get().getCheckpointDate(), date));
+        }
+        BigDecimal openingBalance = bankAccountRepository.findOpeningBalance(bankAccountId)
+                .orElseThrow(() -> new IllegalArgumentException("Bank account not found with id: " + bankAccountId));
+        return openingBalance.add(transactionRepository.sumEffectiveAmountByBankAccountUpTo(bankAccountId, date));
+    }
+
+    /**
+     * Look up which of the given accounts have a checkpoint on which of the given month ends
+     */
+    private Set<AccountMonth> findExistingCheckpoints(List<Long> accountIds, List<LocalDate> monthEnds) {
+        Set<AccountMonth> existing = new HashSet<>();
+        String datePlaceholders = String.join(", ", Collections.nCopies(monthEnds.size(), "?"));
+        for (int from = 0; from < accountIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = accountIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, accountIds.size()));
+            String sql = "SELECT bank_account_id, checkpoint_date FROM balance_checkpoints WHERE bank_account_id IN (" +
+                         String.join(", ", Collections.nCopies(chunk.size(), "?")) + ") AND checkpoint_date IN (" +
+                         datePlaceholders + ")";
+            jdbcTemplate.query(sql, ps -> {
+                int index = 1;
+                for (Long accountId : chunk) {
+                    ps.setLong(index++, accountId);
+                }
+                for (LocalDate monthEnd : monthEnds) {
+                    ps.setDate(index++, Date.valueOf(monthEnd));
+                }
+            }, (RowCallbackHandler) rs -> existing.add(
+                    new AccountMonth(rs.getLong(1), rs.getDate(2).toLocalDate())));
+        }
+        return existing;
+    }
+
+    private record AccountMonth(long bankAccountId, LocalDate monthEnd) {
+    }
+
+    static LocalDate monthEnd(LocalDate date) {
+        return YearMonth.from(date).atEndOfMonth();
+    }
+}
@@ -0,0 +1,118 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.BankAccountActivityBackfillReport;
+import com.eretailgoals.repository.BankAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Job that recounts the last transaction date and transaction count of every bank account
+ * Accounts are recounted in ID chunks, each chunk in its own short transaction that holds only those
+ * accounts' row locks, so postings elsewhere carry on while it runs. Runs in the background on startup
+ * while uncounted accounts exist and can run on a schedule, both guarded by the cluster-wide lock.
+ */
+@Component
+public class BankAccountActivityBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BankAccountActivityBackfillJob.class);
+
+    static final String LOCK_NAME = "bank-account-activity-backfill";
+
+    private final BankAccountRepository bankAccountRepository;
+    private final SchedulerLockService lockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration lockLease;
+
+    @Autowired
+    public BankAccountActivityBackfillJob(BankAccountRepository bankAccountRepository,
+                                          SchedulerLockService lockService,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${transaction.activity.backfill-chunk-size:1000}") int chunkSize,
+                                          @Value("${transaction.activity.lock-lease:1h}") Duration lockLease) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Activity backfill chunk size must be positive");
+        }
+        this.bankAccountRepository = bankAccountRepository;
+        this.lockService = lockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.lockLease = lockLease;
+    }
+
+    /**
+     * Count uncounted accounts, e.g. ones inserted by older nodes, off the startup thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfillIfNeeded() {
+        Thread thread = new Thread(this::backfillIfNeeded, "activity-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void backfillIfNeeded() {
+        try {
+            if (!bankAccountRepository.existsByTransactionCountIsNull()) {
+                return;
+            }
+            if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+                logger.debug("Activity backfill skipped, lock {} is held by another node", LOCK_NAME);
+                return;
+            }
+            try {
+                BankAccountActivityBackfillReport report = backfillAll();
+                logger.info("Backfilled activity of {} bank accounts", report.accountsUpdated());
+            } finally {
+                lockService.release(LOCK_NAME);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Activity backfill on startup failed", e);
+        }
+    }
+
+    /**
+     * Scheduled run, disabled unless transaction.activity.backfill-cron is set
+     */
+    @Scheduled(cron = "${transaction.activity.backfill-cron:-}")
+    public void run() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            logger.debug("Activity backfill skipped, lock {} is held by another node", LOCK_NAME);
+            return;
+        }
+        try {
+            backfillAll();
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Recount every account's last transaction date and transaction count from its transactions
+     */
+    public BankAccountActivityBackfillReport backfillAll() {
+        long started = System.nanoTime();
+        List<Long> accountIds = bankAccountRepository.findAllIds();
+        long updated = 0;
+        for (int from = 0; from < accountIds.size(); from += chunkSize) {
+            Long fromId = accountIds.get(from);
+            Long toId = accountIds.get(Math.min(from + chunkSize, accountIds.size()) - 1);
+            Integer count = transactionTemplate.execute(status -> bankAccountRepository.recountActivity(fromId, toId));
+            updated += count != null ? count : 0;
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        logger.info("Recounted activity of {} bank accounts in {} ms", updated, elapsedMillis);
+        return new BankAccountActivityBackfillReport(updated, elapsedMillis, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,138 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.CashFlowRollup;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.CashFlowRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class maintaining the daily cash-flow rollup table
+ * Postings to an account are summed per (adminId, day, transactionType, expenseType) and each sum is
+ * applied to its rollup row in the caller's transaction. Callers hold the account's row lock, so a
+ * missing row cannot be inserted twice.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class CashFlowRollupService {
+
+    static final String APPLY_DELTA_SQL = "UPDATE cash_flow_rollups SET total_amount = total_amount + ?, " +
+                                          "transaction_count = transaction_count + ?, last_modified = ? " +
+                                          "WHERE bank_account_id = ? AND rollup_date = ? AND admin_id = ? " +
+                                          "AND transaction_type = ? AND expense_type IS NULL";
+
+    static final String INSERT_SQL = "INSERT INTO cash_flow_rollups (admin_id, bank_account_id, rollup_date, transaction_type, " +
+                                     "expense_type, total_amount, transaction_count, last_modified) " +
+                                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final CashFlowRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CashFlowRollupService(CashFlowRollupRepository rollupRepository, JdbcTemplate jdbcTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add postings to an account that has already been locked by its balance update
+     */
+    public void recordPostings(Long bankAccountId, List<Transaction> postings) {
+        Map<RollupKey, Totals> byKey = summarize(postings);
+        LocalDateTime now = LocalDateTime.now();
+        byKey.forEach((key, totals) -> {
+            if (rollupRepository.applyDelta(key.adminId(), bankAccountId, key.date(), key.transactionType(),
+                                            key.expenseType(), totals.amount, totals.count, now) == 0) {
+                CashFlowRollup rollup = new CashFlowRollup(key.adminId(), bankAccountId, key.date(),
+                                                           key.transactionType(), key.expenseType());
+                rollup.setTotalAmount(totals.amount);
+                rollup.setTransactionCount(totals.count);
+                rollup.setLastModified(now);
+                rollupRepository.save(rollup);
+            }
+        });
+    }
+
+    /**
+     * Add postings to several accounts that have already been locked by their balance updates
+     * Rollups without an expense type, which covers transfers, are updated in one JDBC batch and the rows it
+     * missed are inserted in a second one; the rest go through the single-account path
+     */
+    public void recordPostings(Map<Long, List<Transaction>> postingsByAccount) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        postingsByAccount.forEach((accountId, postings) -> {
+            List<Transaction> withExpenseType = new ArrayList<>();
+            for (Transaction posting : postings) {
+                if (posting.getExpenseType() != null) {
+                    withExpenseType.add(posting);
+                }
+            }
+            if (!withExpenseType.isEmpty()) {
+                recordPostings(accountId, withExpenseType);
+            }
+            summarize(postings).forEach((key, totals) -> {
+                if (key.expenseType() == null) {
+                    updates.add(new Object[] {totals.amount, totals.count, now, accountId, Date.valueOf(key.date()),
+                                              key.adminId(), key.transactionType().name()});
+                    rows.add(new Object[] {key.adminId(), accountId, Date.valueOf(key.date()), key.transactionType().name(),
+                                           null, totals.amount, totals.count, now});
+                }
+            });
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, updates);
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing);
+        }
+    }
+
+    private static Map<RollupKey, Totals> summarize(List<Transaction> postings) {
+        Map<RollupKey, Totals> byKey = new LinkedHashMap<>();
+        for (Transaction posting : postings) {
+            RollupKey key = new RollupKey(CashFlowRollup.tenantKey(posting.getAdminId()), posting.getTransactionDate(),
+                                          posting.getTransactionType(), posting.getExpenseType());
+            byKey.computeIfAbsent(key, k -> new Totals()).add(posting.getTransactionAmount());
+        }
+        return byKey;
+    }
+
+    private record RollupKey(long adminId,
+                             LocalDate date,
+                             Transaction.TransactionType transactionType,
+                             Transaction.ExpenseType expenseType) {
+    }
+
+    private static final class Totals {
+
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+
+        void add(BigDecimal value) {
+            amount = amount.add(value);
+            count++;
+        }
+    }
+}
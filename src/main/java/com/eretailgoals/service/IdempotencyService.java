@@ -0,0 +1,185 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.IdempotencyKey;
+import com.eretailgoals.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Service class for Idempotency-Key handling on write endpoints
+ * The first request with a key runs its action in the same transaction that inserts the key, so the write
+ * and the key commit together and a concurrent duplicate waits on the unique index instead of writing twice.
+ * Repeats are answered with the stored response, from a bounded in-memory LRU cache when possible and
+ * from the idempotency_keys table otherwise.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Map<String, StoredResponse> cache;
+
+    @Autowired
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${transaction.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${transaction.idempotency.retention:24h}") Duration retention) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Idempotency cache size must be positive");
+        }
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Outcome of an idempotent request: the response and whether it was replayed from an earlier request
+     */
+    public record Result<T>(T response, boolean replayed) {}
+
+    private record StoredResponse(String requestHash, String responseBody, LocalDateTime dateCreated) {}
+
+    /**
+     * Run an action once per scope and key, replaying its response for repeats of the same request
+     */
+    public <T> Result<T> execute(String scope, String key, Object request, TypeReference<T> responseType,
+                                 Supplier<T> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(STR."Idempotency-Key must be 1 to \{MAX_KEY_LENGTH} characters");
+        }
+        String requestHash = fingerprint(request);
+        String cacheKey = scope + '\n' + key;
+
+        StoredResponse stored = getCached(cacheKey);
+        if (stored == null) {
+            stored = idempotencyKeyRepository.findByScopeAndIdempotencyKey(scope, key)
+                    .map(IdempotencyService::toStoredResponse)
+                    .orElse(null);
+        }
+        if (stored != null) {
+            return replay(cacheKey, key, stored, requestHash, responseType);
+        }
+
+        try {
+            StoredResponse[] written = new StoredResponse[1];
+            T response = transactionTemplate.execute(status -> {
+                // Taking the unique key first makes a concurrent duplicate block here until this one commits
+                IdempotencyKey record = idempotencyKeyRepository.saveAndFlush(
+                        new IdempotencyKey(scope, key, requestHash, LocalDateTime.now()));
+                T result = action.get();
+                record.setResponseBody(toJson(result));
+                idempotencyKeyRepository.save(record);
+                written[0] = toStoredResponse(record);
+                return result;
+            });
+            putCached(cacheKey, written[0]);
+            return new Result<>(response, false);
+        } catch (DataIntegrityViolationException e) {
+            // Another request with the same key committed first
+            IdempotencyKey winner = idempotencyKeyRepository.findByScopeAndIdempotencyKey(scope, key)
+                    .orElseThrow(() -> e);
+            return replay(cacheKey, key, toStoredResponse(winner), requestHash, responseType);
+        } catch (PessimisticLockingFailureException e) {
+            throw new IllegalStateException("A request with this Idempotency-Key is still in progress: " + key);
+        }
+    }
+
+    /**
+     * Delete keys older than the retention window from the table and the cache
+     */
+    @Scheduled(cron = "${transaction.idempotency.purge-cron:0 30 * * * *}")
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(cutoff));
+        synchronized (cache) {
+            cache.values().removeIf(stored -> stored.dateCreated().isBefore(cutoff));
+        }
+        logger.info("Purged {} idempotency keys created before {}", deleted, cutoff);
+        return deleted != null ? deleted : 0;
+    }
+
+    private <T> Result<T> replay(String cacheKey, String key, StoredResponse stored, String requestHash,
+                                 TypeReference<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request: " + key);
+        }
+        putCached(cacheKey, stored);
+        try {
+            return new Result<>(objectMapper.readValue(stored.responseBody(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for Idempotency-Key cannot be read: " + key, e);
+        }
+    }
+
+    /**
+     * SHA-256 of the request's JSON form, so a key reused with a different payload is detected
+     */
+    String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for replay", e);
+        }
+    }
+
+    private StoredResponse getCached(String cacheKey) {
+        synchronized (cache) {
+            return cache.get(cacheKey);
+        }
+    }
+
+    private void putCached(String cacheKey, StoredResponse stored) {
+        synchronized (cache) {
+            cache.put(cacheKey, stored);
+        }
+    }
+
+    private static StoredResponse toStoredResponse(IdempotencyKey record) {
+        return new StoredResponse(record.getRequestHash(), record.getResponseBody(), record.getDateCreated());
+    }
+}
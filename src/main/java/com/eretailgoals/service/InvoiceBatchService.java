@@ -0,0 +1,281 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.BatchResult;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.InvoiceItem;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.UserRepository;
+import com.eretailgoals.service.ReceivablesService.Contribution;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Service class for bulk invoice creation
+ * Records are validated up front with one lookup query per chunk, then inserted chunk by chunk in
+ * their own transactions so Hibernate can send invoices and items as JDBC batches.
+ * A chunk that fails to insert is retried row by row so one bad record cannot sink its neighbours.
+ */
+@Service
+public class InvoiceBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceBatchService.class);
+
+    private final InvoiceService invoiceService;
+    private final InvoiceRepository invoiceRepository;
+    private final UserRepository userRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final ReceivablesService receivablesService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final int chunkSize;
+
+    @Autowired
+    public InvoiceBatchService(InvoiceService invoiceService,
+                               InvoiceRepository invoiceRepository,
+                               UserRepository userRepository,
+                               InvoiceNumberAllocator invoiceNumberAllocator,
+                               ReceivablesService receivablesService,
+                               Validator validator,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${invoice.batch.max-size:10000}") int maxBatchSize,
+                               @Value("${invoice.batch.chunk-size:500}") int chunkSize) {
+        if (maxBatchSize < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Invoice batch sizes must be positive");
+        }
+        this.invoiceService = invoiceService;
+        this.invoiceRepository = invoiceRepository;
+        this.userRepository = userRepository;
+        this.invoiceNumberAllocator = invoiceNumberAllocator;
+        this.receivablesService = receivablesService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Create invoices with their items, reporting the outcome of every record
+     * Invoices without a number get the next number of their tenant's sequence
+     */
+    public BatchResult createInvoices(List<Invoice> invoices) {
+        if (invoices == null || invoices.isEmpty()) {
+            throw new IllegalArgumentException("At least one invoice is required");
+        }
+        if (invoices.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    STR."Batch of \{invoices.size()} invoices exceeds the maximum of \{maxBatchSize}");
+        }
+
+        List<BatchResult.Item> results = new ArrayList<>(invoices.size());
+        Set<String> batchNumbers = new HashSet<>();
+        for (int from = 0; from < invoices.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, invoices.size());
+            List<Pending> accepted = screen(invoices, from, to, batchNumbers, results);
+            if (!accepted.isEmpty()) {
+                persistChunk(accepted, results);
+            }
+        }
+
+        BatchResult result = BatchResult.of(results);
+        logger.info("Invoice batch finished: {} created, {} failed", result.succeeded(), result.failed());
+        return result;
+    }
+
+    /**
+     * Validate one chunk of the request, resolving existing numbers and users with one query each
+     */
+    private List<Pending> screen(List<Invoice> invoices, int from, int to, Set<String> batchNumbers,
+                                 List<BatchResult.Item> results) {
+        List<Pending> candidates = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            Invoice invoice = invoices.get(index);
+            if (invoice == null) {
+                results.add(BatchResult.Item.failed(index, null, "Invoice is required"));
+                continue;
+            }
+            String number = normalize(invoice.getInvoiceNumber());
+            invoice.setInvoiceNumber(number);
+            if (invoice.getUser() == null || invoice.getUser().getId() == null) {
+                results.add(BatchResult.Item.failed(index, number, "User is required"));
+            } else if (number != null && !batchNumbers.add(number)) {
+                results.add(BatchResult.Item.failed(index, number, "Duplicate invoice number in batch: " + number));
+            } else {
+                candidates.add(new Pending(index, invoice, invoice.getUser().getId()));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<String> requestedNumbers = new HashSet<>();
+        Set<Long> requestedUsers = new HashSet<>();
+        for (Pending pending : candidates) {
+            if (pending.invoice().getInvoiceNumber() != null) {
+                requestedNumbers.add(pending.invoice().getInvoiceNumber());
+            }
+            requestedUsers.add(pending.userId());
+        }
+        Set<String> existingNumbers = requestedNumbers.isEmpty() ? Set.of()
+                : new HashSet<>(invoiceRepository.findExistingInvoiceNumbers(requestedNumbers));
+        Set<Long> existingUsers = new HashSet<>(userRepository.findExistingIds(requestedUsers));
+
+        List<Pending> accepted = new ArrayList<>(candidates.size());
+        for (Pending pending : candidates) {
+            Invoice invoice = pending.invoice();
+            String number = invoice.getInvoiceNumber();
+            if (number != null && existingNumbers.contains(number)) {
+                results.add(BatchResult.Item.failed(pending.index(), number, "Invoice number already exists: " + number));
+            } else if (!existingUsers.contains(pending.userId())) {
+                results.add(BatchResult.Item.failed(pending.index(), number, "User not found with id: " + pending.userId()));
+            } else {
+                String error = prepare(invoice);
+                if (error != null) {
+                    results.add(BatchResult.Item.failed(pending.index(), number, error));
+                } else {
+                    accepted.add(pending);
+                }
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Apply defaults and bean validation, allocating a number only once the record is known to be valid
+     */
+    private String prepare(Invoice invoice) {
+        StringJoiner errors = new StringJoiner("; ");
+        List<InvoiceItem> items = invoice.getInvoiceItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == null) {
+                errors.add(STR."invoiceItems[\{i}]: must not be null");
+                continue;
+            }
+            for (ConstraintViolation<InvoiceItem> violation : validator.validate(items.get(i))) {
+                errors.add(STR."invoiceItems[\{i}].\{violation.getPropertyPath()}: \{violation.getMessage()}");
+            }
+        }
+        if (errors.length() > 0) {
+            return errors.toString();
+        }
+
+        invoiceService.prepareNewInvoice(invoice);
+        for (ConstraintViolation<Invoice> violation : validator.validate(invoice)) {
+            boolean allocated = invoice.getInvoiceNumber() == null
+                    && "invoiceNumber".equals(violation.getPropertyPath().toString());
+            if (!allocated) {
+                errors.add(STR."\{violation.getPropertyPath()}: \{violation.getMessage()}");
+            }
+        }
+        if (errors.length() > 0) {
+            return errors.toString();
+        }
+
+        try {
+            if (invoice.getInvoiceNumber() == null) {
+                invoice.setInvoiceNumber(invoiceNumberAllocator.nextInvoiceNumber(invoice.getAdminId()));
+            }
+            invoiceService.validateInvoice(invoice);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Insert a chunk in one transaction, falling back to one transaction per record if it fails
+     */
+    private void persistChunk(List<Pending> chunk, List<BatchResult.Item> results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk));
+            for (Pending pending : chunk) {
+                results.add(created(pending));
+            }
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Invoice batch chunk of {} records failed, retrying row by row: {}",
+                        chunk.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+
+        for (Pending pending : chunk) {
+            resetIds(pending.invoice());
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(pending)));
+                results.add(created(pending));
+            } catch (RuntimeException e) {
+                resetIds(pending.invoice());
+                results.add(BatchResult.Item.failed(pending.index(), pending.invoice().getInvoiceNumber(),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Persist and flush the records so the inserts go out as JDBC batches, then apply one
+     * receivables delta per (adminId, userId) instead of one per invoice
+     */
+    private void insert(List<Pending> chunk) {
+        Map<DeltaKey, Contribution> deltas = new LinkedHashMap<>();
+        for (Pending pending : chunk) {
+            Invoice invoice = pending.invoice();
+            invoice.setUser(entityManager.getReference(User.class, pending.userId()));
+            entityManager.persist(invoice);
+
+            Contribution contribution = Contribution.of(invoice);
+            if (contribution.count() > 0) {
+                deltas.merge(new DeltaKey(contribution.adminId(), contribution.userId()), contribution,
+                        (a, b) -> new Contribution(a.adminId(), a.userId(), a.amount().add(b.amount()),
+                                                   a.count() + b.count()));
+            }
+        }
+        entityManager.flush();
+        for (Contribution delta : deltas.values()) {
+            receivablesService.applyDelta(delta.adminId(), delta.userId(), delta.amount(), delta.count());
+        }
+        entityManager.clear();
+    }
+
+    /**
+     * Forget ids assigned in a rolled back transaction so the record is inserted afresh
+     */
+    private static void resetIds(Invoice invoice) {
+        invoice.setId(null);
+        for (InvoiceItem item : invoice.getInvoiceItems()) {
+            item.setId(null);
+        }
+    }
+
+    private static BatchResult.Item created(Pending pending) {
+        return BatchResult.Item.created(pending.index(), pending.invoice().getId(),
+                                        pending.invoice().getInvoiceNumber());
+    }
+
+    private static String normalize(String invoiceNumber) {
+        return invoiceNumber == null || invoiceNumber.isBlank() ? null : invoiceNumber.trim();
+    }
+
+    private record Pending(int index, Invoice invoice, Long userId) {}
+
+    private record DeltaKey(long adminId, Long userId) {}
+}
@@ -0,0 +1,138 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.InvoiceNumberSequence;
+import com.eretailgoals.repository.InvoiceNumberSequenceRepository;
+import com.eretailgoals.repository.InvoiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Hi/lo allocator for invoice numbers
+ * Each node reserves a block of numbers per tenant and year from the invoice_number_sequences table
+ * under a row lock, then hands numbers out of memory until the block is exhausted.
+ * Numbers are unique across nodes; unused numbers of a block are lost on restart (gaps are tolerated).
+ */
+@Service
+public class InvoiceNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceNumberAllocator.class);
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+    private static final int SEQUENCE_DIGITS = 6;
+    // Numeric suffix of an issued number, short enough to parse as a long
+    private static final Pattern SEQUENCE_SUFFIX = Pattern.compile("\\d{1,18}");
+
+    private final InvoiceNumberSequenceRepository sequenceRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private final ConcurrentMap<SequenceKey, NumberBlock> blocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InvoiceNumberAllocator(InvoiceNumberSequenceRepository sequenceRepository,
+                                  InvoiceRepository invoiceRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${invoice.number.block-size:20}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Invoice number block size must be positive");
+        }
+        this.sequenceRepository = sequenceRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Allocate the next invoice number for a tenant in the current year
+     */
+    public String nextInvoiceNumber(Long adminId) {
+        SequenceKey key = new SequenceKey(adminId != null ? adminId : InvoiceNumberSequence.NO_TENANT,
+                                          LocalDate.now().getYear());
+        NumberBlock block = blocks.computeIfAbsent(key, k -> new NumberBlock());
+
+        long value;
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                long start = reserveBlock(key);
+                block.next = start;
+                block.limit = start + blockSize;
+            }
+            value = block.next++;
+        }
+        return format(key, value);
+    }
+
+    /**
+     * Reserve the next block of numbers in its own transaction so the row lock is held only briefly
+     */
+    private long reserveBlock(SequenceKey key) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Long start = transactionTemplate.execute(status -> {
+                    InvoiceNumberSequence sequence = sequenceRepository.findForUpdate(key.adminId(), key.year())
+                            .orElseGet(() -> sequenceRepository.saveAndFlush(
+                                    new InvoiceNumberSequence(key.adminId(), key.year(), seedValue(key))));
+                    long first = sequence.getNextValue();
+                    sequence.setNextValue(first + blockSize);
+                    return first;
+                });
+                logger.debug("Reserved invoice numbers {}..{} for {}", start, start + blockSize - 1, key);
+                return start;
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                // Another node created the counter row concurrently, or both locked the missing row's gap and
+                // MySQL rolled this one back as the deadlock victim; lock the row the other node created instead
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw new IllegalStateException("Could not reserve invoice numbers for " + key, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * First value for a new counter row, continuing after any numbers issued before the counter existed
+     * The maximum is taken numerically, since numbers past 999999 outgrow the zero padding and no longer sort
+     * as strings; runs once per tenant and year, when the counter row is created
+     */
+    private long seedValue(SequenceKey key) {
+        String prefix = prefix(key);
+        return invoiceRepository.findInvoiceNumbersLike(prefix + "%").stream()
+                .map(number -> number.substring(prefix.length()))
+                .filter(SEQUENCE_SUFFIX.asMatchPredicate())
+                .mapToLong(Long::parseLong)
+                .max()
+                .orElse(0L) + 1;
+    }
+
+    private static String prefix(SequenceKey key) {
+        if (key.adminId() == InvoiceNumberSequence.NO_TENANT) {
+            return STR."INV-\{key.year()}-";
+        }
+        return STR."INV-\{key.adminId()}-\{key.year()}-";
+    }
+
+    private static String format(SequenceKey key, long value) {
+        return prefix(key) + String.format("%0" + SEQUENCE_DIGITS + "d", value);
+    }
+
+    private record SequenceKey(long adminId, int year) {}
+
+    private static final class NumberBlock {
+        private long next;
+        private long limit;
+    }
+}
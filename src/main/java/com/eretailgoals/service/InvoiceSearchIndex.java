@@ -0,0 +1,270 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram index over the text columns matched by invoice search
+ * Invoice number and note are indexed per invoice, first name, last name and company name per user.
+ * The index only ever grows, so it always returns a superset of the true matches: updates add the
+ * new text without removing the old, and writes of rolled back transactions stay behind. Callers
+ * re-apply the exact LIKE predicates to the candidates, which keeps results identical to a scan.
+ * Writes made on other nodes, or that bypass the entity listeners, are picked up before every lookup
+ * by re-reading the rows whose last_modified is at or after the previous refresh, less an overlap.
+ */
+@Service
+public class InvoiceSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceSearchIndex.class);
+
+    static final int GRAM_LENGTH = 3;
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    private final InvoiceRepository invoiceRepository;
+    private final UserRepository userRepository;
+    private final int maxCandidates;
+    private final Duration refreshOverlap;
+
+    private final TrigramIndex invoiceText = new TrigramIndex();
+    private final TrigramIndex userText = new TrigramIndex();
+    private volatile boolean ready;
+    private LocalDateTime lastRefresh;
+
+    @Autowired
+    public InvoiceSearchIndex(InvoiceRepository invoiceRepository,
+                              UserRepository userRepository,
+                              @Value("${invoice.search.max-candidates:10000}") int maxCandidates,
+                              @Value("${invoice.search.refresh-overlap:30s}") Duration refreshOverlap) {
+        this.invoiceRepository = invoiceRepository;
+        this.userRepository = userRepository;
+        this.maxCandidates = maxCandidates;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    /**
+     * Invoices and users whose indexed text may contain the search term
+     */
+    public record Candidates(List<Long> invoiceIds, List<Long> userIds) {
+
+        public boolean isEmpty() {
+            return invoiceIds.isEmpty() && userIds.isEmpty();
+        }
+    }
+
+    /**
+     * Look up candidates for a search term
+     * Empty when the index cannot narrow the search: before it is built, for terms shorter than a
+     * trigram, or when more candidates match than an IN list should carry
+     */
+    public Optional<Candidates> findCandidates(String searchTerm) {
+        if (!ready || searchTerm == null || searchTerm.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        refresh();
+        String term = searchTerm.toLowerCase(Locale.ROOT);
+        long[] invoiceIds = invoiceText.search(term, maxCandidates);
+        long[] userIds = invoiceIds == null ? null : userText.search(term, maxCandidates - invoiceIds.length);
+        if (invoiceIds == null || userIds == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Candidates(Arrays.stream(invoiceIds).boxed().toList(),
+                                          Arrays.stream(userIds).boxed().toList()));
+    }
+
+    /**
+     * Add the searchable text of an invoice
+     */
+    public void indexInvoice(Long id, String invoiceNumber, String invoiceNote) {
+        if (id != null) {
+            invoiceText.add(id, invoiceNumber, invoiceNote);
+        }
+    }
+
+    /**
+     * Add the searchable text of a user
+     */
+    public void indexUser(Long id, String firstName, String lastName, String companyName) {
+        if (id != null) {
+            userText.add(id, firstName, lastName, companyName);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Index the invoices and users written since the previous refresh, on this node or any other
+     * The overlap covers clock skew between nodes and transactions that commit a while after stamping
+     * last_modified; rows re-read inside it are harmless because the index only grows
+     */
+    synchronized void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = lastRefresh.minus(refreshOverlap);
+        for (Object[] row : invoiceRepository.findSearchTextModifiedSince(since)) {
+            indexInvoice((Long) row[0], (String) row[1], (String) row[2]);
+        }
+        for (Object[] row : userRepository.findSearchTextModifiedSince(since)) {
+            indexUser((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+        }
+        lastRefresh = started;
+    }
+
+    /**
+     * Load every invoice and user into the index once the application is up
+     * Searches fall back to the LIKE query until this has finished. Rows written while the pages are read,
+     * including ones below the page position, are modified after the build started and so are picked up
+     * by the first refresh.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.currentTimeMillis();
+        LocalDateTime buildStarted = LocalDateTime.now();
+        long invoices = 0;
+        List<Object[]> rows;
+        long afterId = 0;
+        while (!(rows = invoiceRepository.findSearchTextAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE))).isEmpty()) {
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                indexInvoice(afterId, (String) row[1], (String) row[2]);
+            }
+            invoices += rows.size();
+        }
+
+        long users = 0;
+        afterId = 0;
+        while (!(rows = userRepository.findSearchTextAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE))).isEmpty()) {
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                indexUser(afterId, (String) row[1], (String) row[2], (String) row[3]);
+            }
+            users += rows.size();
+        }
+
+        synchronized (this) {
+            lastRefresh = buildStarted;
+        }
+        ready = true;
+        logger.info("Invoice search index built from {} invoices and {} users in {} ms",
+                    invoices, users, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Posting lists of document ids keyed by trigram
+     */
+    static final class TrigramIndex {
+
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void add(long id, String... values) {
+            lock.writeLock().lock();
+            try {
+                for (String value : values) {
+                    if (value == null) {
+                        continue;
+                    }
+                    String text = value.toLowerCase(Locale.ROOT);
+                    for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                        postings.computeIfAbsent(gram(text, i), key -> new Postings()).add(id);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Ids containing every trigram of the lower-cased term, or null if there are more than limit
+         */
+        long[] search(String term, int limit) {
+            lock.readLock().lock();
+            try {
+                Postings[] lists = new Postings[term.length() - GRAM_LENGTH + 1];
+                for (int i = 0; i < lists.length; i++) {
+                    lists[i] = postings.get(gram(term, i));
+                    if (lists[i] == null) {
+                        return new long[0];
+                    }
+                }
+                Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+                long[] result = new long[lists[0].size];
+                int count = 0;
+                for (int i = 0; i < lists[0].size; i++) {
+                    long id = lists[0].ids[i];
+                    boolean inAll = true;
+                    for (int j = 1; j < lists.length && inAll; j++) {
+                        inAll = lists[j].contains(id);
+                    }
+                    if (inAll) {
+                        if (count == limit) {
+                            return null;
+                        }
+                        result[count++] = id;
+                    }
+                }
+                return Arrays.copyOf(result, count);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static long gram(String text, int offset) {
+            return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free id list; ids mostly arrive in ascending order, so adding is usually an append
+     */
+    static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insertAt(int position, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.eretailgoals.service;
 
+import com.eretailgoals.dto.CursorPage;
+import com.eretailgoals.dto.InvoiceCursor;
+import com.eretailgoals.dto.InvoiceDetailView;
+import com.eretailgoals.dto.InvoiceSummaryView;
 import com.eretailgoals.entity.Invoice;
 import com.eretailgoals.entity.InvoiceItem;
+import com.eretailgoals.entity.ReceivablesSummary;
 import com.eretailgoals.entity.User;
 import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.service.ReceivablesService.Contribution;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,13 +33,23 @@ import java.util.Optional;
 @Transactional
 public class InvoiceService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
     private final InvoiceRepository invoiceRepository;
     private final UserService userService;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final ReceivablesService receivablesService;
+    private final InvoiceSearchIndex invoiceSearchIndex;
 
     @Autowired
-    public InvoiceService(InvoiceRepository invoiceRepository, UserService userService) {
+    public InvoiceService(InvoiceRepository invoiceRepository, UserService userService,
+                          InvoiceNumberAllocator invoiceNumberAllocator, ReceivablesService receivablesService,
+                          InvoiceSearchIndex invoiceSearchIndex) {
         this.invoiceRepository = invoiceRepository;
         this.userService = userService;
+        this.invoiceNumberAllocator = invoiceNumberAllocator;
+        this.receivablesService = receivablesService;
+        this.invoiceSearchIndex = invoiceSearchIndex;
     }
 
     /**
@@ -46,29 +63,11 @@ public class InvoiceService {
             throw new IllegalArgumentException("Invoice number already exists: " + invoice.getInvoiceNumber());
         }
         
-        // Set default values
-        if (invoice.getInvoiceDate() == null) {
-            invoice.setInvoiceDate(LocalDate.now());
-        }
-        
-        if (invoice.getInvoiceStatus() == null) {
-            invoice.setInvoiceStatus(Invoice.InvoiceStatus.OPEN);
-        }
-        
-        if (invoice.getVatAmount() == null) {
-            invoice.setVatAmount(BigDecimal.ZERO);
-        }
-        
-        if (invoice.getInvoicePaidAmount() == null) {
-            invoice.setInvoicePaidAmount(BigDecimal.ZERO);
-        }
-        
-        // Calculate totals from invoice items if present
-        if (!invoice.getInvoiceItems().isEmpty()) {
-            calculateInvoiceTotals(invoice);
-        }
+        prepareNewInvoice(invoice);
         
-        return invoiceRepository.save(invoice);
+        Invoice savedInvoice = invoiceRepository.save(invoice);
+        receivablesService.recordChange(Contribution.NONE, Contribution.of(savedInvoice));
+        return savedInvoice;
     }
 
     /**
@@ -76,6 +75,10 @@ public class InvoiceService {
      */
     public Invoice updateInvoice(Long id, Invoice invoiceDetails) {
         Invoice existingInvoice = getInvoiceById(id);
+        if (invoiceDetails.getVersion() != null && !invoiceDetails.getVersion().equals(existingInvoice.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Invoice.class, id);
+        }
+        Contribution before = Contribution.of(existingInvoice);
         
         // Update fields
         existingInvoice.setInvoiceDate(invoiceDetails.getInvoiceDate());
@@ -96,7 +99,9 @@ public class InvoiceService {
         // Update status and recalculate if needed
         existingInvoice.updateStatus();
         
-        return invoiceRepository.save(existingInvoice);
+        Invoice savedInvoice = invoiceRepository.save(existingInvoice);
+        receivablesService.recordChange(before, Contribution.of(savedInvoice));
+        return savedInvoice;
     }
 
     /**
@@ -108,6 +113,16 @@ public class InvoiceService {
                 .orElseThrow(() -> new IllegalArgumentException("Invoice not found with id: " + id));
     }
 
+    /**
+     * Get invoice with its client and items as a read model
+     */
+    @Transactional(readOnly = true)
+    public InvoiceDetailView getInvoiceDetail(Long id) {
+        return invoiceRepository.findDetailById(id)
+                .map(InvoiceDetailView::of)
+                .orElseThrow(() -> new IllegalArgumentException("Invoice not found with id: " + id));
+    }
+
     /**
      * Get invoice by invoice number
      */
@@ -117,11 +132,37 @@ public class InvoiceService {
     }
 
     /**
-     * Get all invoices
+     * Get invoice by invoice number with its client and items as a read model
      */
     @Transactional(readOnly = true)
-    public List<Invoice> getAllInvoices() {
-        return invoiceRepository.findAll(Sort.by(Sort.Direction.DESC, "invoiceDate"));
+    public Optional<InvoiceDetailView> getInvoiceDetailByNumber(String invoiceNumber) {
+        return invoiceRepository.findDetailByInvoiceNumber(invoiceNumber).map(InvoiceDetailView::of);
+    }
+
+    /**
+     * Get a page of invoices using keyset pagination on (invoiceDate DESC, id DESC)
+     * Only pageSize + 1 rows are read per call, so deep pages cost the same as the first one
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InvoiceSummaryView> getInvoicePage(String cursor, int pageSize, Long adminId) {
+        int size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<InvoiceSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = invoiceRepository.findFirstKeysetPage(adminId, limit);
+        } else {
+            InvoiceCursor position = InvoiceCursor.decode(cursor);
+            rows = invoiceRepository.findKeysetPageAfter(adminId, position.invoiceDate(), position.id(), limit);
+        }
+
+        if (rows.size() <= size) {
+            return CursorPage.of(rows, null);
+        }
+
+        List<InvoiceSummaryView> page = rows.subList(0, size);
+        InvoiceSummaryView last = page.get(size - 1);
+        return CursorPage.of(page, new InvoiceCursor(last.invoiceDate(), last.id()).encode());
     }
 
     /**
@@ -176,10 +217,33 @@ public class InvoiceService {
      * Search invoices with pagination
      */
     @Transactional(readOnly = true)
-    public Page<Invoice> searchInvoices(Long userId, Long adminId, Invoice.InvoiceStatus status,
-                                       LocalDate startDate, LocalDate endDate, String searchTerm,
-                                       Pageable pageable) {
-        return invoiceRepository.searchInvoices(userId, adminId, status, startDate, endDate, searchTerm, pageable);
+    public Page<InvoiceSummaryView> searchInvoices(Long userId, Long adminId, Invoice.InvoiceStatus status,
+                                                   LocalDate startDate, LocalDate endDate, String searchTerm,
+                                                   Pageable pageable) {
+        if (searchTerm == null) {
+            return invoiceRepository.searchInvoices(userId, adminId, status, startDate, endDate, null, pageable);
+        }
+        
+        // The index matches the term literally, so the LIKE predicates must too
+        String likeTerm = escapeLikeWildcards(searchTerm);
+
+        // Narrow the text match through the search index, the query re-checks the predicates on the candidates only
+        Optional<InvoiceSearchIndex.Candidates> candidates = invoiceSearchIndex.findCandidates(searchTerm);
+        if (candidates.isEmpty()) {
+            return invoiceRepository.searchInvoices(userId, adminId, status, startDate, endDate, likeTerm, pageable);
+        }
+        if (candidates.get().isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return invoiceRepository.searchInvoicesAmong(nonEmpty(candidates.get().invoiceIds()),
+                nonEmpty(candidates.get().userIds()), userId, adminId, status, startDate, endDate, likeTerm, pageable);
+    }
+
+    /**
+     * Escape a search term for the search queries' LIKE ... ESCAPE '!' predicates
+     */
+    static String escapeLikeWildcards(String searchTerm) {
+        return searchTerm.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
     /**
@@ -202,6 +266,7 @@ public class InvoiceService {
             throw new IllegalStateException("Cannot delete invoice with payments. Consider cancelling instead.");
         }
         
+        receivablesService.recordChange(Contribution.of(invoice), Contribution.NONE);
         invoiceRepository.delete(invoice);
     }
 
@@ -210,32 +275,36 @@ public class InvoiceService {
      */
     public Invoice cancelInvoice(Long id) {
         Invoice invoice = getInvoiceById(id);
+        Contribution before = Contribution.of(invoice);
         invoice.setInvoiceStatus(Invoice.InvoiceStatus.CANCELLED);
-        return invoiceRepository.save(invoice);
+        Invoice savedInvoice = invoiceRepository.save(invoice);
+        receivablesService.recordChange(before, Contribution.NONE);
+        return savedInvoice;
     }
 
     /**
      * Add payment to invoice
      */
     public Invoice addPayment(Long id, BigDecimal paymentAmount) {
-        Invoice invoice = getInvoiceById(id);
-        
-        if (paymentAmount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (paymentAmount == null || paymentAmount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Payment amount must be positive");
         }
         
-        BigDecimal currentPaid = invoice.getInvoicePaidAmount();
-        BigDecimal totalAmount = invoice.getTotalAmount();
-        BigDecimal newPaidAmount = currentPaid.add(paymentAmount);
-        
-        if (newPaidAmount.compareTo(totalAmount) > 0) {
+        // The balance check and the increment happen in one statement, so concurrent payments cannot overpay
+        int updated = invoiceRepository.applyPayment(id, paymentAmount, Invoice.InvoiceStatus.PAID,
+                Invoice.InvoiceStatus.PARTIAL_PAID, Invoice.InvoiceStatus.CANCELLED, LocalDateTime.now());
+        Invoice invoice = getInvoiceById(id);
+        if (updated == 0) {
+            if (invoice.getInvoiceStatus() == Invoice.InvoiceStatus.CANCELLED) {
+                throw new IllegalStateException("Cannot apply payment to cancelled invoice: " + id);
+            }
             throw new IllegalArgumentException("Payment amount exceeds outstanding balance");
         }
         
-        invoice.setInvoicePaidAmount(newPaidAmount);
-        invoice.updateStatus();
-        
-        return invoiceRepository.save(invoice);
+        long countDelta = invoice.getInvoiceStatus() == Invoice.InvoiceStatus.PAID ? -1 : 0;
+        receivablesService.applyDelta(ReceivablesSummary.tenantKey(invoice.getAdminId()), invoice.getUser().getId(),
+                                      paymentAmount.negate(), countDelta);
+        return invoice;
     }
 
     /**
@@ -243,9 +312,12 @@ public class InvoiceService {
      */
     public Invoice addInvoiceItem(Long invoiceId, InvoiceItem item) {
         Invoice invoice = getInvoiceById(invoiceId);
+        Contribution before = Contribution.of(invoice);
         invoice.addInvoiceItem(item);
         calculateInvoiceTotals(invoice);
-        return invoiceRepository.save(invoice);
+        Invoice savedInvoice = invoiceRepository.save(invoice);
+        receivablesService.recordChange(before, Contribution.of(savedInvoice));
+        return savedInvoice;
     }
 
     /**
@@ -258,35 +330,36 @@ public class InvoiceService {
                 .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Invoice item not found"));
         
+        Contribution before = Contribution.of(invoice);
         invoice.removeInvoiceItem(itemToRemove);
         calculateInvoiceTotals(invoice);
-        return invoiceRepository.save(invoice);
+        Invoice savedInvoice = invoiceRepository.save(invoice);
+        receivablesService.recordChange(before, Contribution.of(savedInvoice));
+        return savedInvoice;
     }
 
     /**
-     * Generate next invoice number
+     * Generate next invoice number for a tenant
+     * Numbers are allocated from the tenant's yearly sequence and are never handed out twice
      */
-    @Transactional(readOnly = true)
-    public String generateNextInvoiceNumber() {
-        String prefix = "INV-" + LocalDate.now().getYear() + "-";
-        long count = invoiceRepository.count() + 1;
-        return STR."\{prefix}\{String.format("%06d", count)}";
+    public String generateNextInvoiceNumber(Long adminId) {
+        return invoiceNumberAllocator.nextInvoiceNumber(adminId);
     }
 
     /**
-     * Calculate total outstanding amount
+     * Calculate total outstanding amount from the receivables summary
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateTotalOutstandingAmount() {
-        return invoiceRepository.calculateTotalOutstandingAmount();
+        return receivablesService.getTotalOutstandingAmount();
     }
 
     /**
-     * Calculate total outstanding amount by user
+     * Calculate total outstanding amount by user from the receivables summary
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateTotalOutstandingAmountByUser(Long userId) {
-        return invoiceRepository.calculateTotalOutstandingAmountByUser(userId);
+        return receivablesService.getTotalOutstandingAmountByUser(userId);
     }
 
     /**
@@ -315,6 +388,44 @@ public class InvoiceService {
         return invoiceRepository.countByInvoiceStatus(status);
     }
 
+    /**
+     * Set default values, link items and calculate totals for an invoice about to be inserted
+     */
+    void prepareNewInvoice(Invoice invoice) {
+        if (invoice.getInvoiceDate() == null) {
+            invoice.setInvoiceDate(LocalDate.now());
+        }
+        
+        if (invoice.getInvoiceStatus() == null) {
+            invoice.setInvoiceStatus(Invoice.InvoiceStatus.OPEN);
+        }
+        
+        if (invoice.getVatAmount() == null) {
+            invoice.setVatAmount(BigDecimal.ZERO);
+        }
+        
+        if (invoice.getInvoicePaidAmount() == null) {
+            invoice.setInvoicePaidAmount(BigDecimal.ZERO);
+        }
+        
+        // Items arrive from JSON without the back reference that owns the foreign key
+        for (InvoiceItem item : invoice.getInvoiceItems()) {
+            item.setInvoice(invoice);
+        }
+        
+        // Calculate totals from invoice items if present
+        if (!invoice.getInvoiceItems().isEmpty()) {
+            calculateInvoiceTotals(invoice);
+        }
+    }
+
+    /**
+     * IN lists may not be empty, an id that is never generated stands in for none
+     */
+    private static List<Long> nonEmpty(List<Long> ids) {
+        return ids.isEmpty() ? List.of(-1L) : ids;
+    }
+
     /**
      * Calculate invoice totals from items
      */
@@ -334,7 +445,7 @@ public class InvoiceService {
     /**
      * Validate invoice data
      */
-    private void validateInvoice(Invoice invoice) {
+    void validateInvoice(Invoice invoice) {
         if (invoice.getInvoiceNumber() == null || invoice.getInvoiceNumber().trim().isEmpty()) {
             throw new IllegalArgumentException("Invoice number is required");
         }
@@ -0,0 +1,132 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.InvoiceStatistics;
+import com.eretailgoals.dto.InvoiceStatistics.StatusTotals;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.repository.InvoiceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Service class serving invoice statistics from a short-lived per-tenant snapshot
+ * Concurrent requests for an expired or missing snapshot are coalesced so that only one
+ * of them runs the grouped query while the others wait for its result
+ */
+@Service
+public class InvoiceStatisticsService {
+
+    private static final int MAX_SNAPSHOTS = 10_000;
+
+    private final InvoiceRepository invoiceRepository;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<SnapshotKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InvoiceStatisticsService(InvoiceRepository invoiceRepository,
+                                    @Value("${invoice.statistics.ttl:5s}") Duration ttl) {
+        this(invoiceRepository, ttl, System::nanoTime);
+    }
+
+    InvoiceStatisticsService(InvoiceRepository invoiceRepository, Duration ttl, LongSupplier nanoClock) {
+        this.invoiceRepository = invoiceRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Get invoice statistics for a tenant, or for all tenants when adminId is null
+     */
+    public InvoiceStatistics getStatistics(Long adminId) {
+        SnapshotKey key = new SnapshotKey(adminId);
+        long now = nanoClock.getAsLong();
+
+        Snapshot current = snapshots.get(key);
+        if (current != null && !current.isExpired(now)) {
+            return await(current.result());
+        }
+
+        if (snapshots.size() >= MAX_SNAPSHOTS) {
+            snapshots.values().removeIf(snapshot -> snapshot.isExpired(now));
+        }
+
+        Snapshot fresh = new Snapshot(new CompletableFuture<>(), now + ttlNanos);
+        Snapshot winner = snapshots.compute(key, (k, existing) ->
+                existing != null && !existing.isExpired(now) ? existing : fresh);
+
+        if (winner == fresh) {
+            try {
+                fresh.result().complete(load(adminId));
+            } catch (RuntimeException e) {
+                snapshots.remove(key, fresh);
+                fresh.result().completeExceptionally(e);
+            }
+        }
+        return await(winner.result());
+    }
+
+    /**
+     * Drop all cached snapshots
+     */
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    private InvoiceStatistics load(Long adminId) {
+        Map<Invoice.InvoiceStatus, StatusTotals> byStatus = new EnumMap<>(Invoice.InvoiceStatus.class);
+        for (Invoice.InvoiceStatus status : Invoice.InvoiceStatus.values()) {
+            byStatus.put(status, StatusTotals.EMPTY);
+        }
+        for (Object[] row : invoiceRepository.summarizeByStatus(adminId)) {
+            byStatus.put((Invoice.InvoiceStatus) row[0],
+                    new StatusTotals(((Number) row[1]).longValue(), (BigDecimal) row[2], (BigDecimal) row[3]));
+        }
+
+        BigDecimal totalOutstanding = ReceivablesService.OUTSTANDING_STATUSES.stream()
+                .map(status -> byStatus.get(status).outstandingAmount())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return new InvoiceStatistics(
+                byStatus.get(Invoice.InvoiceStatus.OPEN).count(),
+                byStatus.get(Invoice.InvoiceStatus.PARTIAL_PAID).count(),
+                byStatus.get(Invoice.InvoiceStatus.PAID).count(),
+                byStatus.get(Invoice.InvoiceStatus.OVERDUE).count(),
+                byStatus.get(Invoice.InvoiceStatus.CANCELLED).count(),
+                totalOutstanding,
+                byStatus,
+                LocalDateTime.now());
+    }
+
+    private static InvoiceStatistics await(CompletableFuture<InvoiceStatistics> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record SnapshotKey(Long adminId) {}
+
+    private record Snapshot(CompletableFuture<InvoiceStatistics> result, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.AuthenticatedUser;
+import com.eretailgoals.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service class issuing and verifying HMAC-signed JWT bearer tokens
+ * Tokens carry the user ID, username, user type and tenant, so a request is authenticated from the
+ * token alone without a database lookup. Verified tokens are kept in a bounded LRU cache keyed by the
+ * whole token, so repeat calls with the same token skip the signature check and claim parsing; a cached
+ * token is still refused once it expires. Tokens stay valid until they expire, even after the user is
+ * deactivated.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
+    static final String USERNAME_CLAIM = "username";
+    static final String USER_TYPE_CLAIM = "userType";
+    static final String ADMIN_ID_CLAIM = "adminId";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration expiration;
+    private final Map<String, AuthenticatedUser> verified;
+
+    @Autowired
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.expiration}") long expirationMillis,
+                      @Value("${jwt.cache-size:10000}") int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("JWT cache size must be positive");
+        }
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.expiration = Duration.ofMillis(expirationMillis);
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AuthenticatedUser> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Issue a signed token for a user
+     */
+    public String issueToken(User user) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .subject(String.valueOf(user.getId()))
+                .claim(USERNAME_CLAIM, user.getUsername())
+                .claim(USER_TYPE_CLAIM, user.getUserType().name())
+                .claim(ADMIN_ID_CLAIM, user.getAdminId())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(expiration)))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Verify a token and return its principal, or empty when the token is malformed, forged or expired
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        AuthenticatedUser cached;
+        synchronized (verified) {
+            cached = verified.get(token);
+        }
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                return Optional.of(cached);
+            }
+            synchronized (verified) {
+                verified.remove(token);
+            }
+            return Optional.empty();
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            AuthenticatedUser user = new AuthenticatedUser(Long.valueOf(claims.getSubject()),
+                    claims.get(USERNAME_CLAIM, String.class),
+                    User.UserType.valueOf(claims.get(USER_TYPE_CLAIM, String.class)),
+                    claims.get(ADMIN_ID_CLAIM, Long.class),
+                    claims.getExpiration().toInstant());
+            synchronized (verified) {
+                verified.put(token, user);
+            }
+            return Optional.of(user);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected bearer token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Lifetime of newly issued tokens
+     */
+    public Duration getExpiration() {
+        return expiration;
+    }
+
+    int cachedTokenCount() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+}
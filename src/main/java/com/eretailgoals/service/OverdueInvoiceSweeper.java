@@ -0,0 +1,112 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.repository.InvoiceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Scheduled job that persists the OVERDUE status of open invoices past their due date
+ * Walks the candidates in ID order and moves each page with one conditional UPDATE in its own
+ * transaction, so locks stay short and a rerun after a crash simply continues. Only the node
+ * holding the cluster-wide lock sweeps; the others skip the run.
+ */
+@Component
+public class OverdueInvoiceSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueInvoiceSweeper.class);
+
+    static final String LOCK_NAME = "invoice-overdue-sweep";
+
+    private final InvoiceRepository invoiceRepository;
+    private final SchedulerLockService lockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lockLease;
+
+    private final Counter updatedCounter;
+    private final Counter skippedCounter;
+    private final Timer runTimer;
+
+    @Autowired
+    public OverdueInvoiceSweeper(InvoiceRepository invoiceRepository,
+                                 SchedulerLockService lockService,
+                                 MeterRegistry meterRegistry,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${invoice.overdue.batch-size:5000}") int batchSize,
+                                 @Value("${invoice.overdue.lock-lease:10m}") Duration lockLease) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Overdue sweep batch size must be positive");
+        }
+        this.invoiceRepository = invoiceRepository;
+        this.lockService = lockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lockLease = lockLease;
+        this.updatedCounter = Counter.builder("invoice.overdue.sweep.updated")
+                .description("Invoices moved to OVERDUE by the sweeper")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("invoice.overdue.sweep.skipped")
+                .description("Sweeps skipped because another node held the lock")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("invoice.overdue.sweep.duration")
+                .description("Run time of completed overdue sweeps")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scheduled run, guarded by the cluster-wide lock
+     */
+    @Scheduled(cron = "${invoice.overdue.cron:0 */15 * * * *}")
+    public void run() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            skippedCounter.increment();
+            logger.debug("Overdue sweep skipped, lock {} is held by another node", LOCK_NAME);
+            return;
+        }
+        try {
+            sweep(LocalDate.now());
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Move every OPEN invoice due before the given date to OVERDUE and return how many changed
+     */
+    public long sweep(LocalDate currentDate) {
+        long started = System.nanoTime();
+        long updated = 0;
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = invoiceRepository.findPastDueIdsAfter(Invoice.InvoiceStatus.OPEN, currentDate, afterId,
+                                                              PageRequest.of(0, batchSize))).isEmpty()) {
+            List<Long> batch = ids;
+            Integer changed = transactionTemplate.execute(status -> invoiceRepository.updatePastDueStatus(
+                    batch, Invoice.InvoiceStatus.OPEN, Invoice.InvoiceStatus.OVERDUE, currentDate, LocalDateTime.now()));
+            int count = changed != null ? changed : 0;
+            updated += count;
+            updatedCounter.increment(count);
+            afterId = batch.get(batch.size() - 1);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        runTimer.record(Duration.ofNanos(elapsedNanos));
+        logger.info("Overdue sweep moved {} invoices to OVERDUE in {} ms", updated, Duration.ofNanos(elapsedNanos).toMillis());
+        return updated;
+    }
+}
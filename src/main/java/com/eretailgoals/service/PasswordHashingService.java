@@ -0,0 +1,205 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.exception.GlobalExceptionHandler.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Service class running BCrypt hashing on a dedicated, bounded thread pool
+ * Each hash costs tens of milliseconds of CPU, so running them on request threads lets a burst of logins or
+ * imports take every core. Here at most pool-size hashes run at once, a bounded queue holds the next few,
+ * and anything beyond that is refused at once with TooManyRequestsException (HTTP 429) instead of queueing
+ * behind the burst. Callers should hash outside database transactions so a waiting request holds no connection.
+ * Bulk imports use encodeAll, which keeps at most pool-size hashes in flight so interactive requests queued
+ * meanwhile wait behind one round of hashes rather than the whole import.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final long BACK_OFF_MILLIS = 10;
+
+    enum Operation { ENCODE, MATCHES }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Map<Operation, Timer> hashTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Timer> waitTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> rejectedCounters = new EnumMap<>(Operation.class);
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${user.password-hashing.threads:0}") int threads,
+                                  @Value("${user.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${user.password-hashing.timeout:5s}") Duration timeout) {
+        if (threads < 0 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Password hashing pool sizes must be positive");
+        }
+        // By default hashing may use half the cores, leaving the rest to ordinary requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        for (Operation operation : Operation.values()) {
+            String tag = operation.name().toLowerCase();
+            hashTimers.put(operation, Timer.builder("user.password.hashing.duration")
+                    .description("CPU time of password hash operations")
+                    .tag("operation", tag)
+                    .register(meterRegistry));
+            waitTimers.put(operation, Timer.builder("user.password.hashing.wait")
+                    .description("Time password hash operations spent queued for a hashing thread")
+                    .tag("operation", tag)
+                    .register(meterRegistry));
+            rejectedCounters.put(operation, Counter.builder("user.password.hashing.rejected")
+                    .description("Password hash operations refused because the pool was saturated")
+                    .tag("operation", tag)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("user.password.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hash operations waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hash a raw password
+     */
+    public String encode(CharSequence rawPassword) {
+        return run(Operation.ENCODE, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a raw password against a stored hash
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(Operation.MATCHES, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash many passwords for a bulk import, returning one future per password in the same order
+     * A null password yields a null hash. When the queue is full of interactive requests the import backs off
+     * and retries until the timeout, then fails with TooManyRequestsException.
+     */
+    public List<CompletableFuture<String>> encodeAll(List<String> rawPasswords) {
+        Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        try {
+            for (String rawPassword : rawPasswords) {
+                if (rawPassword == null) {
+                    hashes.add(CompletableFuture.completedFuture(null));
+                    continue;
+                }
+                inFlight.acquire();
+                Supplier<String> task = timed(Operation.ENCODE, System.nanoTime(),
+                                              () -> passwordEncoder.encode(rawPassword));
+                hashes.add(submitWithBackOff(task).whenComplete((hash, error) -> inFlight.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            hashes.forEach(hash -> hash.cancel(true));
+            throw new IllegalStateException("Interrupted while submitting password hashes", e);
+        } catch (RuntimeException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            throw e;
+        }
+        return hashes;
+    }
+
+    private CompletableFuture<String> submitWithBackOff(Supplier<String> task) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            try {
+                return CompletableFuture.supplyAsync(task, executor);
+            } catch (RejectedExecutionException e) {
+                if (System.nanoTime() > deadline) {
+                    rejectedCounters.get(Operation.ENCODE).increment();
+                    throw new TooManyRequestsException("Too many password operations in progress, try again later");
+                }
+                Thread.sleep(BACK_OFF_MILLIS);
+            }
+        }
+    }
+
+    private <T> T run(Operation operation, Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(timed(operation, System.nanoTime(), task)::get);
+        } catch (RejectedExecutionException e) {
+            rejectedCounters.get(operation).increment();
+            throw new TooManyRequestsException("Too many password operations in progress, try again later");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounters.get(operation).increment();
+            logger.warn("Password {} timed out after {}", operation, timeout);
+            throw new TooManyRequestsException("Password operation timed out, try again later");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Wrap a task so its queue wait and run time are recorded
+     */
+    private <T> Supplier<T> timed(Operation operation, long submitted, Supplier<T> task) {
+        return () -> {
+            long started = System.nanoTime();
+            waitTimers.get(operation).record(started - submitted, TimeUnit.NANOSECONDS);
+            try {
+                return task.get();
+            } finally {
+                hashTimers.get(operation).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,219 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.ReceivablesDriftReport;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.ReceivablesSummary;
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.ReceivablesSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class maintaining the receivables summary table
+ * Invoice writes report their outstanding contribution before and after the change, and the
+ * difference is applied to the (adminId, userId) summary row in the caller's transaction
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class ReceivablesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceivablesService.class);
+
+    static final Set<Invoice.InvoiceStatus> OUTSTANDING_STATUSES =
+            EnumSet.of(Invoice.InvoiceStatus.OPEN, Invoice.InvoiceStatus.PARTIAL_PAID, Invoice.InvoiceStatus.OVERDUE);
+
+    private final ReceivablesSummaryRepository summaryRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final TransactionTemplate newRowTransaction;
+
+    @Autowired
+    public ReceivablesService(ReceivablesSummaryRepository summaryRepository,
+                              InvoiceRepository invoiceRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.newRowTransaction = new TransactionTemplate(transactionManager);
+        this.newRowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Outstanding contribution of a single invoice to its summary row
+     */
+    public record Contribution(long adminId, Long userId, BigDecimal amount, long count) {
+
+        public static final Contribution NONE = new Contribution(ReceivablesSummary.NO_TENANT, null, BigDecimal.ZERO, 0);
+
+        public static Contribution of(Invoice invoice) {
+            if (invoice.getUser() == null || !OUTSTANDING_STATUSES.contains(invoice.getInvoiceStatus())) {
+                return NONE;
+            }
+            return new Contribution(ReceivablesSummary.tenantKey(invoice.getAdminId()), invoice.getUser().getId(),
+                                    invoice.getOutstandingAmount(), 1);
+        }
+
+        boolean isNone() {
+            return userId == null;
+        }
+    }
+
+    /**
+     * Record the change of an invoice's contribution, e.g. Contribution.NONE to the new state on create
+     */
+    public void recordChange(Contribution before, Contribution after) {
+        if (!before.isNone() && !after.isNone()
+                && before.adminId() == after.adminId() && before.userId().equals(after.userId())) {
+            applyDelta(after.adminId(), after.userId(),
+                       after.amount().subtract(before.amount()), after.count() - before.count());
+            return;
+        }
+        if (!before.isNone()) {
+            applyDelta(before.adminId(), before.userId(), before.amount().negate(), -before.count());
+        }
+        if (!after.isNone()) {
+            applyDelta(after.adminId(), after.userId(), after.amount(), after.count());
+        }
+    }
+
+    /**
+     * Apply a delta to a summary row, creating the row first if the client has none yet
+     */
+    public void applyDelta(long adminId, Long userId, BigDecimal amountDelta, long countDelta) {
+        if (amountDelta.signum() == 0 && countDelta == 0) {
+            return;
+        }
+        if (summaryRepository.applyDelta(adminId, userId, amountDelta, countDelta, LocalDateTime.now()) == 0) {
+            createEmptyRow(adminId, userId);
+            summaryRepository.applyDelta(adminId, userId, amountDelta, countDelta, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Insert a zero row in its own transaction so a concurrent insert cannot poison the caller's transaction
+     */
+    private void createEmptyRow(long adminId, Long userId) {
+        try {
+            newRowTransaction.executeWithoutResult(status ->
+                    summaryRepository.saveAndFlush(new ReceivablesSummary(adminId, userId)));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Receivables row for admin {} and user {} created concurrently", adminId, userId);
+        }
+    }
+
+    /**
+     * Calculate total outstanding amount from the summary table
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalOutstandingAmount() {
+        return summaryRepository.sumOutstandingAmount();
+    }
+
+    /**
+     * Calculate total outstanding amount for a client from the summary table
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalOutstandingAmountByUser(Long userId) {
+        return summaryRepository.sumOutstandingAmountByUserId(userId);
+    }
+
+    /**
+     * Recompute every summary row from the invoices table, correct drifted rows and report them
+     * Drift is detected on a plain read; each suspect row is then recounted and corrected in its own
+     * transaction under its row lock, which every invoice write also takes when it applies its delta
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReceivablesDriftReport rebuild() {
+        Map<String, ReceivablesSummary> existing = new HashMap<>();
+        for (ReceivablesSummary summary : summaryRepository.findAll()) {
+            existing.put(key(summary.getAdminId(), summary.getUserId()), summary);
+        }
+
+        List<ReceivablesSummary> suspects = new ArrayList<>();
+        int rowsChecked = 0;
+        for (Object[] row : invoiceRepository.summarizeOutstandingByAdminAndUser()) {
+            long adminId = ReceivablesSummary.tenantKey((Long) row[0]);
+            Long userId = (Long) row[1];
+            rowsChecked++;
+
+            ReceivablesSummary summary = existing.remove(key(adminId, userId));
+            if (summary == null) {
+                suspects.add(new ReceivablesSummary(adminId, userId));
+            } else if (!matches(summary, (BigDecimal) row[2], ((Number) row[3]).longValue())) {
+                suspects.add(summary);
+            }
+        }
+
+        // Rows left over have no outstanding invoices any more and must be zero
+        for (ReceivablesSummary summary : existing.values()) {
+            rowsChecked++;
+            if (!matches(summary, BigDecimal.ZERO, 0)) {
+                suspects.add(summary);
+            }
+        }
+
+        List<ReceivablesDriftReport.Drift> drifts = new ArrayList<>();
+        for (ReceivablesSummary suspect : suspects) {
+            ReceivablesDriftReport.Drift drift = newRowTransaction.execute(status ->
+                    reconcile(suspect.getAdminId(), suspect.getUserId()));
+            if (drift != null) {
+                drifts.add(drift);
+            }
+        }
+
+        if (!drifts.isEmpty()) {
+            logger.warn("Receivables summary drift corrected on {} of {} rows: {}", drifts.size(), rowsChecked, drifts);
+        }
+        return new ReceivablesDriftReport(rowsChecked, drifts.size(), drifts, LocalDateTime.now());
+    }
+
+    /**
+     * Lock a summary row, recount the client's invoices and overwrite the row if it still disagrees
+     * Writers holding the row lock have committed by the time the recount runs, and later writers
+     * apply their deltas on top of the corrected totals
+     */
+    private ReceivablesDriftReport.Drift reconcile(long adminId, Long userId) {
+        ReceivablesSummary summary = summaryRepository.findForUpdate(adminId, userId).orElse(null);
+        if (summary == null) {
+            createEmptyRow(adminId, userId);
+            summary = summaryRepository.findForUpdate(adminId, userId).orElseThrow();
+        }
+
+        Object[] row = invoiceRepository.summarizeOutstandingByAdminAndUser(adminId, userId).get(0);
+        BigDecimal expectedAmount = (BigDecimal) row[0];
+        long expectedCount = ((Number) row[1]).longValue();
+        if (matches(summary, expectedAmount, expectedCount)) {
+            return null;
+        }
+        ReceivablesDriftReport.Drift drift = new ReceivablesDriftReport.Drift(adminId, userId,
+                expectedAmount, summary.getOutstandingAmount(), expectedCount, summary.getOpenInvoiceCount());
+        summary.setOutstandingAmount(expectedAmount);
+        summary.setOpenInvoiceCount(expectedCount);
+        summaryRepository.save(summary);
+        return drift;
+    }
+
+    private static boolean matches(ReceivablesSummary summary, BigDecimal expectedAmount, long expectedCount) {
+        return summary.getOutstandingAmount().compareTo(expectedAmount) == 0
+                && summary.getOpenInvoiceCount() == expectedCount;
+    }
+
+    private static String key(long adminId, Long userId) {
+        return adminId + ":" + userId;
+    }
+}
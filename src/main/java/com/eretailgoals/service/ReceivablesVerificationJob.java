@@ -0,0 +1,99 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.ReceivablesDriftReport;
+import com.eretailgoals.repository.ReceivablesSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduled job that rebuilds the receivables summary from scratch and reports drift
+ * Also seeds the summary table on startup when it is still empty. Every run holds the
+ * cluster-wide lock so only one node rebuilds at a time.
+ */
+@Component
+public class ReceivablesVerificationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceivablesVerificationJob.class);
+
+    static final String LOCK_NAME = "receivables-verification";
+
+    private final ReceivablesService receivablesService;
+    private final ReceivablesSummaryRepository summaryRepository;
+    private final SchedulerLockService lockService;
+    private final Duration lockLease;
+
+    @Autowired
+    public ReceivablesVerificationJob(ReceivablesService receivablesService,
+                                      ReceivablesSummaryRepository summaryRepository,
+                                      SchedulerLockService lockService,
+                                      @Value("${receivables.verification.lock-lease:1h}") Duration lockLease) {
+        this.receivablesService = receivablesService;
+        this.summaryRepository = summaryRepository;
+        this.lockService = lockService;
+        this.lockLease = lockLease;
+    }
+
+    /**
+     * Seed the summary table for databases that predate it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            logger.debug("Receivables seeding skipped, lock {} is held by another node", LOCK_NAME);
+            return;
+        }
+        try {
+            if (summaryRepository.count() == 0) {
+                ReceivablesDriftReport report = receivablesService.rebuild();
+                logger.info("Seeded receivables summary with {} rows", report.rowsDrifted());
+            }
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Nightly verification run, skipped when another node is already verifying
+     */
+    @Scheduled(cron = "${receivables.verification.cron:0 30 2 * * *}")
+    public void run() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            logger.debug("Receivables verification skipped, lock {} is held by another node", LOCK_NAME);
+            return;
+        }
+        try {
+            rebuild();
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * On-demand verification run
+     * @throws IllegalStateException if another node is verifying right now
+     */
+    public ReceivablesDriftReport verify() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            throw new IllegalStateException("Receivables verification is already running on another node");
+        }
+        try {
+            return rebuild();
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    private ReceivablesDriftReport rebuild() {
+        ReceivablesDriftReport report = receivablesService.rebuild();
+        logger.info("Receivables verification checked {} rows, corrected {}", report.rowsChecked(), report.rowsDrifted());
+        return report;
+    }
+}
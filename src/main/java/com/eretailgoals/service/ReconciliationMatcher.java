@@ -0,0 +1,160 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.OpenInvoiceView;
+import com.eretailgoals.dto.ReconciliationReport.MatchRule;
+import com.eretailgoals.dto.UnreconciledTransactionView;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-memory matcher between unreconciled transactions and open invoices
+ * Open invoices are indexed once by normalized invoice number and by tenant and outstanding amount,
+ * so each transaction costs a few hash lookups instead of a scan of every invoice. A reference match
+ * is final as soon as it is found; an amount-only match is kept only when neither the amount nor the
+ * invoice is claimed by anything else once every transaction has been offered
+ */
+class ReconciliationMatcher {
+
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private final Map<String, OpenInvoiceView> byNumber = new HashMap<>();
+    private final Map<AmountKey, OpenInvoiceView> byAmount = new HashMap<>();
+    private final Set<AmountKey> sharedAmounts = new HashSet<>();
+    private final Set<Long> referencedInvoices = new HashSet<>();
+    private final Map<Long, List<UnreconciledTransactionView>> amountCandidates = new LinkedHashMap<>();
+    private final List<Candidate> matches = new ArrayList<>();
+    private long ambiguous;
+    private int indexed;
+
+    ReconciliationMatcher(Collection<OpenInvoiceView> invoices) {
+        for (OpenInvoiceView invoice : invoices) {
+            if (invoice.outstandingAmount() == null || invoice.outstandingAmount().signum() <= 0) {
+                continue;
+            }
+            indexed++;
+            String number = normalize(invoice.invoiceNumber());
+            if (!number.isEmpty()) {
+                byNumber.put(number, invoice);
+            }
+            AmountKey key = AmountKey.of(invoice.adminId(), invoice.outstandingAmount());
+            if (byAmount.putIfAbsent(key, invoice) != null) {
+                sharedAmounts.add(key);
+            }
+        }
+    }
+
+    /**
+     * Match one transaction, by an invoice number in its reference or notes first and by amount second
+     */
+    void offer(UnreconciledTransactionView transaction) {
+        OpenInvoiceView invoice = findByReference(transaction, transaction.referenceNumber());
+        if (invoice == null) {
+            invoice = findByReference(transaction, transaction.notes());
+        }
+        if (invoice != null) {
+            boolean exact = invoice.outstandingAmount().compareTo(transaction.transactionAmount()) == 0;
+            matches.add(new Candidate(transaction, invoice, exact ? MatchRule.REFERENCE_AND_AMOUNT : MatchRule.REFERENCE));
+            referencedInvoices.add(invoice.id());
+            return;
+        }
+        AmountKey key = AmountKey.of(transaction.adminId(), transaction.transactionAmount());
+        if (sharedAmounts.contains(key)) {
+            ambiguous++;
+            return;
+        }
+        OpenInvoiceView byAmountInvoice = byAmount.get(key);
+        if (byAmountInvoice != null) {
+            amountCandidates.computeIfAbsent(byAmountInvoice.id(), id -> new ArrayList<>(1)).add(transaction);
+        }
+    }
+
+    /**
+     * Resolve the amount-only candidates and return every match
+     */
+    List<Candidate> finish() {
+        List<Candidate> result = new ArrayList<>(matches);
+        amountCandidates.forEach((invoiceId, transactions) -> {
+            if (referencedInvoices.contains(invoiceId) || transactions.size() > 1) {
+                ambiguous += transactions.size();
+                return;
+            }
+            UnreconciledTransactionView transaction = transactions.get(0);
+            OpenInvoiceView invoice = byAmount.get(AmountKey.of(transaction.adminId(), transaction.transactionAmount()));
+            result.add(new Candidate(transaction, invoice, MatchRule.AMOUNT));
+        });
+        amountCandidates.clear();
+        return result;
+    }
+
+    long getAmbiguous() {
+        return ambiguous;
+    }
+
+    int getIndexedInvoices() {
+        return indexed;
+    }
+
+    private OpenInvoiceView findByReference(UnreconciledTransactionView transaction, String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && isTokenChar(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    OpenInvoiceView invoice = byNumber.get(normalize(text.substring(start, i)));
+                    if (invoice != null && Objects.equals(invoice.adminId(), transaction.adminId())) {
+                        return invoice;
+                    }
+                }
+                start = -1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Invoice numbers are compared upper-cased without separators, so inv_2024_0001 matches INV-2024-0001
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
+
+    record Candidate(UnreconciledTransactionView transaction, OpenInvoiceView invoice, MatchRule rule) {
+    }
+
+    private record AmountKey(Long adminId, BigDecimal amount) {
+
+        static AmountKey of(Long adminId, BigDecimal amount) {
+            return new AmountKey(adminId, amount.setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+}
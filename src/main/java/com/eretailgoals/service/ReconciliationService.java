@@ -0,0 +1,168 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.OpenInvoiceView;
+import com.eretailgoals.dto.ReconciliationReport;
+import com.eretailgoals.dto.ReconciliationReport.Match;
+import com.eretailgoals.dto.ReconciliationReport.MatchRule;
+import com.eretailgoals.dto.UnreconciledTransactionView;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.TransactionRepository;
+import com.eretailgoals.service.ReconciliationMatcher.Candidate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for automatic reconciliation of bank transactions against open invoices
+ * Open invoices are loaded once into hash indexes and unreconciled incoming transactions are streamed
+ * past them in ID-ordered pages, so a run is linear in the number of transactions and invoices.
+ * Accepted matches are written with batched JDBC updates, one transaction per batch; each update only
+ * touches rows that are still unreconciled, so concurrent manual reconciliation always wins.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+
+    /** Only money coming in can settle a receivable */
+    private static final Set<Transaction.TransactionType> INCOMING =
+            Set.of(Transaction.TransactionType.RECEIVE, Transaction.TransactionType.DEPOSIT);
+
+    static final String RECONCILE_SQL = "UPDATE transactions SET is_reconciled = TRUE, invoice_id = ?, last_modified = ? " +
+                                        "WHERE id = ? AND is_reconciled = FALSE AND invoice_id IS NULL";
+
+    private final TransactionRepository transactionRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+    private final int batchSize;
+    private final double minConfidence;
+    private final int maxReportedMatches;
+
+    @Autowired
+    public ReconciliationService(TransactionRepository transactionRepository,
+                                 InvoiceRepository invoiceRepository,
+                                 BankAccountRepository bankAccountRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${transaction.reconciliation.page-size:10000}") int pageSize,
+                                 @Value("${transaction.reconciliation.batch-size:1000}") int batchSize,
+                                 @Value("${transaction.reconciliation.min-confidence:0.80}") double minConfidence,
+                                 @Value("${transaction.reconciliation.max-reported-matches:1000}") int maxReportedMatches) {
+        if (pageSize < 1 || batchSize < 1 || maxReportedMatches < 0) {
+            throw new IllegalArgumentException("Reconciliation sizes must be positive");
+        }
+        this.transactionRepository = transactionRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.batchSize = batchSize;
+        this.minConfidence = minConfidence;
+        this.maxReportedMatches = maxReportedMatches;
+    }
+
+    /**
+     * Match unreconciled incoming transactions to open invoices, for one bank account or all of them
+     * With dryRun the matches are only reported
+     */
+    public ReconciliationReport reconcile(Long bankAccountId, boolean dryRun) {
+        long started = System.nanoTime();
+        Long adminId = null;
+        if (bankAccountId != null) {
+            BankAccount account = bankAccountRepository.findById(bankAccountId)
+                    .orElseThrow(() -> new IllegalArgumentException("Bank account not found with id: " + bankAccountId));
+            adminId = account.getAdminId();
+        }
+
+        List<OpenInvoiceView> invoices = invoiceRepository.findOpenInvoiceViews(adminId);
+        ReconciliationMatcher matcher = new ReconciliationMatcher(invoices);
+        long scanned = 0;
+        long afterId = 0;
+        List<UnreconciledTransactionView> page;
+        do {
+            PageRequest limit = PageRequest.of(0, pageSize);
+            page = bankAccountId != null
+                    ? transactionRepository.findUnreconciledByBankAccountAfter(bankAccountId, INCOMING, afterId, limit)
+                    : transactionRepository.findUnreconciledAfter(INCOMING, afterId, limit);
+            page.forEach(matcher::offer);
+            scanned += page.size();
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == pageSize);
+
+        List<Candidate> candidates = matcher.finish();
+        boolean[] applied = dryRun ? new boolean[candidates.size()] : apply(candidates);
+
+        Map<MatchRule, Long> byRule = new EnumMap<>(MatchRule.class);
+        List<Match> reported = new ArrayList<>(Math.min(candidates.size(), maxReportedMatches));
+        long appliedCount = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            byRule.merge(candidate.rule(), 1L, Long::sum);
+            if (applied[i]) {
+                appliedCount++;
+            }
+            if (reported.size() < maxReportedMatches) {
+                reported.add(new Match(candidate.transaction().id(), candidate.invoice().id(),
+                                       candidate.invoice().invoiceNumber(), candidate.rule(),
+                                       candidate.rule().getConfidence(), applied[i]));
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Reconciliation scanned {} transactions against {} invoices: {} matched, {} applied in {} ms",
+                    scanned, matcher.getIndexedInvoices(), candidates.size(), appliedCount, elapsedMillis);
+        return new ReconciliationReport(scanned, matcher.getIndexedInvoices(), candidates.size(), appliedCount,
+                                        matcher.getAmbiguous(), byRule, reported,
+                                        candidates.size() > reported.size(), dryRun, elapsedMillis);
+    }
+
+    /**
+     * Write the confident matches in batches, returning which candidates were actually updated
+     */
+    private boolean[] apply(List<Candidate> candidates) {
+        boolean[] applied = new boolean[candidates.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.get(i).rule().getConfidence() >= minConfidence) {
+                accepted.add(i);
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < accepted.size(); from += batchSize) {
+            List<Integer> batch = accepted.subList(from, Math.min(from + batchSize, accepted.size()));
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(RECONCILE_SQL,
+                    batch.stream().map(index -> {
+                        Candidate candidate = candidates.get(index);
+                        return new Object[] {candidate.invoice().id(), now, candidate.transaction().id()};
+                    }).toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                // Drivers that rewrite batches report success without a row count
+                applied[batch.get(i)] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+            }
+        }
+        return applied;
+    }
+}
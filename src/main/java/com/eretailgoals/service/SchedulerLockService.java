@@ -0,0 +1,81 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.SchedulerLock;
+import com.eretailgoals.repository.SchedulerLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cluster-wide locks for scheduled jobs, backed by lease rows in the scheduler_locks table
+ * A lock is held until its lease runs out or it is released, so a node that dies mid-run
+ * blocks the job for at most one lease.
+ */
+@Service
+public class SchedulerLockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLockService.class);
+
+    private final SchedulerLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    @Autowired
+    public SchedulerLockService(SchedulerLockRepository lockRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = STR."\{ManagementFactory.getRuntimeMXBean().getName()}/\{UUID.randomUUID().toString().substring(0, 8)}";
+    }
+
+    /**
+     * Try to take a lock for the given lease; false if another node holds it
+     */
+    public boolean tryAcquire(String lockName, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(lease);
+        try {
+            Boolean acquired = transactionTemplate.execute(status -> {
+                if (lockRepository.acquire(lockName, owner, now, lockedUntil) == 1) {
+                    return true;
+                }
+                if (lockRepository.existsById(lockName)) {
+                    return false;
+                }
+                lockRepository.saveAndFlush(new SchedulerLock(lockName, lockedUntil, now, owner));
+                return true;
+            });
+            if (Boolean.TRUE.equals(acquired)) {
+                logger.debug("Acquired lock {} until {}", lockName, lockedUntil);
+                return true;
+            }
+            return false;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lock row first and owns it
+            return false;
+        }
+    }
+
+    /**
+     * Give back a lock held by this node so the next run does not wait for the lease to expire
+     */
+    public void release(String lockName) {
+        transactionTemplate.executeWithoutResult(status ->
+                lockRepository.release(lockName, owner, LocalDateTime.now()));
+    }
+
+    String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,27 @@
+package com.eretailgoals.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats offered by the transaction export
+ */
+public enum TransactionExportFormat {
+    CSV(new MediaType("text", "csv"), "csv"),
+    NDJSON(new MediaType("application", "x-ndjson"), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TransactionExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
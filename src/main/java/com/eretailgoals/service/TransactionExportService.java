@@ -0,0 +1,242 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.TransactionView;
+import com.eretailgoals.entity.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Service class for exporting transactions as CSV or NDJSON
+ * Rows are read from a forward-only, read-only JDBC result and written to the output as they arrive, and
+ * nothing passes through the persistence context. On MySQL the statement asks Connector/J to stream rows
+ * (fetch size Integer.MIN_VALUE), since the driver otherwise reads the whole result into memory and a
+ * server-side cursor would first copy it into a temporary table; other drivers fetch a bounded number of
+ * rows at a time. Every filter combination has an index in the export order, so MySQL does not sort
+ * the rows before sending the first one. The CSV header is flushed before the query runs.
+ */
+@Service
+public class TransactionExportService {
+
+    static final String SELECT_SQL = "SELECT id, admin_id, bank_account_id, user_id, invoice_id, transaction_date, " +
+                                     "transaction_type, expense_type, transaction_amount, ending_balance, " +
+                                     "reference_number, notes, is_reconciled, date_created FROM transactions";
+
+    /** Connector/J streams a forward-only, read-only result row by row when given this fetch size */
+    static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    static final String CSV_HEADER = "id,adminId,bankAccountId,userId,invoiceId,transactionDate,transactionType," +
+                                     "expenseType,transactionAmount,endingBalance,referenceNumber,notes,isReconciled,dateCreated";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    @Autowired
+    public TransactionExportService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${transaction.export.fetch-size:1000}") int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Transaction export fetch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        // Read-only transaction so the whole export sees one snapshot
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonWriter = objectMapper.writerFor(TransactionView.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Write every transaction matching the optional filters to the output, oldest first
+     */
+    public void export(TransactionExportFormat format, Long bankAccountId, Long adminId,
+                       LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        addCondition(conditions, parameters, "bank_account_id = ?", bankAccountId);
+        addCondition(conditions, parameters, "admin_id = ?", adminId);
+        addCondition(conditions, parameters, "transaction_date >= ?", startDate);
+        addCondition(conditions, parameters, "transaction_date <= ?", endDate);
+        String sql = SELECT_SQL + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                     + " ORDER BY transaction_date, date_created, id";
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == TransactionExportFormat.NDJSON ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+        rowWriter.start();
+        writer.flush();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                                          ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(isMySql(connection) ? MYSQL_STREAMING_FETCH_SIZE : fetchSize);
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                return statement;
+            }, resultSet -> {
+                try {
+                    rowWriter.write(toView(resultSet));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+    }
+
+    private static void addCondition(List<String> conditions, List<Object> parameters, String condition, Object value) {
+        if (value != null) {
+            conditions.add(condition);
+            parameters.add(value);
+        }
+    }
+
+    static TransactionView toView(ResultSet resultSet) throws SQLException {
+        String expenseType = resultSet.getString("expense_type");
+        return new TransactionView(resultSet.getLong("id"),
+                resultSet.getObject("admin_id", Long.class),
+                resultSet.getObject("bank_account_id", Long.class),
+                resultSet.getObject("user_id", Long.class),
+                resultSet.getObject("invoice_id", Long.class),
+                resultSet.getObject("transaction_date", LocalDate.class),
+                Transaction.TransactionType.valueOf(resultSet.getString("transaction_type")),
+                expenseType != null ? Transaction.ExpenseType.valueOf(expenseType) : null,
+                resultSet.getBigDecimal("transaction_amount"),
+                resultSet.getBigDecimal("ending_balance"),
+                resultSet.getString("reference_number"),
+                resultSet.getString("notes"),
+                resultSet.getObject("is_reconciled", Boolean.class),
+                resultSet.getObject("date_created", LocalDateTime.class));
+    }
+
+    /**
+     * Quote a CSV field when it holds a separator, quote or line break
+     */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal amount ? amount.toPlainString() : value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+        }
+        return text;
+    }
+
+    private interface RowWriter {
+
+        void start() throws IOException;
+
+        void write(TransactionView row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(TransactionView row) throws IOException {
+            Object[] fields = {row.id(), row.adminId(), row.bankAccountId(), row.userId(), row.invoiceId(),
+                               row.transactionDate(), row.transactionType(), row.expenseType(),
+                               row.transactionAmount(), row.endingBalance(), row.referenceNumber(), row.notes(),
+                               row.isReconciled(), row.dateCreated()};
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(fields[i]));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = jsonWriter.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(TransactionView row) throws IOException {
+            // The generator puts the root value separator before every row but the first
+            jsonWriter.writeValue(generator, row);
+            empty = false;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+}
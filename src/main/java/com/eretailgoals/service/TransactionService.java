@@ -0,0 +1,218 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.AccountBalanceView;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for posting transactions against bank accounts
+ * A posting inserts the transaction row and moves the account balance with an in-place delta UPDATE
+ * in the same database transaction, so concurrent postings can never overwrite each other's balance.
+ * Postings to one account are also serialized in-process on a striped lock, so each node queues its
+ * own postings in memory instead of on the database row lock while the ending balance is computed.
+ * The account's last transaction date and transaction count, month-end balance checkpoints and daily
+ * cash-flow rollups are moved in the same database transaction.
+ */
+@Service
+public class TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final CashFlowRollupService cashFlowRollupService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] accountLocks;
+
+    @Autowired
+    public TransactionService(TransactionRepository transactionRepository,
+                              BankAccountRepository bankAccountRepository,
+                              BalanceCheckpointService balanceCheckpointService,
+                              CashFlowRollupService cashFlowRollupService,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${transaction.posting.lock-stripes:256}") int lockStripes) {
+        if (lockStripes < 1) {
+            throw new IllegalArgumentException("Transaction posting lock stripes must be positive");
+        }
+        this.transactionRepository = transactionRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.cashFlowRollupService = cashFlowRollupService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountLocks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            accountLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Post a transaction and update its bank account balance
+     */
+    public Transaction postTransaction(Transaction transaction) {
+        return postBatch(List.of(transaction)).get(0);
+    }
+
+    /**
+     * Post several transactions, possibly against different accounts, all or nothing
+     * Each account's balance is moved once by the sum of its postings, and every posting gets the
+     * running ending balance in the order given
+     */
+    public List<Transaction> postBatch(List<Transaction> transactions) {
+        if (transactions == null || transactions.isEmpty()) {
+            throw new IllegalArgumentException("At least one transaction is required");
+        }
+        Map<Long, List<Transaction>> byAccount = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            validateTransaction(transaction);
+            byAccount.computeIfAbsent(transaction.getBankAccount().getId(), id -> new ArrayList<>()).add(transaction);
+        }
+
+        // Stripes are taken in ascending order and rows are updated in account ID order, so batches cannot deadlock
+        SortedSet<Integer> stripes = new TreeSet<>();
+        byAccount.keySet().forEach(accountId -> stripes.add(stripe(accountId)));
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                accountLocks[stripe].lock();
+                held.add(accountLocks[stripe]);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                byAccount.forEach((accountId, postings) -> post(accountId, postings, now));
+            });
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Get transaction by ID
+     */
+    public Transaction getTransactionById(Long id) {
+        return transactionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Transaction not found with id: " + id));
+    }
+
+    /**
+     * Get transactions by bank account ID
+     */
+    public List<Transaction> getTransactionsByBankAccount(Long bankAccountId) {
+        return transactionRepository.findByBankAccountId(bankAccountId);
+    }
+
+    /**
+     * Get the current balance of a bank account
+     */
+    public BigDecimal getCurrentBalance(Long bankAccountId) {
+        return bankAccountRepository.findCurrentBalance(bankAccountId)
+                .orElseThrow(() -> new IllegalArgumentException("Bank account not found with id: " + bankAccountId));
+    }
+
+    /**
+     * Get the balance of a bank account at the end of a past or current day
+     */
+    public AccountBalanceView getBalanceAsOf(Long bankAccountId, LocalDate asOf) {
+        return balanceCheckpointService.getBalanceAsOf(bankAccountId, asOf);
+    }
+
+    /**
+     * Apply the summed delta to the account, then insert its postings with running ending balances
+     */
+    private void post(Long accountId, List<Transaction> postings, LocalDateTime now) {
+        BigDecimal delta = postings.stream()
+                .map(Transaction::getEffectiveAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate lastTransactionDate = postings.stream()
+                .map(Transaction::getTransactionDate)
+                .max(LocalDate::compareTo)
+                .orElseThrow();
+        if (bankAccountRepository.applyBalanceDelta(accountId, delta, lastTransactionDate, postings.size(), now) == 0) {
+            if (bankAccountRepository.existsById(accountId)) {
+                throw new IllegalStateException("Bank account is inactive: " + accountId);
+            }
+            throw new IllegalArgumentException("Bank account not found with id: " + accountId);
+        }
+        // The row stays locked by the update until commit, so this is the balance after exactly these postings
+        BigDecimal balance = getCurrentBalance(accountId).subtract(delta);
+        balanceCheckpointService.recordPostings(accountId, postings);
+        cashFlowRollupService.recordPostings(accountId, postings);
+
+        BankAccount account = entityManager.getReference(BankAccount.class, accountId);
+        for (Transaction transaction : postings) {
+            balance = balance.add(transaction.getEffectiveAmount());
+            transaction.setBankAccount(account);
+            transaction.setEndingBalance(balance);
+            if (transaction.getUser() != null) {
+                transaction.setUser(entityManager.getReference(User.class, transaction.getUser().getId()));
+            }
+            if (transaction.getInvoice() != null) {
+                transaction.setInvoice(entityManager.getReference(Invoice.class, transaction.getInvoice().getId()));
+            }
+            transactionRepository.save(transaction);
+        }
+    }
+
+    /**
+     * Validate transaction data before posting
+     */
+    void validateTransaction(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction is required");
+        }
+        if (transaction.getId() != null) {
+            throw new IllegalArgumentException("Transaction is already posted: " + transaction.getId());
+        }
+        if (transaction.getBankAccount() == null || transaction.getBankAccount().getId() == null) {
+            throw new IllegalArgumentException("Bank account is required");
+        }
+        if (transaction.getTransactionType() == null) {
+            throw new IllegalArgumentException("Transaction type is required");
+        }
+        if (transaction.getTransactionAmount() == null || transaction.getTransactionAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be positive");
+        }
+        if (transaction.getUser() != null && transaction.getUser().getId() == null) {
+            throw new IllegalArgumentException("User ID is required when a user is given");
+        }
+        if (transaction.getInvoice() != null && transaction.getInvoice().getId() == null) {
+            throw new IllegalArgumentException("Invoice ID is required when an invoice is given");
+        }
+        if (transaction.getTransactionDate() == null) {
+            transaction.setTransactionDate(LocalDate.now());
+        }
+        if (transaction.getIsReconciled() == null) {
+            transaction.setIsReconciled(false);
+        }
+    }
+
+    private int stripe(Long accountId) {
+        return Math.floorMod(Long.hashCode(accountId), accountLocks.length);
+    }
+}
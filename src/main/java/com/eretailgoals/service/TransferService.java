@@ -0,0 +1,252 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.TransferRequest;
+import com.eretailgoals.dto.TransferView;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BankAccountRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Service class for double-entry transfers between bank accounts
+ * Every transfer posts a TRANSFER debit leg on the source account and a TRANSFER_IN credit leg on the
+ * destination, all or nothing. Each touched account's net delta, latest transaction date and transaction
+ * count are applied by one batched UPDATE in ascending account ID order, the same order postBatch locks
+ * in, so sweeps over thousands of accounts cannot deadlock with each other or with single postings.
+ * Ending balances are read back from the locked rows, and the legs, checkpoints and cash-flow rollups
+ * are written in JDBC batches. The legs are persisted through JPA so they take their IDs from the same
+ * pooled id_generators block as every other transaction.
+ */
+@Service
+public class TransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferService.class);
+
+    static final String APPLY_DELTA_SQL = "UPDATE bank_accounts SET current_balance = current_balance + ?, " +
+                                          "last_transaction_date = CASE WHEN last_transaction_date IS NULL " +
+                                          "OR last_transaction_date < ? THEN ? ELSE last_transaction_date END, " +
+                                          "transaction_count = COALESCE(transaction_count, 0) + ?, last_modified = ? " +
+                                          "WHERE id = ? AND is_active = TRUE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BankAccountRepository bankAccountRepository;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final CashFlowRollupService cashFlowRollupService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSize;
+    private final int batchSize;
+
+    @Autowired
+    public TransferService(JdbcTemplate jdbcTemplate,
+                           BankAccountRepository bankAccountRepository,
+                           BalanceCheckpointService balanceCheckpointService,
+                           CashFlowRollupService cashFlowRollupService,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${transaction.transfer.max-size:20000}") int maxSize,
+                           @Value("${transaction.transfer.batch-size:1000}") int batchSize) {
+        if (maxSize < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Transfer batch sizes must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.bankAccountRepository = bankAccountRepository;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.cashFlowRollupService = cashFlowRollupService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSize = maxSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Post a batch of transfers, all or nothing, and return them with their legs' IDs and ending balances
+     */
+    public List<TransferView> transfer(List<TransferRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one transfer is required");
+        }
+        if (requests.size() > maxSize) {
+            throw new IllegalArgumentException(STR."At most \{maxSize} transfers are accepted per request");
+        }
+        List<Transaction> legs = new ArrayList<>(requests.size() * 2);
+        Map<Long, List<Transaction>> byAccount = new TreeMap<>();
+        for (TransferRequest request : requests) {
+            validateTransfer(request);
+            String reference = request.reference() != null ? request.reference() : "TRF-" + UUID.randomUUID();
+            LocalDate date = request.transferDate() != null ? request.transferDate() : LocalDate.now();
+            Transaction debit = leg(request.fromBankAccountId(), Transaction.TransactionType.TRANSFER, request, date, reference);
+            Transaction credit = leg(request.toBankAccountId(), Transaction.TransactionType.TRANSFER_IN, request, date, reference);
+            legs.add(debit);
+            legs.add(credit);
+            byAccount.computeIfAbsent(debit.getBankAccount().getId(), id -> new ArrayList<>()).add(debit);
+            byAccount.computeIfAbsent(credit.getBankAccount().getId(), id -> new ArrayList<>()).add(credit);
+        }
+
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Map<Long, BigDecimal> deltas = new TreeMap<>();
+            byAccount.forEach((accountId, postings) -> deltas.put(accountId, postings.stream()
+                    .map(Transaction::getEffectiveAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)));
+
+            applyDeltas(byAccount, deltas, now);
+            // The rows stay locked by the updates until commit, so these are the balances after exactly these legs
+            Map<Long, AccountState> accounts = readAccounts(new ArrayList<>(deltas.keySet()));
+            for (TransferRequest request : requests) {
+                if (!Objects.equals(accounts.get(request.fromBankAccountId()).adminId(),
+                                    accounts.get(request.toBankAccountId()).adminId())) {
+                    throw new IllegalArgumentException(STR."Transfer from bank account \{request.fromBankAccountId()} " +
+                            STR."to \{request.toBankAccountId()} crosses tenants");
+                }
+            }
+            byAccount.forEach((accountId, postings) -> {
+                AccountState account = accounts.get(accountId);
+                BigDecimal balance = account.balance().subtract(deltas.get(accountId));
+                for (Transaction leg : postings) {
+                    balance = balance.add(leg.getEffectiveAmount());
+                    leg.setAdminId(account.adminId());
+                    leg.setEndingBalance(balance);
+                }
+            });
+            balanceCheckpointService.recordPostings(byAccount);
+            cashFlowRollupService.recordPostings(byAccount);
+            insertLegs(legs);
+        });
+        logger.info("Posted {} transfers across {} bank accounts in {} ms", requests.size(), byAccount.size(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+
+        List<TransferView> transfers = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Transaction debit = legs.get(2 * i);
+            Transaction credit = legs.get(2 * i + 1);
+            transfers.add(new TransferView(debit.getReferenceNumber(), debit.getBankAccount().getId(),
+                    credit.getBankAccount().getId(), debit.getTransactionAmount(), debit.getTransactionDate(),
+                    debit.getId(), credit.getId(), debit.getEndingBalance(), credit.getEndingBalance()));
+        }
+        return transfers;
+    }
+
+    /**
+     * Apply every account's net delta in ascending account ID order, one JDBC batch per chunk
+     */
+    private void applyDeltas(Map<Long, List<Transaction>> byAccount, Map<Long, BigDecimal> deltas, Timestamp now) {
+        List<Long> accountIds = new ArrayList<>(deltas.keySet());
+        for (int from = 0; from < accountIds.size(); from += batchSize) {
+            List<Long> chunk = accountIds.subList(from, Math.min(from + batchSize, accountIds.size()));
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for (Long accountId : chunk) {
+                List<Transaction> postings = byAccount.get(accountId);
+                Date lastTransactionDate = Date.valueOf(postings.stream()
+                        .map(Transaction::getTransactionDate)
+                        .max(LocalDate::compareTo)
+                        .orElseThrow());
+                rows.add(new Object[] {deltas.get(accountId), lastTransactionDate, lastTransactionDate,
+                                       postings.size(), now, accountId});
+            }
+            int[] counts = jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, rows);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    Long accountId = chunk.get(i);
+                    if (bankAccountRepository.existsById(accountId)) {
+                        throw new IllegalStateException("Bank account is inactive: " + accountId);
+                    }
+                    throw new IllegalArgumentException("Bank account not found with id: " + accountId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the tenant and current balance of the locked accounts, one IN query per chunk
+     */
+    private Map<Long, AccountState> readAccounts(List<Long> accountIds) {
+        Map<Long, AccountState> accounts = new HashMap<>(accountIds.size() * 2);
+        for (int from = 0; from < accountIds.size(); from += batchSize) {
+            List<Long> chunk = accountIds.subList(from, Math.min(from + batchSize, accountIds.size()));
+            String sql = "SELECT id, admin_id, current_balance FROM bank_accounts WHERE id IN (" +
+                         String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            jdbcTemplate.query(sql, ps -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setLong(i + 1, chunk.get(i));
+                }
+            }, (RowCallbackHandler) rs -> accounts.put(rs.getLong("id"),
+                    new AccountState(rs.getObject("admin_id", Long.class), rs.getBigDecimal("current_balance"))));
+        }
+        return accounts;
+    }
+
+    /**
+     * Persist and flush the legs a chunk at a time so Hibernate sends them as JDBC batches
+     */
+    private void insertLegs(List<Transaction> legs) {
+        for (int from = 0; from < legs.size(); from += batchSize) {
+            for (Transaction leg : legs.subList(from, Math.min(from + batchSize, legs.size()))) {
+                leg.setBankAccount(entityManager.getReference(BankAccount.class, leg.getBankAccount().getId()));
+                entityManager.persist(leg);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Validate a transfer before any account is touched
+     */
+    void validateTransfer(TransferRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Transfer is required");
+        }
+        if (request.fromBankAccountId() == null || request.toBankAccountId() == null) {
+            throw new IllegalArgumentException("Source and destination bank accounts are required");
+        }
+        if (request.fromBankAccountId().equals(request.toBankAccountId())) {
+            throw new IllegalArgumentException("Cannot transfer to the same bank account: " + request.fromBankAccountId());
+        }
+        if (request.amount() == null || request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (request.reference() != null && request.reference().length() > 100) {
+            throw new IllegalArgumentException("Transfer reference must be at most 100 characters");
+        }
+    }
+
+    private static Transaction leg(Long accountId, Transaction.TransactionType type, TransferRequest request,
+                                   LocalDate date, String reference) {
+        BankAccount account = new BankAccount();
+        account.setId(accountId);
+        Transaction leg = new Transaction(date, request.amount(), type, account);
+        leg.setReferenceNumber(reference);
+        leg.setNotes(request.notes());
+        leg.setIsReconciled(false);
+        return leg;
+    }
+
+    private record AccountState(Long adminId, BigDecimal balance) {
+    }
+}
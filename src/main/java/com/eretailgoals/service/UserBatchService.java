@@ -0,0 +1,306 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.BatchResult;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Service class for bulk user import
+ * The whole request is validated first and its emails and usernames are checked against the table with
+ * one query. Passwords are then hashed in parallel on the password hashing pool, and the users are
+ * inserted as JDBC batches, one transaction per chunk. A chunk that fails to insert is retried row by
+ * row so one bad record cannot sink its neighbours. The JDBC inserts bypass the JPA entity listeners,
+ * so committed users are fed into the search indexes here.
+ */
+@Service
+public class UserBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchService.class);
+
+    static final String INSERT_SQL = "INSERT INTO users (admin_id, first_name, last_name, email, company_name, " +
+                                     "username, password, address, postcode, shipping_address, shipping_postcode, " +
+                                     "phone_office, phone_home, mobile, vat_number, fax, user_type, date_created, " +
+                                     "last_modified, is_active) " +
+                                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final InvoiceSearchIndex invoiceSearchIndex;
+    private final UserSuggestIndex userSuggestIndex;
+    private final int maxBatchSize;
+    private final int chunkSize;
+
+    @Autowired
+    public UserBatchService(UserRepository userRepository,
+                            PasswordHashingService passwordHashingService,
+                            JdbcTemplate jdbcTemplate,
+                            Validator validator,
+                            PlatformTransactionManager transactionManager,
+                            InvoiceSearchIndex invoiceSearchIndex,
+                            UserSuggestIndex userSuggestIndex,
+                            @Value("${user.batch.max-size:10000}") int maxBatchSize,
+                            @Value("${user.batch.chunk-size:1000}") int chunkSize) {
+        if (maxBatchSize < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("User batch sizes must be positive");
+        }
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invoiceSearchIndex = invoiceSearchIndex;
+        this.userSuggestIndex = userSuggestIndex;
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Create users, reporting the outcome of every record by its email
+     */
+    public BatchResult createUsers(List<User> users) {
+        if (users == null || users.isEmpty()) {
+            throw new IllegalArgumentException("At least one user is required");
+        }
+        if (users.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    STR."Batch of \{users.size()} users exceeds the maximum of \{maxBatchSize}");
+        }
+        long started = System.nanoTime();
+
+        List<BatchResult.Item> results = new ArrayList<>(users.size());
+        List<Pending> accepted = screen(users, results);
+        List<Pending> hashed = hashPasswords(accepted, results);
+        for (int from = 0; from < hashed.size(); from += chunkSize) {
+            persistChunk(hashed.subList(from, Math.min(from + chunkSize, hashed.size())), results);
+        }
+
+        BatchResult result = BatchResult.of(results);
+        logger.info("User batch finished: {} created, {} failed in {} ms", result.succeeded(), result.failed(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return result;
+    }
+
+    /**
+     * Validate every record, then reject emails and usernames already taken with a single lookup
+     */
+    private List<Pending> screen(List<User> users, List<BatchResult.Item> results) {
+        List<Pending> candidates = new ArrayList<>(users.size());
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchUsernames = new HashSet<>();
+        for (int index = 0; index < users.size(); index++) {
+            User user = users.get(index);
+            if (user == null) {
+                results.add(BatchResult.Item.failed(index, null, "User is required"));
+                continue;
+            }
+            user.setUsername(normalize(user.getUsername()));
+            if (user.getPassword() != null && user.getPassword().isEmpty()) {
+                user.setPassword(null);
+            }
+            String error = validate(user);
+            if (error != null) {
+                results.add(BatchResult.Item.failed(index, user.getEmail(), error));
+            } else if (!batchEmails.add(user.getEmail())) {
+                results.add(BatchResult.Item.failed(index, user.getEmail(),
+                                                    "Duplicate email in batch: " + user.getEmail()));
+            } else if (user.getUsername() != null && !batchUsernames.add(user.getUsername())) {
+                results.add(BatchResult.Item.failed(index, user.getEmail(),
+                                                    "Duplicate username in batch: " + user.getUsername()));
+            } else {
+                candidates.add(new Pending(index, user));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        // An empty IN list is not portable, so the emails stand in when no usernames were given;
+        // only usernames that were actually requested are checked below
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenUsernames = new HashSet<>();
+        for (Object[] row : userRepository.findTakenEmailsAndUsernames(batchEmails,
+                batchUsernames.isEmpty() ? batchEmails : batchUsernames)) {
+            takenEmails.add((String) row[0]);
+            if (row[1] != null) {
+                takenUsernames.add((String) row[1]);
+            }
+        }
+
+        List<Pending> accepted = new ArrayList<>(candidates.size());
+        for (Pending pending : candidates) {
+            User user = pending.user();
+            if (takenEmails.contains(user.getEmail())) {
+                results.add(BatchResult.Item.failed(pending.index(), user.getEmail(),
+                                                    "Email already exists: " + user.getEmail()));
+            } else if (user.getUsername() != null && takenUsernames.contains(user.getUsername())) {
+                results.add(BatchResult.Item.failed(pending.index(), user.getEmail(),
+                                                    "Username already exists: " + user.getUsername()));
+            } else {
+                accepted.add(pending);
+            }
+        }
+        return accepted;
+    }
+
+    private String validate(User user) {
+        if (user.getUserType() == null) {
+            user.setUserType(User.UserType.CLIENT);
+        }
+        StringJoiner errors = new StringJoiner("; ");
+        for (ConstraintViolation<User> violation : validator.validate(user)) {
+            errors.add(STR."\{violation.getPropertyPath()}: \{violation.getMessage()}");
+        }
+        return errors.length() > 0 ? errors.toString() : null;
+    }
+
+    /**
+     * Hash the accepted records' passwords in parallel, failing the records whose hash could not be made
+     */
+    private List<Pending> hashPasswords(List<Pending> accepted, List<BatchResult.Item> results) {
+        List<CompletableFuture<String>> hashes = passwordHashingService.encodeAll(
+                accepted.stream().map(pending -> pending.user().getPassword()).toList());
+        List<Pending> hashed = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            Pending pending = accepted.get(i);
+            try {
+                pending.user().setPassword(hashes.get(i).join());
+                hashed.add(pending);
+            } catch (CompletionException e) {
+                results.add(BatchResult.Item.failed(pending.index(), pending.user().getEmail(),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            }
+        }
+        return hashed;
+    }
+
+    /**
+     * Insert a chunk in one transaction, falling back to one transaction per record if it fails
+     */
+    private void persistChunk(List<Pending> chunk, List<BatchResult.Item> results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk));
+            for (Pending pending : chunk) {
+                results.add(created(pending));
+            }
+            indexAll(chunk);
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("User batch chunk of {} records failed, retrying row by row: {}",
+                        chunk.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+
+        for (Pending pending : chunk) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(pending)));
+                results.add(created(pending));
+                indexAll(List.of(pending));
+            } catch (RuntimeException e) {
+                pending.user().setId(null);
+                results.add(BatchResult.Item.failed(pending.index(), pending.user().getEmail(),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Insert the records as one JDBC batch and copy the generated IDs back onto them
+     */
+    private void insert(List<Pending> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        User user = chunk.get(i).user();
+                        ps.setObject(1, user.getAdminId());
+                        ps.setString(2, user.getFirstName());
+                        ps.setString(3, user.getLastName());
+                        ps.setString(4, user.getEmail());
+                        ps.setString(5, user.getCompanyName());
+                        ps.setString(6, user.getUsername());
+                        ps.setString(7, user.getPassword());
+                        ps.setString(8, user.getAddress());
+                        ps.setString(9, user.getPostcode());
+                        ps.setString(10, user.getShippingAddress());
+                        ps.setString(11, user.getShippingPostcode());
+                        ps.setString(12, user.getPhoneOffice());
+                        ps.setString(13, user.getPhoneHome());
+                        ps.setString(14, user.getMobile());
+                        ps.setString(15, user.getVatNumber());
+                        ps.setString(16, user.getFax());
+                        ps.setString(17, user.getUserType().name());
+                        ps.setTimestamp(18, now);
+                        ps.setTimestamp(19, now);
+                        ps.setBoolean(20, user.getIsActive() == null || user.getIsActive());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < chunk.size(); i++) {
+            User user = chunk.get(i).user();
+            user.setId(((Number) generated.get(i).values().iterator().next()).longValue());
+            user.setDateCreated(now.toLocalDateTime());
+            user.setLastModified(now.toLocalDateTime());
+            if (user.getIsActive() == null) {
+                user.setIsActive(true);
+            }
+        }
+    }
+
+    /**
+     * Make committed users searchable, as the entity listeners would for users saved through JPA
+     */
+    private void indexAll(List<Pending> committed) {
+        for (Pending pending : committed) {
+            User user = pending.user();
+            invoiceSearchIndex.indexUser(user.getId(), user.getFirstName(), user.getLastName(), user.getCompanyName());
+            userSuggestIndex.index(user);
+        }
+    }
+
+    private static BatchResult.Item created(Pending pending) {
+        return BatchResult.Item.created(pending.index(), pending.user().getId(), pending.user().getEmail());
+    }
+
+    private static String normalize(String username) {
+        return username == null || username.isBlank() ? null : username.trim();
+    }
+
+    private record Pending(int index, User user) {}
+}
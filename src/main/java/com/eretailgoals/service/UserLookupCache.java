@@ -0,0 +1,109 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Size- and TTL-bounded cache of users looked up by ID, email or username
+ * Cached users are detached entities shared between callers, so they must be treated as read-only and
+ * their lazy collections are not available; writes load the user from the repository instead. Evictions
+ * are repeated after the surrounding transaction completes, so a lookup racing a write cannot leave the
+ * pre-commit row cached. Hit and miss counts are published as the "users" cache metrics.
+ */
+@Component
+public class UserLookupCache {
+
+    static final String CACHE_NAME = "users";
+
+    private record Key(String kind, Object value) {}
+
+    private final Cache<Key, User> cache;
+
+    @Autowired
+    public UserLookupCache(MeterRegistry meterRegistry,
+                           @Value("${user.cache.max-size:10000}") long maxSize,
+                           @Value("${user.cache.ttl:5m}") Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("User cache size must be positive");
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get a user by ID, loading and caching it on a miss
+     */
+    public Optional<User> getById(Long id, Supplier<Optional<User>> loader) {
+        return get(new Key("id", id), loader);
+    }
+
+    /**
+     * Get a user by email, loading and caching it on a miss
+     */
+    public Optional<User> getByEmail(String email, Supplier<Optional<User>> loader) {
+        return get(new Key("email", email), loader);
+    }
+
+    /**
+     * Get a user by username, loading and caching it on a miss
+     */
+    public Optional<User> getByUsername(String username, Supplier<Optional<User>> loader) {
+        return get(new Key("username", username), loader);
+    }
+
+    /**
+     * Drop every key of a user now and again once the current transaction, if any, has completed
+     */
+    public void evict(User user) {
+        Key[] keys = {
+            new Key("id", user.getId()),
+            new Key("email", user.getEmail()),
+            new Key("username", user.getUsername())
+        };
+        evict(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(keys);
+                }
+            });
+        }
+    }
+
+    long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private Optional<User> get(Key key, Supplier<Optional<User>> loader) {
+        if (key.value() == null) {
+            return loader.get();
+        }
+        // Misses are not cached, so a user created after a failed lookup is found straight away
+        return Optional.ofNullable(cache.get(key, k -> loader.get().orElse(null)));
+    }
+
+    private void evict(Key[] keys) {
+        for (Key key : keys) {
+            if (key.value() != null) {
+                cache.invalidate(key);
+            }
+        }
+    }
+}
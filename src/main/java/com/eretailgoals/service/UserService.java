@@ -1,15 +1,18 @@
 package com.eretailgoals.service;
 
+import com.eretailgoals.dto.UserSuggestion;
 import com.eretailgoals.entity.User;
 import com.eretailgoals.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -22,17 +25,24 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserLookupCache userLookupCache;
+    private final UserSuggestIndex userSuggestIndex;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                       UserLookupCache userLookupCache, UserSuggestIndex userSuggestIndex) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.userLookupCache = userLookupCache;
+        this.userSuggestIndex = userSuggestIndex;
     }
 
     /**
      * Create a new user
+     * Runs without a surrounding transaction so no connection is held while the password is hashed
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createUser(User user) {
         validateUser(user);
         
@@ -48,7 +58,7 @@ public class UserService {
         
         // Encode password if provided
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
         }
         
         // Set default values
@@ -63,7 +73,9 @@ public class UserService {
      * Update an existing user
      */
     public User updateUser(Long id, User userDetails) {
-        User existingUser = getUserById(id);
+        User existingUser = loadUser(id);
+        // Evict under the current email and username before they change
+        userLookupCache.evict(existingUser);
         
         // Update fields
         existingUser.setFirstName(userDetails.getFirstName());
@@ -97,32 +109,37 @@ public class UserService {
             existingUser.setUsername(userDetails.getUsername());
         }
         
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        userLookupCache.evict(saved);
+        return saved;
     }
 
     /**
      * Get user by ID
+     * Served from the lookup cache; the returned user is shared and must not be modified
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public User getUserById(Long id) {
-        return userRepository.findById(id)
+        return userLookupCache.getById(id, () -> userRepository.findById(id))
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
     }
 
     /**
      * Get user by email
+     * Served from the lookup cache; the returned user is shared and must not be modified
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userLookupCache.getByEmail(email, () -> userRepository.findByEmail(email));
     }
 
     /**
      * Get user by username
+     * Served from the lookup cache; the returned user is shared and must not be modified
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userLookupCache.getByUsername(username, () -> userRepository.findByUsername(username));
     }
 
     /**
@@ -174,29 +191,49 @@ public class UserService {
         return userRepository.searchUsers(userType, adminId, isActive, searchTerm, pageable);
     }
 
+    /**
+     * Suggest active users of a tenant whose name, company or email words start with every word of the query
+     * Served from the in-memory suggest index, or from the database search while the index is being built
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<UserSuggestion> suggestUsers(Long adminId, User.UserType userType, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query is required");
+        }
+        int size = Math.max(1, Math.min(limit, UserSuggestIndex.MAX_LIMIT));
+        return userSuggestIndex.suggest(adminId, userType, query, size)
+                .orElseGet(() -> userRepository.searchUsers(userType, adminId, true, query.trim(), PageRequest.of(0, size))
+                        .stream()
+                        .filter(user -> Objects.equals(user.getAdminId(), adminId))
+                        .map(UserSuggestion::of)
+                        .toList());
+    }
+
     /**
      * Deactivate user (soft delete)
      */
     public void deactivateUser(Long id) {
-        User user = getUserById(id);
+        User user = loadUser(id);
         user.setIsActive(false);
         userRepository.save(user);
+        userLookupCache.evict(user);
     }
 
     /**
      * Activate user
      */
     public void activateUser(Long id) {
-        User user = getUserById(id);
+        User user = loadUser(id);
         user.setIsActive(true);
         userRepository.save(user);
+        userLookupCache.evict(user);
     }
 
     /**
      * Delete user permanently
      */
     public void deleteUser(Long id) {
-        User user = getUserById(id);
+        User user = loadUser(id);
         
         // Check if user has associated invoices or transactions
         if (!user.getInvoices().isEmpty() || !user.getTransactions().isEmpty()) {
@@ -205,24 +242,29 @@ public class UserService {
         }
         
         userRepository.delete(user);
+        userLookupCache.evict(user);
     }
 
     /**
      * Change user password
+     * The new password is hashed before the user is loaded, outside any transaction
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePassword(Long id, String newPassword) {
-        User user = getUserById(id);
-        user.setPassword(passwordEncoder.encode(newPassword));
+        String encodedPassword = passwordHashingService.encode(newPassword);
+        User user = loadUser(id);
+        user.setPassword(encodedPassword);
         userRepository.save(user);
+        userLookupCache.evict(user);
     }
 
     /**
      * Verify user password
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean verifyPassword(Long id, String password) {
         User user = getUserById(id);
-        return user.getPassword() != null && passwordEncoder.matches(password, user.getPassword());
+        return user.getPassword() != null && passwordHashingService.matches(password, user.getPassword());
     }
 
     /**
@@ -249,6 +291,14 @@ public class UserService {
         return userRepository.countByAdminIdAndIsActiveTrue(adminId);
     }
 
+    /**
+     * Load a user for modification, bypassing the lookup cache
+     */
+    private User loadUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
+    }
+
     /**
      * Validate user data
      */
@@ -0,0 +1,390 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.UserSuggestion;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process prefix index of active users for autocomplete, one per tenant
+ * Each tenant keeps its users' lower-cased name, company and email words in a sorted map of posting
+ * lists, so a prefix is one range walk of the map. Unlike the invoice search index it is exact: updates
+ * replace a user's old words and deactivated or deleted users are removed. Every word of a query must
+ * prefix some word of the user; the longest query word drives the walk.
+ * Like the invoice search index it re-reads the users modified since its previous refresh before every
+ * query, so writes made on other nodes show up, and checks that the users it returns still exist, so
+ * deletes made elsewhere do not. Each user keeps the last_modified of the row it was indexed from, and
+ * an older version never replaces a newer one, whichever of the build, a refresh or a local write
+ * delivers it last.
+ */
+@Service
+public class UserSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSuggestIndex.class);
+
+    static final long NO_TENANT = 0L;
+    static final int MAX_LIMIT = 50;
+    /** Upper bound on users examined per query, so short prefixes with heavy filtering stay fast */
+    static final int MAX_SCANNED = 5000;
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Version of a deleted user, newer than any row, so a deleted user is never indexed again */
+    private static final LocalDateTime DELETED = LocalDateTime.MAX;
+
+    private final UserRepository userRepository;
+    private final Duration refreshOverlap;
+    private final Map<Long, TenantIndex> tenants = new ConcurrentHashMap<>();
+    private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private LocalDateTime lastRefresh;
+
+    /**
+     * Tenant a user is indexed under, null when it is not indexed, and the last_modified it was indexed from
+     */
+    private record Placement(Long tenant, LocalDateTime lastModified) {}
+
+    @Autowired
+    public UserSuggestIndex(UserRepository userRepository,
+                            @Value("${user.suggest.refresh-overlap:30s}") Duration refreshOverlap) {
+        this.userRepository = userRepository;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    /**
+     * Suggest up to limit active users of a tenant whose words start with every word of the query
+     * Empty until the index has been built, so callers can fall back to a database search
+     */
+    public Optional<List<UserSuggestion>> suggest(Long adminId, User.UserType userType, String query, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String[] terms = queryTerms(query);
+        if (terms.length == 0) {
+            return Optional.of(List.of());
+        }
+        refresh();
+        TenantIndex index = tenants.get(tenantKey(adminId));
+        if (index == null) {
+            return Optional.of(List.of());
+        }
+        return Optional.of(withoutDeleted(index.search(terms, userType, Math.min(limit, MAX_LIMIT))));
+    }
+
+    /**
+     * Add or replace a user, or remove it when it is no longer active
+     */
+    public void index(User user) {
+        if (user.getId() != null) {
+            place(user.getId(), Boolean.TRUE.equals(user.getIsActive()) ? UserSuggestion.of(user) : null,
+                  user.getLastModified());
+        }
+    }
+
+    /**
+     * Remove a deleted user from the index for good
+     */
+    public void remove(Long id) {
+        place(id, null, DELETED);
+    }
+
+    /**
+     * Index the users written since the previous refresh, on this node or any other
+     * The overlap covers clock skew between nodes and transactions that commit a while after stamping
+     * last_modified; rows re-read inside it are skipped unless newer than what is indexed
+     */
+    synchronized void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        for (Object[] row : userRepository.findSuggestionsModifiedSince(lastRefresh.minus(refreshOverlap))) {
+            place((Long) row[0], Boolean.TRUE.equals(row[8]) ? suggestion(row) : null, (LocalDateTime) row[7]);
+        }
+        lastRefresh = started;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Load every active user into the index once the application is up
+     * Suggestions fall back to the database search until this has finished
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.currentTimeMillis();
+        LocalDateTime buildStarted = LocalDateTime.now();
+        long users = 0;
+        long afterId = 0;
+        List<Object[]> rows;
+        while (!(rows = userRepository.findSuggestionsAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE))).isEmpty()) {
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                place(afterId, suggestion(row), (LocalDateTime) row[7]);
+            }
+            users += rows.size();
+        }
+
+        synchronized (this) {
+            lastRefresh = buildStarted;
+        }
+        ready = true;
+        logger.info("User suggest index built from {} users across {} tenants in {} ms",
+                    users, tenants.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Index a user's suggestion, or take the user out when it is null, unless a newer version is already placed
+     * A missing last_modified, as on rows written before it was kept, counts as older than any other
+     */
+    private void place(long id, UserSuggestion suggestion, LocalDateTime lastModified) {
+        LocalDateTime version = lastModified != null ? lastModified : LocalDateTime.MIN;
+        placements.compute(id, (key, current) -> {
+            if (current != null && current.lastModified().isAfter(version)) {
+                return current;
+            }
+            Long tenant = suggestion != null ? tenantKey(suggestion.adminId()) : null;
+            if (current != null && current.tenant() != null && !current.tenant().equals(tenant)) {
+                TenantIndex previous = tenants.get(current.tenant());
+                if (previous != null) {
+                    previous.remove(id);
+                }
+            }
+            if (tenant != null) {
+                tenants.computeIfAbsent(tenant, newTenant -> new TenantIndex()).put(suggestion);
+            }
+            return new Placement(tenant, version);
+        });
+    }
+
+    /**
+     * Drop, and remove from the index, suggested users that have since been deleted on any node
+     */
+    private List<UserSuggestion> withoutDeleted(List<UserSuggestion> suggestions) {
+        if (suggestions.isEmpty()) {
+            return suggestions;
+        }
+        Set<Long> existing = new HashSet<>(userRepository.findExistingIds(
+                suggestions.stream().map(UserSuggestion::id).toList()));
+        if (existing.size() == suggestions.size()) {
+            return suggestions;
+        }
+        List<UserSuggestion> remaining = new ArrayList<>(existing.size());
+        for (UserSuggestion suggestion : suggestions) {
+            if (existing.contains(suggestion.id())) {
+                remaining.add(suggestion);
+            } else {
+                remove(suggestion.id());
+            }
+        }
+        return remaining;
+    }
+
+    private static UserSuggestion suggestion(Object[] row) {
+        return new UserSuggestion((Long) row[0], (Long) row[1], (User.UserType) row[2],
+                                  (String) row[3], (String) row[4], (String) row[5], (String) row[6]);
+    }
+
+    /**
+     * Lower-cased words of the indexed fields: whitespace-separated name and company words with their letter
+     * and digit runs (so "Smith-Jones" is found by "jones"), the whole email address and the runs of its local
+     * part; the domain is not split, or every user would match "com"
+     */
+    static Set<String> words(UserSuggestion suggestion) {
+        Set<String> words = new HashSet<>();
+        for (String value : new String[] {suggestion.firstName(), suggestion.lastName(), suggestion.companyName()}) {
+            if (value != null) {
+                for (String word : WHITESPACE.split(value.toLowerCase(Locale.ROOT))) {
+                    addWithParts(words, word);
+                }
+            }
+        }
+        if (suggestion.email() != null) {
+            String email = suggestion.email().toLowerCase(Locale.ROOT);
+            words.add(email);
+            int at = email.indexOf('@');
+            addWithParts(words, at >= 0 ? email.substring(0, at) : email);
+        }
+        return words;
+    }
+
+    private static void addWithParts(Set<String> words, String word) {
+        if (word.isEmpty()) {
+            return;
+        }
+        words.add(word);
+        for (String part : NON_ALPHANUMERIC.split(word)) {
+            if (!part.isEmpty()) {
+                words.add(part);
+            }
+        }
+    }
+
+    private static String[] queryTerms(String query) {
+        if (query == null || query.isBlank()) {
+            return new String[0];
+        }
+        String[] terms = WHITESPACE.split(query.trim().toLowerCase(Locale.ROOT));
+        // Longest first: it selects the narrowest range of the word map
+        Arrays.sort(terms, (a, b) -> Integer.compare(b.length(), a.length()));
+        return terms;
+    }
+
+    private static long tenantKey(Long adminId) {
+        return adminId != null ? adminId : NO_TENANT;
+    }
+
+    /**
+     * Word map and suggestions of one tenant
+     */
+    static final class TenantIndex {
+
+        private final NavigableMap<String, IdList> postings = new TreeMap<>();
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private record Entry(UserSuggestion suggestion, String[] words) {}
+
+        void put(UserSuggestion suggestion) {
+            String[] words = words(suggestion).toArray(String[]::new);
+            lock.writeLock().lock();
+            try {
+                Entry previous = entries.put(suggestion.id(), new Entry(suggestion, words));
+                if (previous != null) {
+                    unlink(suggestion.id(), previous.words());
+                }
+                for (String word : words) {
+                    postings.computeIfAbsent(word, key -> new IdList()).add(suggestion.id());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                Entry previous = entries.remove(id);
+                if (previous != null) {
+                    unlink(id, previous.words());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<UserSuggestion> search(String[] terms, User.UserType userType, int limit) {
+            List<UserSuggestion> results = new ArrayList<>(limit);
+            Set<Long> seen = new HashSet<>();
+            lock.readLock().lock();
+            try {
+                String lead = terms[0];
+                for (IdList ids : postings.subMap(lead, true, lead + Character.MAX_VALUE, false).values()) {
+                    for (int i = 0; i < ids.size; i++) {
+                        long id = ids.ids[i];
+                        if (!seen.add(id)) {
+                            continue;
+                        }
+                        if (seen.size() > MAX_SCANNED) {
+                            return results;
+                        }
+                        Entry entry = entries.get(id);
+                        if ((userType == null || entry.suggestion().userType() == userType)
+                                && matchesAll(entry.words(), terms)) {
+                            results.add(entry.suggestion());
+                            if (results.size() == limit) {
+                                return results;
+                            }
+                        }
+                    }
+                }
+                return results;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void unlink(long id, String[] words) {
+            for (String word : words) {
+                IdList ids = postings.get(word);
+                if (ids != null && ids.remove(id) && ids.size == 0) {
+                    postings.remove(word);
+                }
+            }
+        }
+
+        private static boolean matchesAll(String[] words, String[] terms) {
+            for (int t = 1; t < terms.length; t++) {
+                boolean matched = false;
+                for (String word : words) {
+                    if (word.startsWith(terms[t])) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free id list that also supports removal
+     */
+    static final class IdList {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            int position = size > 0 && ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
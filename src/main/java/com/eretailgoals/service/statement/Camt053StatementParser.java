@@ -0,0 +1,169 @@
+package com.eretailgoals.service.statement;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ISO 20022 camt.053 bank-to-customer statement reader
+ * Pulls events with StAX and keeps only the fields of the current Ntry element, so no document tree
+ * is built. A batch-booked entry is emitted once with its booked total; bank transaction codes are
+ * translated to the OFX type names the line mapper understands
+ */
+class Camt053StatementParser implements StatementParser {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private static final String ENTRY = "Ntry";
+    private static final Set<String> SCOPES = Set.of("BookgDt", "Dbtr", "Cdtr");
+    private static final Set<String> FIELDS = Set.of("Amt", "CdtDbtInd", "Dt", "DtTm", "AcctSvcrRef", "NtryRef",
+                                                     "EndToEndId", "SubFmlyCd", "Ustrd", "AddtlNtryInf",
+                                                     "AddtlTxInf", "Nm");
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        XMLStreamReader xml = null;
+        try {
+            xml = FACTORY.createXMLStreamReader(reader);
+            Map<String, String> fields = null;
+            String field = null;
+            String scope = null;
+            StringBuilder text = new StringBuilder();
+            long ordinal = 0;
+            while (xml.hasNext()) {
+                switch (xml.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        String name = xml.getLocalName();
+                        if (name.equals(ENTRY)) {
+                            fields = new HashMap<>();
+                            ordinal++;
+                        } else if (fields != null) {
+                            if (SCOPES.contains(name)) {
+                                scope = name;
+                            }
+                            field = FIELDS.contains(name) ? name : null;
+                            text.setLength(0);
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (field != null) {
+                            text.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        String name = xml.getLocalName();
+                        if (name.equals(ENTRY)) {
+                            emit(ordinal, fields, sink);
+                            fields = null;
+                        } else if (fields != null) {
+                            if (name.equals(field)) {
+                                store(fields, scope, name, text.toString().strip());
+                            }
+                            if (name.equals(scope)) {
+                                scope = null;
+                            }
+                            field = null;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+            if (fields != null) {
+                sink.reject(ordinal, "Statement ends inside an entry");
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException(STR."Malformed camt.053 statement: \{e.getMessage()}", e);
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close();
+                } catch (XMLStreamException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Keep the first value of a field, qualifying dates and names by the element that encloses them
+     */
+    private static void store(Map<String, String> fields, String scope, String name, String value) {
+        if (value.isEmpty()) {
+            return;
+        }
+        switch (name) {
+            // Value dates use the same element names, only the booking date counts
+            case "Dt", "DtTm" -> {
+                if ("BookgDt".equals(scope)) {
+                    fields.putIfAbsent("date", value.length() > 10 ? value.substring(0, 10) : value);
+                }
+            }
+            case "Nm" -> {
+                if (scope != null && !scope.equals("BookgDt")) {
+                    fields.putIfAbsent(scope, value);
+                }
+            }
+            case "EndToEndId" -> {
+                if (!value.equals("NOTPROVIDED")) {
+                    fields.putIfAbsent(name, value);
+                }
+            }
+            default -> fields.putIfAbsent(name, value);
+        }
+    }
+
+    private static void emit(long ordinal, Map<String, String> fields, Sink sink) {
+        String amount = fields.get("Amt");
+        String indicator = fields.get("CdtDbtInd");
+        if (amount == null || indicator == null) {
+            sink.reject(ordinal, "Entry has no amount or credit/debit indicator");
+            return;
+        }
+        if (!indicator.equals("CRDT") && !indicator.equals("DBIT")) {
+            sink.reject(ordinal, STR."Unknown credit/debit indicator '\{indicator}'");
+            return;
+        }
+        boolean debit = indicator.equals("DBIT");
+        String reference = fields.getOrDefault("AcctSvcrRef",
+                                               fields.getOrDefault("EndToEndId", fields.get("NtryRef")));
+        String remittance = fields.getOrDefault("Ustrd",
+                                                fields.getOrDefault("AddtlTxInf", fields.get("AddtlNtryInf")));
+        // The counterparty is the creditor of a debit and the debtor of a credit
+        String party = fields.get(debit ? "Cdtr" : "Dbtr");
+        String description = party == null ? remittance : remittance == null ? party : party + " - " + remittance;
+        sink.accept(new StatementLine(ordinal, fields.get("date"), debit ? "-" + amount : amount,
+                                      type(fields.get("SubFmlyCd")), reference, description));
+    }
+
+    /**
+     * Translate an ISO bank transaction sub-family code to the OFX type vocabulary
+     */
+    static String type(String code) {
+        if (code == null) {
+            return null;
+        }
+        return switch (code) {
+            case "CHRG", "COMM", "FEES", "COME", "COMI" -> "FEE";
+            case "INTR" -> "INT";
+            case "CCHQ", "BCHQ", "CQRV" -> "CHECK";
+            case "PMDD", "ESDD", "BBDD", "OODD" -> "DIRECTDEBIT";
+            default -> code;
+        };
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Statements come from outside, so never resolve DTDs or external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
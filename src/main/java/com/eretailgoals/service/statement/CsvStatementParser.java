@@ -0,0 +1,146 @@
+package com.eretailgoals.service.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CSV statement reader
+ * The first non-blank line is a header naming the columns; a date column is required together with
+ * either an amount column (signed) or credit and debit columns. Quoted fields may contain commas
+ * and doubled quotes but not line breaks.
+ */
+class CsvStatementParser implements StatementParser {
+
+    private static final List<String> DATE = List.of("date", "transaction date", "posted date", "posting date");
+    private static final List<String> AMOUNT = List.of("amount", "value");
+    private static final List<String> CREDIT = List.of("credit", "paid in", "money in");
+    private static final List<String> DEBIT = List.of("debit", "paid out", "money out");
+    private static final List<String> TYPE = List.of("type", "transaction type");
+    private static final List<String> REFERENCE = List.of("reference", "ref", "reference number", "fitid");
+    private static final List<String> DESCRIPTION = List.of("description", "details", "narrative", "memo", "notes");
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        Columns columns = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = split(line);
+            if (columns == null) {
+                columns = Columns.of(fields);
+                continue;
+            }
+            try {
+                sink.accept(new StatementLine(lineNumber, columns.date.get(fields), amount(columns, fields),
+                                              columns.type.get(fields), columns.reference.get(fields),
+                                              columns.description.get(fields)));
+            } catch (IllegalArgumentException e) {
+                sink.reject(lineNumber, e.getMessage());
+            }
+        }
+        if (columns == null) {
+            throw new IllegalArgumentException("Statement file is empty");
+        }
+    }
+
+    /**
+     * Signed amount from the amount column, or credit minus debit
+     */
+    private static String amount(Columns columns, List<String> fields) {
+        if (columns.amount.present()) {
+            return columns.amount.get(fields);
+        }
+        String credit = columns.credit.get(fields);
+        String debit = columns.debit.get(fields);
+        boolean hasCredit = credit != null && !credit.isBlank();
+        boolean hasDebit = debit != null && !debit.isBlank();
+        if (hasCredit == hasDebit) {
+            throw new IllegalArgumentException("Exactly one of credit and debit must be given");
+        }
+        if (hasCredit) {
+            return credit;
+        }
+        return debit.strip().startsWith("-") ? debit : "-" + debit.strip();
+    }
+
+    /**
+     * Split one line into fields, honouring double quotes
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    private record Column(int index) {
+
+        boolean present() {
+            return index >= 0;
+        }
+
+        String get(List<String> fields) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    private record Columns(Column date, Column amount, Column credit, Column debit,
+                           Column type, Column reference, Column description) {
+
+        static Columns of(List<String> header) {
+            List<String> names = header.stream()
+                    .map(name -> name.replace("\uFEFF", "").strip().toLowerCase(Locale.ROOT))
+                    .toList();
+            Columns columns = new Columns(find(names, DATE), find(names, AMOUNT), find(names, CREDIT),
+                                          find(names, DEBIT), find(names, TYPE), find(names, REFERENCE),
+                                          find(names, DESCRIPTION));
+            if (!columns.date.present()) {
+                throw new IllegalArgumentException("Statement header has no date column");
+            }
+            if (!columns.amount.present() && !(columns.credit.present() && columns.debit.present())) {
+                throw new IllegalArgumentException("Statement header needs an amount column or credit and debit columns");
+            }
+            return columns;
+        }
+
+        private static Column find(List<String> names, List<String> aliases) {
+            for (String alias : aliases) {
+                int index = names.indexOf(alias);
+                if (index >= 0) {
+                    return new Column(index);
+                }
+            }
+            return new Column(-1);
+        }
+    }
+}
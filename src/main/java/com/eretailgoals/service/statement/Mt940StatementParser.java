@@ -0,0 +1,134 @@
+package com.eretailgoals.service.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SWIFT MT940 customer statement reader
+ * Reads the file line by line; each :61: statement line is emitted once its :86: information field,
+ * if any, has been read. Structured :86: fields (?20 to ?29 remittance, ?32 and ?33 name) are
+ * flattened, and transaction type codes are translated to the OFX type names the mapper understands
+ */
+class Mt940StatementParser implements StatementParser {
+
+    /** Value date, optional entry date, [R]C/D mark, optional funds code, amount, type code, references */
+    private static final Pattern STATEMENT_LINE = Pattern.compile(
+            "(\\d{6})(\\d{4})?(RC|RD|C|D)([A-Z])?(\\d{1,12},\\d{0,2})([NSF][A-Z0-9]{3})([^/]{0,16})(?://(.{0,16}))?.*");
+    private static final Pattern TAG = Pattern.compile(":(\\d{2}[A-Z]?):(.*)");
+    private static final Pattern SUBFIELD = Pattern.compile("\\?(\\d{2})([^?]*)");
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        Pending pending = null;
+        StringBuilder information = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            Matcher tag = line.startsWith(":") ? TAG.matcher(line) : null;
+            if (tag != null && tag.matches()) {
+                information = null;
+                if (tag.group(1).equals("61")) {
+                    emit(pending, sink);
+                    pending = new Pending(lineNumber, tag.group(2));
+                } else if (tag.group(1).equals("86") && pending != null && pending.information == null) {
+                    information = new StringBuilder(tag.group(2));
+                    pending.information = information;
+                } else {
+                    emit(pending, sink);
+                    pending = null;
+                }
+            } else if (line.equals("-") || line.startsWith("-}")) {
+                // End of one statement message
+                emit(pending, sink);
+                pending = null;
+                information = null;
+            } else if (information != null) {
+                // Continuation lines are wrapped at 65 characters without a separator
+                information.append(line);
+            }
+        }
+        emit(pending, sink);
+    }
+
+    private static void emit(Pending pending, Sink sink) {
+        if (pending == null) {
+            return;
+        }
+        Matcher matcher = STATEMENT_LINE.matcher(pending.statementLine);
+        if (!matcher.matches()) {
+            sink.reject(pending.lineNumber, "Unreadable :61: statement line");
+            return;
+        }
+        // A reversed credit is a debit and a reversed debit a credit
+        String mark = matcher.group(3);
+        boolean debit = mark.equals("D") || mark.equals("RC");
+        String amount = matcher.group(5).replace(',', '.');
+        if (amount.endsWith(".")) {
+            amount = amount.substring(0, amount.length() - 1);
+        }
+        String ownerReference = matcher.group(7).strip();
+        String bankReference = matcher.group(8) == null ? null : matcher.group(8).strip();
+        String reference = !ownerReference.isEmpty() && !ownerReference.equals("NONREF") ? ownerReference
+                : bankReference != null && !bankReference.isEmpty() ? bankReference : null;
+        sink.accept(new StatementLine(pending.lineNumber, "20" + matcher.group(1), debit ? "-" + amount : amount,
+                                      type(matcher.group(6).substring(1)), reference,
+                                      description(pending.information)));
+    }
+
+    /**
+     * Translate an MT940 transaction type identification code to the OFX type vocabulary
+     */
+    static String type(String code) {
+        return switch (code) {
+            case "CHG", "COM" -> "FEE";
+            case "INT" -> "INT";
+            case "CHK" -> "CHECK";
+            case "DDT" -> "DIRECTDEBIT";
+            default -> code;
+        };
+    }
+
+    static String description(CharSequence information) {
+        if (information == null || information.isEmpty()) {
+            return null;
+        }
+        String text = information.toString();
+        if (text.indexOf('?') < 0) {
+            return text.strip();
+        }
+        StringBuilder remittance = new StringBuilder();
+        StringBuilder name = new StringBuilder();
+        Matcher subfield = SUBFIELD.matcher(text);
+        while (subfield.find()) {
+            int code = Integer.parseInt(subfield.group(1));
+            if (code >= 20 && code <= 29) {
+                remittance.append(subfield.group(2));
+            } else if (code == 32 || code == 33) {
+                name.append(subfield.group(2));
+            }
+        }
+        String party = name.toString().strip();
+        String details = remittance.toString().strip();
+        if (party.isEmpty()) {
+            return details.isEmpty() ? null : details;
+        }
+        return details.isEmpty() ? party : party + " - " + details;
+    }
+
+    private static final class Pending {
+
+        private final long lineNumber;
+        private final String statementLine;
+        private StringBuilder information;
+
+        private Pending(long lineNumber, String statementLine) {
+            this.lineNumber = lineNumber;
+            this.statementLine = statementLine;
+        }
+    }
+}
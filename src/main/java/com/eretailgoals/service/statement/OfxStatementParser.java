@@ -0,0 +1,77 @@
+package com.eretailgoals.service.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OFX statement reader for both the SGML (1.x) and XML (2.x) flavours
+ * Reads the file as a stream of tags and values, collecting the fields of each STMTTRN element;
+ * SGML leaf elements without closing tags are handled because a value ends at the next tag
+ */
+class OfxStatementParser implements StatementParser {
+
+    private static final String TRANSACTION = "STMTTRN";
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        Reader input = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+        StringBuilder token = new StringBuilder();
+        Map<String, String> fields = null;
+        String openTag = null;
+        long ordinal = 0;
+        boolean inTag = false;
+        int c;
+        while ((c = input.read()) != -1) {
+            if (c == '<') {
+                if (openTag != null && fields != null) {
+                    fields.putIfAbsent(openTag, decode(token.toString().strip()));
+                }
+                openTag = null;
+                token.setLength(0);
+                inTag = true;
+            } else if (c == '>' && inTag) {
+                String tag = token.toString().strip().toUpperCase(Locale.ROOT);
+                token.setLength(0);
+                inTag = false;
+                if (tag.equals(TRANSACTION)) {
+                    fields = new HashMap<>();
+                    ordinal++;
+                } else if (tag.equals("/" + TRANSACTION)) {
+                    if (fields != null) {
+                        emit(ordinal, fields, sink);
+                    }
+                    fields = null;
+                } else if (!tag.startsWith("/") && !tag.startsWith("?") && !tag.startsWith("!")) {
+                    openTag = tag;
+                }
+            } else if (token.length() < MAX_TOKEN_LENGTH) {
+                token.append((char) c);
+            }
+        }
+        if (fields != null) {
+            sink.reject(ordinal, "Statement ends inside a transaction");
+        }
+    }
+
+    private static void emit(long ordinal, Map<String, String> fields, Sink sink) {
+        String name = fields.get("NAME");
+        String memo = fields.get("MEMO");
+        String description = name == null ? memo : memo == null || memo.equals(name) ? name : name + " - " + memo;
+        String reference = fields.getOrDefault("FITID", fields.get("CHECKNUM"));
+        sink.accept(new StatementLine(ordinal, fields.get("DTPOSTED"), fields.get("TRNAMT"),
+                                      fields.get("TRNTYPE"), reference, description));
+    }
+
+    private static String decode(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                    .replace("&apos;", "'").replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,84 @@
+package com.eretailgoals.service.statement;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bank statement file formats accepted by the import
+ */
+public enum StatementFormat {
+    CSV,
+    OFX,
+    CAMT053,
+    MT940;
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+    private static final Pattern XML_ENCODING =
+            Pattern.compile("<\\?xml[^>]*\\sencoding\\s*=\\s*[\"']([A-Za-z0-9][A-Za-z0-9._:-]*)[\"']");
+    private static final Pattern OFX_ENCODING = Pattern.compile("^ENCODING:\\s*(\\S+)", Pattern.MULTILINE);
+    private static final Pattern OFX_CHARSET = Pattern.compile("^CHARSET:\\s*(\\S+)", Pattern.MULTILINE);
+
+    /**
+     * Guess the format from a file name, defaulting to CSV
+     */
+    public static StatementFormat fromFileName(String fileName) {
+        if (fileName != null) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".ofx") || name.endsWith(".qfx")) {
+                return OFX;
+            }
+            if (name.endsWith(".xml") || name.contains("camt")) {
+                return CAMT053;
+            }
+            if (name.endsWith(".sta") || name.endsWith(".mt940") || name.endsWith(".940")) {
+                return MT940;
+            }
+        }
+        return CSV;
+    }
+
+    /**
+     * Character set of a statement, judged from its first bytes
+     * camt.053 and OFX 2 declare it in the XML prolog, UTF-8 when absent. OFX 1 names it in its ENCODING
+     * and CHARSET headers and is read as windows-1252 unless they say UTF-8 or ISO-8859-1. MT940 exports
+     * are read as ISO-8859-1, and CSV as UTF-8.
+     */
+    Charset charset(byte[] head) {
+        String text = new String(head, StandardCharsets.ISO_8859_1);
+        return switch (this) {
+            case CSV -> StandardCharsets.UTF_8;
+            case MT940 -> StandardCharsets.ISO_8859_1;
+            case CAMT053 -> declared(XML_ENCODING, text, StandardCharsets.UTF_8);
+            case OFX -> text.contains("<?xml") ? declared(XML_ENCODING, text, StandardCharsets.UTF_8) : ofxSgmlCharset(text);
+        };
+    }
+
+    private static Charset ofxSgmlCharset(String header) {
+        Matcher encoding = OFX_ENCODING.matcher(header);
+        if (encoding.find() && encoding.group(1).equalsIgnoreCase("UTF-8")) {
+            return StandardCharsets.UTF_8;
+        }
+        Matcher charset = OFX_CHARSET.matcher(header);
+        if (charset.find() && charset.group(1).toUpperCase(Locale.ROOT).endsWith("8859-1")) {
+            return StandardCharsets.ISO_8859_1;
+        }
+        return WINDOWS_1252;
+    }
+
+    private static Charset declared(Pattern pattern, String header, Charset fallback) {
+        Matcher matcher = pattern.matcher(header);
+        return matcher.find() && Charset.isSupported(matcher.group(1)) ? Charset.forName(matcher.group(1)) : fallback;
+    }
+
+    StatementParser parser() {
+        return switch (this) {
+            case CSV -> new CsvStatementParser();
+            case OFX -> new OfxStatementParser();
+            case CAMT053 -> new Camt053StatementParser();
+            case MT940 -> new Mt940StatementParser();
+        };
+    }
+}
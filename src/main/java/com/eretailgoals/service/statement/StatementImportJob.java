@@ -0,0 +1,110 @@
+package com.eretailgoals.service.statement;
+
+import com.eretailgoals.dto.StatementImportStatus;
+import com.eretailgoals.dto.StatementImportStatus.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mutable state of one statement import, shared by its reader and writer threads
+ * Only the first few rejected lines are kept so a badly broken file cannot fill the heap
+ */
+class StatementImportJob {
+
+    private final String id;
+    private final Long bankAccountId;
+    private final String fileName;
+    private final StatementFormat format;
+    private final int maxErrors;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong transactionsPosted = new AtomicLong();
+    private final AtomicLong linesRejected = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    private volatile State state = State.QUEUED;
+    private volatile String failure;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    StatementImportJob(String id, Long bankAccountId, String fileName, StatementFormat format, int maxErrors) {
+        this.id = id;
+        this.bankAccountId = bankAccountId;
+        this.fileName = fileName;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Long getBankAccountId() {
+        return bankAccountId;
+    }
+
+    StatementFormat getFormat() {
+        return format;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    boolean isFailed() {
+        return state == State.FAILED;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        state = State.RUNNING;
+    }
+
+    void lineRead() {
+        linesRead.incrementAndGet();
+    }
+
+    void posted(int count) {
+        transactionsPosted.addAndGet(count);
+    }
+
+    void reject(long lineNumber, String reason) {
+        linesRejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(STR."line \{lineNumber}: \{reason}");
+            }
+        }
+    }
+
+    synchronized void complete() {
+        if (state == State.RUNNING) {
+            state = State.COMPLETED;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Mark the job failed, keeping the first failure reported by either thread
+     */
+    synchronized void fail(String reason) {
+        if (state != State.FAILED) {
+            failure = reason;
+            state = State.FAILED;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    StatementImportStatus toStatus() {
+        List<String> snapshot;
+        synchronized (errors) {
+            snapshot = List.copyOf(errors);
+        }
+        return new StatementImportStatus(id, bankAccountId, fileName, format.name(), state, linesRead.get(),
+                                         transactionsPosted.get(), linesRejected.get(), snapshot, failure,
+                                         submittedAt, startedAt, finishedAt);
+    }
+}
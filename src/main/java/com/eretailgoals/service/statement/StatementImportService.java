@@ -0,0 +1,291 @@
+package com.eretailgoals.service.statement;
+
+import com.eretailgoals.dto.StatementImportStatus;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.service.TransactionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class for importing bank statement files as transactions
+ * Each import runs in the background as a two-stage pipeline: a reader thread parses, validates and
+ * maps lines onto a bounded queue, and a writer thread posts them in chunks of commit-size rows, one
+ * database transaction per chunk. The file is streamed from disk and the queue blocks the reader when
+ * the writer falls behind, so memory use stays flat however large the file is.
+ */
+@Service
+public class StatementImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementImportService.class);
+
+    /** Marks the end of the parsed lines on the queue */
+    private static final Transaction END = new Transaction();
+    private static final long HANDOFF_TIMEOUT_MILLIS = 100;
+    /** Bytes read ahead to find the character set a statement declares */
+    private static final int CHARSET_HEAD_BYTES = 1024;
+
+    private final TransactionService transactionService;
+    private final BankAccountRepository bankAccountRepository;
+    private final ExecutorService executor;
+    private final Map<String, StatementImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger runningJobs = new AtomicInteger();
+    private final int commitSize;
+    private final int queueCapacity;
+    private final int maxConcurrentJobs;
+    private final int maxErrors;
+    private final Duration jobRetention;
+
+    @Autowired
+    public StatementImportService(TransactionService transactionService,
+                                  BankAccountRepository bankAccountRepository,
+                                  @Value("${transaction.import.commit-size:1000}") int commitSize,
+                                  @Value("${transaction.import.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${transaction.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                  @Value("${transaction.import.max-errors:100}") int maxErrors,
+                                  @Value("${transaction.import.job-retention:24h}") Duration jobRetention) {
+        if (commitSize < 1 || queueCapacity < 1 || maxConcurrentJobs < 1 || maxErrors < 0) {
+            throw new IllegalArgumentException("Statement import sizes must be positive");
+        }
+        this.transactionService = transactionService;
+        this.bankAccountRepository = bankAccountRepository;
+        this.commitSize = commitSize;
+        this.queueCapacity = queueCapacity;
+        this.maxConcurrentJobs = maxConcurrentJobs;
+        this.maxErrors = maxErrors;
+        this.jobRetention = jobRetention;
+        // Every running job holds exactly one reader and one writer thread
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs * 2, runnable -> {
+            Thread thread = new Thread(runnable, "statement-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Store an uploaded statement and start importing it into a bank account
+     */
+    public StatementImportStatus submit(Long bankAccountId, MultipartFile file, StatementFormat format) {
+        BankAccount account = bankAccountRepository.findById(bankAccountId)
+                .orElseThrow(() -> new IllegalArgumentException("Bank account not found with id: " + bankAccountId));
+        if (!Boolean.TRUE.equals(account.getIsActive())) {
+            throw new IllegalStateException("Bank account is inactive: " + bankAccountId);
+        }
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Statement file is required");
+        }
+        StatementFormat resolved = format != null ? format : StatementFormat.fromFileName(file.getOriginalFilename());
+
+        evictFinishedJobs();
+        if (runningJobs.incrementAndGet() > maxConcurrentJobs) {
+            runningJobs.decrementAndGet();
+            throw new IllegalStateException("Too many statement imports are running, try again later");
+        }
+        Path upload = null;
+        try {
+            upload = Files.createTempFile("statement-import-", ".tmp");
+            file.transferTo(upload);
+            StatementImportJob job = new StatementImportJob(UUID.randomUUID().toString(), bankAccountId,
+                                                            file.getOriginalFilename(), resolved, maxErrors);
+            jobs.put(job.getId(), job);
+            Path stored = upload;
+            run(job, openStatement(stored, resolved), account.getAdminId())
+                    .whenComplete((ignored, error) -> {
+                        runningJobs.decrementAndGet();
+                        deleteQuietly(stored);
+                    });
+            logger.info("Statement import {} queued for bank account {}", job.getId(), bankAccountId);
+            return job.toStatus();
+        } catch (IOException e) {
+            runningJobs.decrementAndGet();
+            deleteQuietly(upload);
+            throw new UncheckedIOException("Could not store the uploaded statement", e);
+        }
+    }
+
+    /**
+     * Get the progress of an import job
+     */
+    public Optional<StatementImportStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(StatementImportJob::toStatus);
+    }
+
+    /**
+     * Run the reader and writer stages of a job, completing when both have stopped
+     */
+    CompletableFuture<Void> run(StatementImportJob job, Reader reader, Long adminId) {
+        BlockingQueue<Transaction> queue = new ArrayBlockingQueue<>(queueCapacity);
+        StatementLineMapper mapper = new StatementLineMapper(job.getBankAccountId(), adminId);
+        job.start();
+        CompletableFuture<Void> reading = CompletableFuture.runAsync(() -> read(job, reader, mapper, queue), executor);
+        CompletableFuture<Void> writing = CompletableFuture.runAsync(() -> write(job, queue), executor);
+        return CompletableFuture.allOf(reading, writing).whenComplete((ignored, error) -> {
+            job.complete();
+            logger.info("Statement import {} finished: {}", job.getId(), job.toStatus().state());
+        });
+    }
+
+    /**
+     * Parse and map every line onto the queue, then enqueue the end marker
+     */
+    private void read(StatementImportJob job, Reader reader, StatementLineMapper mapper,
+                      BlockingQueue<Transaction> queue) {
+        try (reader) {
+            job.getFormat().parser().parse(reader, new StatementParser.Sink() {
+                @Override
+                public void accept(StatementLine line) {
+                    job.lineRead();
+                    Transaction transaction;
+                    try {
+                        transaction = mapper.map(line);
+                    } catch (IllegalArgumentException e) {
+                        job.reject(line.lineNumber(), e.getMessage());
+                        return;
+                    }
+                    handOff(job, queue, transaction);
+                }
+
+                @Override
+                public void reject(long lineNumber, String reason) {
+                    job.lineRead();
+                    job.reject(lineNumber, reason);
+                }
+            });
+            handOff(job, queue, END);
+        } catch (CancellationException e) {
+            // The writer failed and has already recorded why
+        } catch (Exception e) {
+            fail(job, e);
+        }
+    }
+
+    /**
+     * Drain the queue in chunks, posting each chunk in its own database transaction
+     */
+    private void write(StatementImportJob job, BlockingQueue<Transaction> queue) {
+        List<Transaction> chunk = new ArrayList<>(commitSize);
+        try {
+            while (!job.isFailed()) {
+                Transaction transaction = queue.poll(HANDOFF_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (transaction == END) {
+                    post(job, chunk);
+                    return;
+                }
+                if (transaction != null) {
+                    chunk.add(transaction);
+                    if (chunk.size() >= commitSize) {
+                        post(job, chunk);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Statement import was interrupted");
+        } catch (Exception e) {
+            fail(job, e);
+        }
+    }
+
+    private void post(StatementImportJob job, List<Transaction> chunk) {
+        if (!chunk.isEmpty()) {
+            transactionService.postBatch(chunk);
+            job.posted(chunk.size());
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Put a transaction on the queue, giving up if the job fails while the queue is full
+     */
+    private static void handOff(StatementImportJob job, BlockingQueue<Transaction> queue, Transaction transaction) {
+        try {
+            while (!queue.offer(transaction, HANDOFF_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (job.isFailed()) {
+                    throw new CancellationException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Statement import was interrupted");
+            throw new CancellationException();
+        }
+    }
+
+    private static void fail(StatementImportJob job, Exception e) {
+        String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        logger.warn("Statement import {} failed: {}", job.getId(), reason);
+        job.fail(reason != null ? reason : e.getClass().getSimpleName());
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Open a stored statement in the character set its format and header call for
+     * Bytes that are invalid in that set are decoded as U+FFFD, so one stray byte in a name does not
+     * abort the import
+     */
+    static Reader openStatement(Path file, StatementFormat format) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(CHARSET_HEAD_BYTES);
+        }
+        Charset charset = format.charset(head);
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(file), charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)));
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete statement upload {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
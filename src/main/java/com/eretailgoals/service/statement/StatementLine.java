@@ -0,0 +1,13 @@
+package com.eretailgoals.service.statement;
+
+/**
+ * One transaction as read from a statement file, still as raw text
+ * lineNumber is the file line for CSV and the transaction ordinal for OFX
+ */
+record StatementLine(long lineNumber,
+                     String date,
+                     String amount,
+                     String type,
+                     String reference,
+                     String description) {
+}
@@ -0,0 +1,116 @@
+package com.eretailgoals.service.statement;
+
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Validates raw statement lines and maps them to transactions for one bank account
+ * Positive amounts become credits and negative amounts debits; the OFX transaction type, when
+ * present, picks the more specific type such as FEE or INTEREST
+ */
+final class StatementLineMapper {
+
+    private static final DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("dd/MM/uuuu");
+    private static final DateTimeFormatter COMPACT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAX_REFERENCE_LENGTH = 100;
+
+    private final Long bankAccountId;
+    private final Long adminId;
+
+    StatementLineMapper(Long bankAccountId, Long adminId) {
+        this.bankAccountId = bankAccountId;
+        this.adminId = adminId;
+    }
+
+    /**
+     * Map a line to an unsaved transaction, or throw IllegalArgumentException naming the problem
+     */
+    Transaction map(StatementLine line) {
+        LocalDate date = parseDate(line.date());
+        BigDecimal amount = parseAmount(line.amount());
+        String reference = blankToNull(line.reference());
+        if (reference != null && reference.length() > MAX_REFERENCE_LENGTH) {
+            throw new IllegalArgumentException(STR."Reference exceeds \{MAX_REFERENCE_LENGTH} characters");
+        }
+
+        BankAccount account = new BankAccount();
+        account.setId(bankAccountId);
+        Transaction transaction = new Transaction(date, amount.abs(), type(line.type(), amount), account);
+        transaction.setAdminId(adminId);
+        transaction.setReferenceNumber(reference);
+        transaction.setNotes(blankToNull(line.description()));
+        transaction.setIsReconciled(false);
+        return transaction;
+    }
+
+    static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Date is required");
+        }
+        String text = value.strip();
+        try {
+            if (text.indexOf('/') > 0) {
+                return LocalDate.parse(text, DAY_FIRST);
+            }
+            if (text.indexOf('-') > 0) {
+                return LocalDate.parse(text);
+            }
+            // OFX dates are yyyyMMdd optionally followed by time and time zone
+            if (text.length() >= 8) {
+                return LocalDate.parse(text.substring(0, 8), COMPACT);
+            }
+        } catch (DateTimeParseException e) {
+            // Fall through to the error below
+        }
+        throw new IllegalArgumentException(STR."Invalid date '\{text}'");
+    }
+
+    static BigDecimal parseAmount(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        String text = value.strip();
+        boolean negative = text.startsWith("(") && text.endsWith(")");
+        String digits = (negative ? text.substring(1, text.length() - 1) : text)
+                .replace(",", "").replace(" ", "").replace("£", "").replace("$", "").replace("€", "");
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(digits);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(STR."Invalid amount '\{text}'");
+        }
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException(STR."Amount '\{text}' has more than two decimal places");
+        }
+        if (amount.signum() == 0) {
+            throw new IllegalArgumentException("Amount must not be zero");
+        }
+        amount = amount.setScale(2);
+        return negative ? amount.negate() : amount;
+    }
+
+    private static Transaction.TransactionType type(String ofxType, BigDecimal amount) {
+        String type = ofxType == null ? "" : ofxType.strip().toUpperCase(Locale.ROOT);
+        if (amount.signum() > 0) {
+            return switch (type) {
+                case "INT", "DIV" -> Transaction.TransactionType.INTEREST;
+                default -> Transaction.TransactionType.DEPOSIT;
+            };
+        }
+        return switch (type) {
+            case "FEE", "SRVCHG" -> Transaction.TransactionType.FEE;
+            case "PAYMENT", "CHECK", "DIRECTDEBIT", "REPEATPMT" -> Transaction.TransactionType.PAYMENT;
+            default -> Transaction.TransactionType.WITHDRAWAL;
+        };
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
@@ -0,0 +1,24 @@
+package com.eretailgoals.service.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming reader for one statement format
+ * Implementations read the file front to back and hand over each transaction as soon as it is
+ * complete, so memory use does not depend on the size of the file
+ */
+interface StatementParser {
+
+    void parse(Reader reader, Sink sink) throws IOException;
+
+    /**
+     * Receives parsed lines and lines that could not be parsed
+     */
+    interface Sink {
+
+        void accept(StatementLine line);
+
+        void reject(long lineNumber, String reason);
+    }
+}
@@ -0,0 +1,70 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Credit leg of a transfer between two bank accounts. TRANSFER stays the debit leg; both are left out
+ * of the income and expense totals, so moving money between own accounts does not count as cash flow.
+ *
+ * The transaction type column does not look the same on every database. V1 creates it as VARCHAR with
+ * the named check ck_transactions_transaction_type. A database adopted through the version 1 baseline
+ * has the schema Hibernate generated: a native ENUM on MySQL, or an unnamed check on H2. So this
+ * migration drops whatever checks on transactions mention the column, widens it to VARCHAR and then
+ * adds the named check with TRANSFER_IN.
+ */
+public class V12__transfer_in_type extends BaseJavaMigration {
+
+    private static final String FIND_TYPE_CHECKS_SQL = """
+            SELECT tc.CONSTRAINT_NAME
+            FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc
+            JOIN INFORMATION_SCHEMA.CHECK_CONSTRAINTS cc
+              ON cc.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND cc.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+            WHERE tc.TABLE_SCHEMA = ? AND UPPER(tc.TABLE_NAME) = 'TRANSACTIONS'
+              AND tc.CONSTRAINT_TYPE = 'CHECK' AND UPPER(cc.CHECK_CLAUSE) LIKE '%TRANSACTION_TYPE%'
+            """;
+
+    private static final String ADD_TYPE_CHECK_SQL = """
+            ALTER TABLE transactions ADD CONSTRAINT ck_transactions_transaction_type
+                CHECK (transaction_type IN ('RECEIVE', 'PAYMENT', 'TRANSFER', 'TRANSFER_IN', 'DEPOSIT', 'WITHDRAWAL', 'FEE', 'INTEREST'))
+            """;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        // MySQL reports the database as the catalog; H2 uses the schema
+        String schema = mysql ? connection.getCatalog() : connection.getSchema();
+
+        try (Statement statement = connection.createStatement()) {
+            for (String constraintName : findTypeChecks(connection, schema)) {
+                statement.execute("ALTER TABLE transactions DROP CONSTRAINT " + constraintName);
+            }
+            statement.execute(mysql
+                    ? "ALTER TABLE transactions MODIFY transaction_type VARCHAR(255) NOT NULL"
+                    : "ALTER TABLE transactions ALTER COLUMN transaction_type SET DATA TYPE VARCHAR(255)");
+            statement.execute(ADD_TYPE_CHECK_SQL);
+        }
+    }
+
+    private static List<String> findTypeChecks(Connection connection, String schema) throws SQLException {
+        List<String> constraintNames = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_TYPE_CHECKS_SQL)) {
+            statement.setString(1, schema);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    constraintNames.add(resultSet.getString(1));
+                }
+            }
+        }
+        return constraintNames;
+    }
+}
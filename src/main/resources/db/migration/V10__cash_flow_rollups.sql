@@ -0,0 +1,32 @@
+-- Daily cash-flow totals per tenant, bank account, transaction type and expense type, kept current
+-- by every posting. The cash-flow reports read these rows instead of scanning transactions.
+-- admin_id 0 stands for transactions without a tenant. Rows of one bank account are only written
+-- under that account's row lock, which keeps them unique even where expense_type is NULL.
+
+CREATE TABLE cash_flow_rollups (
+    id                BIGINT AUTO_INCREMENT NOT NULL,
+    admin_id          BIGINT NOT NULL,
+    bank_account_id   BIGINT NOT NULL,
+    rollup_date       DATE NOT NULL,
+    transaction_type  VARCHAR(255) NOT NULL,
+    expense_type      VARCHAR(255),
+    total_amount      DECIMAL(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    last_modified     DATETIME(6),
+    CONSTRAINT pk_cash_flow_rollups PRIMARY KEY (id),
+    CONSTRAINT fk_cash_flow_rollups_bank_account FOREIGN KEY (bank_account_id) REFERENCES bank_accounts (id)
+);
+
+-- CashFlowRollupRepository: applyDelta
+CREATE INDEX idx_cash_flow_rollups_account_date ON cash_flow_rollups (bank_account_id, rollup_date);
+-- TransactionRepository: income, expense and net cash flow totals, findMonthlyTransactionSummary
+CREATE INDEX idx_cash_flow_rollups_date_type ON cash_flow_rollups (rollup_date, transaction_type);
+-- TransactionRepository: calculateTotalExpensesByTypeAndDateRange
+CREATE INDEX idx_cash_flow_rollups_expense_date ON cash_flow_rollups (expense_type, rollup_date);
+
+INSERT INTO cash_flow_rollups (admin_id, bank_account_id, rollup_date, transaction_type, expense_type,
+                               total_amount, transaction_count, last_modified)
+SELECT COALESCE(admin_id, 0), bank_account_id, transaction_date, transaction_type, expense_type,
+       SUM(transaction_amount), COUNT(*), CURRENT_TIMESTAMP
+FROM transactions
+GROUP BY COALESCE(admin_id, 0), bank_account_id, transaction_date, transaction_type, expense_type;
@@ -0,0 +1,16 @@
+-- Idempotency-Key values seen on the posting and import endpoints, with the response each one produced.
+-- The unique key is taken in the same transaction as the write, so a resent request can never write twice.
+
+CREATE TABLE idempotency_keys (
+    id              BIGINT AUTO_INCREMENT NOT NULL,
+    scope           VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64) NOT NULL,
+    response_body   TEXT,
+    date_created    DATETIME(6) NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id),
+    CONSTRAINT uk_idempotency_keys_scope_key UNIQUE (scope, idempotency_key)
+);
+
+-- IdempotencyKeyRepository: deleteCreatedBefore
+CREATE INDEX idx_idempotency_keys_date_created ON idempotency_keys (date_created);
@@ -0,0 +1,14 @@
+-- Latest transaction date and transaction count per bank account, kept current by every posting so
+-- findAccountsWithRecentTransactions reads a range of accounts instead of every recent transaction.
+-- Existing rows are counted here. Rows that older application nodes insert during a rolling deploy
+-- still get NULL; postings count from 0 on them and BankAccountActivityBackfillJob recounts them on startup.
+
+ALTER TABLE bank_accounts ADD COLUMN last_transaction_date DATE;
+ALTER TABLE bank_accounts ADD COLUMN transaction_count BIGINT;
+
+-- BankAccountRepository: findAccountsWithRecentTransactions
+CREATE INDEX idx_bank_accounts_last_transaction_date ON bank_accounts (last_transaction_date);
+
+UPDATE bank_accounts SET
+    last_transaction_date = (SELECT MAX(t.transaction_date) FROM transactions t WHERE t.bank_account_id = bank_accounts.id),
+    transaction_count = (SELECT COUNT(*) FROM transactions t WHERE t.bank_account_id = bank_accounts.id);
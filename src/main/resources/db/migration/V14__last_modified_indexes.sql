@@ -0,0 +1,7 @@
+-- Indexes for the search index refresh, which re-reads the invoices and users modified since its previous run
+-- so that writes made on other nodes become searchable. Keep these in sync with the @Index declarations.
+
+-- InvoiceRepository: findSearchTextModifiedSince
+CREATE INDEX idx_invoices_last_modified ON invoices (last_modified);
+-- UserRepository: findSearchTextModifiedSince, findSuggestionsModifiedSince
+CREATE INDEX idx_users_last_modified ON users (last_modified);
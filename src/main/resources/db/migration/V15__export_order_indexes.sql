@@ -0,0 +1,12 @@
+-- Indexes in the order of the transaction export, ORDER BY transaction_date, date_created, id, so MySQL streams
+-- an export straight from the index instead of sorting every row first. InnoDB appends the primary key to each
+-- secondary index, which supplies the id. Exports for one bank account already use idx_transactions_account_date.
+-- Keep these in sync with the @Index declarations on Transaction.
+
+-- TransactionRepository: findByAdminId; TransactionExportService: exports for one tenant
+DROP INDEX idx_transactions_admin_date ON transactions;
+CREATE INDEX idx_transactions_admin_date_created ON transactions (admin_id, transaction_date, date_created);
+
+-- TransactionExportService: exports across tenants. idx_transactions_date_created stays descending for
+-- findRecentTransactions; InnoDB's primary key suffix on it runs the wrong way for the export's id tiebreak.
+CREATE INDEX idx_transactions_date_created_asc ON transactions (transaction_date, date_created);
@@ -0,0 +1,117 @@
+-- Baseline schema as mapped by the JPA entities before the invoice changes that V2 onwards bring in.
+-- Existing databases already have it and are baselined at version 1 instead of running this script.
+-- Kept to the SQL subset shared by MySQL 8 and H2 so the same scripts run in prod, dev and tests.
+
+CREATE TABLE users (
+    id                BIGINT AUTO_INCREMENT NOT NULL,
+    admin_id          BIGINT,
+    first_name        VARCHAR(100) NOT NULL,
+    last_name         VARCHAR(100) NOT NULL,
+    email             VARCHAR(255) NOT NULL,
+    company_name      VARCHAR(200),
+    username          VARCHAR(50),
+    password          VARCHAR(255),
+    address           TEXT,
+    postcode          VARCHAR(20),
+    shipping_address  TEXT,
+    shipping_postcode VARCHAR(20),
+    phone_office      VARCHAR(20),
+    phone_home        VARCHAR(20),
+    mobile            VARCHAR(20),
+    vat_number        VARCHAR(50),
+    fax               VARCHAR(20),
+    user_type         VARCHAR(255) NOT NULL,
+    date_created      DATETIME(6) NOT NULL,
+    last_modified     DATETIME(6),
+    login_timestamp   DATETIME(6),
+    is_active         BOOLEAN,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT ck_users_user_type CHECK (user_type IN ('ADMIN', 'SUPPLIER', 'CLIENT'))
+);
+
+CREATE TABLE bank_accounts (
+    id              BIGINT AUTO_INCREMENT NOT NULL,
+    admin_id        BIGINT,
+    account_name    VARCHAR(200) NOT NULL,
+    account_number  VARCHAR(50) NOT NULL,
+    sort_code       VARCHAR(20),
+    account_type    VARCHAR(255) NOT NULL,
+    opening_balance DECIMAL(19, 2) NOT NULL,
+    current_balance DECIMAL(19, 2) NOT NULL,
+    is_active       BOOLEAN,
+    date_created    DATETIME(6) NOT NULL,
+    last_modified   DATETIME(6),
+    CONSTRAINT pk_bank_accounts PRIMARY KEY (id),
+    CONSTRAINT ck_bank_accounts_account_type CHECK (account_type IN ('CURRENT', 'SAVINGS', 'CASH'))
+);
+
+CREATE TABLE invoices (
+    id                  BIGINT AUTO_INCREMENT NOT NULL,
+    admin_id            BIGINT,
+    user_id             BIGINT NOT NULL,
+    invoice_number      VARCHAR(50) NOT NULL,
+    invoice_date        DATE NOT NULL,
+    due_date            DATE,
+    invoice_type        VARCHAR(255),
+    invoice_note        TEXT,
+    invoice_amount      DECIMAL(19, 2) NOT NULL,
+    vat_amount          DECIMAL(19, 2),
+    invoice_paid_amount DECIMAL(19, 2),
+    invoice_status      VARCHAR(255) NOT NULL,
+    date_created        DATETIME(6) NOT NULL,
+    last_modified       DATETIME(6),
+    CONSTRAINT pk_invoices PRIMARY KEY (id),
+    CONSTRAINT uk_invoices_invoice_number UNIQUE (invoice_number),
+    CONSTRAINT fk_invoices_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT ck_invoices_invoice_type CHECK (invoice_type IN ('STANDARD', 'CREDIT_NOTE', 'PROFORMA', 'RECURRING')),
+    CONSTRAINT ck_invoices_invoice_status CHECK (invoice_status IN ('OPEN', 'PARTIAL_PAID', 'PAID', 'OVERDUE', 'CANCELLED'))
+);
+
+CREATE TABLE invoice_items (
+    id               BIGINT AUTO_INCREMENT NOT NULL,
+    invoice_id       BIGINT NOT NULL,
+    item_description VARCHAR(500) NOT NULL,
+    quantity         INTEGER NOT NULL,
+    unit_price       DECIMAL(19, 2) NOT NULL,
+    discount         DECIMAL(19, 2),
+    vat_rate         DECIMAL(5, 2),
+    line_total       DECIMAL(19, 2),
+    item_code        VARCHAR(50),
+    unit             VARCHAR(20),
+    date_created     DATETIME(6) NOT NULL,
+    last_modified    DATETIME(6),
+    CONSTRAINT pk_invoice_items PRIMARY KEY (id),
+    CONSTRAINT fk_invoice_items_invoice FOREIGN KEY (invoice_id) REFERENCES invoices (id),
+    CONSTRAINT ck_invoice_items_quantity CHECK (quantity >= 1)
+);
+
+CREATE TABLE transactions (
+    id                 BIGINT AUTO_INCREMENT NOT NULL,
+    admin_id           BIGINT,
+    bank_account_id    BIGINT NOT NULL,
+    user_id            BIGINT,
+    invoice_id         BIGINT,
+    transaction_date   DATE NOT NULL,
+    transaction_amount DECIMAL(19, 2) NOT NULL,
+    transaction_type   VARCHAR(255) NOT NULL,
+    notes              TEXT,
+    ending_balance     DECIMAL(19, 2),
+    amount_received    DECIMAL(19, 2),
+    amount_transferred DECIMAL(19, 2),
+    expense_type       VARCHAR(255),
+    reference_number   VARCHAR(100),
+    is_reconciled      BOOLEAN,
+    date_created       DATETIME(6) NOT NULL,
+    last_modified      DATETIME(6),
+    CONSTRAINT pk_transactions PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_bank_account FOREIGN KEY (bank_account_id) REFERENCES bank_accounts (id),
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transactions_invoice FOREIGN KEY (invoice_id) REFERENCES invoices (id),
+    CONSTRAINT ck_transactions_transaction_type
+        CHECK (transaction_type IN ('RECEIVE', 'PAYMENT', 'TRANSFER', 'DEPOSIT', 'WITHDRAWAL', 'FEE', 'INTEREST')),
+    CONSTRAINT ck_transactions_expense_type
+        CHECK (expense_type IN ('OFFICE_SUPPLIES', 'TRAVEL', 'UTILITIES', 'RENT', 'INSURANCE',
+                                'PROFESSIONAL_SERVICES', 'MARKETING', 'EQUIPMENT', 'MEALS', 'OTHER'))
+);
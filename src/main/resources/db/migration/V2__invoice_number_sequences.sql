@@ -0,0 +1,12 @@
+-- Next invoice number per tenant and year, handed out to each node in blocks.
+-- Rows are created on first use and seeded from the highest number already issued for that year.
+
+CREATE TABLE invoice_number_sequences (
+    id            BIGINT AUTO_INCREMENT NOT NULL,
+    admin_id      BIGINT NOT NULL,
+    sequence_year INTEGER NOT NULL,
+    next_value    BIGINT NOT NULL,
+    last_modified DATETIME(6),
+    CONSTRAINT pk_invoice_number_sequences PRIMARY KEY (id),
+    CONSTRAINT uk_invoice_number_sequences_admin_year UNIQUE (admin_id, sequence_year)
+);
@@ -0,0 +1,14 @@
+-- Outstanding amount and open invoice count per tenant and client, kept current by every invoice write.
+-- admin_id 0 stands for invoices without a tenant. The table starts empty and
+-- ReceivablesVerificationJob fills it from the invoices on the first startup.
+
+CREATE TABLE receivables_summaries (
+    id                 BIGINT AUTO_INCREMENT NOT NULL,
+    admin_id           BIGINT NOT NULL,
+    user_id            BIGINT NOT NULL,
+    outstanding_amount DECIMAL(19, 2) NOT NULL,
+    open_invoice_count BIGINT NOT NULL,
+    last_modified      DATETIME(6),
+    CONSTRAINT pk_receivables_summaries PRIMARY KEY (id),
+    CONSTRAINT uk_receivables_summaries_admin_user UNIQUE (admin_id, user_id)
+);
@@ -0,0 +1,17 @@
+-- Invoices and invoice items take their IDs from the id_generators table in blocks of 50 so
+-- Hibernate can send batch inserts. Each counter starts one block past the highest existing ID.
+-- Every writer must take its IDs from id_generators: an insert that leaves the ID to AUTO_INCREMENT
+-- gets MAX(id) + 1, which lies inside a block a node may already hold, and collides with it. Stop
+-- nodes from before this migration before any node starts using the table.
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    CONSTRAINT pk_id_generators PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'invoices', COALESCE(MAX(id), 0) + 50 FROM invoices;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'invoice_items', COALESCE(MAX(id), 0) + 50 FROM invoice_items;
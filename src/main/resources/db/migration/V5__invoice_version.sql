@@ -0,0 +1,4 @@
+-- Optimistic lock counter checked by the invoice read-modify-write paths such as updateInvoice.
+-- Existing rows start at version 0.
+
+ALTER TABLE invoices ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
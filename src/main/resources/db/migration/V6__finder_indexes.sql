@@ -0,0 +1,53 @@
+-- Composite indexes matched to the fixed-predicate finders in the repositories.
+-- Foreign key columns that are only ever filtered on their own (invoice_items.invoice_id,
+-- transactions.user_id, transactions.invoice_id) are covered by the index both databases
+-- create for the constraint. Keep these in sync with the @Index declarations on the entities.
+
+-- InvoiceRepository: findByAdminId, countByAdminId, keyset pages for one tenant
+CREATE INDEX idx_invoices_admin_date_id ON invoices (admin_id, invoice_date, id);
+-- InvoiceRepository: findByInvoiceDateBetween, date range totals, keyset pages across tenants
+CREATE INDEX idx_invoices_date_id ON invoices (invoice_date, id);
+-- InvoiceRepository: findByUser(Id), findByUser(Id)AndInvoiceStatus, outstanding amount by user
+CREATE INDEX idx_invoices_user_status ON invoices (user_id, invoice_status);
+-- InvoiceRepository: findByInvoiceStatus, countByInvoiceStatus, outstanding amount totals
+CREATE INDEX idx_invoices_status_due ON invoices (invoice_status, due_date);
+-- InvoiceRepository: findByDueDateBetween, findOverdueInvoices, findInvoicesDueWithinDays
+CREATE INDEX idx_invoices_due_date ON invoices (due_date);
+-- InvoiceRepository: findRecentInvoices
+CREATE INDEX idx_invoices_date_created ON invoices (date_created DESC);
+
+-- TransactionRepository: findByBankAccount(Id), date range per account, account history, countByBankAccount
+CREATE INDEX idx_transactions_account_date ON transactions (bank_account_id, transaction_date, date_created);
+-- TransactionRepository: findByBankAccountAndIsReconciledFalse
+CREATE INDEX idx_transactions_account_reconciled ON transactions (bank_account_id, is_reconciled);
+-- TransactionRepository: findByIsReconciledFalse, countByIsReconciledFalse
+CREATE INDEX idx_transactions_reconciled ON transactions (is_reconciled);
+-- TransactionRepository: findByAdminId
+CREATE INDEX idx_transactions_admin_date ON transactions (admin_id, transaction_date);
+-- TransactionRepository: findByTransactionDateBetween, cash flow totals, findRecentTransactions
+CREATE INDEX idx_transactions_date_created ON transactions (transaction_date DESC, date_created DESC);
+-- TransactionRepository: findByTransactionType, countByTransactionType
+CREATE INDEX idx_transactions_type_date ON transactions (transaction_type, transaction_date);
+-- TransactionRepository: findByExpenseType, expense totals by type
+CREATE INDEX idx_transactions_expense_date ON transactions (expense_type, transaction_date);
+-- TransactionRepository: findByReferenceNumber
+CREATE INDEX idx_transactions_reference ON transactions (reference_number);
+
+-- BankAccountRepository: findByAccountNumber, existsByAccountNumber
+CREATE INDEX idx_bank_accounts_number ON bank_accounts (account_number);
+-- BankAccountRepository: findByAdminId, findByAdminIdAndIsActiveTrue, active balance per tenant
+CREATE INDEX idx_bank_accounts_admin_active ON bank_accounts (admin_id, is_active);
+-- BankAccountRepository: findByAccountType, findByAccountTypeAndAdminId, balance by account type
+CREATE INDEX idx_bank_accounts_type_admin ON bank_accounts (account_type, admin_id);
+-- BankAccountRepository: findByIsActiveTrue, findByIsActiveTrueOrderByAccountNameAsc, total balance
+CREATE INDEX idx_bank_accounts_active_name ON bank_accounts (is_active, account_name);
+-- BankAccountRepository: findByCurrentBalanceGreaterThan/LessThan
+CREATE INDEX idx_bank_accounts_balance ON bank_accounts (current_balance);
+
+-- UserRepository: findByAdminId, findByAdminIdAndIsActiveTrue, countByAdminIdAndIsActiveTrue
+CREATE INDEX idx_users_admin_active ON users (admin_id, is_active);
+-- UserRepository: findByUserType, findAllClients, findAllSuppliers, countByUserType
+CREATE INDEX idx_users_type_active ON users (user_type, is_active);
+
+-- ReceivablesSummaryRepository: sumOutstandingAmountByUserId
+CREATE INDEX idx_receivables_summaries_user ON receivables_summaries (user_id);
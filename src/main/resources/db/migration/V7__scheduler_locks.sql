@@ -0,0 +1,10 @@
+-- Lease rows that let one application node at a time run a scheduled job.
+-- A node owns a lock while locked_until lies in the future; rows are created on first use.
+
+CREATE TABLE scheduler_locks (
+    lock_name    VARCHAR(100) NOT NULL,
+    locked_until DATETIME(6) NOT NULL,
+    locked_at    DATETIME(6) NOT NULL,
+    locked_by    VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_scheduler_locks PRIMARY KEY (lock_name)
+);
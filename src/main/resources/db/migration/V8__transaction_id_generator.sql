@@ -0,0 +1,7 @@
+-- Transactions take their IDs from the id_generators table in blocks of 50, like invoices,
+-- so Hibernate can send statement imports as JDBC batch inserts. The counter starts one block
+-- past the highest existing ID. As with invoices, every writer must take its IDs from
+-- id_generators; an AUTO_INCREMENT insert would collide with a block a node already holds.
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'transactions', COALESCE(MAX(id), 0) + 50 FROM transactions;
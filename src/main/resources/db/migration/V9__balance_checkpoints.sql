@@ -0,0 +1,14 @@
+-- Month-end closing balance of each bank account, kept current by every posting.
+-- A row holds the opening balance plus every transaction dated on or before checkpoint_date,
+-- so a balance as of any day is the nearest earlier row plus at most one month of transactions.
+
+CREATE TABLE balance_checkpoints (
+    id              BIGINT AUTO_INCREMENT NOT NULL,
+    bank_account_id BIGINT NOT NULL,
+    checkpoint_date DATE NOT NULL,
+    balance         DECIMAL(19, 2) NOT NULL,
+    last_modified   DATETIME(6),
+    CONSTRAINT pk_balance_checkpoints PRIMARY KEY (id),
+    CONSTRAINT uk_balance_checkpoints_account_date UNIQUE (bank_account_id, checkpoint_date),
+    CONSTRAINT fk_balance_checkpoints_bank_account FOREIGN KEY (bank_account_id) REFERENCES bank_accounts (id)
+);
@@ -0,0 +1,142 @@
+package com.eretailgoals.config;
+
+import com.eretailgoals.entity.User;
+import com.eretailgoals.service.JwtService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-request overhead benchmark for the JWT authentication filter
+ * Several threads push bearer requests through the filter, with the verified-token cache warm and with it
+ * effectively disabled, and report p50, p99 and the share of one core the filter would use at 5k requests/s
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtAuthenticationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationBenchmarkTest.class);
+
+    private static final int USERS = 1_000;
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 50_000;
+    private static final int TARGET_RPS = 5_000;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${jwt.expiration}")
+    private long expiration;
+
+    @Test
+    void doFilter_CachedTokens_ShouldAddUnderOneMillisecondAtP99() throws Exception {
+        // Given
+        JwtService jwtService = new JwtService(secret, expiration, USERS);
+        String[] tokens = issueTokens(jwtService);
+
+        // When
+        long[] nanos = run(new JwtAuthenticationFilter(jwtService), tokens);
+
+        // Then
+        long p99 = report("Cached token", nanos);
+        assertTrue(p99 < TimeUnit.MILLISECONDS.toNanos(1), STR."cached verification p99 was \{p99} ns");
+    }
+
+    @Test
+    void doFilter_UncachedTokens_ShouldAuthenticateEveryRequest() throws Exception {
+        // Given
+        // A one-entry cache makes nearly every request check the signature and parse the claims
+        JwtService jwtService = new JwtService(secret, expiration, 1);
+        String[] tokens = issueTokens(jwtService);
+
+        // When & Then
+        report("Signature check", run(new JwtAuthenticationFilter(jwtService), tokens));
+    }
+
+    private static String[] issueTokens(JwtService jwtService) {
+        String[] tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setAdminId(1L);
+            user.setUsername("bench-user-" + i);
+            user.setUserType(i % 10 == 0 ? User.UserType.ADMIN : User.UserType.CLIENT);
+            tokens[i] = jwtService.issueToken(user);
+        }
+        return tokens;
+    }
+
+    /**
+     * Send random users' requests through the filter from every thread, warming up first, and return the
+     * sorted per-request latencies
+     */
+    private static long[] run(JwtAuthenticationFilter filter, String[] tokens) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] nanos = new long[REQUESTS_PER_THREAD];
+                    for (int warmUp = 0; warmUp <= 1; warmUp++) {
+                        for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/transactions");
+                            request.addHeader(HttpHeaders.AUTHORIZATION, JwtAuthenticationFilter.BEARER_PREFIX +
+                                    tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+                            boolean[] authenticated = new boolean[1];
+                            FilterChain chain = (req, res) -> authenticated[0] =
+                                    SecurityContextHolder.getContext().getAuthentication() != null;
+
+                            long started = System.nanoTime();
+                            filter.doFilter(request, new MockHttpServletResponse(), chain);
+                            nanos[i] = System.nanoTime() - started;
+
+                            SecurityContextHolder.clearContext();
+                            assertTrue(authenticated[0]);
+                        }
+                    }
+                    return nanos;
+                }));
+            }
+            long[] all = new long[THREADS * REQUESTS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * REQUESTS_PER_THREAD, REQUESTS_PER_THREAD);
+            }
+            Arrays.sort(all);
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long report(String scenario, long[] sortedNanos) {
+        long p50 = sortedNanos[sortedNanos.length / 2];
+        long p99 = sortedNanos[(int) (sortedNanos.length * 0.99)];
+        double meanNanos = Arrays.stream(sortedNanos).average().orElse(0);
+        logger.info("{}: {} requests on {} threads, p50 {} us, p99 {} us, mean {} us ({}% of one core at {} requests/s)",
+                    scenario, sortedNanos.length, THREADS, TimeUnit.NANOSECONDS.toMicros(p50),
+                    TimeUnit.NANOSECONDS.toMicros(p99), String.format("%.1f", meanNanos / 1_000),
+                    String.format("%.1f", meanNanos * TARGET_RPS / 10_000_000), TARGET_RPS);
+        return p99;
+    }
+}
@@ -0,0 +1,85 @@
+package com.eretailgoals.config;
+
+import com.eretailgoals.entity.User;
+import com.eretailgoals.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Access rules of the security filter chain
+ * Requests carry real bearer tokens through the JWT filter; only ADMIN users may reach the API
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final String searchTerm = UUID.randomUUID().toString();
+
+    @Test
+    void users_NoToken_ShouldReturnUnauthorized() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/users/search").param("searchTerm", searchTerm))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void users_ForgedToken_ShouldReturnUnauthorized() throws Exception {
+        // Given
+        String token = tokenFor(User.UserType.ADMIN);
+        String forged = token.substring(0, token.length() - 4) + "AAAA";
+
+        // When & Then
+        mockMvc.perform(get("/users/search").param("searchTerm", searchTerm)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + forged))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void users_ClientToken_ShouldReturnForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/users/search").param("searchTerm", searchTerm)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor(User.UserType.CLIENT)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void users_AdminToken_ShouldBeAllowed() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/users/search").param("searchTerm", searchTerm)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor(User.UserType.ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void health_NoToken_ShouldBeAllowed() throws Exception {
+        // When & Then: the health report is returned, whether the test environment's indicators are up or not
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(jsonPath("$.status").exists());
+    }
+
+    private String tokenFor(User.UserType userType) {
+        User user = new User();
+        user.setId(1L);
+        user.setAdminId(1L);
+        user.setUsername("security-" + userType.name().toLowerCase());
+        user.setUserType(userType);
+        return jwtService.issueToken(user);
+    }
+}
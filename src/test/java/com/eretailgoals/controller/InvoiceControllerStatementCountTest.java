@@ -0,0 +1,129 @@
+package com.eretailgoals.controller;
+
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.InvoiceItem;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.UserRepository;
+import com.eretailgoals.service.InvoiceService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Statement count tests for the invoice read endpoints
+ * Counts the JDBC statements Hibernate prepares per request, including lazy loads during serialization
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class InvoiceControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Long adminId = Math.abs(UUID.randomUUID().getMostSignificantBits() % 1_000_000_000L) + 1;
+
+    private final List<Invoice> invoices = new ArrayList<>();
+
+    private User client;
+
+    @BeforeEach
+    void setUp() {
+        client = new User("Jane", "Smith", adminId + "@example.com", User.UserType.CLIENT);
+        client.setAdminId(adminId);
+        client.setCompanyName("Smith Trading");
+        client = userRepository.save(client);
+
+        for (int i = 0; i < 3; i++) {
+            Invoice invoice = new Invoice(STR."SC-\{adminId}-\{i}", LocalDate.now().minusDays(i), client, BigDecimal.ZERO);
+            invoice.setAdminId(adminId);
+            invoice.addInvoiceItem(new InvoiceItem("Consulting", 2, new BigDecimal("50.00")));
+            invoice.addInvoiceItem(new InvoiceItem("Travel", 1, new BigDecimal("20.00")));
+            invoices.add(invoiceService.createInvoice(invoice));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceRepository.deleteAllById(invoices.stream().map(Invoice::getId).toList());
+        userRepository.deleteById(client.getId());
+    }
+
+    @Test
+    void listInvoices_ShouldUseOneStatement() throws Exception {
+        assertStatements(1, get("/invoices").param("adminId", adminId.toString()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].clientName").value("Jane Smith"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getInvoiceById_ShouldLoadClientAndItemsInOneStatement() throws Exception {
+        assertStatements(1, get("/invoices/{id}", invoices.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.client.companyName").value("Smith Trading"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.totalAmount").value(120.0));
+    }
+
+    @Test
+    void getInvoiceByNumber_ShouldLoadClientAndItemsInOneStatement() throws Exception {
+        assertStatements(1, get("/invoices/number/{number}", invoices.get(1).getInvoiceNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+
+    @Test
+    void searchInvoices_ShouldUseOneStatementPlusCountAndIndexRefresh() throws Exception {
+        // The search index first reads the invoices and users changed since its last lookup
+        assertStatements(4, get("/invoices/search").param("adminId", adminId.toString())
+                                                  .param("searchTerm", "smith").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    private ResultActions assertStatements(long expected, RequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ResultActions result = mockMvc.perform(request);
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements executed");
+        return result;
+    }
+}
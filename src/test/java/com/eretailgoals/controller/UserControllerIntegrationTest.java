@@ -55,7 +55,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void createUser_ValidUser_ShouldReturn201() throws Exception {
         // Given
         User newUser = new User();
@@ -79,7 +79,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void createUser_DuplicateEmail_ShouldReturn400() throws Exception {
         // Given
         User duplicateUser = new User();
@@ -96,7 +96,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void createUser_InvalidData_ShouldReturn400() throws Exception {
         // Given
         User invalidUser = new User();
@@ -111,7 +111,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void getAllUsers_ShouldReturnUserList() throws Exception {
         // When & Then
         mockMvc.perform(get("/users"))
@@ -123,7 +123,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void getUserById_ExistingUser_ShouldReturnUser() throws Exception {
         // When & Then
         mockMvc.perform(get("/users/{id}", testUser.getId()))
@@ -135,7 +135,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void getUserById_NonExistingUser_ShouldReturn404() throws Exception {
         // When & Then
         mockMvc.perform(get("/users/{id}", 999L))
@@ -143,7 +143,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void updateUser_ValidUpdate_ShouldReturnUpdatedUser() throws Exception {
         // Given
         User updateData = new User();
@@ -164,7 +164,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void deleteUser_ExistingUser_ShouldReturn204() throws Exception {
         // When & Then
         mockMvc.perform(delete("/users/{id}", testUser.getId()))
@@ -176,7 +176,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void deactivateUser_ShouldDeactivateUser() throws Exception {
         // When & Then
         mockMvc.perform(patch("/users/{id}/deactivate", testUser.getId()))
@@ -189,7 +189,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void activateUser_ShouldActivateUser() throws Exception {
         // Given - deactivate user first
         testUser.setIsActive(false);
@@ -206,7 +206,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void getUsersByType_ShouldReturnFilteredUsers() throws Exception {
         // Given - create a supplier user
         User supplier = new User();
@@ -231,7 +231,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void getAllClients_ShouldReturnOnlyClients() throws Exception {
         // Given - create a supplier user
         User supplier = new User();
@@ -250,7 +250,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void getAllSuppliers_ShouldReturnOnlySuppliers() throws Exception {
         // Given - create a supplier user
         User supplier = new User();
@@ -269,7 +269,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void searchUsers_WithSearchTerm_ShouldReturnMatchingUsers() throws Exception {
         // Given - create additional users
         User user2 = new User();
@@ -289,7 +289,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void getUserStatistics_ShouldReturnCorrectCounts() throws Exception {
         // Given - create users of different types
         User supplier = new User();
@@ -317,7 +317,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void changePassword_ValidPassword_ShouldReturn200() throws Exception {
         // Given
         String requestBody = "{\"newPassword\":\"newPassword123\"}";
@@ -330,7 +330,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockUser(roles = "ADMIN")
     void changePassword_InvalidPassword_ShouldReturn400() throws Exception {
         // Given
         String requestBody = "{\"newPassword\":\"\"}"; // Empty password
@@ -0,0 +1,46 @@
+package com.eretailgoals.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InvoiceSummaryView
+ * Tests how the client name is put together from the name parts that are present
+ */
+class InvoiceSummaryViewTest {
+
+    @Test
+    void clientName_BothParts_ShouldJoinWithSpace() {
+        // When
+        String name = InvoiceSummaryView.clientName("Jane", "Smith");
+
+        // Then
+        assertEquals("Jane Smith", name);
+    }
+
+    @Test
+    void clientName_MissingFirstName_ShouldUseLastNameOnly() {
+        // When & Then
+        assertEquals("Smith", InvoiceSummaryView.clientName(null, "Smith"));
+        assertEquals("Smith", InvoiceSummaryView.clientName(" ", "Smith"));
+    }
+
+    @Test
+    void clientName_MissingLastName_ShouldUseFirstNameOnly() {
+        // When
+        String name = InvoiceSummaryView.clientName("Jane", null);
+
+        // Then
+        assertEquals("Jane", name);
+    }
+
+    @Test
+    void clientName_NoParts_ShouldReturnNull() {
+        // When
+        String name = InvoiceSummaryView.clientName(null, null);
+
+        // Then
+        assertNull(name);
+    }
+}
@@ -0,0 +1,86 @@
+package com.eretailgoals.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migration tests for a database that already holds data from before Flyway
+ * Brings one to the V1 schema, or to the schema Hibernate generated, without Flyway history,
+ * then baselines and migrates it the way the application does on startup
+ */
+class MigrationBaselineTest {
+
+    @Test
+    void migrate_ExistingDatabase_ShouldBaselineAndCarryExistingRowsForward() {
+        // Given
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:baseline;DB_CLOSE_DELAY=-1", "sa", "");
+        flyway(dataSource).target("1").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE \"flyway_schema_history\"");
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, user_type, date_created) "
+                + "VALUES (1, 'Existing', 'Client', 'existing@example.com', 'CLIENT', CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO invoices (id, user_id, invoice_number, invoice_date, invoice_amount, "
+                + "invoice_status, date_created) VALUES (120, 1, 'INV-000120', CURRENT_DATE, 10.00, 'OPEN', CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO invoice_items (id, invoice_id, item_description, quantity, unit_price, "
+                + "date_created) VALUES (75, 120, 'Existing item', 1, 10.00, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO bank_accounts (id, account_name, account_number, account_type, opening_balance, "
+                + "current_balance, date_created) VALUES (1, 'Existing', '12345678', 'CURRENT', 0, 30.00, CURRENT_TIMESTAMP)");
+        for (String date : new String[] {"2024-01-05", "2024-02-10"}) {
+            jdbcTemplate.update("INSERT INTO transactions (bank_account_id, transaction_date, transaction_amount, "
+                    + "transaction_type, date_created) VALUES (1, DATE '" + date + "', 15.00, 'DEPOSIT', CURRENT_TIMESTAMP)");
+        }
+
+        // When
+        flyway(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        // Then
+        assertEquals(170L, nextVal(jdbcTemplate, "invoices"));
+        assertEquals(125L, nextVal(jdbcTemplate, "invoice_items"));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM invoices WHERE id = 120", Long.class));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT transaction_count FROM bank_accounts WHERE id = 1", Long.class));
+        assertEquals("2024-02-10", jdbcTemplate.queryForObject(
+                "SELECT last_transaction_date FROM bank_accounts WHERE id = 1", String.class));
+    }
+
+    @Test
+    void migrate_HibernateGeneratedSchema_ShouldReplaceTheUnnamedTypeCheck() {
+        // Given
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:hibernate-baseline;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/hibernate-baseline-schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO bank_accounts (id, account_name, account_number, account_type, opening_balance, "
+                + "current_balance, date_created) VALUES (1, 'Existing', '12345678', 'CURRENT', 0, 30.00, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO transactions (bank_account_id, transaction_date, transaction_amount, "
+                + "transaction_type, date_created) VALUES (1, DATE '2024-01-05', 30.00, 'DEPOSIT', CURRENT_TIMESTAMP)");
+
+        // When
+        flyway(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        // Then
+        jdbcTemplate.update("INSERT INTO transactions (id, bank_account_id, transaction_date, transaction_amount, "
+                + "transaction_type, date_created) VALUES (500, 1, DATE '2024-01-06', 5.00, 'TRANSFER_IN', CURRENT_TIMESTAMP)");
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO transactions (id, bank_account_id, transaction_date, transaction_amount, "
+                        + "transaction_type, date_created) VALUES (501, 1, DATE '2024-01-06', 5.00, 'UNKNOWN', CURRENT_TIMESTAMP)"));
+    }
+
+    private static FluentConfiguration flyway(DataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+    }
+
+    private static Long nextVal(JdbcTemplate jdbcTemplate, String sequenceName) {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM id_generators WHERE sequence_name = ?",
+                                           Long.class, sequenceName);
+    }
+}
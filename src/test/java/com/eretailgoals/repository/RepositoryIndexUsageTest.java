@@ -0,0 +1,264 @@
+package com.eretailgoals.repository;
+
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Index usage tests for the repository finders against the migrated schema
+ * Records the SQL each fixed-predicate finder sends and fails if its H2 plan scans a whole table;
+ * the optional-predicate search queries, the LIKE '%term%' finders and findByEmailOrUsername (an OR across
+ * two unique columns that needs MySQL's index merge, which H2 does not plan) are left out
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.eretailgoals.repository.RepositoryIndexUsageTest$RecordingStatementInspector")
+@ActiveProfiles("test")
+class RepositoryIndexUsageTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReceivablesSummaryRepository receivablesSummaryRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void invoiceFinders_ShouldUseIndexes() {
+        User user = entityManager.getReference(User.class, 1L);
+        assertAll(
+                indexed("findByInvoiceNumber", () -> invoiceRepository.findByInvoiceNumber("INV-1")),
+                indexed("findDetailById", () -> invoiceRepository.findDetailById(1L)),
+                indexed("findDetailByInvoiceNumber", () -> invoiceRepository.findDetailByInvoiceNumber("INV-1")),
+                indexed("findSearchTextAfter", () -> invoiceRepository.findSearchTextAfter(0L, PageRequest.of(0, 10))),
+                indexed("findSearchTextModifiedSince",
+                        () -> invoiceRepository.findSearchTextModifiedSince(LocalDateTime.now())),
+                indexed("findByUser", () -> invoiceRepository.findByUser(user)),
+                indexed("findByUserId", () -> invoiceRepository.findByUserId(1L)),
+                indexed("findByInvoiceStatus", () -> invoiceRepository.findByInvoiceStatus(Invoice.InvoiceStatus.OPEN)),
+                indexed("findByAdminId", () -> invoiceRepository.findByAdminId(1L)),
+                indexed("findByInvoiceDateBetween", () -> invoiceRepository.findByInvoiceDateBetween(FROM, TO)),
+                indexed("findByDueDateBetween", () -> invoiceRepository.findByDueDateBetween(FROM, TO)),
+                indexed("findOverdueInvoices", () -> invoiceRepository.findOverdueInvoices(TO)),
+                indexed("findPastDueIdsAfter", () -> invoiceRepository.findPastDueIdsAfter(
+                        Invoice.InvoiceStatus.OPEN, TO, 0L, PageRequest.of(0, 10))),
+                indexed("findByUserAndInvoiceStatus",
+                        () -> invoiceRepository.findByUserAndInvoiceStatus(user, Invoice.InvoiceStatus.OPEN)),
+                indexed("findByUserIdAndInvoiceStatus",
+                        () -> invoiceRepository.findByUserIdAndInvoiceStatus(1L, Invoice.InvoiceStatus.OPEN)),
+                indexed("existsByInvoiceNumber", () -> invoiceRepository.existsByInvoiceNumber("INV-1")),
+                indexed("findExistingInvoiceNumbers",
+                        () -> invoiceRepository.findExistingInvoiceNumbers(List.of("INV-1", "INV-2"))),
+                indexed("findInvoiceNumbersLike", () -> invoiceRepository.findInvoiceNumbersLike("INV-2024-%")),
+                indexed("findInvoicesWithOutstandingAmounts", () -> invoiceRepository.findInvoicesWithOutstandingAmounts()),
+                indexed("findOpenInvoiceViews", () -> invoiceRepository.findOpenInvoiceViews(1L)),
+                indexed("calculateTotalOutstandingAmount", () -> invoiceRepository.calculateTotalOutstandingAmount()),
+                indexed("calculateTotalOutstandingAmountByUser",
+                        () -> invoiceRepository.calculateTotalOutstandingAmountByUser(1L)),
+                indexed("summarizeOutstandingByAdminAndUser", () -> invoiceRepository.summarizeOutstandingByAdminAndUser()),
+                indexed("calculateTotalInvoiceAmountByDateRange",
+                        () -> invoiceRepository.calculateTotalInvoiceAmountByDateRange(FROM, TO)),
+                indexed("findRecentInvoices", () -> invoiceRepository.findRecentInvoices(PageRequest.of(0, 10))),
+                indexed("countByInvoiceStatus", () -> invoiceRepository.countByInvoiceStatus(Invoice.InvoiceStatus.OPEN)),
+                indexed("countByUser", () -> invoiceRepository.countByUser(user)),
+                indexed("countByAdminId", () -> invoiceRepository.countByAdminId(1L)),
+                indexed("findInvoicesDueWithinDays", () -> invoiceRepository.findInvoicesDueWithinDays(FROM, TO)),
+                indexed("findTopClientsByInvoiceAmount",
+                        () -> invoiceRepository.findTopClientsByInvoiceAmount(FROM, TO, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void transactionFinders_ShouldUseIndexes() {
+        BankAccount account = entityManager.getReference(BankAccount.class, 1L);
+        User user = entityManager.getReference(User.class, 1L);
+        assertAll(
+                indexed("findByBankAccount", () -> transactionRepository.findByBankAccount(account)),
+                indexed("findByBankAccountId", () -> transactionRepository.findByBankAccountId(1L)),
+                indexed("findByUser", () -> transactionRepository.findByUser(user)),
+                indexed("findByUserId", () -> transactionRepository.findByUserId(1L)),
+                indexed("findByTransactionType",
+                        () -> transactionRepository.findByTransactionType(Transaction.TransactionType.PAYMENT)),
+                indexed("findByAdminId", () -> transactionRepository.findByAdminId(1L)),
+                indexed("findByTransactionDateBetween", () -> transactionRepository.findByTransactionDateBetween(FROM, TO)),
+                indexed("findByBankAccountAndTransactionDateBetween",
+                        () -> transactionRepository.findByBankAccountAndTransactionDateBetween(account, FROM, TO)),
+                indexed("findByBankAccountIdAndTransactionDateBetween",
+                        () -> transactionRepository.findByBankAccountIdAndTransactionDateBetween(1L, FROM, TO)),
+                indexed("findByIsReconciledFalse", () -> transactionRepository.findByIsReconciledFalse()),
+                indexed("findByBankAccountAndIsReconciledFalse",
+                        () -> transactionRepository.findByBankAccountAndIsReconciledFalse(account)),
+                indexed("findUnreconciledAfter", () -> transactionRepository.findUnreconciledAfter(
+                        List.of(Transaction.TransactionType.DEPOSIT), 0L, PageRequest.of(0, 10))),
+                indexed("findUnreconciledByBankAccountAfter", () -> transactionRepository.findUnreconciledByBankAccountAfter(
+                        1L, List.of(Transaction.TransactionType.DEPOSIT), 0L, PageRequest.of(0, 10))),
+                indexed("findByReferenceNumber", () -> transactionRepository.findByReferenceNumber("REF-1")),
+                indexed("calculateTotalIncomeByDateRange",
+                        () -> transactionRepository.calculateTotalIncomeByDateRange(FROM, TO)),
+                indexed("calculateTotalExpensesByDateRange",
+                        () -> transactionRepository.calculateTotalExpensesByDateRange(FROM, TO)),
+                indexed("calculateNetCashFlowByDateRange",
+                        () -> transactionRepository.calculateNetCashFlowByDateRange(FROM, TO)),
+                indexed("findByExpenseType", () -> transactionRepository.findByExpenseType(Transaction.ExpenseType.TRAVEL)),
+                indexed("calculateTotalExpensesByTypeAndDateRange",
+                        () -> transactionRepository.calculateTotalExpensesByTypeAndDateRange(Transaction.ExpenseType.TRAVEL, FROM, TO)),
+                indexed("findRecentTransactions", () -> transactionRepository.findRecentTransactions(PageRequest.of(0, 10))),
+                indexed("findByBankAccountOrderByTransactionDateDescDateCreatedDesc",
+                        () -> transactionRepository.findByBankAccountOrderByTransactionDateDescDateCreatedDesc(account)),
+                indexed("countByTransactionType",
+                        () -> transactionRepository.countByTransactionType(Transaction.TransactionType.PAYMENT)),
+                indexed("countByIsReconciledFalse", () -> transactionRepository.countByIsReconciledFalse()),
+                indexed("countByBankAccount", () -> transactionRepository.countByBankAccount(account)),
+                indexed("findMonthlyTransactionSummary",
+                        () -> transactionRepository.findMonthlyTransactionSummary(FROM, TO)),
+                indexed("sumEffectiveAmountByBankAccountBetween",
+                        () -> transactionRepository.sumEffectiveAmountByBankAccountBetween(1L, FROM, TO)),
+                indexed("sumEffectiveAmountByBankAccountUpTo",
+                        () -> transactionRepository.sumEffectiveAmountByBankAccountUpTo(1L, TO)),
+                indexed("summarizeMonthlyEffectiveAmountByBankAccount",
+                        () -> transactionRepository.summarizeMonthlyEffectiveAmountByBankAccount(1L)));
+    }
+
+    @Test
+    void bankAccountFinders_ShouldUseIndexes() {
+        assertAll(
+                indexed("findByAccountNumber", () -> bankAccountRepository.findByAccountNumber("12345678")),
+                indexed("findByAccountType", () -> bankAccountRepository.findByAccountType(BankAccount.AccountType.CURRENT)),
+                indexed("findByIsActiveTrue", () -> bankAccountRepository.findByIsActiveTrue()),
+                indexed("findByAdminId", () -> bankAccountRepository.findByAdminId(1L)),
+                indexed("findByAdminIdAndIsActiveTrue", () -> bankAccountRepository.findByAdminIdAndIsActiveTrue(1L)),
+                indexed("existsByAccountNumber", () -> bankAccountRepository.existsByAccountNumber("12345678")),
+                indexed("findByAccountTypeAndAdminId",
+                        () -> bankAccountRepository.findByAccountTypeAndAdminId(BankAccount.AccountType.CURRENT, 1L)),
+                indexed("findByCurrentBalanceGreaterThan",
+                        () -> bankAccountRepository.findByCurrentBalanceGreaterThan(BigDecimal.TEN)),
+                indexed("findByCurrentBalanceLessThan", () -> bankAccountRepository.findByCurrentBalanceLessThan(BigDecimal.TEN)),
+                indexed("calculateTotalBalance", () -> bankAccountRepository.calculateTotalBalance()),
+                indexed("calculateTotalBalanceByAdminId", () -> bankAccountRepository.calculateTotalBalanceByAdminId(1L)),
+                indexed("calculateTotalBalanceByAccountType",
+                        () -> bankAccountRepository.calculateTotalBalanceByAccountType(BankAccount.AccountType.CURRENT)),
+                indexed("findAccountsWithRecentTransactions",
+                        () -> bankAccountRepository.findAccountsWithRecentTransactions(FROM)),
+                indexed("countByAdminIdAndIsActiveTrue", () -> bankAccountRepository.countByAdminIdAndIsActiveTrue(1L)),
+                indexed("countByAccountType", () -> bankAccountRepository.countByAccountType(BankAccount.AccountType.CURRENT)),
+                indexed("findByIsActiveTrueOrderByCurrentBalanceDesc",
+                        () -> bankAccountRepository.findByIsActiveTrueOrderByCurrentBalanceDesc()),
+                indexed("findByIsActiveTrueOrderByAccountNameAsc",
+                        () -> bankAccountRepository.findByIsActiveTrueOrderByAccountNameAsc()),
+                indexed("findOpeningBalance", () -> bankAccountRepository.findOpeningBalance(1L)),
+                indexed("findLatestCheckpointOnOrBefore", () -> balanceCheckpointRepository
+                        .findFirstByBankAccountIdAndCheckpointDateLessThanEqualOrderByCheckpointDateDesc(1L, TO)),
+                indexed("findLatestCheckpointBefore", () -> balanceCheckpointRepository
+                        .findFirstByBankAccountIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(1L, TO)),
+                indexed("existsByBankAccountIdAndCheckpointDate",
+                        () -> balanceCheckpointRepository.existsByBankAccountIdAndCheckpointDate(1L, TO)));
+    }
+
+    @Test
+    void userFinders_ShouldUseIndexes() {
+        assertAll(
+                indexed("findByEmail", () -> userRepository.findByEmail("jane@example.com")),
+                indexed("findByUsername", () -> userRepository.findByUsername("jane")),
+                indexed("findSearchTextAfter", () -> userRepository.findSearchTextAfter(0L, PageRequest.of(0, 10))),
+                indexed("findSearchTextModifiedSince",
+                        () -> userRepository.findSearchTextModifiedSince(LocalDateTime.now())),
+                indexed("findSuggestionsModifiedSince",
+                        () -> userRepository.findSuggestionsModifiedSince(LocalDateTime.now())),
+                indexed("findExistingIds", () -> userRepository.findExistingIds(List.of(1L, 2L))),
+                indexed("findByUserType", () -> userRepository.findByUserType(User.UserType.CLIENT)),
+                indexed("findByUserTypeAndIsActiveTrue", () -> userRepository.findByUserTypeAndIsActiveTrue(User.UserType.CLIENT)),
+                indexed("findByAdminId", () -> userRepository.findByAdminId(1L)),
+                indexed("findByAdminIdAndIsActiveTrue", () -> userRepository.findByAdminIdAndIsActiveTrue(1L)),
+                indexed("existsByEmail", () -> userRepository.existsByEmail("jane@example.com")),
+                indexed("existsByUsername", () -> userRepository.existsByUsername("jane")),
+                indexed("findAllClients", () -> userRepository.findAllClients()),
+                indexed("findAllSuppliers", () -> userRepository.findAllSuppliers()),
+                indexed("findUsersWithOutstandingInvoices", () -> userRepository.findUsersWithOutstandingInvoices()),
+                indexed("countByUserType", () -> userRepository.countByUserType(User.UserType.CLIENT)),
+                indexed("countByAdminIdAndIsActiveTrue", () -> userRepository.countByAdminIdAndIsActiveTrue(1L)),
+                indexed("sumOutstandingAmountByUserId",
+                        () -> receivablesSummaryRepository.sumOutstandingAmountByUserId(1L)));
+    }
+
+    /**
+     * Run a finder, then explain every statement it sent
+     */
+    private Executable indexed(String finder, Runnable invocation) {
+        return () -> {
+            RecordingStatementInspector.STATEMENTS.clear();
+            invocation.run();
+            List<String> statements = new ArrayList<>(RecordingStatementInspector.STATEMENTS);
+            assertFalse(statements.isEmpty(), STR."\{finder} sent no SQL");
+            for (String sql : statements) {
+                String plan = explain(sql);
+                assertFalse(plan.contains("tableScan"), STR."\{finder} scans a table:\n\{plan}");
+            }
+        };
+    }
+
+    private String explain(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+            StringBuilder text = new StringBuilder();
+            while (plan.next()) {
+                text.append(plan.getString(1)).append('\n');
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * Collects the SQL Hibernate prepares; configured by class name, so the list is static
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.LoginRequest;
+import com.eretailgoals.dto.LoginResponse;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuthService
+ * Tests token issue on valid credentials and the uniform rejection, hash check included, of every failed login
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private JwtService jwtService;
+
+    private AuthService authService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordHashingService.encode(anyString())).thenReturn("dummy");
+        authService = new AuthService(userRepository, passwordHashingService, jwtService);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("jdoe");
+        user.setEmail("john.doe@example.com");
+        user.setPassword("encoded");
+        user.setUserType(User.UserType.ADMIN);
+        user.setIsActive(true);
+    }
+
+    @Test
+    void login_ValidEmailAndPassword_ShouldIssueToken() {
+        // Given
+        when(userRepository.findByUsername("john.doe@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("secret", "encoded")).thenReturn(true);
+        when(jwtService.issueToken(user)).thenReturn("token");
+        when(jwtService.getExpiration()).thenReturn(Duration.ofHours(1));
+
+        // When
+        LoginResponse response = authService.login(new LoginRequest("john.doe@example.com", "secret"));
+
+        // Then
+        assertEquals("token", response.accessToken());
+        assertEquals(AuthService.TOKEN_TYPE, response.tokenType());
+        assertEquals(3600L, response.expiresIn());
+        assertEquals(1L, response.userId());
+        assertEquals(User.UserType.ADMIN, response.userType());
+    }
+
+    @Test
+    void login_WrongPassword_ShouldThrowBadCredentials() {
+        // Given
+        when(userRepository.findByUsername("jdoe")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("wrong", "encoded")).thenReturn(false);
+
+        // When & Then
+        assertThrows(BadCredentialsException.class, () -> authService.login(new LoginRequest("jdoe", "wrong")));
+        verify(jwtService, never()).issueToken(any());
+    }
+
+    @Test
+    void login_InactiveUser_ShouldCheckDummyHashAndThrowBadCredentials() {
+        // Given
+        user.setIsActive(false);
+        when(userRepository.findByUsername("jdoe")).thenReturn(Optional.of(user));
+
+        // When & Then
+        assertThrows(BadCredentialsException.class, () -> authService.login(new LoginRequest("jdoe", "secret")));
+        verify(passwordHashingService).matches("secret", "dummy");
+        verify(passwordHashingService, never()).matches("secret", "encoded");
+    }
+
+    @Test
+    void login_UnknownUser_ShouldCheckDummyHashAndThrowBadCredentials() {
+        // Given
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("nobody")).thenReturn(Optional.empty());
+
+        // When & Then
+        BadCredentialsException ex = assertThrows(BadCredentialsException.class,
+                () -> authService.login(new LoginRequest("nobody", "secret")));
+        assertEquals("Invalid username or password", ex.getMessage());
+        verify(passwordHashingService).matches("secret", "dummy");
+    }
+}
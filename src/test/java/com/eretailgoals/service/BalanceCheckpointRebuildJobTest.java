@@ -0,0 +1,72 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.repository.BalanceCheckpointRepository;
+import com.eretailgoals.repository.BankAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BalanceCheckpointRebuildJob
+ * Tests that the startup seeding only runs under the cluster-wide lock
+ */
+@ExtendWith(MockitoExtension.class)
+class BalanceCheckpointRebuildJobTest {
+
+    @Mock
+    private BalanceCheckpointService checkpointService;
+
+    @Mock
+    private BalanceCheckpointRepository checkpointRepository;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    private BalanceCheckpointRebuildJob rebuildJob;
+
+    @BeforeEach
+    void setUp() {
+        rebuildJob = new BalanceCheckpointRebuildJob(checkpointService, checkpointRepository, bankAccountRepository,
+                                                     lockService, 2, Duration.ofHours(1));
+    }
+
+    @Test
+    void seedIfEmpty_LockHeldElsewhere_ShouldSkip() {
+        // Given
+        when(lockService.tryAcquire(BalanceCheckpointRebuildJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(false);
+
+        // When
+        rebuildJob.seedIfEmpty();
+
+        // Then
+        verifyNoInteractions(checkpointRepository, bankAccountRepository, checkpointService);
+        verify(lockService, never()).release(any());
+    }
+
+    @Test
+    void seedIfEmpty_EmptyTable_ShouldRebuildEveryAccountAndReleaseLock() {
+        // Given
+        when(lockService.tryAcquire(BalanceCheckpointRebuildJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(true);
+        when(checkpointRepository.count()).thenReturn(0L);
+        when(bankAccountRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(checkpointService.rebuild(anyLong())).thenReturn(3);
+
+        // When
+        rebuildJob.seedIfEmpty();
+
+        // Then
+        verify(checkpointService).rebuild(1L);
+        verify(checkpointService).rebuild(2L);
+        verify(lockService).release(BalanceCheckpointRebuildJob.LOCK_NAME);
+    }
+}
@@ -0,0 +1,230 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.AccountBalanceView;
+import com.eretailgoals.entity.BalanceCheckpoint;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BalanceCheckpointRepository;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BalanceCheckpointService
+ * Tests checkpoint creation and shifting on postings, the batched multi-account path, balance-as-of reads
+ * and the per-account rebuild
+ */
+@ExtendWith(MockitoExtension.class)
+class BalanceCheckpointServiceTest {
+
+    private static final LocalDate DEC_31 = LocalDate.of(2023, 12, 31);
+    private static final LocalDate JAN_31 = LocalDate.of(2024, 1, 31);
+    private static final LocalDate MAR_31 = LocalDate.of(2024, 3, 31);
+
+    @Mock
+    private BalanceCheckpointRepository checkpointRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private BalanceCheckpointService checkpointService;
+
+    @BeforeEach
+    void setUp() {
+        checkpointService = new BalanceCheckpointService(checkpointRepository, transactionRepository,
+                                                         bankAccountRepository, jdbcTemplate);
+    }
+
+    @Test
+    void recordPostings_BackDatedPosting_ShouldCreateMissingCheckpointAndShiftLaterOnes() {
+        // Given
+        Transaction march = transaction("40.00", Transaction.TransactionType.PAYMENT, LocalDate.of(2024, 3, 3));
+        Transaction january = transaction("100.00", Transaction.TransactionType.DEPOSIT, LocalDate.of(2024, 1, 15));
+        when(checkpointRepository.existsByBankAccountIdAndCheckpointDate(1L, JAN_31)).thenReturn(false);
+        when(checkpointRepository.existsByBankAccountIdAndCheckpointDate(1L, MAR_31)).thenReturn(true);
+        when(checkpointRepository.findFirstByBankAccountIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(1L, JAN_31))
+                .thenReturn(Optional.of(checkpoint(DEC_31, "500.00")));
+        when(transactionRepository.sumEffectiveAmountByBankAccountBetween(1L, DEC_31, JAN_31))
+                .thenReturn(new BigDecimal("20.00"));
+
+        // When
+        checkpointService.recordPostings(1L, List.of(march, january));
+
+        // Then
+        InOrder inOrder = inOrder(jdbcTemplate, checkpointRepository);
+        inOrder.verify(jdbcTemplate).update(eq(BalanceCheckpointService.INSERT_SQL), eq(1L), eq(Date.valueOf(JAN_31)),
+                                            eq(new BigDecimal("520.00")), any());
+        inOrder.verify(checkpointRepository).applyDeltaFrom(eq(1L), eq(JAN_31), eq(new BigDecimal("100.00")), any());
+        inOrder.verify(checkpointRepository).applyDeltaFrom(eq(1L), eq(MAR_31), eq(new BigDecimal("-40.00")), any());
+    }
+
+    @Test
+    void recordPostings_FirstCheckpoint_ShouldStartFromOpeningBalance() {
+        // Given
+        Transaction deposit = transaction("25.00", Transaction.TransactionType.DEPOSIT, LocalDate.of(2024, 1, 2));
+        when(checkpointRepository.existsByBankAccountIdAndCheckpointDate(1L, JAN_31)).thenReturn(false);
+        when(checkpointRepository.findFirstByBankAccountIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(1L, JAN_31))
+                .thenReturn(Optional.empty());
+        when(bankAccountRepository.findOpeningBalance(1L)).thenReturn(Optional.of(new BigDecimal("1000.00")));
+        when(transactionRepository.sumEffectiveAmountByBankAccountUpTo(1L, JAN_31)).thenReturn(BigDecimal.ZERO);
+
+        // When
+        checkpointService.recordPostings(1L, List.of(deposit));
+
+        // Then
+        verify(jdbcTemplate).update(eq(BalanceCheckpointService.INSERT_SQL), eq(1L), eq(Date.valueOf(JAN_31)),
+                                    eq(new BigDecimal("1000.00")), any());
+        verify(checkpointRepository).applyDeltaFrom(eq(1L), eq(JAN_31), eq(new BigDecimal("25.00")), any());
+    }
+
+    @Test
+    void recordPostings_SeveralAccounts_ShouldBatchShiftsAndFallBackWhereCheckpointIsMissing() throws Exception {
+        // Given
+        Map<Long, List<Transaction>> byAccount = new TreeMap<>();
+        byAccount.put(1L, List.of(transaction("30.00", Transaction.TransactionType.TRANSFER, LocalDate.of(2024, 1, 9))));
+        byAccount.put(2L, List.of(transaction("30.00", Transaction.TransactionType.TRANSFER_IN, LocalDate.of(2024, 1, 9))));
+        ResultSet existing = mock(ResultSet.class);
+        when(existing.getLong(1)).thenReturn(1L);
+        when(existing.getDate(2)).thenReturn(Date.valueOf(JAN_31));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(2).processRow(existing);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+        when(checkpointRepository.existsByBankAccountIdAndCheckpointDate(2L, JAN_31)).thenReturn(false);
+        when(checkpointRepository.findFirstByBankAccountIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(2L, JAN_31))
+                .thenReturn(Optional.of(new BalanceCheckpoint(2L, DEC_31, new BigDecimal("10.00"), null)));
+        when(transactionRepository.sumEffectiveAmountByBankAccountBetween(2L, DEC_31, JAN_31)).thenReturn(BigDecimal.ZERO);
+
+        // When
+        checkpointService.recordPostings(byAccount);
+
+        // Then
+        ArgumentCaptor<List<Object[]>> shifts = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(eq(BalanceCheckpointService.SHIFT_SQL), shifts.capture());
+        assertEquals(1, shifts.getValue().size());
+        assertEquals(new BigDecimal("-30.00"), shifts.getValue().get(0)[0]);
+        assertEquals(1L, shifts.getValue().get(0)[2]);
+        verify(checkpointRepository).applyDeltaFrom(eq(2L), eq(JAN_31), eq(new BigDecimal("30.00")), any());
+        verify(checkpointRepository, never()).applyDeltaFrom(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void getBalanceAsOf_WithCheckpoint_ShouldAddTransactionsSinceCheckpoint() {
+        // Given
+        LocalDate asOf = LocalDate.of(2024, 2, 10);
+        when(bankAccountRepository.findOpeningBalance(1L)).thenReturn(Optional.of(new BigDecimal("1000.00")));
+        when(checkpointRepository.findFirstByBankAccountIdAndCheckpointDateLessThanEqualOrderByCheckpointDateDesc(1L, asOf))
+                .thenReturn(Optional.of(checkpoint(JAN_31, "620.00")));
+        when(transactionRepository.sumEffectiveAmountByBankAccountBetween(1L, JAN_31, asOf))
+                .thenReturn(new BigDecimal("-20.00"));
+
+        // When
+        AccountBalanceView balance = checkpointService.getBalanceAsOf(1L, asOf);
+
+        // Then
+        assertEquals(new AccountBalanceView(1L, asOf, new BigDecimal("600.00"), JAN_31), balance);
+        verify(transactionRepository, never()).sumEffectiveAmountByBankAccountUpTo(any(), any());
+    }
+
+    @Test
+    void getBalanceAsOf_OnCheckpointDate_ShouldNotScanTransactions() {
+        // Given
+        when(bankAccountRepository.findOpeningBalance(1L)).thenReturn(Optional.of(new BigDecimal("1000.00")));
+        when(checkpointRepository.findFirstByBankAccountIdAndCheckpointDateLessThanEqualOrderByCheckpointDateDesc(1L, JAN_31))
+                .thenReturn(Optional.of(checkpoint(JAN_31, "620.00")));
+
+        // When
+        AccountBalanceView balance = checkpointService.getBalanceAsOf(1L, JAN_31);
+
+        // Then
+        assertEquals(new BigDecimal("620.00"), balance.balance());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getBalanceAsOf_WithoutCheckpoint_ShouldSumFromOpeningBalance() {
+        // Given
+        LocalDate asOf = LocalDate.of(2024, 1, 10);
+        when(bankAccountRepository.findOpeningBalance(1L)).thenReturn(Optional.of(new BigDecimal("1000.00")));
+        when(checkpointRepository.findFirstByBankAccountIdAndCheckpointDateLessThanEqualOrderByCheckpointDateDesc(1L, asOf))
+                .thenReturn(Optional.empty());
+        when(transactionRepository.sumEffectiveAmountByBankAccountUpTo(1L, asOf)).thenReturn(new BigDecimal("15.00"));
+
+        // When
+        AccountBalanceView balance = checkpointService.getBalanceAsOf(1L, asOf);
+
+        // Then
+        assertEquals(new AccountBalanceView(1L, asOf, new BigDecimal("1015.00"), null), balance);
+    }
+
+    @Test
+    void getBalanceAsOf_UnknownAccount_ShouldThrowException() {
+        // Given
+        when(bankAccountRepository.findOpeningBalance(9L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> checkpointService.getBalanceAsOf(9L, JAN_31));
+        verifyNoInteractions(checkpointRepository, transactionRepository);
+    }
+
+    @Test
+    void rebuild_ShouldWriteCumulativeMonthEndBalances() {
+        // Given
+        BankAccount account = new BankAccount();
+        account.setId(1L);
+        account.setOpeningBalance(new BigDecimal("100.00"));
+        when(bankAccountRepository.findForUpdate(1L)).thenReturn(Optional.of(account));
+        when(transactionRepository.summarizeMonthlyEffectiveAmountByBankAccount(1L)).thenReturn(List.of(
+                new Object[] {2024, 1, new BigDecimal("50.00")},
+                new Object[] {2024, 3, new BigDecimal("-30.00")}));
+
+        // When
+        int written = checkpointService.rebuild(1L);
+
+        // Then
+        assertEquals(2, written);
+        verify(checkpointRepository).deleteByBankAccountId(1L);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(eq(BalanceCheckpointService.INSERT_SQL), rows.capture());
+        assertEquals(Date.valueOf(JAN_31), rows.getValue().get(0)[1]);
+        assertEquals(new BigDecimal("150.00"), rows.getValue().get(0)[2]);
+        assertEquals(Date.valueOf(MAR_31), rows.getValue().get(1)[1]);
+        assertEquals(new BigDecimal("120.00"), rows.getValue().get(1)[2]);
+    }
+
+    private static Transaction transaction(String amount, Transaction.TransactionType type, LocalDate date) {
+        return new Transaction(date, new BigDecimal(amount), type, null);
+    }
+
+    private static BalanceCheckpoint checkpoint(LocalDate date, String balance) {
+        return new BalanceCheckpoint(1L, date, new BigDecimal(balance), null);
+    }
+}
@@ -0,0 +1,98 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.BankAccountActivityBackfillReport;
+import com.eretailgoals.repository.BankAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BankAccountActivityBackfillJob
+ * Tests the ID-range chunks, the startup check and locking
+ */
+@ExtendWith(MockitoExtension.class)
+class BankAccountActivityBackfillJobTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BankAccountActivityBackfillJob backfillJob;
+
+    @BeforeEach
+    void setUp() {
+        backfillJob = new BankAccountActivityBackfillJob(bankAccountRepository, lockService, transactionManager,
+                                                         2, Duration.ofHours(1));
+    }
+
+    @Test
+    void backfillAll_ShouldRecountAccountsInIdRangeChunks() {
+        // Given
+        when(bankAccountRepository.findAllIds()).thenReturn(List.of(3L, 5L, 9L, 14L, 20L));
+        when(bankAccountRepository.recountActivity(3L, 5L)).thenReturn(2);
+        when(bankAccountRepository.recountActivity(9L, 14L)).thenReturn(2);
+        when(bankAccountRepository.recountActivity(20L, 20L)).thenReturn(1);
+
+        // When
+        BankAccountActivityBackfillReport report = backfillJob.backfillAll();
+
+        // Then
+        assertEquals(5, report.accountsUpdated());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void backfillIfNeeded_AllAccountsCounted_ShouldDoNothing() {
+        // Given
+        when(bankAccountRepository.existsByTransactionCountIsNull()).thenReturn(false);
+
+        // When
+        backfillJob.backfillIfNeeded();
+
+        // Then
+        verify(bankAccountRepository, never()).findAllIds();
+        verifyNoInteractions(transactionManager, lockService);
+    }
+
+    @Test
+    void backfillIfNeeded_LockHeldElsewhere_ShouldSkip() {
+        // Given
+        when(bankAccountRepository.existsByTransactionCountIsNull()).thenReturn(true);
+        when(lockService.tryAcquire(BankAccountActivityBackfillJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(false);
+
+        // When
+        backfillJob.backfillIfNeeded();
+
+        // Then
+        verify(bankAccountRepository, never()).findAllIds();
+        verify(lockService, never()).release(any());
+    }
+
+    @Test
+    void run_LockHeldElsewhere_ShouldSkip() {
+        // Given
+        when(lockService.tryAcquire(BankAccountActivityBackfillJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(false);
+
+        // When
+        backfillJob.run();
+
+        // Then
+        verifyNoInteractions(bankAccountRepository);
+        verify(lockService, never()).release(any());
+    }
+}
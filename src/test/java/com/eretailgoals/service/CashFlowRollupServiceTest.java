@@ -0,0 +1,120 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.CashFlowRollup;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.CashFlowRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CashFlowRollupService
+ * Tests the per-key aggregation of postings, the insert of missing rollup rows and the batched multi-account path
+ */
+@ExtendWith(MockitoExtension.class)
+class CashFlowRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 14);
+
+    @Mock
+    private CashFlowRollupRepository rollupRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CashFlowRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new CashFlowRollupService(rollupRepository, jdbcTemplate);
+    }
+
+    @Test
+    void recordPostings_SameKey_ShouldApplyOneSummedDelta() {
+        // Given
+        Transaction first = transaction("10.00", Transaction.TransactionType.PAYMENT, Transaction.ExpenseType.TRAVEL, DAY);
+        Transaction second = transaction("15.50", Transaction.TransactionType.PAYMENT, Transaction.ExpenseType.TRAVEL, DAY);
+        Transaction deposit = transaction("100.00", Transaction.TransactionType.DEPOSIT, null, DAY);
+        when(rollupRepository.applyDelta(anyLong(), eq(1L), any(), any(), any(), any(), anyLong(), any())).thenReturn(1);
+
+        // When
+        rollupService.recordPostings(1L, List.of(first, second, deposit));
+
+        // Then
+        verify(rollupRepository).applyDelta(eq(7L), eq(1L), eq(DAY), eq(Transaction.TransactionType.PAYMENT),
+                                            eq(Transaction.ExpenseType.TRAVEL), eq(new BigDecimal("25.50")), eq(2L), any());
+        verify(rollupRepository).applyDelta(eq(7L), eq(1L), eq(DAY), eq(Transaction.TransactionType.DEPOSIT),
+                                            isNull(), eq(new BigDecimal("100.00")), eq(1L), any());
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    void recordPostings_MissingRow_ShouldInsertIt() {
+        // Given
+        Transaction fee = transaction("2.00", Transaction.TransactionType.FEE, null, DAY);
+        fee.setAdminId(null);
+        when(rollupRepository.applyDelta(anyLong(), anyLong(), any(), any(), any(), any(), anyLong(), any())).thenReturn(0);
+
+        // When
+        rollupService.recordPostings(1L, List.of(fee));
+
+        // Then
+        ArgumentCaptor<CashFlowRollup> rollup = ArgumentCaptor.forClass(CashFlowRollup.class);
+        verify(rollupRepository).save(rollup.capture());
+        assertEquals(CashFlowRollup.NO_TENANT, rollup.getValue().getAdminId());
+        assertEquals(1L, rollup.getValue().getBankAccountId());
+        assertEquals(DAY, rollup.getValue().getRollupDate());
+        assertEquals(Transaction.TransactionType.FEE, rollup.getValue().getTransactionType());
+        assertEquals(new BigDecimal("2.00"), rollup.getValue().getTotalAmount());
+        assertEquals(1L, rollup.getValue().getTransactionCount());
+    }
+
+    @Test
+    void recordPostings_SeveralAccounts_ShouldBatchUpdatesAndInsertMissedRows() {
+        // Given
+        Map<Long, List<Transaction>> byAccount = new TreeMap<>();
+        byAccount.put(1L, List.of(transaction("30.00", Transaction.TransactionType.TRANSFER, null, DAY)));
+        byAccount.put(2L, List.of(transaction("30.00", Transaction.TransactionType.TRANSFER_IN, null, DAY),
+                                  transaction("5.00", Transaction.TransactionType.PAYMENT, Transaction.ExpenseType.TRAVEL, DAY)));
+        when(jdbcTemplate.batchUpdate(eq(CashFlowRollupService.APPLY_DELTA_SQL), anyList())).thenReturn(new int[] {1, 0});
+        when(rollupRepository.applyDelta(anyLong(), anyLong(), any(), any(), any(), any(), anyLong(), any())).thenReturn(1);
+
+        // When
+        rollupService.recordPostings(byAccount);
+
+        // Then
+        verify(rollupRepository).applyDelta(eq(7L), eq(2L), eq(DAY), eq(Transaction.TransactionType.PAYMENT),
+                                            eq(Transaction.ExpenseType.TRAVEL), eq(new BigDecimal("5.00")), eq(1L), any());
+        ArgumentCaptor<List<Object[]>> inserted = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(eq(CashFlowRollupService.INSERT_SQL), inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        Object[] row = inserted.getValue().get(0);
+        assertEquals(2L, row[1]);
+        assertEquals(Date.valueOf(DAY), row[2]);
+        assertEquals("TRANSFER_IN", row[3]);
+        assertEquals(new BigDecimal("30.00"), row[5]);
+    }
+
+    private static Transaction transaction(String amount, Transaction.TransactionType type,
+                                           Transaction.ExpenseType expenseType, LocalDate date) {
+        Transaction transaction = new Transaction(date, new BigDecimal(amount), type, null);
+        transaction.setAdminId(7L);
+        transaction.setExpenseType(expenseType);
+        return transaction;
+    }
+}
@@ -0,0 +1,133 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency benchmark for the Idempotency-Key dedupe check
+ * Times replays answered from the in-memory cache and from the idempotency_keys table and reports p50, p99 and
+ * throughput
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyBenchmarkTest.class);
+
+    private static final int KEYS = 10_000;
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final TypeReference<List<Long>> RESPONSE = new TypeReference<>() {};
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void execute_CachedReplay_ShouldAddUnderOneMillisecondAtP99() {
+        // Given
+        IdempotencyService service = new IdempotencyService(idempotencyKeyRepository, transactionManager, objectMapper,
+                                                            KEYS, Duration.ofHours(1));
+        String scope = scope();
+        register(service, scope);
+
+        // When
+        long[] nanos = replayAll(service, scope);
+
+        // Then
+        long p99 = report("Replay from cache", nanos);
+        assertTrue(p99 < TimeUnit.MILLISECONDS.toNanos(1), STR."cached replay p99 was \{p99} ns");
+    }
+
+    @Test
+    void execute_TableReplay_ShouldAnswerEveryRepeatWithoutWriting() {
+        // Given
+        IdempotencyService writer = new IdempotencyService(idempotencyKeyRepository, transactionManager, objectMapper,
+                                                           1, Duration.ofHours(1));
+        String scope = scope();
+        register(writer, scope);
+        long stored = idempotencyKeyRepository.count();
+        // A one-entry cache sends nearly every lookup to the unique index
+        IdempotencyService reader = new IdempotencyService(idempotencyKeyRepository, transactionManager, objectMapper,
+                                                           1, Duration.ofHours(1));
+
+        // When
+        long[] nanos = replayAll(reader, scope);
+
+        // Then
+        assertEquals(stored, idempotencyKeyRepository.count());
+        report("Replay from table", nanos);
+    }
+
+    /**
+     * Run one cheap action per key so every later call with the key is a replay
+     */
+    private static void register(IdempotencyService service, String scope) {
+        long started = System.nanoTime();
+        for (int i = 0; i < KEYS; i++) {
+            long id = i;
+            service.execute(scope, "key-" + i, request(i), RESPONSE, () -> List.of(id));
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        logger.info("First use: {} keys in {} ms ({} requests/s)", KEYS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    Math.round(KEYS / (elapsedNanos / 1_000_000_000.0)));
+    }
+
+    /**
+     * Replay every key, warming up first, and return the sorted per-call latencies of the last round
+     */
+    private static long[] replayAll(IdempotencyService service, String scope) {
+        long[] nanos = new long[KEYS];
+        for (int round = 0; round <= WARM_UP_ROUNDS; round++) {
+            for (int i = 0; i < KEYS; i++) {
+                long started = System.nanoTime();
+                IdempotencyService.Result<List<Long>> result = service.execute(scope, "key-" + i, request(i), RESPONSE,
+                        () -> fail("a repeated key must not run its action again"));
+                nanos[i] = System.nanoTime() - started;
+                assertTrue(result.replayed());
+            }
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static List<Object> request(int i) {
+        return List.of(i, "DEPOSIT", "100.00", "REF-" + i);
+    }
+
+    private static String scope() {
+        return "bench-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static long report(String scenario, long[] sortedNanos) {
+        long p50 = sortedNanos[sortedNanos.length / 2];
+        long p99 = sortedNanos[(int) (sortedNanos.length * 0.99)];
+        long total = Arrays.stream(sortedNanos).sum();
+        logger.info("{}: {} requests, p50 {} us, p99 {} us ({} requests/s)", scenario, sortedNanos.length,
+                    TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p99),
+                    Math.round(sortedNanos.length / (total / 1_000_000_000.0)));
+        return p99;
+    }
+}
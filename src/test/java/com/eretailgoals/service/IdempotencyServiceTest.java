@@ -0,0 +1,162 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.IdempotencyKey;
+import com.eretailgoals.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyService
+ * Tests first execution, replays from the cache and the table, reuse with a different request and lost races
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final TypeReference<String> STRING = new TypeReference<>() {};
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, transactionManager, new ObjectMapper(),
+                                                    100, Duration.ofHours(24));
+    }
+
+    @Test
+    void execute_NewKey_ShouldRunActionAndStoreResponse() {
+        // Given
+        when(idempotencyKeyRepository.findByScopeAndIdempotencyKey("post", "k1")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).then(returnsFirstArg());
+
+        // When
+        IdempotencyService.Result<String> result = idempotencyService.execute("post", "k1", List.of(1), STRING, this::act);
+
+        // Then
+        assertEquals(new IdempotencyService.Result<>("posted-1", false), result);
+        ArgumentCaptor<IdempotencyKey> stored = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).save(stored.capture());
+        assertEquals("\"posted-1\"", stored.getValue().getResponseBody());
+        assertEquals(idempotencyService.fingerprint(List.of(1)), stored.getValue().getRequestHash());
+    }
+
+    @Test
+    void execute_RepeatedKey_ShouldReplayFromCacheWithoutRunningAction() {
+        // Given
+        when(idempotencyKeyRepository.findByScopeAndIdempotencyKey("post", "k1")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).then(returnsFirstArg());
+        idempotencyService.execute("post", "k1", List.of(1), STRING, this::act);
+
+        // When
+        IdempotencyService.Result<String> result = idempotencyService.execute("post", "k1", List.of(1), STRING, this::act);
+
+        // Then
+        assertEquals(new IdempotencyService.Result<>("posted-1", true), result);
+        assertEquals(1, runs.get());
+        verify(idempotencyKeyRepository, times(1)).findByScopeAndIdempotencyKey(any(), any());
+    }
+
+    @Test
+    void execute_KeyStoredInTable_ShouldReplayStoredResponse() {
+        // Given
+        when(idempotencyKeyRepository.findByScopeAndIdempotencyKey("post", "k1"))
+                .thenReturn(Optional.of(stored(List.of(1), "\"posted-earlier\"")));
+
+        // When
+        IdempotencyService.Result<String> result = idempotencyService.execute("post", "k1", List.of(1), STRING, this::act);
+
+        // Then
+        assertEquals(new IdempotencyService.Result<>("posted-earlier", true), result);
+        assertEquals(0, runs.get());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequest_ShouldThrowException() {
+        // Given
+        when(idempotencyKeyRepository.findByScopeAndIdempotencyKey("post", "k1"))
+                .thenReturn(Optional.of(stored(List.of(1), "\"posted-earlier\"")));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                     () -> idempotencyService.execute("post", "k1", List.of(2), STRING, this::act));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicate_ShouldReplayWinningResponse() {
+        // Given
+        when(idempotencyKeyRepository.findByScopeAndIdempotencyKey("post", "k1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored(List.of(1), "\"posted-by-winner\"")));
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_scope_key"));
+
+        // When
+        IdempotencyService.Result<String> result = idempotencyService.execute("post", "k1", List.of(1), STRING, this::act);
+
+        // Then
+        assertEquals(new IdempotencyService.Result<>("posted-by-winner", true), result);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void execute_ActionFails_ShouldLeaveKeyFreeForRetry() {
+        // Given
+        when(idempotencyKeyRepository.findByScopeAndIdempotencyKey("post", "k1")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class))).then(returnsFirstArg());
+
+        // When
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("post", "k1", List.of(1), STRING,
+                () -> { throw new IllegalStateException("Bank account is inactive"); }));
+        IdempotencyService.Result<String> retry = idempotencyService.execute("post", "k1", List.of(1), STRING, this::act);
+
+        // Then
+        assertFalse(retry.replayed());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void execute_BlankKey_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                     () -> idempotencyService.execute("post", " ", List.of(1), STRING, this::act));
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    private String act() {
+        return "posted-" + runs.incrementAndGet();
+    }
+
+    private IdempotencyKey stored(Object request, String responseBody) {
+        IdempotencyKey key = new IdempotencyKey("post", "k1", idempotencyService.fingerprint(request), LocalDateTime.now());
+        key.setResponseBody(responseBody);
+        return key;
+    }
+}
@@ -0,0 +1,178 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.BatchResult;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.InvoiceItem;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InvoiceBatchService
+ * Tests per-record validation, chunked inserts and the row-by-row fallback
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceBatchServiceTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private InvoiceNumberAllocator invoiceNumberAllocator;
+
+    @Mock
+    private ReceivablesService receivablesService;
+
+    @Mock
+    private InvoiceSearchIndex invoiceSearchIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong ids = new AtomicLong(100);
+
+    private InvoiceBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        InvoiceService invoiceService = new InvoiceService(invoiceRepository, userService,
+                                                           invoiceNumberAllocator, receivablesService, invoiceSearchIndex);
+        batchService = new InvoiceBatchService(invoiceService, invoiceRepository, userRepository,
+                invoiceNumberAllocator, receivablesService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                entityManager, transactionManager, 10, 2);
+    }
+
+    @Test
+    void createInvoices_ShouldInsertInChunksAndReportEveryRecord() {
+        // Given
+        stubPersistence();
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(invoiceRepository.findExistingInvoiceNumbers(anyCollection())).thenReturn(List.of());
+        when(invoiceNumberAllocator.nextInvoiceNumber(null)).thenReturn("INV-2026-000001");
+
+        Invoice withItems = invoice("INV-A", 1L);
+        withItems.setInvoiceAmount(null);
+        withItems.getInvoiceItems().add(new InvoiceItem("Widget", 2, new BigDecimal("50.00")));
+        List<Invoice> invoices = List.of(withItems, invoice("INV-A", 1L), invoice(" ", 1L));
+
+        // When
+        BatchResult result = batchService.createInvoices(invoices);
+
+        // Then
+        assertEquals(3, result.total());
+        assertEquals(2, result.succeeded());
+        assertEquals(BatchResult.Status.CREATED, result.items().get(0).status());
+        assertEquals(BatchResult.Status.FAILED, result.items().get(1).status());
+        assertTrue(result.items().get(1).error().contains("Duplicate invoice number"));
+        assertEquals("INV-2026-000001", result.items().get(2).reference());
+
+        assertSame(withItems, withItems.getInvoiceItems().get(0).getInvoice());
+        assertEquals(0, new BigDecimal("100.00").compareTo(withItems.getInvoiceAmount()));
+        verify(entityManager, times(2)).persist(any(Invoice.class));
+        verify(entityManager, times(2)).flush();
+        verify(userRepository, times(2)).findExistingIds(anyCollection());
+        verify(receivablesService, times(2)).applyDelta(eq(0L), eq(1L), argThat(amount -> amount.compareTo(new BigDecimal("100.00")) == 0), eq(1L));
+    }
+
+    @Test
+    void createInvoices_WithExistingNumberAndUnknownUser_ShouldRejectRecordsWithoutInserting() {
+        // Given
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(invoiceRepository.findExistingInvoiceNumbers(anyCollection())).thenReturn(List.of("INV-1"));
+        Invoice invalid = invoice("INV-3", 1L);
+        invalid.setInvoiceAmount(new BigDecimal("-1"));
+
+        // When
+        BatchResult result = batchService.createInvoices(List.of(invoice("INV-1", 1L), invoice("INV-2", 2L)));
+        BatchResult invalidResult = batchService.createInvoices(List.of(invalid));
+
+        // Then
+        assertEquals(2, result.failed());
+        assertEquals("Invoice number already exists: INV-1", result.items().get(0).error());
+        assertEquals("User not found with id: 2", result.items().get(1).error());
+        assertTrue(invalidResult.items().get(0).error().startsWith("invoiceAmount"));
+        verify(entityManager, never()).persist(any());
+        verify(invoiceNumberAllocator, never()).nextInvoiceNumber(any());
+    }
+
+    @Test
+    void createInvoices_WhenChunkFails_ShouldRetryRowByRow() {
+        // Given
+        stubPersistence();
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(invoiceRepository.findExistingInvoiceNumbers(anyCollection())).thenReturn(List.of());
+        Invoice bad = invoice("INV-BAD", 1L);
+        doThrow(new PersistenceException("constraint violated")).when(entityManager).persist(bad);
+
+        // When
+        BatchResult result = batchService.createInvoices(List.of(invoice("INV-GOOD", 1L), bad));
+
+        // Then
+        assertEquals(1, result.succeeded());
+        assertEquals(BatchResult.Status.CREATED, result.items().get(0).status());
+        assertNotNull(result.items().get(0).id());
+        assertEquals("constraint violated", result.items().get(1).error());
+        assertNull(bad.getId());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void createInvoices_OverMaximumSize_ShouldThrowException() {
+        // Given
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            invoices.add(invoice("INV-" + i, 1L));
+        }
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> batchService.createInvoices(invoices));
+        assertThrows(IllegalArgumentException.class, () -> batchService.createInvoices(List.of()));
+    }
+
+    private void stubPersistence() {
+        when(entityManager.getReference(eq(User.class), any())).thenAnswer(invocation -> user(invocation.getArgument(1)));
+        doAnswer(invocation -> {
+            ((Invoice) invocation.getArgument(0)).setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Invoice.class));
+    }
+
+    private static Invoice invoice(String number, Long userId) {
+        return new Invoice(number, LocalDate.now(), user(userId), new BigDecimal("100.00"));
+    }
+
+    private static User user(Long id) {
+        User user = new User("John", "Doe", "john.doe@example.com", User.UserType.CLIENT);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,175 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.InvoiceNumberSequence;
+import com.eretailgoals.repository.InvoiceNumberSequenceRepository;
+import com.eretailgoals.repository.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InvoiceNumberAllocator
+ * Tests block reservation, number formatting and uniqueness under concurrency
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceNumberAllocatorTest {
+
+    @Mock
+    private InvoiceNumberSequenceRepository sequenceRepository;
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final int year = LocalDate.now().getYear();
+
+    private InvoiceNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new InvoiceNumberAllocator(sequenceRepository, invoiceRepository, transactionManager, 5);
+    }
+
+    @Test
+    void nextInvoiceNumber_WithinBlock_ShouldReserveOnce() {
+        // Given
+        InvoiceNumberSequence sequence = new InvoiceNumberSequence(InvoiceNumberSequence.NO_TENANT, year, 1L);
+        when(sequenceRepository.findForUpdate(InvoiceNumberSequence.NO_TENANT, year)).thenReturn(Optional.of(sequence));
+
+        // When
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            numbers.add(allocator.nextInvoiceNumber(null));
+        }
+
+        // Then
+        assertEquals(STR."INV-\{year}-000001", numbers.get(0));
+        assertEquals(STR."INV-\{year}-000005", numbers.get(4));
+        assertEquals(6L, sequence.getNextValue());
+        verify(sequenceRepository, times(1)).findForUpdate(anyLong(), anyInt());
+    }
+
+    @Test
+    void nextInvoiceNumber_BlockExhausted_ShouldReserveNextBlock() {
+        // Given
+        InvoiceNumberSequence sequence = new InvoiceNumberSequence(7L, year, 1L);
+        when(sequenceRepository.findForUpdate(7L, year)).thenReturn(Optional.of(sequence));
+
+        // When
+        String last = null;
+        for (int i = 0; i < 6; i++) {
+            last = allocator.nextInvoiceNumber(7L);
+        }
+
+        // Then
+        assertEquals(STR."INV-7-\{year}-000006", last);
+        assertEquals(11L, sequence.getNextValue());
+        verify(sequenceRepository, times(2)).findForUpdate(7L, year);
+    }
+
+    @Test
+    void nextInvoiceNumber_NoCounterRow_ShouldSeedFromExistingNumbers() {
+        // Given
+        when(sequenceRepository.findForUpdate(InvoiceNumberSequence.NO_TENANT, year)).thenReturn(Optional.empty());
+        when(invoiceRepository.findInvoiceNumbersLike(STR."INV-\{year}-%"))
+                .thenReturn(List.of(STR."INV-\{year}-000041", STR."INV-\{year}-000007"));
+        when(sequenceRepository.saveAndFlush(any(InvoiceNumberSequence.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        String number = allocator.nextInvoiceNumber(null);
+
+        // Then
+        assertEquals(STR."INV-\{year}-000042", number);
+    }
+
+    @Test
+    void nextInvoiceNumber_ExistingNumbersPastPadding_ShouldSeedFromNumericMaximum() {
+        // Given
+        when(sequenceRepository.findForUpdate(7L, year)).thenReturn(Optional.empty());
+        when(invoiceRepository.findInvoiceNumbersLike(STR."INV-7-\{year}-%"))
+                .thenReturn(List.of(STR."INV-7-\{year}-999999", STR."INV-7-\{year}-1000000",
+                                    STR."INV-7-\{year}-000123-CN"));
+        when(sequenceRepository.saveAndFlush(any(InvoiceNumberSequence.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        String number = allocator.nextInvoiceNumber(7L);
+
+        // Then
+        assertEquals(STR."INV-7-\{year}-1000001", number);
+    }
+
+    @Test
+    void nextInvoiceNumber_DeadlockCreatingCounterRow_ShouldRetryOnTheOtherNodesRow() {
+        // Given
+        InvoiceNumberSequence created = new InvoiceNumberSequence(7L, year, 21L);
+        when(sequenceRepository.findForUpdate(7L, year)).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(created));
+        when(invoiceRepository.findInvoiceNumbersLike(STR."INV-7-\{year}-%")).thenReturn(List.of());
+        when(sequenceRepository.saveAndFlush(any(InvoiceNumberSequence.class)))
+                .thenThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"));
+
+        // When
+        String number = allocator.nextInvoiceNumber(7L);
+
+        // Then
+        assertEquals(STR."INV-7-\{year}-000021", number);
+        assertEquals(26L, created.getNextValue());
+    }
+
+    @Test
+    void nextInvoiceNumber_LockFailuresPersist_ShouldGiveUp() {
+        // Given
+        when(sequenceRepository.findForUpdate(7L, year))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> allocator.nextInvoiceNumber(7L));
+        verify(sequenceRepository, times(3)).findForUpdate(7L, year);
+    }
+
+    @Test
+    void nextInvoiceNumber_ConcurrentCallers_ShouldNeverShareANumber() throws Exception {
+        // Given
+        InvoiceNumberSequence sequence = new InvoiceNumberSequence(InvoiceNumberSequence.NO_TENANT, year, 1L);
+        when(sequenceRepository.findForUpdate(InvoiceNumberSequence.NO_TENANT, year)).thenReturn(Optional.of(sequence));
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    issued.add(allocator.nextInvoiceNumber(null));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(2000, issued.size());
+    }
+}
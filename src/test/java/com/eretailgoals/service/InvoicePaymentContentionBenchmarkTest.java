@@ -0,0 +1,118 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark for payment application
+ * Many threads pay into one hot invoice, and every payment must land exactly once
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoicePaymentContentionBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoicePaymentContentionBenchmarkTest.class);
+
+    private static final int THREADS = 8;
+    private static final int PAYMENTS_PER_THREAD = 250;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void addPayment_HotInvoice_ShouldApplyEveryPaymentExactlyOnce() throws Exception {
+        // Given
+        int payments = THREADS * PAYMENTS_PER_THREAD;
+        Invoice invoice = createInvoice(new BigDecimal(payments));
+
+        // When
+        long started = System.nanoTime();
+        int applied = pay(invoice.getId(), payments);
+        long elapsedNanos = System.nanoTime() - started;
+
+        // Then
+        Invoice paid = invoiceService.getInvoiceById(invoice.getId());
+        assertEquals(payments, applied);
+        assertEquals(0, new BigDecimal(payments).compareTo(paid.getInvoicePaidAmount()));
+        assertEquals(Invoice.InvoiceStatus.PAID, paid.getInvoiceStatus());
+        logger.info("Hot invoice: {} payments on {} threads in {} ms ({} payments/s)",
+                    payments, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    Math.round(payments / (elapsedNanos / 1_000_000_000.0)));
+    }
+
+    @Test
+    void addPayment_ConcurrentOverpayment_ShouldStopAtInvoiceTotal() throws Exception {
+        // Given
+        Invoice invoice = createInvoice(new BigDecimal("100"));
+
+        // When
+        int applied = pay(invoice.getId(), THREADS * PAYMENTS_PER_THREAD);
+
+        // Then
+        Invoice paid = invoiceService.getInvoiceById(invoice.getId());
+        assertEquals(100, applied);
+        assertEquals(0, new BigDecimal("100").compareTo(paid.getInvoicePaidAmount()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(invoiceService.calculateTotalOutstandingAmountByUser(paid.getUser().getId())));
+    }
+
+    /**
+     * Submit payments of 1.00 from all threads and count the ones that were accepted
+     */
+    private int pay(Long invoiceId, int payments) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    int accepted = 0;
+                    for (int i = 0; i < payments / THREADS; i++) {
+                        try {
+                            invoiceService.addPayment(invoiceId, BigDecimal.ONE);
+                            accepted++;
+                        } catch (IllegalArgumentException e) {
+                            // Balance exhausted
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            int accepted = 0;
+            for (Future<Integer> future : futures) {
+                accepted += future.get();
+            }
+            return accepted;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Invoice createInvoice(BigDecimal amount) {
+        String suffix = UUID.randomUUID().toString();
+        User client = userRepository.save(new User("Hot", "Client", suffix + "@example.com", User.UserType.CLIENT));
+        return invoiceService.createInvoice(new Invoice("BENCH-" + suffix.substring(0, 8), LocalDate.now(), client, amount));
+    }
+}
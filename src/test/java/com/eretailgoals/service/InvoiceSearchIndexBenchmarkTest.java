@@ -0,0 +1,64 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Lookup benchmark for the invoice search index over a million invoices
+ * Reports the indexing time and the average lookup time over a mix of invoice number and note terms
+ */
+@Tag("benchmark")
+class InvoiceSearchIndexBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceSearchIndexBenchmarkTest.class);
+
+    private static final int INVOICES = 1_000_000;
+    private static final String[] NOTES = {"Website redesign", "Monthly hosting", "Consulting hours",
+            "Hardware supply", "Annual support contract", "Travel expenses", "Licence renewal"};
+
+    @Test
+    void findCandidates_MillionInvoices_ShouldAnswerInMilliseconds() {
+        // Given
+        InvoiceRepository invoiceRepository = mock(InvoiceRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(invoiceRepository.findSearchTextAfter(anyLong(), any())).thenReturn(List.of());
+        when(userRepository.findSearchTextAfter(anyLong(), any())).thenReturn(List.of());
+        InvoiceSearchIndex searchIndex = new InvoiceSearchIndex(invoiceRepository, userRepository, 10_000, Duration.ofSeconds(30));
+        searchIndex.build();
+
+        long started = System.nanoTime();
+        for (long id = 1; id <= INVOICES; id++) {
+            searchIndex.indexInvoice(id, String.format("INV-2024-%07d", id), NOTES[(int) (id % NOTES.length)] + " " + id);
+        }
+        logger.info("Indexed {} invoices in {} ms", INVOICES, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        // When
+        String[] terms = {"0123456", "-0999999", "2024-00042", "hosting 77777", "renewal 5"};
+        int rounds = 200;
+        started = System.nanoTime();
+        int found = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (String term : terms) {
+                found += searchIndex.findCandidates(term).map(c -> c.invoiceIds().size()).orElse(0);
+            }
+        }
+        double averageMillis = (System.nanoTime() - started) / 1_000_000.0 / (rounds * terms.length);
+
+        // Then
+        logger.info("Average lookup {} ms ({} candidates total)", String.format("%.3f", averageMillis), found);
+        assertTrue(found > 0);
+        assertTrue(averageMillis < 50, "lookups should take milliseconds");
+    }
+}
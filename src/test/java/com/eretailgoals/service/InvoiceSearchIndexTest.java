@@ -0,0 +1,143 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InvoiceSearchIndex
+ * Tests candidate lookup, fallback conditions, building from the database and refreshing from it
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceSearchIndexTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private InvoiceSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new InvoiceSearchIndex(invoiceRepository, userRepository, 3, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void findCandidates_BeforeBuild_ShouldNotNarrowSearch() {
+        // Given
+        searchIndex.indexInvoice(1L, "INV-2024-000001", null);
+
+        // When & Then
+        assertFalse(searchIndex.isReady());
+        assertTrue(searchIndex.findCandidates("2024").isEmpty());
+    }
+
+    @Test
+    void build_ShouldLoadInvoicesAndUsersPageByPage() {
+        // Given
+        when(invoiceRepository.findSearchTextAfter(eq(0L), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "INV-2024-000001", "Spring consulting"}));
+        when(invoiceRepository.findSearchTextAfter(eq(1L), any())).thenReturn(List.of());
+        when(userRepository.findSearchTextAfter(eq(0L), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{7L, "Jane", "Smith", "Acme Ltd"}));
+        when(userRepository.findSearchTextAfter(eq(7L), any())).thenReturn(List.of());
+
+        // When
+        searchIndex.build();
+
+        // Then
+        assertTrue(searchIndex.isReady());
+        assertEquals(List.of(1L), searchIndex.findCandidates("CONSULT").orElseThrow().invoiceIds());
+        assertEquals(List.of(7L), searchIndex.findCandidates("acme").orElseThrow().userIds());
+    }
+
+    @Test
+    void findCandidates_ShouldMatchSubstringsCaseInsensitively() {
+        // Given
+        ready();
+        searchIndex.indexInvoice(1L, "INV-2024-000001", "Website redesign");
+        searchIndex.indexInvoice(2L, "INV-2024-000002", "Hosting");
+        searchIndex.indexUser(5L, "Jane", "Smith", null);
+
+        // When
+        Optional<InvoiceSearchIndex.Candidates> redesign = searchIndex.findCandidates("DESIGN");
+        Optional<InvoiceSearchIndex.Candidates> number = searchIndex.findCandidates("-000002");
+        Optional<InvoiceSearchIndex.Candidates> none = searchIndex.findCandidates("invoice");
+
+        // Then
+        assertEquals(List.of(1L), redesign.orElseThrow().invoiceIds());
+        assertEquals(List.of(2L), number.orElseThrow().invoiceIds());
+        assertTrue(none.orElseThrow().isEmpty());
+        assertEquals(List.of(5L), searchIndex.findCandidates("smi").orElseThrow().userIds());
+    }
+
+    @Test
+    void findCandidates_AfterUpdate_ShouldKeepOldAndNewText() {
+        // Given
+        ready();
+        searchIndex.indexInvoice(1L, "INV-1", "draft");
+        searchIndex.indexInvoice(1L, "INV-1", "final");
+
+        // When & Then
+        assertEquals(List.of(1L), searchIndex.findCandidates("draft").orElseThrow().invoiceIds());
+        assertEquals(List.of(1L), searchIndex.findCandidates("final").orElseThrow().invoiceIds());
+    }
+
+    @Test
+    void findCandidates_RowsWrittenElsewhere_ShouldBeIndexedBeforeLookup() {
+        // Given
+        LocalDateTime beforeBuild = LocalDateTime.now();
+        ready();
+        when(invoiceRepository.findSearchTextModifiedSince(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{9L, "INV-2024-000009", "Written on another node"}));
+        when(userRepository.findSearchTextModifiedSince(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{4L, "Remote", "Client", null}));
+
+        // When
+        Optional<InvoiceSearchIndex.Candidates> invoices = searchIndex.findCandidates("another");
+        Optional<InvoiceSearchIndex.Candidates> users = searchIndex.findCandidates("remote");
+
+        // Then
+        assertEquals(List.of(9L), invoices.orElseThrow().invoiceIds());
+        assertEquals(List.of(4L), users.orElseThrow().userIds());
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(invoiceRepository, times(2)).findSearchTextModifiedSince(since.capture());
+        assertFalse(since.getAllValues().get(0).isBefore(beforeBuild.minusSeconds(30)));
+        assertFalse(since.getAllValues().get(1).isBefore(since.getAllValues().get(0)));
+    }
+
+    @Test
+    void findCandidates_ShortTermOrTooManyHits_ShouldNotNarrowSearch() {
+        // Given
+        ready();
+        for (long id = 10; id > 0; id--) {
+            searchIndex.indexInvoice(id, "INV-" + id, "monthly retainer");
+        }
+
+        // When & Then
+        assertTrue(searchIndex.findCandidates("in").isEmpty());
+        assertTrue(searchIndex.findCandidates("retainer").isEmpty());
+    }
+
+    private void ready() {
+        when(invoiceRepository.findSearchTextAfter(anyLong(), any())).thenReturn(List.of());
+        when(userRepository.findSearchTextAfter(anyLong(), any())).thenReturn(List.of());
+        searchIndex.build();
+    }
+}
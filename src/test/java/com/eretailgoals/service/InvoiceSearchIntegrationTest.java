@@ -0,0 +1,86 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.InvoiceSummaryView;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for invoice search against the migrated schema
+ * The LIKE fallback must match '%' and '_' literally, as the search index does, and the index must
+ * find invoices that were written without passing through this node's entity listeners
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceSearchIntegrationTest {
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceSearchIndex invoiceSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchInvoices_EscapedWildcards_ShouldMatchLiterally() {
+        // Given
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User client = userRepository.save(new User("Search", "Client", suffix + "@example.com", User.UserType.CLIENT));
+        invoiceRepository.save(new Invoice("W%_" + suffix, LocalDate.now(), client, new BigDecimal("10.00")));
+        invoiceRepository.save(new Invoice("WXY" + suffix, LocalDate.now(), client, new BigDecimal("10.00")));
+
+        // When
+        List<String> numbers = invoiceRepository.searchInvoices(client.getId(), null, null, null, null,
+                        InvoiceService.escapeLikeWildcards("W%_" + suffix), PageRequest.of(0, 20))
+                .map(InvoiceSummaryView::invoiceNumber).getContent();
+
+        // Then
+        assertEquals(List.of("W%_" + suffix), numbers);
+    }
+
+    @Test
+    void searchInvoices_InvoiceWrittenByAnotherNode_ShouldBeFound() {
+        // Given
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User client = userRepository.save(new User("Remote", "Client", suffix + "@example.com", User.UserType.CLIENT));
+        long id = ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO invoices (id, user_id, invoice_number, invoice_date, invoice_amount, "
+                + "invoice_status, date_created, last_modified, version) VALUES (?, ?, ?, CURRENT_DATE, 10.00, 'OPEN', ?, ?, 0)",
+                id, client.getId(), "REMOTE-" + suffix, now, now);
+
+        // When
+        List<String> numbers = invoiceService.searchInvoices(client.getId(), null, null, null, null,
+                        "REMOTE-" + suffix, PageRequest.of(0, 20))
+                .map(InvoiceSummaryView::invoiceNumber).getContent();
+
+        // Then
+        assertTrue(invoiceSearchIndex.isReady());
+        assertEquals(List.of("REMOTE-" + suffix), numbers);
+    }
+}
@@ -0,0 +1,316 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.CursorPage;
+import com.eretailgoals.dto.InvoiceCursor;
+import com.eretailgoals.dto.InvoiceDetailView;
+import com.eretailgoals.dto.InvoiceSummaryView;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.InvoiceItem;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InvoiceService
+ * Tests business logic and edge cases for invoice management operations
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceServiceTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private InvoiceNumberAllocator invoiceNumberAllocator;
+
+    @Mock
+    private ReceivablesService receivablesService;
+
+    @Mock
+    private InvoiceSearchIndex invoiceSearchIndex;
+
+    @InjectMocks
+    private InvoiceService invoiceService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User("John", "Doe", "john.doe@example.com", User.UserType.CLIENT);
+        testUser.setId(1L);
+    }
+
+    @Test
+    void getInvoicePage_FirstPageWithMoreRows_ShouldReturnCursorOfLastItem() {
+        // Given
+        List<InvoiceSummaryView> rows = summaries(LocalDate.of(2024, 3, 1), 11);
+        when(invoiceRepository.findFirstKeysetPage(null, PageRequest.of(0, 11))).thenReturn(rows);
+
+        // When
+        CursorPage<InvoiceSummaryView> page = invoiceService.getInvoicePage(null, 10, null);
+
+        // Then
+        assertEquals(10, page.items().size());
+        assertTrue(page.hasMore());
+        InvoiceCursor cursor = InvoiceCursor.decode(page.nextCursor());
+        assertEquals(rows.get(9).id(), cursor.id());
+        assertEquals(rows.get(9).invoiceDate(), cursor.invoiceDate());
+    }
+
+    @Test
+    void getInvoicePage_WithCursor_ShouldSeekPastPosition() {
+        // Given
+        InvoiceCursor position = new InvoiceCursor(LocalDate.of(2024, 2, 1), 42L);
+        List<InvoiceSummaryView> rows = summaries(LocalDate.of(2024, 1, 31), 3);
+        when(invoiceRepository.findKeysetPageAfter(eq(7L), eq(position.invoiceDate()), eq(42L), any()))
+                .thenReturn(rows);
+
+        // When
+        CursorPage<InvoiceSummaryView> page = invoiceService.getInvoicePage(position.encode(), 10, 7L);
+
+        // Then
+        assertEquals(3, page.items().size());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+        verify(invoiceRepository, never()).findFirstKeysetPage(any(), any());
+    }
+
+    @Test
+    void getInvoicePage_OversizedRequest_ShouldBeCapped() {
+        // Given
+        when(invoiceRepository.findFirstKeysetPage(any(), any())).thenReturn(List.of());
+
+        // When
+        invoiceService.getInvoicePage(null, 100_000, null);
+
+        // Then
+        verify(invoiceRepository).findFirstKeysetPage(null, PageRequest.of(0, InvoiceService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void getInvoicePage_MalformedCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> invoiceService.getInvoicePage("not-a-cursor", 10, null));
+    }
+
+    @Test
+    void getInvoiceDetail_ShouldMapInvoiceClientAndItems() {
+        // Given
+        Invoice invoice = paymentInvoice(Invoice.InvoiceStatus.OPEN);
+        invoice.setInvoicePaidAmount(new BigDecimal("30.00"));
+        invoice.addInvoiceItem(new InvoiceItem("Consulting", 2, new BigDecimal("50.00")));
+        when(invoiceRepository.findDetailById(5L)).thenReturn(Optional.of(invoice));
+
+        // When
+        InvoiceDetailView detail = invoiceService.getInvoiceDetail(5L);
+
+        // Then
+        assertEquals("INV-1", detail.invoiceNumber());
+        assertEquals(new BigDecimal("70.00"), detail.outstandingAmount());
+        assertEquals(1L, detail.client().id());
+        assertEquals(1, detail.items().size());
+        assertEquals("Consulting", detail.items().get(0).itemDescription());
+        verify(invoiceRepository, never()).findById(any());
+    }
+
+    @Test
+    void getInvoiceDetail_UnknownId_ShouldThrowException() {
+        // Given
+        when(invoiceRepository.findDetailById(9L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> invoiceService.getInvoiceDetail(9L));
+    }
+
+    @Test
+    void searchInvoices_WithIndexCandidates_ShouldQueryCandidatesOnly() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 20);
+        when(invoiceSearchIndex.findCandidates("acme"))
+                .thenReturn(Optional.of(new InvoiceSearchIndex.Candidates(List.of(4L, 9L), List.of())));
+        when(invoiceRepository.searchInvoicesAmong(List.of(4L, 9L), List.of(-1L), null, 7L, null, null, null, "acme", pageable))
+                .thenReturn(new PageImpl<>(summaries(LocalDate.of(2024, 1, 1), 2)));
+
+        // When
+        Page<InvoiceSummaryView> page = invoiceService.searchInvoices(null, 7L, null, null, null, "acme", pageable);
+
+        // Then
+        assertEquals(2, page.getContent().size());
+        verify(invoiceRepository, never()).searchInvoices(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchInvoices_WithoutIndexMatches_ShouldReturnEmptyPageWithoutQuery() {
+        // Given
+        when(invoiceSearchIndex.findCandidates("zzz"))
+                .thenReturn(Optional.of(new InvoiceSearchIndex.Candidates(List.of(), List.of())));
+
+        // When
+        Page<InvoiceSummaryView> page = invoiceService.searchInvoices(null, null, null, null, null, "zzz", PageRequest.of(0, 20));
+
+        // Then
+        assertTrue(page.isEmpty());
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    @Test
+    void searchInvoices_WhenIndexCannotNarrow_ShouldFallBackToLikeQuery() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 20);
+        when(invoiceSearchIndex.findCandidates("ab")).thenReturn(Optional.empty());
+        when(invoiceRepository.searchInvoices(null, null, null, null, null, "ab", pageable)).thenReturn(Page.empty(pageable));
+
+        // When
+        invoiceService.searchInvoices(null, null, null, null, null, "ab", pageable);
+
+        // Then
+        verify(invoiceRepository).searchInvoices(null, null, null, null, null, "ab", pageable);
+    }
+
+    @Test
+    void searchInvoices_TermWithLikeWildcards_ShouldEscapeThemForTheQuery() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 20);
+        when(invoiceSearchIndex.findCandidates("5%_!")).thenReturn(Optional.empty());
+        when(invoiceRepository.searchInvoices(null, null, null, null, null, "5!%!_!!", pageable))
+                .thenReturn(Page.empty(pageable));
+
+        // When
+        invoiceService.searchInvoices(null, null, null, null, null, "5%_!", pageable);
+
+        // Then
+        verify(invoiceRepository).searchInvoices(null, null, null, null, null, "5!%!_!!", pageable);
+    }
+
+    @Test
+    void addPayment_PartialPayment_ShouldApplyConditionalUpdateAndReceivablesDelta() {
+        // Given
+        Invoice invoice = paymentInvoice(Invoice.InvoiceStatus.PARTIAL_PAID);
+        when(invoiceRepository.applyPayment(eq(5L), eq(new BigDecimal("40.00")), eq(Invoice.InvoiceStatus.PAID),
+                eq(Invoice.InvoiceStatus.PARTIAL_PAID), eq(Invoice.InvoiceStatus.CANCELLED), any())).thenReturn(1);
+        when(invoiceRepository.findById(5L)).thenReturn(Optional.of(invoice));
+
+        // When
+        Invoice updated = invoiceService.addPayment(5L, new BigDecimal("40.00"));
+
+        // Then
+        assertSame(invoice, updated);
+        verify(receivablesService).applyDelta(3L, 1L, new BigDecimal("-40.00"), 0);
+        verify(invoiceRepository, never()).save(any());
+    }
+
+    @Test
+    void addPayment_SettlingPayment_ShouldRemoveOpenInvoiceFromSummary() {
+        // Given
+        Invoice invoice = paymentInvoice(Invoice.InvoiceStatus.PAID);
+        when(invoiceRepository.applyPayment(eq(5L), any(), any(), any(), any(), any())).thenReturn(1);
+        when(invoiceRepository.findById(5L)).thenReturn(Optional.of(invoice));
+
+        // When
+        invoiceService.addPayment(5L, new BigDecimal("100.00"));
+
+        // Then
+        verify(receivablesService).applyDelta(3L, 1L, new BigDecimal("-100.00"), -1);
+    }
+
+    @Test
+    void addPayment_ExceedingBalance_ShouldThrowWithoutReceivablesChange() {
+        // Given
+        when(invoiceRepository.applyPayment(eq(5L), any(), any(), any(), any(), any())).thenReturn(0);
+        when(invoiceRepository.findById(5L)).thenReturn(Optional.of(paymentInvoice(Invoice.InvoiceStatus.OPEN)));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> invoiceService.addPayment(5L, new BigDecimal("500.00")));
+        verifyNoInteractions(receivablesService);
+    }
+
+    @Test
+    void addPayment_CancelledInvoice_ShouldThrowConflict() {
+        // Given
+        when(invoiceRepository.applyPayment(eq(5L), any(), any(), any(), any(), any())).thenReturn(0);
+        when(invoiceRepository.findById(5L)).thenReturn(Optional.of(paymentInvoice(Invoice.InvoiceStatus.CANCELLED)));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> invoiceService.addPayment(5L, new BigDecimal("10.00")));
+        verifyNoInteractions(receivablesService);
+    }
+
+    @Test
+    void addPayment_NonPositiveAmount_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> invoiceService.addPayment(5L, BigDecimal.ZERO));
+        verifyNoInteractions(invoiceRepository);
+    }
+
+    @Test
+    void updateInvoice_WithStaleVersion_ShouldThrowOptimisticLockingFailure() {
+        // Given
+        Invoice invoice = paymentInvoice(Invoice.InvoiceStatus.OPEN);
+        invoice.setVersion(4L);
+        when(invoiceRepository.findById(5L)).thenReturn(Optional.of(invoice));
+        Invoice details = new Invoice("INV-1", LocalDate.now(), testUser, new BigDecimal("120.00"));
+        details.setVersion(3L);
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> invoiceService.updateInvoice(5L, details));
+        verify(invoiceRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelInvoice_OpenInvoice_ShouldRemoveReceivablesContribution() {
+        // Given
+        Invoice invoice = new Invoice("INV-2", LocalDate.now(), testUser, new BigDecimal("80.00"));
+        invoice.setId(6L);
+        when(invoiceRepository.findById(6L)).thenReturn(Optional.of(invoice));
+        when(invoiceRepository.save(invoice)).thenReturn(invoice);
+
+        // When
+        invoiceService.cancelInvoice(6L);
+
+        // Then
+        verify(receivablesService).recordChange(
+                new ReceivablesService.Contribution(0L, 1L, new BigDecimal("80.00"), 1),
+                ReceivablesService.Contribution.NONE);
+    }
+
+    private Invoice paymentInvoice(Invoice.InvoiceStatus status) {
+        Invoice invoice = new Invoice("INV-1", LocalDate.now(), testUser, new BigDecimal("100.00"));
+        invoice.setId(5L);
+        invoice.setAdminId(3L);
+        invoice.setInvoiceStatus(status);
+        return invoice;
+    }
+
+    private List<InvoiceSummaryView> summaries(LocalDate startDate, int count) {
+        List<InvoiceSummaryView> summaries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            summaries.add(new InvoiceSummaryView(1000L - i, null, "INV-" + i, startDate.minusDays(i), null,
+                    Invoice.InvoiceType.STANDARD, Invoice.InvoiceStatus.OPEN, new BigDecimal("100.00"),
+                    BigDecimal.ZERO, BigDecimal.ZERO, testUser.getId(), "John", "Doe", null));
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,136 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.InvoiceStatistics;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.repository.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InvoiceStatisticsService
+ * Tests the grouped statistics mapping, snapshot expiry and request coalescing
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceStatisticsServiceTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private InvoiceStatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        statisticsService = new InvoiceStatisticsService(invoiceRepository, Duration.ofSeconds(5), clock::get);
+    }
+
+    @Test
+    void getStatistics_ShouldReportEveryStatus() {
+        // Given
+        when(invoiceRepository.summarizeByStatus(null)).thenReturn(List.of(
+                new Object[]{Invoice.InvoiceStatus.OPEN, 2L, new BigDecimal("200.00"), new BigDecimal("200.00")},
+                new Object[]{Invoice.InvoiceStatus.PARTIAL_PAID, 1L, new BigDecimal("50.00"), new BigDecimal("20.00")},
+                new Object[]{Invoice.InvoiceStatus.CANCELLED, 4L, new BigDecimal("90.00"), new BigDecimal("90.00")}));
+
+        // When
+        InvoiceStatistics statistics = statisticsService.getStatistics(null);
+
+        // Then
+        assertEquals(2, statistics.totalOpen());
+        assertEquals(1, statistics.totalPartialPaid());
+        assertEquals(0, statistics.totalPaid());
+        assertEquals(4, statistics.totalCancelled());
+        assertEquals(new BigDecimal("220.00"), statistics.totalOutstanding());
+        assertEquals(Invoice.InvoiceStatus.values().length, statistics.byStatus().size());
+    }
+
+    @Test
+    void getStatistics_WithinTtl_ShouldServeSnapshot() {
+        // Given
+        when(invoiceRepository.summarizeByStatus(1L)).thenReturn(List.of());
+
+        // When
+        statisticsService.getStatistics(1L);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        statisticsService.getStatistics(1L);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        statisticsService.getStatistics(1L);
+
+        // Then
+        verify(invoiceRepository, times(2)).summarizeByStatus(1L);
+    }
+
+    @Test
+    void getStatistics_PerTenant_ShouldKeepSeparateSnapshots() {
+        // Given
+        when(invoiceRepository.summarizeByStatus(anyLong())).thenReturn(List.of());
+
+        // When
+        statisticsService.getStatistics(1L);
+        statisticsService.getStatistics(2L);
+        statisticsService.getStatistics(1L);
+
+        // Then
+        verify(invoiceRepository).summarizeByStatus(1L);
+        verify(invoiceRepository).summarizeByStatus(2L);
+    }
+
+    @Test
+    void getStatistics_ConcurrentBurst_ShouldRunOneQuery() throws Exception {
+        // Given
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(invoiceRepository.summarizeByStatus(null)).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // When
+        List<Future<InvoiceStatistics>> results = new ArrayList<>();
+        results.add(executor.submit(() -> statisticsService.getStatistics(null)));
+        assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            results.add(executor.submit(() -> statisticsService.getStatistics(null)));
+        }
+        releaseQuery.countDown();
+        for (Future<InvoiceStatistics> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Then
+        verify(invoiceRepository, times(1)).summarizeByStatus(null);
+    }
+
+    @Test
+    void getStatistics_QueryFails_ShouldNotCacheFailure() {
+        // Given
+        when(invoiceRepository.summarizeByStatus(null))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(List.of());
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> statisticsService.getStatistics(null));
+        assertNotNull(statisticsService.getStatistics(null));
+    }
+}
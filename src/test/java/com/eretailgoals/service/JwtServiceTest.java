@@ -0,0 +1,107 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.AuthenticatedUser;
+import com.eretailgoals.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JwtService
+ * Tests the claim round trip, rejection of forged and expired tokens and the bounded verified-token cache
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "unitTestSecretKey1234567890123456789012345";
+    private static final long ONE_HOUR = 3_600_000L;
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, ONE_HOUR, 2);
+
+        user = new User();
+        user.setId(42L);
+        user.setAdminId(7L);
+        user.setUsername("jdoe");
+        user.setUserType(User.UserType.CLIENT);
+    }
+
+    @Test
+    void verify_IssuedToken_ShouldReturnClaimsAsPrincipal() {
+        // Given
+        String token = jwtService.issueToken(user);
+
+        // When
+        Optional<AuthenticatedUser> principal = jwtService.verify(token);
+
+        // Then
+        assertTrue(principal.isPresent());
+        assertEquals(42L, principal.get().userId());
+        assertEquals("jdoe", principal.get().username());
+        assertEquals(User.UserType.CLIENT, principal.get().userType());
+        assertEquals(7L, principal.get().adminId());
+    }
+
+    @Test
+    void verify_TamperedPayload_ShouldRejectEvenAfterOriginalWasCached() {
+        // Given
+        String token = jwtService.issueToken(user);
+        assertTrue(jwtService.verify(token).isPresent());
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("CLIENT", "ADMIN");
+        String forged = parts[0] + '.' + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + '.' + parts[2];
+
+        // When & Then
+        assertTrue(jwtService.verify(forged).isEmpty());
+    }
+
+    @Test
+    void verify_TokenSignedWithOtherKey_ShouldReject() {
+        // Given
+        String token = new JwtService("anotherSecretKey12345678901234567890123456", ONE_HOUR, 2).issueToken(user);
+
+        // When & Then
+        assertTrue(jwtService.verify(token).isEmpty());
+        assertTrue(jwtService.verify("not-a-token").isEmpty());
+    }
+
+    @Test
+    void verify_ExpiredToken_ShouldReject() {
+        // Given
+        String token = new JwtService(SECRET, -1_000L, 2).issueToken(user);
+
+        // When & Then
+        assertTrue(jwtService.verify(token).isEmpty());
+        assertEquals(0, jwtService.cachedTokenCount());
+    }
+
+    @Test
+    void verify_MoreTokensThanCacheSize_ShouldEvictLeastRecentlyUsed() {
+        // Given
+        String first = jwtService.issueToken(user);
+        user.setId(43L);
+        String second = jwtService.issueToken(user);
+        user.setId(44L);
+        String third = jwtService.issueToken(user);
+
+        // When
+        jwtService.verify(first);
+        jwtService.verify(second);
+        jwtService.verify(first);
+        jwtService.verify(third);
+
+        // Then
+        assertEquals(2, jwtService.cachedTokenCount());
+        assertEquals(43L, jwtService.verify(second).orElseThrow().userId());
+    }
+}
@@ -0,0 +1,114 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.repository.InvoiceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OverdueInvoiceSweeper
+ * Tests keyset iteration over batches, locking and the recorded metrics
+ */
+@ExtendWith(MockitoExtension.class)
+class OverdueInvoiceSweeperTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OverdueInvoiceSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new OverdueInvoiceSweeper(invoiceRepository, lockService, meterRegistry, transactionManager,
+                                            2, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void sweep_SeveralBatches_ShouldContinueAfterLastIdOfEachBatch() {
+        // Given
+        PageRequest page = PageRequest.of(0, 2);
+        when(invoiceRepository.findPastDueIdsAfter(Invoice.InvoiceStatus.OPEN, TODAY, 0L, page)).thenReturn(List.of(3L, 8L));
+        when(invoiceRepository.findPastDueIdsAfter(Invoice.InvoiceStatus.OPEN, TODAY, 8L, page)).thenReturn(List.of(12L));
+        when(invoiceRepository.findPastDueIdsAfter(Invoice.InvoiceStatus.OPEN, TODAY, 12L, page)).thenReturn(List.of());
+        when(invoiceRepository.updatePastDueStatus(eq(List.of(3L, 8L)), eq(Invoice.InvoiceStatus.OPEN),
+                eq(Invoice.InvoiceStatus.OVERDUE), eq(TODAY), any())).thenReturn(2);
+        when(invoiceRepository.updatePastDueStatus(eq(List.of(12L)), eq(Invoice.InvoiceStatus.OPEN),
+                eq(Invoice.InvoiceStatus.OVERDUE), eq(TODAY), any())).thenReturn(1);
+
+        // When
+        long updated = sweeper.sweep(TODAY);
+
+        // Then
+        assertEquals(3, updated);
+        assertEquals(3.0, meterRegistry.counter("invoice.overdue.sweep.updated").count());
+        assertEquals(1, meterRegistry.timer("invoice.overdue.sweep.duration").count());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void sweep_RowChangedConcurrently_ShouldCountOnlyUpdatedRows() {
+        // Given
+        when(invoiceRepository.findPastDueIdsAfter(eq(Invoice.InvoiceStatus.OPEN), eq(TODAY), eq(0L), any()))
+                .thenReturn(List.of(4L, 5L));
+        when(invoiceRepository.findPastDueIdsAfter(eq(Invoice.InvoiceStatus.OPEN), eq(TODAY), eq(5L), any()))
+                .thenReturn(List.of());
+        when(invoiceRepository.updatePastDueStatus(anyCollection(), any(), any(), any(), any())).thenReturn(1);
+
+        // When
+        long updated = sweeper.sweep(TODAY);
+
+        // Then
+        assertEquals(1, updated);
+        assertEquals(1.0, meterRegistry.counter("invoice.overdue.sweep.updated").count());
+    }
+
+    @Test
+    void run_LockHeldElsewhere_ShouldSkip() {
+        // Given
+        when(lockService.tryAcquire(OverdueInvoiceSweeper.LOCK_NAME, Duration.ofMinutes(10))).thenReturn(false);
+
+        // When
+        sweeper.run();
+
+        // Then
+        verifyNoInteractions(invoiceRepository);
+        verify(lockService, never()).release(any());
+        assertEquals(1.0, meterRegistry.counter("invoice.overdue.sweep.skipped").count());
+    }
+
+    @Test
+    void run_SweepFails_ShouldReleaseLock() {
+        // Given
+        when(lockService.tryAcquire(OverdueInvoiceSweeper.LOCK_NAME, Duration.ofMinutes(10))).thenReturn(true);
+        when(invoiceRepository.findPastDueIdsAfter(any(), any(), anyLong(), any()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> sweeper.run());
+        verify(lockService).release(OverdueInvoiceSweeper.LOCK_NAME);
+    }
+}
@@ -0,0 +1,134 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.exception.GlobalExceptionHandler.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PasswordHashingService
+ * Tests delegation and timing per operation, rejection when the pool and queue are full, the wait timeout
+ * and bulk hashing
+ */
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateAndTimeEachOperation() {
+        // Given
+        PasswordHashingService service = service(2, 4, Duration.ofSeconds(5));
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+
+        // When
+        String hash = service.encode("secret");
+        boolean matches = service.matches("secret", "hash");
+
+        // Then
+        assertEquals("hash", hash);
+        assertTrue(matches);
+        assertEquals(1, meterRegistry.get("user.password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("user.password.hashing.duration").tag("operation", "matches").timer().count());
+        assertEquals(1, meterRegistry.get("user.password.hashing.wait").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_PoolAndQueueFull_ShouldRejectImmediately() throws Exception {
+        // Given
+        PasswordHashingService service = service(1, 1, Duration.ofSeconds(5));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return "hash";
+        });
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.encode("first"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("queued"));
+        while (meterRegistry.get("user.password.hashing.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When & Then
+        assertThrows(TooManyRequestsException.class, () -> service.encode("rejected"));
+        assertEquals(1, meterRegistry.get("user.password.hashing.rejected").tag("operation", "encode").counter().count());
+        release.countDown();
+        assertEquals("hash", first.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_SlowerThanTimeout_ShouldGiveUpWithTooManyRequests() {
+        // Given
+        PasswordHashingService service = service(1, 1, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+
+        // When & Then
+        try {
+            assertThrows(TooManyRequestsException.class, () -> service.matches("secret", "hash"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void encode_EncoderThrows_ShouldPropagateOriginalException() {
+        // Given
+        PasswordHashingService service = service(1, 1, Duration.ofSeconds(5));
+        when(passwordEncoder.encode(anyString())).thenThrow(new IllegalArgumentException("password too long"));
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.encode("x"));
+        assertEquals("password too long", ex.getMessage());
+    }
+
+    @Test
+    void encodeAll_ShouldHashEveryPasswordInOrderAndSkipNulls() {
+        // Given
+        PasswordHashingService service = service(2, 1, Duration.ofSeconds(5));
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+
+        // When
+        List<CompletableFuture<String>> hashes = service.encodeAll(Arrays.asList("a", null, "b", "c", "d"));
+
+        // Then
+        assertEquals(Arrays.asList("hash:a", null, "hash:b", "hash:c", "hash:d"),
+                     hashes.stream().map(CompletableFuture::join).toList());
+        assertEquals(4, meterRegistry.get("user.password.hashing.duration").tag("operation", "encode").timer().count());
+    }
+
+    private PasswordHashingService service(int threads, int queueCapacity, Duration timeout) {
+        return new PasswordHashingService(passwordEncoder, meterRegistry, threads, queueCapacity, timeout);
+    }
+}
@@ -0,0 +1,148 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.User;
+import com.eretailgoals.exception.GlobalExceptionHandler.TooManyRequestsException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read latency benchmark during a login storm
+ * Times user reads while many threads verify passwords, once with hashing on the bounded pool and once with
+ * BCrypt called inline on the storm threads, and reports read p50/p99 against an idle baseline
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class PasswordHashingStormBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingStormBenchmarkTest.class);
+
+    private static final int READS = 2_000;
+    private static final int STORM_THREADS = Runtime.getRuntime().availableProcessors() * 4;
+    private static final String PASSWORD = "benchmark-password";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${user.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Test
+    void getUserById_DuringPooledLoginStorm_ShouldKeepReadLatency() throws Exception {
+        // Given
+        Long userId = createUser();
+        long[] baseline = readAll(userId);
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+
+        // When
+        // More callers than pool threads plus queue slots, so the storm is partly refused
+        long[] duringStorm = duringStorm(STORM_THREADS + queueCapacity, () -> {
+            try {
+                userService.verifyPassword(userId, PASSWORD);
+                accepted.incrementAndGet();
+            } catch (TooManyRequestsException e) {
+                rejected.incrementAndGet();
+            }
+        }, userId);
+
+        // Then
+        report("Idle", baseline);
+        report("Pooled hashing storm", duringStorm);
+        logger.info("Pooled hashing storm: {} verifications accepted, {} refused with 429", accepted.get(), rejected.get());
+        assertTrue(accepted.get() > 0);
+    }
+
+    @Test
+    void getUserById_DuringInlineLoginStorm_ForComparison() throws Exception {
+        // Given
+        Long userId = createUser();
+        String hash = passwordEncoder.encode(PASSWORD);
+        long[] baseline = readAll(userId);
+
+        // When
+        long[] duringStorm = duringStorm(STORM_THREADS, () -> passwordEncoder.matches(PASSWORD, hash), userId);
+
+        // Then
+        report("Idle", baseline);
+        report("Inline hashing storm", duringStorm);
+    }
+
+    /**
+     * Keep the storm running on its own threads while the reads are timed
+     */
+    private long[] duringStorm(int threads, Runnable login, Long userId) throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService storm = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(storm.submit(() -> {
+                    while (!stop.get()) {
+                        login.run();
+                    }
+                }));
+            }
+            // Let the storm fill the pool and the queue first
+            Thread.sleep(500);
+            long[] nanos = readAll(userId);
+            stop.set(true);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return nanos;
+        } finally {
+            stop.set(true);
+            storm.shutdownNow();
+        }
+    }
+
+    private long[] readAll(Long userId) {
+        long[] nanos = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            long started = System.nanoTime();
+            assertEquals(userId, userService.getUserById(userId).getId());
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private Long createUser() {
+        String suffix = UUID.randomUUID().toString();
+        User user = new User("Storm", "User", suffix + "@example.com", User.UserType.CLIENT);
+        user.setUsername("storm-" + suffix.substring(0, 8));
+        user.setPassword(PASSWORD);
+        return userService.createUser(user).getId();
+    }
+
+    private static void report(String scenario, long[] sortedNanos) {
+        long p50 = sortedNanos[sortedNanos.length / 2];
+        long p99 = sortedNanos[(int) (sortedNanos.length * 0.99)];
+        logger.info("{}: {} reads, p50 {} us, p99 {} us", scenario, sortedNanos.length,
+                    TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p99));
+    }
+}
@@ -0,0 +1,62 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.ReceivablesDriftReport;
+import com.eretailgoals.entity.Invoice;
+import com.eretailgoals.entity.ReceivablesSummary;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.ReceivablesSummaryRepository;
+import com.eretailgoals.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the receivables rebuild against the migrated schema
+ * Runs the locking read and the per-client recount that correct a drifted summary row
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReceivablesRebuildIntegrationTest {
+
+    @Autowired
+    private ReceivablesService receivablesService;
+
+    @Autowired
+    private ReceivablesSummaryRepository summaryRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void rebuild_InvoicesWrittenPastSummary_ShouldCorrectRowOnce() {
+        // Given
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User client = userRepository.save(new User("Receivable", "Client", suffix + "@example.com",
+                                                   User.UserType.CLIENT));
+        invoiceRepository.save(new Invoice("RCV-" + suffix + "-1", LocalDate.now(), client, new BigDecimal("100.00")));
+        invoiceRepository.save(new Invoice("RCV-" + suffix + "-2", LocalDate.now(), client, new BigDecimal("50.00")));
+
+        // When
+        ReceivablesDriftReport first = receivablesService.rebuild();
+        ReceivablesDriftReport second = receivablesService.rebuild();
+
+        // Then
+        assertTrue(first.drifts().stream().anyMatch(drift -> client.getId().equals(drift.userId())));
+        assertTrue(second.drifts().stream().noneMatch(drift -> client.getId().equals(drift.userId())));
+        ReceivablesSummary summary = summaryRepository
+                .findByAdminIdAndUserId(ReceivablesSummary.NO_TENANT, client.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("150.00").compareTo(summary.getOutstandingAmount()));
+        assertEquals(2, summary.getOpenInvoiceCount());
+    }
+}
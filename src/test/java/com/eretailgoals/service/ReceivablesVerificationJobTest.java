@@ -0,0 +1,102 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.ReceivablesDriftReport;
+import com.eretailgoals.repository.ReceivablesSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReceivablesVerificationJob
+ * Tests that seeding and verification only run under the cluster-wide lock
+ */
+@ExtendWith(MockitoExtension.class)
+class ReceivablesVerificationJobTest {
+
+    @Mock
+    private ReceivablesService receivablesService;
+
+    @Mock
+    private ReceivablesSummaryRepository summaryRepository;
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    private ReceivablesVerificationJob verificationJob;
+
+    @BeforeEach
+    void setUp() {
+        verificationJob = new ReceivablesVerificationJob(receivablesService, summaryRepository, lockService,
+                                                         Duration.ofHours(1));
+    }
+
+    @Test
+    void seedIfEmpty_LockHeldElsewhere_ShouldSkip() {
+        // Given
+        when(lockService.tryAcquire(ReceivablesVerificationJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(false);
+
+        // When
+        verificationJob.seedIfEmpty();
+
+        // Then
+        verifyNoInteractions(summaryRepository, receivablesService);
+        verify(lockService, never()).release(any());
+    }
+
+    @Test
+    void seedIfEmpty_EmptyTable_ShouldRebuildAndReleaseLock() {
+        // Given
+        when(lockService.tryAcquire(ReceivablesVerificationJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(true);
+        when(summaryRepository.count()).thenReturn(0L);
+        when(receivablesService.rebuild()).thenReturn(new ReceivablesDriftReport(3, 3, List.of(), LocalDateTime.now()));
+
+        // When
+        verificationJob.seedIfEmpty();
+
+        // Then
+        verify(receivablesService).rebuild();
+        verify(lockService).release(ReceivablesVerificationJob.LOCK_NAME);
+    }
+
+    @Test
+    void run_LockHeldElsewhere_ShouldSkip() {
+        // Given
+        when(lockService.tryAcquire(ReceivablesVerificationJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(false);
+
+        // When
+        verificationJob.run();
+
+        // Then
+        verifyNoInteractions(receivablesService);
+    }
+
+    @Test
+    void verify_LockHeldElsewhere_ShouldThrowException() {
+        // Given
+        when(lockService.tryAcquire(ReceivablesVerificationJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(false);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> verificationJob.verify());
+        verifyNoInteractions(receivablesService);
+    }
+
+    @Test
+    void verify_RebuildFails_ShouldReleaseLock() {
+        // Given
+        when(lockService.tryAcquire(ReceivablesVerificationJob.LOCK_NAME, Duration.ofHours(1))).thenReturn(true);
+        when(receivablesService.rebuild()).thenThrow(new IllegalStateException("boom"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> verificationJob.verify());
+        verify(lockService).release(ReceivablesVerificationJob.LOCK_NAME);
+    }
+}
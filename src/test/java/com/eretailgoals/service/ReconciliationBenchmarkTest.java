@@ -0,0 +1,104 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.ReconciliationReport;
+import com.eretailgoals.dto.ReconciliationReport.MatchRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark for auto-reconciliation of 500,000 unreconciled transactions against 150,000 open invoices
+ * Rows are generated in SQL so seeding does not dominate the run
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ReconciliationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationBenchmarkTest.class);
+
+    private static final long ID_BASE = 900_000_000L;
+    private static final long ADMIN_ID = 990_001L;
+    private static final int TRANSACTIONS = 500_000;
+    private static final int REFERENCED_INVOICES = 100_000;
+    private static final int AMOUNT_ONLY_INVOICES = 50_000;
+    private static final long MAX_ELAPSED_MILLIS = 30_000;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long bankAccountId;
+
+    @Test
+    void reconcile_HalfMillionTransactions_ShouldFinishInSeconds() {
+        // Given
+        seed();
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(bankAccountId, false);
+
+        // Then
+        assertEquals(TRANSACTIONS, report.transactionsScanned());
+        assertEquals(REFERENCED_INVOICES + AMOUNT_ONLY_INVOICES, report.invoicesIndexed());
+        assertEquals(REFERENCED_INVOICES, report.matchesByRule().get(MatchRule.REFERENCE_AND_AMOUNT));
+        assertEquals(AMOUNT_ONLY_INVOICES, report.matchesByRule().get(MatchRule.AMOUNT));
+        assertEquals(REFERENCED_INVOICES, report.applied());
+        assertEquals(REFERENCED_INVOICES, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE bank_account_id = ? AND is_reconciled = TRUE " +
+                "AND invoice_id = id - " + ID_BASE, Long.class, bankAccountId));
+        logger.info("Reconciled {} transactions against {} invoices in {} ms ({} applied)",
+                    report.transactionsScanned(), report.invoicesIndexed(), report.elapsedMillis(), report.applied());
+        assertTrue(report.elapsedMillis() < MAX_ELAPSED_MILLIS, "reconciliation took " + report.elapsedMillis() + " ms");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE id > ?", ID_BASE);
+        jdbcTemplate.update("DELETE FROM invoices WHERE id > ?", ID_BASE);
+        jdbcTemplate.update("DELETE FROM bank_accounts WHERE admin_id = ?", ADMIN_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE admin_id = ?", ADMIN_ID);
+    }
+
+    /**
+     * Invoices 1..100,000 are paid with their number as reference, the next 50,000 by amount alone,
+     * and the remaining transactions match nothing
+     */
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO users (admin_id, first_name, last_name, email, user_type, date_created, is_active) " +
+                            "VALUES (?, 'Bench', 'Client', 'reconciliation-benchmark@example.com', 'CLIENT', CURRENT_TIMESTAMP, TRUE)",
+                            ADMIN_ID);
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE admin_id = ?", Long.class, ADMIN_ID);
+        jdbcTemplate.update("INSERT INTO bank_accounts (admin_id, account_name, account_number, account_type, " +
+                            "opening_balance, current_balance, is_active, date_created) " +
+                            "VALUES (?, 'Reconciliation benchmark', 'RECON-BENCH', 'CURRENT', 0, 0, TRUE, CURRENT_TIMESTAMP)",
+                            ADMIN_ID);
+        bankAccountId = jdbcTemplate.queryForObject("SELECT id FROM bank_accounts WHERE admin_id = ?", Long.class, ADMIN_ID);
+
+        jdbcTemplate.update("INSERT INTO invoices (id, admin_id, user_id, invoice_number, invoice_date, invoice_amount, " +
+                            "vat_amount, invoice_paid_amount, invoice_status, version, date_created) " +
+                            "SELECT " + ID_BASE + " + X, ?, ?, 'BENCH-' || X, CURRENT_DATE, " +
+                            "CASE WHEN X <= " + REFERENCED_INVOICES + " THEN X + 0.25 ELSE 1000000 + X END, " +
+                            "0, 0, 'OPEN', 0, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)",
+                            ADMIN_ID, userId, REFERENCED_INVOICES + AMOUNT_ONLY_INVOICES);
+        jdbcTemplate.update("INSERT INTO transactions (id, admin_id, bank_account_id, transaction_date, transaction_amount, " +
+                            "transaction_type, notes, reference_number, is_reconciled, date_created) " +
+                            "SELECT " + ID_BASE + " + X, ?, ?, CURRENT_DATE, " +
+                            "CASE WHEN X <= " + REFERENCED_INVOICES + " THEN X + 0.25 " +
+                            "WHEN X <= " + (REFERENCED_INVOICES + AMOUNT_ONLY_INVOICES) + " THEN 1000000 + X " +
+                            "ELSE 5000000 + X END, 'DEPOSIT', 'Faster payment ' || X, " +
+                            "CASE WHEN X <= " + REFERENCED_INVOICES + " THEN 'bench-' || X ELSE 'FP' || X END, " +
+                            "FALSE, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)",
+                            ADMIN_ID, bankAccountId, TRANSACTIONS);
+    }
+}
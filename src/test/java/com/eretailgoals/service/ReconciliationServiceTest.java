@@ -0,0 +1,177 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.OpenInvoiceView;
+import com.eretailgoals.dto.ReconciliationReport;
+import com.eretailgoals.dto.ReconciliationReport.Match;
+import com.eretailgoals.dto.ReconciliationReport.MatchRule;
+import com.eretailgoals.dto.UnreconciledTransactionView;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.repository.InvoiceRepository;
+import com.eretailgoals.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReconciliationService
+ * Tests the matching rules, ambiguity handling, tenant isolation and the batched update of matches
+ */
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ReconciliationService(transactionRepository, invoiceRepository, bankAccountRepository,
+                                                           jdbcTemplate, transactionManager, 2, 2, 0.80, 10);
+    }
+
+    @Test
+    void reconcile_ReferenceAndAmount_ShouldScoreAndApplyMatches() {
+        // Given
+        when(invoiceRepository.findOpenInvoiceViews(null)).thenReturn(List.of(
+                invoice(10L, "INV-2024-0001", "100.00"),
+                invoice(11L, "INV-2024-0002", "250.00"),
+                invoice(12L, "INV-2024-0003", "75.50")));
+        when(transactionRepository.findUnreconciledAfter(any(), eq(0L), any())).thenReturn(List.of(
+                transaction(1L, "100.00", "inv_2024_0001", null),
+                transaction(2L, "50.00", null, "Part payment of INV-2024-0002, thanks")));
+        when(transactionRepository.findUnreconciledAfter(any(), eq(2L), any())).thenReturn(List.of(
+                transaction(3L, "75.5", "BACS", null)));
+        when(jdbcTemplate.batchUpdate(eq(ReconciliationService.RECONCILE_SQL), anyList())).thenReturn(new int[] {1, 0});
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(null, false);
+
+        // Then
+        assertEquals(3, report.transactionsScanned());
+        assertEquals(3, report.invoicesIndexed());
+        assertEquals(3, report.matched());
+        assertEquals(Map.of(MatchRule.REFERENCE_AND_AMOUNT, 1L, MatchRule.REFERENCE, 1L, MatchRule.AMOUNT, 1L),
+                     report.matchesByRule());
+        List<Match> matches = report.matches().stream().sorted(Comparator.comparing(Match::transactionId)).toList();
+        assertEquals(new Match(1L, 10L, "INV-2024-0001", MatchRule.REFERENCE_AND_AMOUNT, 1.00, true), matches.get(0));
+        // Row 2 was reconciled by someone else between the read and the update
+        assertEquals(new Match(2L, 11L, "INV-2024-0002", MatchRule.REFERENCE, 0.85, false), matches.get(1));
+        assertEquals(new Match(3L, 12L, "INV-2024-0003", MatchRule.AMOUNT, 0.60, false), matches.get(2));
+        assertEquals(1, report.applied());
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(eq(ReconciliationService.RECONCILE_SQL), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertEquals(10L, batch.getValue().get(0)[0]);
+        assertEquals(1L, batch.getValue().get(0)[2]);
+    }
+
+    @Test
+    void reconcile_SharedAmounts_ShouldNotMatchByAmount() {
+        // Given
+        when(invoiceRepository.findOpenInvoiceViews(null)).thenReturn(List.of(
+                invoice(10L, "A-100", "40.00"),
+                invoice(11L, "A-101", "40.00"),
+                invoice(12L, "A-102", "60.00")));
+        when(transactionRepository.findUnreconciledAfter(any(), eq(0L), any())).thenReturn(List.of(
+                transaction(1L, "40.00", null, null),
+                transaction(2L, "60.00", null, null)));
+        when(transactionRepository.findUnreconciledAfter(any(), eq(2L), any())).thenReturn(List.of(
+                transaction(3L, "60.00", null, null)));
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(null, true);
+
+        // Then
+        assertEquals(0, report.matched());
+        assertEquals(3, report.ambiguous());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void reconcile_ReferenceClaimsInvoice_ShouldDropAmountCandidateForSameInvoice() {
+        // Given
+        when(invoiceRepository.findOpenInvoiceViews(null)).thenReturn(List.of(invoice(10L, "A-100", "40.00")));
+        when(transactionRepository.findUnreconciledAfter(any(), eq(0L), any())).thenReturn(List.of(
+                transaction(1L, "40.00", null, null),
+                transaction(2L, "10.00", "A-100", null)));
+        when(transactionRepository.findUnreconciledAfter(any(), eq(2L), any())).thenReturn(List.of());
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(null, true);
+
+        // Then
+        assertEquals(1, report.matched());
+        assertEquals(2L, report.matches().get(0).transactionId());
+        assertEquals(1, report.ambiguous());
+        assertTrue(report.dryRun());
+        assertFalse(report.matches().get(0).applied());
+    }
+
+    @Test
+    void reconcile_BankAccount_ShouldOnlyMatchInvoicesOfItsTenant() {
+        // Given
+        BankAccount account = new BankAccount();
+        account.setId(5L);
+        account.setAdminId(1L);
+        when(bankAccountRepository.findById(5L)).thenReturn(Optional.of(account));
+        when(invoiceRepository.findOpenInvoiceViews(1L)).thenReturn(List.of(
+                new OpenInvoiceView(10L, 2L, "A-100", new BigDecimal("40.00"))));
+        when(transactionRepository.findUnreconciledByBankAccountAfter(eq(5L), any(), eq(0L), any())).thenReturn(List.of(
+                transaction(1L, "40.00", "A-100", null)));
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(5L, false);
+
+        // Then
+        assertEquals(0, report.matched());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void reconcile_UnknownBankAccount_ShouldThrowException() {
+        // Given
+        when(bankAccountRepository.findById(5L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> reconciliationService.reconcile(5L, false));
+        verifyNoInteractions(invoiceRepository, transactionRepository);
+    }
+
+    private static OpenInvoiceView invoice(Long id, String number, String outstanding) {
+        return new OpenInvoiceView(id, 1L, number, new BigDecimal(outstanding));
+    }
+
+    private static UnreconciledTransactionView transaction(Long id, String amount, String reference, String notes) {
+        return new UnreconciledTransactionView(id, 1L, new BigDecimal(amount), reference, notes);
+    }
+}
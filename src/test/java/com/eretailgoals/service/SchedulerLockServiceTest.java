@@ -0,0 +1,94 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.SchedulerLock;
+import com.eretailgoals.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SchedulerLockService
+ * Tests taking over expired leases, creating missing lock rows and losing races to other nodes
+ */
+@ExtendWith(MockitoExtension.class)
+class SchedulerLockServiceTest {
+
+    private static final String LOCK = "test-job";
+
+    @Mock
+    private SchedulerLockRepository lockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SchedulerLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = new SchedulerLockService(lockRepository, transactionManager);
+    }
+
+    @Test
+    void tryAcquire_ExpiredLease_ShouldTakeOver() {
+        // Given
+        when(lockRepository.acquire(eq(LOCK), eq(lockService.getOwner()), any(), any())).thenReturn(1);
+
+        // When & Then
+        assertTrue(lockService.tryAcquire(LOCK, Duration.ofMinutes(5)));
+        verify(lockRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void tryAcquire_LeaseHeldByOtherNode_ShouldFail() {
+        // Given
+        when(lockRepository.acquire(eq(LOCK), anyString(), any(), any())).thenReturn(0);
+        when(lockRepository.existsById(LOCK)).thenReturn(true);
+
+        // When & Then
+        assertFalse(lockService.tryAcquire(LOCK, Duration.ofMinutes(5)));
+        verify(lockRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void tryAcquire_FirstUse_ShouldCreateLockRow() {
+        // Given
+        when(lockRepository.acquire(eq(LOCK), anyString(), any(), any())).thenReturn(0);
+        when(lockRepository.existsById(LOCK)).thenReturn(false);
+
+        // When & Then
+        assertTrue(lockService.tryAcquire(LOCK, Duration.ofMinutes(5)));
+        verify(lockRepository).saveAndFlush(argThat((SchedulerLock lock) ->
+                LOCK.equals(lock.getLockName()) && lockService.getOwner().equals(lock.getLockedBy())
+                        && lock.getLockedUntil().isAfter(lock.getLockedAt())));
+    }
+
+    @Test
+    void tryAcquire_RowCreatedConcurrently_ShouldFail() {
+        // Given
+        when(lockRepository.acquire(eq(LOCK), anyString(), any(), any())).thenReturn(0);
+        when(lockRepository.existsById(LOCK)).thenReturn(false);
+        when(lockRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When & Then
+        assertFalse(lockService.tryAcquire(LOCK, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void release_ShouldEndOwnLeaseOnly() {
+        // When
+        lockService.release(LOCK);
+
+        // Then
+        verify(lockRepository).release(eq(LOCK), eq(lockService.getOwner()), any());
+    }
+}
@@ -0,0 +1,180 @@
+package com.eretailgoals.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransactionExportService
+ * Tests the cursor query, CSV quoting and the NDJSON line layout
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private TransactionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new TransactionExportService(jdbcTemplate, transactionManager, objectMapper, 500);
+    }
+
+    @Test
+    void export_Csv_ShouldWriteHeaderAndQuotedRows() throws Exception {
+        // Given
+        stubRow();
+        streamRows(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(TransactionExportFormat.CSV, null, null, null, null, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(TransactionExportService.CSV_HEADER, lines[0]);
+        assertEquals("7,1,2,5,9,2024-03-01,PAYMENT,TRAVEL,1250.50,3000.00,REF-1,\"Rent, \"\"March\"\"\",false,2024-03-01T09:30", lines[1]);
+    }
+
+    @Test
+    void export_Ndjson_ShouldWriteOneObjectPerLine() throws Exception {
+        // Given
+        stubRow();
+        streamRows(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(TransactionExportFormat.NDJSON, null, null, null, null, out);
+
+        // Then
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("}\n"));
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{\"id\":7,"));
+        assertTrue(lines[1].contains("\"transactionDate\":\"2024-03-01\""));
+        assertTrue(lines[1].contains("\"userId\":5,\"invoiceId\":9,"));
+        assertTrue(lines[1].contains("\"expenseType\":\"TRAVEL\""));
+        assertTrue(lines[1].contains("\"endingBalance\":3000.00"));
+    }
+
+    @Test
+    void export_Filters_ShouldBindParametersOnForwardOnlyCursor() throws Exception {
+        // Given
+        Connection connection = connection("H2");
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(statement);
+
+        // When
+        exportService.export(TransactionExportFormat.CSV, 3L, null, DAY, null, new ByteArrayOutputStream());
+
+        // Then
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+        creator.getValue().createPreparedStatement(connection);
+        verify(connection).prepareStatement(eq(TransactionExportService.SELECT_SQL +
+                " WHERE bank_account_id = ? AND transaction_date >= ? ORDER BY transaction_date, date_created, id"),
+                anyInt(), anyInt());
+        verify(statement).setFetchSize(500);
+        verify(statement).setObject(1, 3L);
+        verify(statement).setObject(2, DAY);
+    }
+
+    @Test
+    void export_MySql_ShouldStreamRowByRow() throws Exception {
+        // Given
+        Connection connection = connection("MySQL");
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(statement);
+
+        // When
+        exportService.export(TransactionExportFormat.NDJSON, null, 1L, null, null, new ByteArrayOutputStream());
+
+        // Then
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+        creator.getValue().createPreparedStatement(connection);
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+        verify(statement).setObject(1, 1L);
+    }
+
+    @Test
+    void export_StartAfterEnd_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> exportService.export(TransactionExportFormat.CSV, null, null,
+                DAY, DAY.minusDays(1), new ByteArrayOutputStream()));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void streamRows(int count) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < count; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private void stubRow() throws Exception {
+        when(resultSet.getLong("id")).thenReturn(7L);
+        when(resultSet.getObject("admin_id", Long.class)).thenReturn(1L);
+        when(resultSet.getObject("bank_account_id", Long.class)).thenReturn(2L);
+        when(resultSet.getObject("transaction_date", LocalDate.class)).thenReturn(DAY);
+        when(resultSet.getObject("user_id", Long.class)).thenReturn(5L);
+        when(resultSet.getObject("invoice_id", Long.class)).thenReturn(9L);
+        when(resultSet.getString("transaction_type")).thenReturn("PAYMENT");
+        when(resultSet.getString("expense_type")).thenReturn("TRAVEL");
+        when(resultSet.getBigDecimal("transaction_amount")).thenReturn(new BigDecimal("1250.50"));
+        when(resultSet.getBigDecimal("ending_balance")).thenReturn(new BigDecimal("3000.00"));
+        when(resultSet.getString("reference_number")).thenReturn("REF-1");
+        when(resultSet.getString("notes")).thenReturn("Rent, \"March\"");
+        when(resultSet.getObject("is_reconciled", Boolean.class)).thenReturn(false);
+        when(resultSet.getObject("date_created", LocalDateTime.class)).thenReturn(DAY.atTime(9, 30));
+    }
+
+    private static Connection connection(String databaseProductName) throws Exception {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn(databaseProductName);
+        return connection;
+    }
+}
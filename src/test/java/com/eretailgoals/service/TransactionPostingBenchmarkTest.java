@@ -0,0 +1,144 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BankAccountRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for transaction posting
+ * Compares many threads posting into one hot account with postings spread over 1,000 accounts
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionPostingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPostingBenchmarkTest.class);
+
+    private static final int THREADS = 8;
+    private static final int POSTINGS_PER_THREAD = 500;
+    private static final int ACCOUNTS = 1_000;
+    private static final int WARM_UP_POSTINGS = 1_000;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void postTransaction_HotAccount_ShouldKeepBalanceAndEndingBalancesConsistent() throws Exception {
+        // Given
+        warmUp();
+        BankAccount account = createAccount();
+
+        // When
+        long elapsedNanos = post(thread -> account.getId());
+
+        // Then
+        int postings = THREADS * POSTINGS_PER_THREAD;
+        assertEquals(0, new BigDecimal(postings).compareTo(transactionService.getCurrentBalance(account.getId())));
+        List<Transaction> posted = new ArrayList<>(transactionService.getTransactionsByBankAccount(account.getId()));
+        posted.sort(Comparator.comparing(Transaction::getId));
+        assertEquals(postings, posted.size());
+        for (int i = 0; i < posted.size(); i++) {
+            assertEquals(0, new BigDecimal(i + 1).compareTo(posted.get(i).getEndingBalance()),
+                         "ending balance of posting " + i);
+        }
+        report("One hot account", postings, elapsedNanos);
+    }
+
+    @Test
+    void postTransaction_ThousandAccounts_ShouldKeepEveryBalance() throws Exception {
+        // Given
+        warmUp();
+        List<Long> accountIds = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(createAccount().getId());
+        }
+
+        // When
+        long elapsedNanos = post(thread -> accountIds.get(ThreadLocalRandom.current().nextInt(ACCOUNTS)));
+
+        // Then
+        BigDecimal total = BigDecimal.ZERO;
+        for (Long accountId : accountIds) {
+            total = total.add(transactionService.getCurrentBalance(accountId));
+        }
+        assertEquals(0, new BigDecimal(THREADS * POSTINGS_PER_THREAD).compareTo(total));
+        report(STR."\{ACCOUNTS} accounts", THREADS * POSTINGS_PER_THREAD, elapsedNanos);
+    }
+
+    /**
+     * Post deposits of 1.00 from all threads, choosing the account per posting, and return the elapsed time
+     */
+    private long post(IntFunction<Long> accountChooser) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long started = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        BankAccount account = new BankAccount();
+                        account.setId(accountChooser.apply(thread));
+                        transactionService.postTransaction(new Transaction(LocalDate.now(), BigDecimal.ONE,
+                                Transaction.TransactionType.DEPOSIT, account));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - started;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Post into a scratch account first so the timed runs measure compiled code
+     */
+    private void warmUp() {
+        BankAccount account = createAccount();
+        for (int i = 0; i < WARM_UP_POSTINGS; i++) {
+            transactionService.postTransaction(new Transaction(LocalDate.now(), BigDecimal.ONE,
+                    Transaction.TransactionType.DEPOSIT, account));
+        }
+    }
+
+    private BankAccount createAccount() {
+        String number = UUID.randomUUID().toString().substring(0, 18);
+        return bankAccountRepository.save(new BankAccount("Benchmark " + number, number,
+                                                          BankAccount.AccountType.CURRENT, BigDecimal.ZERO));
+    }
+
+    private static void report(String scenario, int postings, long elapsedNanos) {
+        logger.info("{}: {} postings on {} threads in {} ms ({} postings/s)",
+                    scenario, postings, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    Math.round(postings / (elapsedNanos / 1_000_000_000.0)));
+    }
+}
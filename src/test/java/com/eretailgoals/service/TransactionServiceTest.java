@@ -0,0 +1,181 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransactionService
+ * Tests balance deltas, ending balances and validation of postings
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @Mock
+    private CashFlowRollupService cashFlowRollupService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionService(transactionRepository, bankAccountRepository,
+                                                    balanceCheckpointService, cashFlowRollupService,
+                                                    entityManager, transactionManager, 16);
+    }
+
+    @Test
+    void postTransaction_Deposit_ShouldApplyDeltaAndReadBackEndingBalance() {
+        // Given
+        Transaction deposit = transaction(1L, "250.00", Transaction.TransactionType.DEPOSIT);
+        when(bankAccountRepository.applyBalanceDelta(eq(1L), eq(new BigDecimal("250.00")), any(), anyLong(), any())).thenReturn(1);
+        when(bankAccountRepository.findCurrentBalance(1L)).thenReturn(Optional.of(new BigDecimal("1250.00")));
+        when(entityManager.getReference(BankAccount.class, 1L)).thenReturn(account(1L));
+
+        // When
+        Transaction posted = transactionService.postTransaction(deposit);
+
+        // Then
+        assertEquals(new BigDecimal("1250.00"), posted.getEndingBalance());
+        assertEquals(LocalDate.now(), posted.getTransactionDate());
+        InOrder inOrder = inOrder(bankAccountRepository, balanceCheckpointService, transactionRepository, transactionManager);
+        inOrder.verify(bankAccountRepository).applyBalanceDelta(eq(1L), any(), any(), anyLong(), any());
+        inOrder.verify(balanceCheckpointService).recordPostings(1L, List.of(deposit));
+        inOrder.verify(transactionRepository).save(deposit);
+        inOrder.verify(transactionManager).commit(any());
+        verify(cashFlowRollupService).recordPostings(1L, List.of(deposit));
+    }
+
+    @Test
+    void postTransaction_Payment_ShouldDebitAccount() {
+        // Given
+        Transaction payment = transaction(1L, "40.00", Transaction.TransactionType.PAYMENT);
+        when(bankAccountRepository.applyBalanceDelta(eq(1L), eq(new BigDecimal("-40.00")), any(), anyLong(), any())).thenReturn(1);
+        when(bankAccountRepository.findCurrentBalance(1L)).thenReturn(Optional.of(new BigDecimal("60.00")));
+        when(entityManager.getReference(BankAccount.class, 1L)).thenReturn(account(1L));
+
+        // When
+        Transaction posted = transactionService.postTransaction(payment);
+
+        // Then
+        assertEquals(new BigDecimal("60.00"), posted.getEndingBalance());
+    }
+
+    @Test
+    void postBatch_SeveralPostingsPerAccount_ShouldApplyOneDeltaAndRunningBalances() {
+        // Given
+        Transaction first = transaction(2L, "100.00", Transaction.TransactionType.RECEIVE);
+        first.setTransactionDate(LocalDate.now().minusDays(3));
+        Transaction second = transaction(1L, "10.00", Transaction.TransactionType.FEE);
+        Transaction third = transaction(2L, "30.00", Transaction.TransactionType.WITHDRAWAL);
+        when(bankAccountRepository.applyBalanceDelta(eq(1L), eq(new BigDecimal("-10.00")), any(), anyLong(), any())).thenReturn(1);
+        when(bankAccountRepository.applyBalanceDelta(eq(2L), eq(new BigDecimal("70.00")), any(), anyLong(), any())).thenReturn(1);
+        when(bankAccountRepository.findCurrentBalance(1L)).thenReturn(Optional.of(new BigDecimal("490.00")));
+        when(bankAccountRepository.findCurrentBalance(2L)).thenReturn(Optional.of(new BigDecimal("570.00")));
+        when(entityManager.getReference(eq(BankAccount.class), anyLong()))
+                .thenAnswer(invocation -> account(invocation.getArgument(1)));
+
+        // When
+        List<Transaction> posted = transactionService.postBatch(List.of(first, second, third));
+
+        // Then
+        assertEquals(new BigDecimal("600.00"), posted.get(0).getEndingBalance());
+        assertEquals(new BigDecimal("490.00"), posted.get(1).getEndingBalance());
+        assertEquals(new BigDecimal("570.00"), posted.get(2).getEndingBalance());
+        InOrder inOrder = inOrder(bankAccountRepository);
+        inOrder.verify(bankAccountRepository).applyBalanceDelta(eq(1L), any(), eq(LocalDate.now()), eq(1L), any());
+        inOrder.verify(bankAccountRepository).applyBalanceDelta(eq(2L), any(), eq(LocalDate.now()), eq(2L), any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void postTransaction_UnknownAccount_ShouldThrowAndRollBack() {
+        // Given
+        Transaction deposit = transaction(9L, "5.00", Transaction.TransactionType.DEPOSIT);
+        when(bankAccountRepository.applyBalanceDelta(eq(9L), any(), any(), anyLong(), any())).thenReturn(0);
+        when(bankAccountRepository.existsById(9L)).thenReturn(false);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.postTransaction(deposit));
+        assertEquals("Bank account not found with id: 9", exception.getMessage());
+        verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(balanceCheckpointService, cashFlowRollupService);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void postTransaction_InactiveAccount_ShouldThrowIllegalState() {
+        // Given
+        Transaction deposit = transaction(3L, "5.00", Transaction.TransactionType.DEPOSIT);
+        when(bankAccountRepository.applyBalanceDelta(eq(3L), any(), any(), anyLong(), any())).thenReturn(0);
+        when(bankAccountRepository.existsById(3L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> transactionService.postTransaction(deposit));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void postTransaction_NonPositiveAmount_ShouldThrowException() {
+        // Given
+        Transaction zero = transaction(1L, "0.00", Transaction.TransactionType.DEPOSIT);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> transactionService.postTransaction(zero));
+        verifyNoInteractions(bankAccountRepository, transactionManager);
+    }
+
+    @Test
+    void postTransaction_WithoutBankAccount_ShouldThrowException() {
+        // Given
+        Transaction orphan = new Transaction(LocalDate.now(), BigDecimal.TEN, Transaction.TransactionType.DEPOSIT, null);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.postTransaction(orphan));
+        assertEquals("Bank account is required", exception.getMessage());
+    }
+
+    private static Transaction transaction(Long accountId, String amount, Transaction.TransactionType type) {
+        return new Transaction(null, new BigDecimal(amount), type, account(accountId));
+    }
+
+    private static BankAccount account(Long id) {
+        BankAccount account = new BankAccount();
+        account.setId(id);
+        return account;
+    }
+}
@@ -0,0 +1,131 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.TransferRequest;
+import com.eretailgoals.dto.TransferView;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.repository.BankAccountRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for bulk transfers
+ * Sweeps funds around a ring of 10,000 accounts, then runs sweeps in opposite directions on several threads
+ * at once to show that the ordered locking cannot deadlock
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferBenchmarkTest.class);
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int THREADS = 4;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void transfer_SweepAcrossTenThousandAccounts_ShouldPostEveryLegAndKeepBalances() {
+        // Given
+        List<Long> accountIds = createAccounts();
+        transferService.transfer(ring(accountIds.subList(0, 100), 1));
+
+        // When
+        long started = System.nanoTime();
+        List<TransferView> transfers = transferService.transfer(ring(accountIds, 1));
+        long elapsedNanos = System.nanoTime() - started;
+
+        // Then
+        assertEquals(ACCOUNTS, transfers.size());
+        assertTrue(transfers.stream().allMatch(transfer -> transfer.debitTransactionId() != null
+                                                            && transfer.creditTransactionId() != null));
+        assertBalancesUnchanged(accountIds);
+        report("One sweep", ACCOUNTS, elapsedNanos);
+    }
+
+    @Test
+    void transfer_ConcurrentOpposingSweeps_ShouldNotDeadlock() throws Exception {
+        // Given
+        List<Long> accountIds = createAccounts();
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int direction = t % 2 == 0 ? 1 : -1;
+                futures.add(executor.submit(() -> transferService.transfer(ring(accountIds, direction))));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        // Then
+        assertBalancesUnchanged(accountIds);
+        report(STR."\{THREADS} opposing sweeps", THREADS * ACCOUNTS, elapsedNanos);
+    }
+
+    /**
+     * Move 1.00 from every account to its neighbour, so each account ends where it started
+     */
+    private static List<TransferRequest> ring(List<Long> accountIds, int direction) {
+        List<TransferRequest> transfers = new ArrayList<>(accountIds.size());
+        for (int i = 0; i < accountIds.size(); i++) {
+            Long to = accountIds.get(Math.floorMod(i + direction, accountIds.size()));
+            transfers.add(new TransferRequest(accountIds.get(i), to, BigDecimal.ONE, LocalDate.now(), null, "Benchmark sweep"));
+        }
+        return transfers;
+    }
+
+    private List<Long> createAccounts() {
+        List<BankAccount> accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String number = UUID.randomUUID().toString().substring(0, 18);
+            accounts.add(new BankAccount("Benchmark " + number, number, BankAccount.AccountType.CURRENT, OPENING_BALANCE));
+        }
+        return bankAccountRepository.saveAll(accounts).stream().map(BankAccount::getId).toList();
+    }
+
+    private void assertBalancesUnchanged(List<Long> accountIds) {
+        for (Long accountId : accountIds) {
+            assertEquals(0, OPENING_BALANCE.compareTo(transactionService.getCurrentBalance(accountId)),
+                         "balance of account " + accountId);
+        }
+    }
+
+    private static void report(String scenario, int transfers, long elapsedNanos) {
+        logger.info("{}: {} transfers over {} accounts in {} ms ({} transfers/s)",
+                    scenario, transfers, ACCOUNTS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    Math.round(transfers / (elapsedNanos / 1_000_000_000.0)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.TransferRequest;
+import com.eretailgoals.dto.TransferView;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for transfers interleaved with single postings against the migrated schema
+ * Both paths must take transaction IDs from the same generator, or one of them eventually reuses an ID
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferPostingIntegrationTest {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("500.00");
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void transfer_InterleavedWithPostings_ShouldNeverReuseTransactionIds() {
+        // Given
+        Long from = createAccount();
+        Long to = createAccount();
+        Set<Long> ids = new HashSet<>();
+
+        // When
+        for (int round = 0; round < 3; round++) {
+            ids.add(transactionService.postTransaction(deposit(from, "10.00")).getId());
+            List<TransferView> transfers = transferService.transfer(List.of(
+                    new TransferRequest(from, to, new BigDecimal("5.00"), LocalDate.now(), null, null),
+                    new TransferRequest(to, from, new BigDecimal("2.00"), LocalDate.now(), null, null)));
+            for (TransferView transfer : transfers) {
+                ids.add(transfer.debitTransactionId());
+                ids.add(transfer.creditTransactionId());
+            }
+            ids.add(transactionService.postTransaction(deposit(to, "1.00")).getId());
+        }
+
+        // Then
+        assertEquals(18, ids.size());
+        assertEquals(18, transactionRepository.findAllById(ids).size());
+        assertEquals(0, new BigDecimal("521.00").compareTo(transactionService.getCurrentBalance(from)));
+        assertEquals(0, new BigDecimal("512.00").compareTo(transactionService.getCurrentBalance(to)));
+    }
+
+    private Long createAccount() {
+        String number = UUID.randomUUID().toString().substring(0, 18);
+        return bankAccountRepository.save(new BankAccount("Transfer " + number, number,
+                BankAccount.AccountType.CURRENT, OPENING_BALANCE)).getId();
+    }
+
+    private static Transaction deposit(Long accountId, String amount) {
+        BankAccount account = new BankAccount();
+        account.setId(accountId);
+        return new Transaction(LocalDate.now(), new BigDecimal(amount), Transaction.TransactionType.DEPOSIT, account);
+    }
+}
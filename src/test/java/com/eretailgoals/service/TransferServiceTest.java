@@ -0,0 +1,195 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.TransferRequest;
+import com.eretailgoals.dto.TransferView;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BankAccountRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransferService
+ * Tests the ordered balance updates, the matched legs and their ending balances, and rejected transfers
+ */
+@ExtendWith(MockitoExtension.class)
+class TransferServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 3);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @Mock
+    private CashFlowRollupService cashFlowRollupService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransferService transferService;
+
+    @BeforeEach
+    void setUp() {
+        transferService = new TransferService(jdbcTemplate, bankAccountRepository, balanceCheckpointService,
+                                              cashFlowRollupService, entityManager, transactionManager, 100, 2);
+    }
+
+    @Test
+    void transfer_ShouldApplyNetDeltasInAccountIdOrderAndPostMatchedLegs() throws Exception {
+        // Given
+        List<TransferRequest> requests = List.of(
+                new TransferRequest(3L, 1L, new BigDecimal("40.00"), DAY, "SWEEP-1", null),
+                new TransferRequest(2L, 1L, new BigDecimal("10.00"), DAY, "SWEEP-2", null));
+        when(jdbcTemplate.batchUpdate(eq(TransferService.APPLY_DELTA_SQL), anyList()))
+                .thenReturn(new int[] {1, 1}, new int[] {1});
+        stubAccounts(Map.of(1L, "150.00", 2L, "90.00", 3L, "60.00"));
+        stubGeneratedIds();
+
+        // When
+        List<TransferView> transfers = transferService.transfer(requests);
+
+        // Then
+        ArgumentCaptor<List<Object[]>> deltas = ArgumentCaptor.captor();
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(TransferService.APPLY_DELTA_SQL), deltas.capture());
+        List<Object[]> first = deltas.getAllValues().get(0);
+        assertArrayEquals(new Object[] {new BigDecimal("50.00"), Date.valueOf(DAY), Date.valueOf(DAY), 2},
+                          Arrays.copyOf(first.get(0), 4));
+        assertEquals(1L, first.get(0)[5]);
+        assertEquals(new BigDecimal("-10.00"), first.get(1)[0]);
+        assertEquals(2L, first.get(1)[5]);
+        assertEquals(3L, deltas.getAllValues().get(1).get(0)[5]);
+
+        assertEquals(new TransferView("SWEEP-1", 3L, 1L, new BigDecimal("40.00"), DAY, 101L, 102L,
+                                      new BigDecimal("60.00"), new BigDecimal("140.00")), transfers.get(0));
+        assertEquals(new TransferView("SWEEP-2", 2L, 1L, new BigDecimal("10.00"), DAY, 103L, 104L,
+                                      new BigDecimal("90.00"), new BigDecimal("150.00")), transfers.get(1));
+
+        InOrder inOrder = inOrder(balanceCheckpointService, cashFlowRollupService, entityManager);
+        inOrder.verify(balanceCheckpointService).recordPostings(anyMap());
+        inOrder.verify(cashFlowRollupService).recordPostings(anyMap());
+        inOrder.verify(entityManager, atLeastOnce()).persist(any(Transaction.class));
+        verify(entityManager, times(4)).persist(any(Transaction.class));
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    void transfer_InactiveAccount_ShouldThrowException() {
+        // Given
+        List<TransferRequest> requests = List.of(new TransferRequest(1L, 2L, BigDecimal.TEN, DAY, null, null));
+        when(jdbcTemplate.batchUpdate(eq(TransferService.APPLY_DELTA_SQL), anyList())).thenReturn(new int[] {1, 0});
+        when(bankAccountRepository.existsById(2L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> transferService.transfer(requests));
+        verifyNoInteractions(balanceCheckpointService, cashFlowRollupService);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void transfer_AcrossTenants_ShouldThrowException() throws Exception {
+        // Given
+        List<TransferRequest> requests = List.of(new TransferRequest(1L, 2L, BigDecimal.TEN, DAY, null, null));
+        when(jdbcTemplate.batchUpdate(eq(TransferService.APPLY_DELTA_SQL), anyList())).thenReturn(new int[] {1, 1});
+        ResultSet rows = mock(ResultSet.class);
+        when(rows.getLong("id")).thenReturn(1L, 2L);
+        when(rows.getObject("admin_id", Long.class)).thenReturn(7L, 8L);
+        when(rows.getBigDecimal("current_balance")).thenReturn(BigDecimal.ZERO);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(rows);
+            handler.processRow(rows);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> transferService.transfer(requests));
+        verifyNoInteractions(balanceCheckpointService, cashFlowRollupService);
+    }
+
+    @Test
+    void transfer_SameAccount_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> transferService.transfer(
+                List.of(new TransferRequest(4L, 4L, BigDecimal.ONE, DAY, null, null))));
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void transfer_TooManyTransfers_ShouldThrowException() {
+        // Given
+        TransferRequest request = new TransferRequest(1L, 2L, BigDecimal.ONE, DAY, null, null);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                     () -> transferService.transfer(Collections.nCopies(101, request)));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    /**
+     * Answer the balance read-back with one row per account, all in tenant 7
+     */
+    private void stubAccounts(Map<Long, String> balances) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            String sql = invocation.getArgument(0);
+            for (Map.Entry<Long, String> account : balances.entrySet()) {
+                if (sql.contains("(?, ?)") == (account.getKey() != 3L)) {
+                    ResultSet row = mock(ResultSet.class);
+                    when(row.getLong("id")).thenReturn(account.getKey());
+                    when(row.getObject("admin_id", Long.class)).thenReturn(7L);
+                    when(row.getBigDecimal("current_balance")).thenReturn(new BigDecimal(account.getValue()));
+                    handler.processRow(row);
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Hand out IDs from 101 upwards to the persisted legs, in persist order
+     */
+    private void stubGeneratedIds() {
+        long[] nextId = {101};
+        when(entityManager.getReference(eq(BankAccount.class), anyLong())).thenAnswer(invocation -> {
+            BankAccount account = new BankAccount();
+            account.setId(invocation.getArgument(1));
+            return account;
+        });
+        doAnswer(invocation -> {
+            invocation.<Transaction>getArgument(0).setId(nextId[0]++);
+            return null;
+        }).when(entityManager).persist(any(Transaction.class));
+    }
+}
@@ -0,0 +1,84 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.BatchResult;
+import com.eretailgoals.entity.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for POST /users/batch
+ * Imports a tenant's worth of users with and without passwords and reports users per second
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class UserBatchBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchBenchmarkTest.class);
+
+    private static final int USERS = 10_000;
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Test
+    void createUsers_TenThousandWithoutPasswords_ShouldFinishUnderThirtySeconds() {
+        // Given
+        List<User> users = users(false);
+
+        // When
+        long elapsedNanos = importAll("Clients without passwords", users);
+
+        // Then
+        assertTrue(elapsedNanos < TimeUnit.SECONDS.toNanos(30), STR."import took \{elapsedNanos} ns");
+    }
+
+    @Test
+    void createUsers_TenThousandWithPasswords_ShouldCreateEveryUser() {
+        // Given
+        // Every password costs one BCrypt hash, so this run is bound by the hashing pool size
+        List<User> users = users(true);
+
+        // When & Then
+        importAll("Users with passwords", users);
+    }
+
+    private long importAll(String scenario, List<User> users) {
+        long started = System.nanoTime();
+        BatchResult result = userBatchService.createUsers(users);
+        long elapsedNanos = System.nanoTime() - started;
+
+        assertEquals(users.size(), result.succeeded());
+        logger.info("{}: {} users in {} ms ({} users/s)", scenario, users.size(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(users.size() / (elapsedNanos / 1_000_000_000.0)));
+        return elapsedNanos;
+    }
+
+    private static List<User> users(boolean withPasswords) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("Bulk", "User " + i, STR."bulk-\{run}-\{i}@example.com",
+                                 i % 2 == 0 ? User.UserType.CLIENT : User.UserType.SUPPLIER);
+            user.setUsername(STR."bulk-\{run}-\{i}");
+            user.setCompanyName("Company " + i);
+            if (withPasswords) {
+                user.setPassword("password-" + i);
+            }
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,186 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.BatchResult;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserBatchService
+ * Tests the single uniqueness lookup, per-record validation, chunked JDBC inserts and the row-by-row fallback
+ */
+@ExtendWith(MockitoExtension.class)
+class UserBatchServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private InvoiceSearchIndex invoiceSearchIndex;
+
+    @Mock
+    private UserSuggestIndex userSuggestIndex;
+
+    private final AtomicLong ids = new AtomicLong(100);
+
+    private UserBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new UserBatchService(userRepository, passwordHashingService, jdbcTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManager, invoiceSearchIndex,
+                userSuggestIndex, 10, 2);
+    }
+
+    @Test
+    void createUsers_ShouldHashPasswordsAndInsertInChunks() {
+        // Given
+        stubHashing();
+        stubInserts(0);
+        when(userRepository.findTakenEmailsAndUsernames(anyCollection(), anyCollection())).thenReturn(List.of());
+        User withPassword = user("a@example.com", "alice");
+        withPassword.setPassword("password123");
+        List<User> users = List.of(withPassword, user("b@example.com", null), user("c@example.com", "carol"));
+
+        // When
+        BatchResult result = batchService.createUsers(users);
+
+        // Then
+        assertEquals(3, result.succeeded());
+        assertEquals(List.of(100L, 101L, 102L), result.items().stream().map(BatchResult.Item::id).toList());
+        assertEquals("a@example.com", result.items().get(0).reference());
+        assertEquals("hashed:password123", withPassword.getPassword());
+        verify(userRepository, times(1)).findTakenEmailsAndUsernames(anyCollection(), anyCollection());
+        verify(jdbcTemplate, times(2)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+    }
+
+    @Test
+    void createUsers_TakenDuplicateAndInvalid_ShouldFailOnlyThoseRecords() {
+        // Given
+        stubHashing();
+        stubInserts(0);
+        List<Object[]> taken = new ArrayList<>();
+        taken.add(new Object[] {"taken@example.com", null});
+        taken.add(new Object[] {"other@example.com", "bob"});
+        when(userRepository.findTakenEmailsAndUsernames(anyCollection(), anyCollection())).thenReturn(taken);
+        User invalid = user("d@example.com", null);
+        invalid.setLastName(" ");
+        List<User> users = new ArrayList<>(List.of(user("taken@example.com", null), user("b@example.com", "bob"),
+                user("c@example.com", "carol"), user("c2@example.com", "carol"), invalid, user("c@example.com", null)));
+        users.add(null);
+
+        // When
+        BatchResult result = batchService.createUsers(users);
+
+        // Then
+        assertEquals(1, result.succeeded());
+        assertEquals("Email already exists: taken@example.com", result.items().get(0).error());
+        assertEquals("Username already exists: bob", result.items().get(1).error());
+        assertEquals(BatchResult.Status.CREATED, result.items().get(2).status());
+        assertEquals("Duplicate username in batch: carol", result.items().get(3).error());
+        assertTrue(result.items().get(4).error().startsWith("lastName"));
+        assertEquals("Duplicate email in batch: c@example.com", result.items().get(5).error());
+        assertEquals("User is required", result.items().get(6).error());
+    }
+
+    @Test
+    void createUsers_ChunkFails_ShouldRetryRowByRow() {
+        // Given
+        stubHashing();
+        stubInserts(1);
+        when(userRepository.findTakenEmailsAndUsernames(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        // When
+        BatchResult result = batchService.createUsers(List.of(user("a@example.com", "alice"),
+                                                              user("b@example.com", "bob")));
+
+        // Then
+        assertEquals(2, result.total());
+        assertEquals(1, result.succeeded());
+        assertEquals(BatchResult.Status.FAILED, result.items().get(0).status());
+        assertNull(result.items().get(0).id());
+        assertEquals(BatchResult.Status.CREATED, result.items().get(1).status());
+        verify(userSuggestIndex, times(1)).index(any(User.class));
+        verify(invoiceSearchIndex).indexUser(eq(result.items().get(1).id()), any(), any(), any());
+    }
+
+    @Test
+    void createUsers_OversizedBatch_ShouldThrowException() {
+        // Given
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            users.add(user(i + "@example.com", null));
+        }
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> batchService.createUsers(users));
+        verifyNoInteractions(userRepository, jdbcTemplate);
+    }
+
+    private void stubHashing() {
+        when(passwordHashingService.encodeAll(anyList())).thenAnswer(invocation -> {
+            List<String> passwords = invocation.getArgument(0);
+            return passwords.stream()
+                    .map(password -> CompletableFuture.completedFuture(password == null ? null : "hashed:" + password))
+                    .toList();
+        });
+    }
+
+    /**
+     * Answer batch inserts with generated keys, failing the first failingCalls batches and then every
+     * single-row retry of the first record
+     */
+    private void stubInserts(int failingCalls) {
+        AtomicLong calls = new AtomicLong();
+        doAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            KeyHolder keys = invocation.getArgument(2);
+            long call = calls.getAndIncrement();
+            if (call < failingCalls || (failingCalls > 0 && call == failingCalls)) {
+                throw new DuplicateKeyException("uk_users_email");
+            }
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                keys.getKeyList().add(Map.<String, Object>of("id", ids.getAndIncrement()));
+            }
+            return new int[setter.getBatchSize()];
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+    }
+
+    private static User user(String email, String username) {
+        User user = new User("Bulk", "User", email, User.UserType.CLIENT);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -1,19 +1,20 @@
 package com.eretailgoals.service;
 
+import com.eretailgoals.dto.UserSuggestion;
 import com.eretailgoals.entity.User;
 import com.eretailgoals.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -33,9 +34,11 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private UserSuggestIndex userSuggestIndex;
 
-    @InjectMocks
     private UserService userService;
 
     private User testUser;
@@ -44,6 +47,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        UserLookupCache userLookupCache = new UserLookupCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        userService = new UserService(userRepository, passwordHashingService, userLookupCache, userSuggestIndex);
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setFirstName("John");
@@ -76,7 +82,7 @@ class UserServiceTest {
         newUser.setPassword("password123");
         
         when(userRepository.existsByEmail(newUser.getEmail())).thenReturn(false);
-        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(newUser);
 
         // When
@@ -88,7 +94,7 @@ class UserServiceTest {
         assertEquals("alice.brown@example.com", createdUser.getEmail());
         assertTrue(createdUser.getIsActive());
         verify(userRepository).existsByEmail("alice.brown@example.com");
-        verify(passwordEncoder).encode("password123");
+        verify(passwordHashingService).encode("password123");
         verify(userRepository).save(newUser);
     }
 
@@ -298,7 +304,7 @@ class UserServiceTest {
         String encodedPassword = "encodedNewPassword";
         
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.encode(newPassword)).thenReturn(encodedPassword);
+        when(passwordHashingService.encode(newPassword)).thenReturn(encodedPassword);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // When
@@ -306,7 +312,7 @@ class UserServiceTest {
 
         // Then
         verify(userRepository).findById(1L);
-        verify(passwordEncoder).encode(newPassword);
+        verify(passwordHashingService).encode(newPassword);
         verify(userRepository).save(testUser);
     }
 
@@ -318,7 +324,7 @@ class UserServiceTest {
         testUser.setPassword(encodedPassword);
         
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(password, encodedPassword)).thenReturn(true);
+        when(passwordHashingService.matches(password, encodedPassword)).thenReturn(true);
 
         // When
         boolean result = userService.verifyPassword(1L, password);
@@ -326,7 +332,7 @@ class UserServiceTest {
         // Then
         assertTrue(result);
         verify(userRepository).findById(1L);
-        verify(passwordEncoder).matches(password, encodedPassword);
+        verify(passwordHashingService).matches(password, encodedPassword);
     }
 
     @Test
@@ -337,7 +343,7 @@ class UserServiceTest {
         testUser.setPassword(encodedPassword);
         
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(password, encodedPassword)).thenReturn(false);
+        when(passwordHashingService.matches(password, encodedPassword)).thenReturn(false);
 
         // When
         boolean result = userService.verifyPassword(1L, password);
@@ -345,7 +351,7 @@ class UserServiceTest {
         // Then
         assertFalse(result);
         verify(userRepository).findById(1L);
-        verify(passwordEncoder).matches(password, encodedPassword);
+        verify(passwordHashingService).matches(password, encodedPassword);
     }
 
     @Test
@@ -387,4 +393,98 @@ class UserServiceTest {
         assertFalse(result.isPresent());
         verify(userRepository).findByEmail("nonexistent@example.com");
     }
+
+    @Test
+    void getUserById_RepeatedLookup_ShouldQueryRepositoryOnce() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // When
+        userService.getUserById(1L);
+        User cached = userService.getUserById(1L);
+
+        // Then
+        assertSame(testUser, cached);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void updateUser_EmailChanged_ShouldEvictCachedLookups() {
+        // Given
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.getUserByEmail("john.doe@example.com");
+        userService.getUserById(1L);
+
+        User updateData = new User();
+        updateData.setFirstName("John");
+        updateData.setLastName("Doe");
+        updateData.setEmail("john.d@example.com");
+        updateData.setUserType(User.UserType.CLIENT);
+
+        // When
+        userService.updateUser(1L, updateData);
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.empty());
+
+        // Then
+        assertTrue(userService.getUserByEmail("john.doe@example.com").isEmpty());
+        userService.getUserById(1L);
+        verify(userRepository, times(2)).findByEmail("john.doe@example.com");
+        // One cached read, the load for the update and one reload after eviction
+        verify(userRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void getUserByEmail_Unknown_ShouldNotCacheMiss() {
+        // Given
+        when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(testClient));
+
+        // When
+        Optional<User> before = userService.getUserByEmail("new@example.com");
+        Optional<User> after = userService.getUserByEmail("new@example.com");
+
+        // Then
+        assertTrue(before.isEmpty());
+        assertEquals(2L, after.orElseThrow().getId());
+    }
+
+    @Test
+    void suggestUsers_IndexReady_ShouldNotQueryRepository() {
+        // Given
+        UserSuggestion suggestion = UserSuggestion.of(testClient);
+        when(userSuggestIndex.suggest(null, null, "sm", 10)).thenReturn(Optional.of(List.of(suggestion)));
+
+        // When
+        List<UserSuggestion> result = userService.suggestUsers(null, null, "sm", 10);
+
+        // Then
+        assertEquals(List.of(suggestion), result);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void suggestUsers_IndexNotBuilt_ShouldFallBackToTenantSearch() {
+        // Given
+        testClient.setAdminId(7L);
+        testSupplier.setAdminId(8L);
+        when(userSuggestIndex.suggest(7L, null, " sm ", UserSuggestIndex.MAX_LIMIT)).thenReturn(Optional.empty());
+        when(userRepository.searchUsers(null, 7L, true, "sm", PageRequest.of(0, UserSuggestIndex.MAX_LIMIT)))
+                .thenReturn(new PageImpl<>(List.of(testClient, testSupplier)));
+
+        // When
+        List<UserSuggestion> result = userService.suggestUsers(7L, null, " sm ", 500);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).id());
+    }
+
+    @Test
+    void suggestUsers_BlankQuery_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> userService.suggestUsers(null, null, " ", 10));
+        verifyNoInteractions(userSuggestIndex);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Autocomplete latency of the user suggest index with half a million users in one tenant
+ * Reports the indexing time and suggest p50/p99 over random one- to four-letter prefixes
+ */
+@Tag("benchmark")
+class UserSuggestIndexBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSuggestIndexBenchmarkTest.class);
+
+    private static final int USERS = 500_000;
+    private static final int QUERIES = 20_000;
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica"};
+    private static final String[] COMPANY_WORDS = {"Acme", "Global", "Northern", "Digital", "Supply", "Retail",
+            "Logistics", "Consulting", "Systems", "Partners", "Trading", "Holdings"};
+
+    @Test
+    void suggest_HalfMillionUsers_ShouldAnswerUnderTwoMillisAtP99() {
+        // Given
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findSuggestionsAfter(anyLong(), any())).thenReturn(List.of());
+        when(userRepository.findExistingIds(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+        UserSuggestIndex suggestIndex = new UserSuggestIndex(userRepository, Duration.ofSeconds(30));
+        suggestIndex.build();
+
+        Random random = new Random(42);
+        long started = System.nanoTime();
+        for (long id = 1; id <= USERS; id++) {
+            suggestIndex.index(user(id, random));
+        }
+        logger.info("Indexed {} users in {} ms", USERS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = word(random).substring(0, 1 + random.nextInt(4)).toLowerCase();
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            suggestIndex.suggest(7L, null, queries[i], 10);
+        }
+
+        // When
+        long[] nanos = new long[QUERIES];
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            found += suggestIndex.suggest(7L, random.nextInt(4) == 0 ? User.UserType.SUPPLIER : null,
+                                          queries[i], 10).orElseThrow().size();
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        // Then
+        Arrays.sort(nanos);
+        double p50 = nanos[QUERIES / 2] / 1_000_000.0;
+        double p99 = nanos[QUERIES * 99 / 100] / 1_000_000.0;
+        logger.info("Suggest p50 {} ms, p99 {} ms ({} suggestions total)",
+                    String.format("%.3f", p50), String.format("%.3f", p99), found);
+        assertTrue(found > 0);
+        assertTrue(p99 < 2, "p99 suggest latency should stay under 2 ms");
+    }
+
+    private static User user(long id, Random random) {
+        User user = new User();
+        user.setId(id);
+        user.setAdminId(7L);
+        user.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        user.setLastName(word(random));
+        user.setCompanyName(COMPANY_WORDS[random.nextInt(COMPANY_WORDS.length)] + " "
+                            + COMPANY_WORDS[random.nextInt(COMPANY_WORDS.length)]);
+        user.setEmail(user.getFirstName().toLowerCase() + "." + id + "@example.com");
+        user.setUserType(id % 5 == 0 ? User.UserType.SUPPLIER : User.UserType.CLIENT);
+        user.setIsActive(true);
+        return user;
+    }
+
+    /**
+     * Random pronounceable surname, so prefixes fan out over many distinct words
+     */
+    private static String word(Random random) {
+        String consonants = "bcdfghklmnprstvw";
+        String vowels = "aeiou";
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            word.append(consonants.charAt(random.nextInt(consonants.length())));
+            word.append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,218 @@
+package com.eretailgoals.service;
+
+import com.eretailgoals.dto.UserSuggestion;
+import com.eretailgoals.entity.User;
+import com.eretailgoals.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserSuggestIndex
+ * Tests prefix matching, tenant isolation, updates and removals, building from the database and
+ * refreshing from it
+ */
+@ExtendWith(MockitoExtension.class)
+class UserSuggestIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        suggestIndex = new UserSuggestIndex(userRepository, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void suggest_BeforeBuild_ShouldBeEmpty() {
+        // Given
+        suggestIndex.index(user(1L, 7L, "Jane", "Smith", "Acme Ltd", "jane@acme.com"));
+
+        // When & Then
+        assertFalse(suggestIndex.isReady());
+        assertTrue(suggestIndex.suggest(7L, null, "smi", 10).isEmpty());
+    }
+
+    @Test
+    void build_ShouldLoadActiveUsersPageByPage() {
+        // Given
+        when(userRepository.findSuggestionsAfter(eq(0L), any())).thenReturn(List.<Object[]>of(
+                new Object[]{3L, 7L, User.UserType.CLIENT, "Jane", "Smith", "Acme Ltd", "jane@acme.com", null}));
+        when(userRepository.findSuggestionsAfter(eq(3L), any())).thenReturn(List.of());
+        allUsersExist();
+
+        // When
+        suggestIndex.build();
+
+        // Then
+        assertTrue(suggestIndex.isReady());
+        assertEquals(List.of(3L), ids(suggestIndex.suggest(7L, null, "acm", 10).orElseThrow()));
+    }
+
+    @Test
+    void build_RowOlderThanUpdateDuringBuild_ShouldKeepUpdate() {
+        // Given
+        LocalDateTime read = LocalDateTime.now().minusMinutes(1);
+        User renamed = user(3L, 7L, "Jane", "Brown", null, "jane@acme.com");
+        renamed.setLastModified(read.plusSeconds(1));
+        suggestIndex.index(renamed);
+        when(userRepository.findSuggestionsAfter(eq(0L), any())).thenReturn(List.<Object[]>of(
+                new Object[]{3L, 7L, User.UserType.CLIENT, "Jane", "Smith", null, "jane@acme.com", read}));
+        when(userRepository.findSuggestionsAfter(eq(3L), any())).thenReturn(List.of());
+        allUsersExist();
+
+        // When
+        suggestIndex.build();
+
+        // Then
+        assertTrue(suggestIndex.suggest(7L, null, "smith", 10).orElseThrow().isEmpty());
+        assertEquals(List.of(3L), ids(suggestIndex.suggest(7L, null, "brown", 10).orElseThrow()));
+    }
+
+    @Test
+    void suggest_UsersWrittenElsewhere_ShouldBeRefreshedBeforeQuery() {
+        // Given
+        buildEmpty();
+        LocalDateTime now = LocalDateTime.now();
+        User deactivated = user(1L, 7L, "Jane", "Smith", null, "jane@acme.com");
+        deactivated.setLastModified(now.minusMinutes(1));
+        suggestIndex.index(deactivated);
+        when(userRepository.findSuggestionsModifiedSince(any())).thenReturn(List.of(
+                new Object[]{1L, 7L, User.UserType.CLIENT, "Jane", "Smith", null, "jane@acme.com", now, false},
+                new Object[]{2L, 7L, User.UserType.CLIENT, "Sam", "Smith", null, "sam@acme.com", now, true}));
+
+        // When
+        List<UserSuggestion> suggestions = suggestIndex.suggest(7L, null, "smith", 10).orElseThrow();
+
+        // Then
+        assertEquals(List.of(2L), ids(suggestions));
+    }
+
+    @Test
+    void suggest_UserDeletedElsewhere_ShouldBeDropped() {
+        // Given
+        when(userRepository.findSuggestionsAfter(anyLong(), any())).thenReturn(List.of());
+        suggestIndex.build();
+        suggestIndex.index(user(1L, 7L, "Jane", "Smith", null, "jane@acme.com"));
+        suggestIndex.index(user(2L, 7L, "Sam", "Smith", null, "sam@acme.com"));
+        when(userRepository.findExistingIds(any())).thenReturn(List.of(2L));
+
+        // When
+        List<UserSuggestion> first = suggestIndex.suggest(7L, null, "smith", 10).orElseThrow();
+        List<UserSuggestion> second = suggestIndex.suggest(7L, null, "jane", 10).orElseThrow();
+
+        // Then
+        assertEquals(List.of(2L), ids(first));
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldMatchPrefixesOfNamesCompanyAndEmail() {
+        // Given
+        buildEmpty();
+        suggestIndex.index(user(1L, 7L, "Jane", "Smith-Jones", "Acme Ltd", "jane.s@acme.com"));
+        suggestIndex.index(user(2L, 7L, "John", "Doe", "Globex", "jd@globex.com"));
+
+        // When & Then
+        assertEquals(List.of(1L), ids(suggestIndex.suggest(7L, null, "jon", 10).orElseThrow()));
+        assertEquals(List.of(1L), ids(suggestIndex.suggest(7L, null, "ACM", 10).orElseThrow()));
+        assertEquals(List.of(2L), ids(suggestIndex.suggest(7L, null, "jd@glo", 10).orElseThrow()));
+        assertEquals(List.of(1L, 2L), ids(suggestIndex.suggest(7L, null, "j", 10).orElseThrow()));
+        assertEquals(List.of(2L), ids(suggestIndex.suggest(7L, null, "j doe", 10).orElseThrow()));
+        assertTrue(suggestIndex.suggest(7L, null, "com", 10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldOnlyReturnUsersOfTenantAndType() {
+        // Given
+        buildEmpty();
+        suggestIndex.index(user(1L, 7L, "Jane", "Smith", null, "jane@acme.com"));
+        suggestIndex.index(user(2L, 8L, "Jane", "Smithers", null, "jane@globex.com"));
+        User supplier = user(3L, 7L, "Sam", "Smith", null, "sam@acme.com");
+        supplier.setUserType(User.UserType.SUPPLIER);
+        suggestIndex.index(supplier);
+
+        // When & Then
+        assertEquals(List.of(1L, 3L), ids(suggestIndex.suggest(7L, null, "smith", 10).orElseThrow()));
+        assertEquals(List.of(3L), ids(suggestIndex.suggest(7L, User.UserType.SUPPLIER, "smith", 10).orElseThrow()));
+        assertEquals(List.of(2L), ids(suggestIndex.suggest(8L, null, "smith", 10).orElseThrow()));
+        assertTrue(suggestIndex.suggest(null, null, "smith", 10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void index_UpdatedOrDeactivatedUser_ShouldReplaceOrRemoveWords() {
+        // Given
+        buildEmpty();
+        User user = user(1L, 7L, "Jane", "Smith", null, "jane@acme.com");
+        suggestIndex.index(user);
+
+        // When
+        user.setLastName("Brown");
+        user.setAdminId(8L);
+        suggestIndex.index(user);
+
+        // Then
+        assertTrue(suggestIndex.suggest(7L, null, "jane", 10).orElseThrow().isEmpty());
+        assertTrue(suggestIndex.suggest(8L, null, "smith", 10).orElseThrow().isEmpty());
+        assertEquals(List.of(1L), ids(suggestIndex.suggest(8L, null, "bro", 10).orElseThrow()));
+
+        // When
+        user.setIsActive(false);
+        suggestIndex.index(user);
+
+        // Then
+        assertTrue(suggestIndex.suggest(8L, null, "bro", 10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldStopAtLimit() {
+        // Given
+        buildEmpty();
+        for (long id = 1; id <= 5; id++) {
+            suggestIndex.index(user(id, 7L, "Jane", "Smith", null, "jane" + id + "@acme.com"));
+        }
+
+        // When & Then
+        assertEquals(List.of(1L, 2L, 3L), ids(suggestIndex.suggest(7L, null, "jane", 3).orElseThrow()));
+    }
+
+    private void buildEmpty() {
+        when(userRepository.findSuggestionsAfter(anyLong(), any())).thenReturn(List.of());
+        allUsersExist();
+        suggestIndex.build();
+    }
+
+    private void allUsersExist() {
+        when(userRepository.findExistingIds(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+    }
+
+    private static List<Long> ids(List<UserSuggestion> suggestions) {
+        return suggestions.stream().map(UserSuggestion::id).sorted().toList();
+    }
+
+    private static User user(Long id, Long adminId, String firstName, String lastName, String companyName, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setAdminId(adminId);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setCompanyName(companyName);
+        user.setEmail(email);
+        user.setUserType(User.UserType.CLIENT);
+        user.setIsActive(true);
+        return user;
+    }
+}
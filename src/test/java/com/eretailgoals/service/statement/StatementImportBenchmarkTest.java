@@ -0,0 +1,123 @@
+package com.eretailgoals.service.statement;
+
+import com.eretailgoals.dto.StatementImportStatus;
+import com.eretailgoals.dto.StatementImportStatus.State;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Memory benchmark for the statement import pipeline
+ * Streams a generated 2 GB CSV statement through parsing, mapping and chunking with posting stubbed
+ * out, and checks that the heap stays flat; the size can be changed with -Dstatement.benchmark.bytes
+ */
+@Tag("benchmark")
+class StatementImportBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementImportBenchmarkTest.class);
+
+    private static final long STATEMENT_BYTES = Long.getLong("statement.benchmark.bytes", 2L * 1024 * 1024 * 1024);
+    private static final long MAX_HEAP_GROWTH_BYTES = 256L * 1024 * 1024;
+
+    @Test
+    void run_TwoGigabyteStatement_ShouldKeepHeapFlat() throws Exception {
+        // Given
+        TransactionService transactionService = mock(TransactionService.class, withSettings().stubOnly());
+        when(transactionService.postBatch(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        StatementImportService importService = new StatementImportService(
+                transactionService, mock(BankAccountRepository.class), 1_000, 10_000, 1, 100, Duration.ofHours(1));
+        StatementImportJob job = new StatementImportJob("benchmark", 7L, "generated.csv", StatementFormat.CSV, 100);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        // When
+        long started = System.nanoTime();
+        try {
+            importService.run(job, new GeneratedStatement(STATEMENT_BYTES), 3L).get(30, TimeUnit.MINUTES);
+        } finally {
+            sampling.set(false);
+            sampler.join();
+            importService.shutdown();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        // Then
+        StatementImportStatus status = job.toStatus();
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(0, status.linesRejected());
+        assertEquals(status.linesRead(), status.transactionsPosted());
+        long growth = peak.get() - baseline;
+        logger.info("Imported {} lines ({} MB) in {} ms ({} lines/s), peak heap growth {} MB",
+                    status.transactionsPosted(), STATEMENT_BYTES / (1024 * 1024), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    Math.round(status.transactionsPosted() / (elapsedNanos / 1_000_000_000.0)), growth / (1024 * 1024));
+        assertTrue(growth < MAX_HEAP_GROWTH_BYTES, STR."heap grew by \{growth / (1024 * 1024)} MB");
+    }
+
+    /**
+     * CSV statement produced on the fly, so the input itself takes no memory
+     */
+    private static class GeneratedStatement extends Reader {
+
+        private final long size;
+        private long produced;
+        private long lineNumber;
+        private String pending = "Date,Description,Amount,Reference\n";
+        private int offset;
+
+        GeneratedStatement(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read(char[] buffer, int off, int len) {
+            if (offset == pending.length()) {
+                if (produced >= size) {
+                    return -1;
+                }
+                lineNumber++;
+                long cents = lineNumber % 2 == 0 ? lineNumber % 100_000 + 1 : -(lineNumber % 50_000 + 1);
+                pending = STR."2024-\{String.format("%02d", lineNumber % 12 + 1)}-15,\"Card payment, store \{lineNumber % 977}\",\{BigDecimal.valueOf(cents, 2).toPlainString()},REF\{lineNumber}\n";
+                offset = 0;
+            }
+            int count = Math.min(len, pending.length() - offset);
+            pending.getChars(offset, offset + count, buffer, off);
+            offset += count;
+            produced += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
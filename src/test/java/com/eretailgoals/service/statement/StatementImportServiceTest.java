@@ -0,0 +1,191 @@
+package com.eretailgoals.service.statement;
+
+import com.eretailgoals.dto.StatementImportStatus;
+import com.eretailgoals.dto.StatementImportStatus.State;
+import com.eretailgoals.entity.BankAccount;
+import com.eretailgoals.entity.Transaction;
+import com.eretailgoals.repository.BankAccountRepository;
+import com.eretailgoals.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StatementImportService
+ * Tests chunked posting, rejected lines, failures and admission of import jobs
+ */
+@ExtendWith(MockitoExtension.class)
+class StatementImportServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    private StatementImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new StatementImportService(transactionService, bankAccountRepository,
+                                                   2, 4, 1, 2, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void run_ValidAndInvalidLines_ShouldPostChunksAndReportRejections() throws Exception {
+        // Given
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(transactionService.postBatch(anyList())).thenAnswer(invocation -> {
+            List<Transaction> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return chunk;
+        });
+        String csv = """
+                Date,Amount,Reference
+                2024-03-01,10.00,A
+                2024-03-02,not-a-number,B
+                2024-03-03,-4.00,C
+                2024-13-01,1.00,D
+                2024-03-04,2.50,E
+                2024-03-05,0,F
+                """;
+        StatementImportJob job = job(StatementFormat.CSV);
+
+        // When
+        importService.run(job, new StringReader(csv), 3L).get(5, TimeUnit.SECONDS);
+
+        // Then
+        StatementImportStatus status = job.toStatus();
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(6, status.linesRead());
+        assertEquals(3, status.transactionsPosted());
+        assertEquals(3, status.linesRejected());
+        assertEquals(List.of("line 3: Invalid amount 'not-a-number'", "line 5: Invalid date '2024-13-01'"),
+                     status.errors());
+        assertEquals(List.of(2, 1), chunkSizes);
+    }
+
+    @Test
+    void run_PostingFails_ShouldFailJobAndStopReading() throws Exception {
+        // Given
+        when(transactionService.postBatch(anyList()))
+                .thenThrow(new IllegalStateException("Bank account is inactive: 7"));
+        StringBuilder csv = new StringBuilder("Date,Amount\n");
+        for (int i = 0; i < 1_000; i++) {
+            csv.append("2024-03-01,1.00\n");
+        }
+        StatementImportJob job = job(StatementFormat.CSV);
+
+        // When
+        importService.run(job, new StringReader(csv.toString()), 3L).get(5, TimeUnit.SECONDS);
+
+        // Then
+        StatementImportStatus status = job.toStatus();
+        assertEquals(State.FAILED, status.state());
+        assertEquals("Bank account is inactive: 7", status.failure());
+        assertEquals(0, status.transactionsPosted());
+        assertTrue(status.linesRead() < 1_000, "reader should stop once the writer has failed");
+        verify(transactionService, times(1)).postBatch(anyList());
+    }
+
+    @Test
+    void run_UnreadableHeader_ShouldFailJobWithoutPosting() throws Exception {
+        // Given
+        StatementImportJob job = job(StatementFormat.CSV);
+
+        // When
+        importService.run(job, new StringReader("Description\nCoffee\n"), 3L).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(State.FAILED, job.toStatus().state());
+        assertEquals("Statement header has no date column", job.toStatus().failure());
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void submit_InactiveAccount_ShouldThrowException() {
+        // Given
+        BankAccount account = account();
+        account.setIsActive(false);
+        when(bankAccountRepository.findById(7L)).thenReturn(Optional.of(account));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> importService.submit(7L, file("Date,Amount\n"), null));
+    }
+
+    @Test
+    void submit_UnknownAccount_ShouldThrowException() {
+        // Given
+        when(bankAccountRepository.findById(7L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> importService.submit(7L, file("Date,Amount\n"), null));
+    }
+
+    @Test
+    void submit_ValidFile_ShouldReturnTrackableJob() throws Exception {
+        // Given
+        when(bankAccountRepository.findById(7L)).thenReturn(Optional.of(account()));
+        when(transactionService.postBatch(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        StatementImportStatus submitted = importService.submit(7L, file("Date,Amount\n2024-03-01,5.00\n"), null);
+
+        // Then
+        assertEquals("CSV", submitted.format());
+        StatementImportStatus status = awaitFinished(submitted.jobId());
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(1, status.transactionsPosted());
+        assertTrue(importService.getStatus("unknown").isEmpty());
+    }
+
+    private StatementImportStatus awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            StatementImportStatus status = importService.getStatus(jobId).orElseThrow();
+            if (status.state() == State.COMPLETED || status.state() == State.FAILED) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        fail("Import job did not finish");
+        return null;
+    }
+
+    private static StatementImportJob job(StatementFormat format) {
+        return new StatementImportJob("job-1", 7L, "statement", format, 2);
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "statement.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BankAccount account() {
+        BankAccount account = new BankAccount("Current", "12345678", BankAccount.AccountType.CURRENT, BigDecimal.ZERO);
+        account.setId(7L);
+        account.setAdminId(3L);
+        account.setIsActive(true);
+        return account;
+    }
+}
@@ -0,0 +1,160 @@
+package com.eretailgoals.service.statement;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH benchmark for the camt.053 and MT940 statement parsers
+ * Parses and maps a synthetic 1,000,000-entry file per invocation on a single thread and reports
+ * entries per second
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StatementParserBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementParserBenchmarkTest.class);
+
+    private static final int ENTRIES = 1_000_000;
+    private static final double REQUIRED_ENTRIES_PER_SECOND = 100_000;
+
+    private Path camt053;
+    private Path mt940;
+
+    @Test
+    void parsers_MillionEntryStatements_ShouldReadOneHundredThousandEntriesPerSecond() throws Exception {
+        // Given
+        Options options = new OptionsBuilder()
+                .include(StatementParserBenchmarkTest.class.getName() + "\\.(camt053|mt940)$")
+                .forks(0)
+                .threads(1)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build();
+
+        // When
+        Collection<RunResult> results = new Runner(options).run();
+
+        // Then
+        assertEquals(2, results.size());
+        for (RunResult result : results) {
+            double entriesPerSecond = result.getPrimaryResult().getScore();
+            String benchmark = result.getParams().getBenchmark();
+            logger.info("{}: {} entries/s", benchmark, Math.round(entriesPerSecond));
+            assertTrue(entriesPerSecond >= REQUIRED_ENTRIES_PER_SECOND,
+                       STR."\{benchmark} read \{Math.round(entriesPerSecond)} entries/s");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void writeStatements() throws IOException {
+        camt053 = Files.createTempFile("benchmark-", ".camt053.xml");
+        try (BufferedWriter writer = Files.newBufferedWriter(camt053, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                         + "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:camt.053.001.02\">"
+                         + "<BkToCstmrStmt><Stmt><Id>BENCHMARK</Id>\n");
+            for (int i = 1; i <= ENTRIES; i++) {
+                boolean debit = i % 2 == 0;
+                writer.write(STR."""
+                        <Ntry><Amt Ccy="EUR">\{amount(i)}</Amt><CdtDbtInd>\{debit ? "DBIT" : "CRDT"}</CdtDbtInd>\
+                        <Sts>BOOK</Sts><BookgDt><Dt>2024-\{month(i)}-15</Dt></BookgDt>\
+                        <AcctSvcrRef>REF\{i}</AcctSvcrRef><BkTxCd><Domn><Cd>PMNT</Cd><Fmly><Cd>RCDT</Cd>\
+                        <SubFmlyCd>\{i % 10 == 0 ? "CHRG" : "ESCT"}</SubFmlyCd></Fmly></Domn></BkTxCd>\
+                        <NtryDtls><TxDtls><RltdPties><\{debit ? "Cdtr" : "Dbtr"}><Nm>Party \{i % 977}</Nm>\
+                        </\{debit ? "Cdtr" : "Dbtr"}></RltdPties><RmtInf><Ustrd>Invoice \{i}</Ustrd></RmtInf>\
+                        </TxDtls></NtryDtls></Ntry>
+                        """);
+            }
+            writer.write("</Stmt></BkToCstmrStmt></Document>\n");
+        }
+
+        mt940 = Files.createTempFile("benchmark-", ".sta");
+        try (BufferedWriter writer = Files.newBufferedWriter(mt940, StandardCharsets.UTF_8)) {
+            writer.write(":20:BENCHMARK\n:25:12345678/0001234567\n:28C:00001/001\n:60F:C240101EUR0,00\n");
+            for (int i = 1; i <= ENTRIES; i++) {
+                writer.write(STR."""
+                        :61:24\{month(i)}15\{i % 2 == 0 ? "D" : "C"}\{amount(i).replace('.', ',')}\
+                        \{i % 10 == 0 ? "NCHG" : "NTRF"}REF\{i}//B\{i}
+                        :86:166?00TRANSFER?20Invoice \{i}?32Party \{i % 977}
+                        """);
+            }
+            writer.write(":62F:C241231EUR0,00\n-\n");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStatements() throws IOException {
+        Files.deleteIfExists(camt053);
+        Files.deleteIfExists(mt940);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public void camt053(Blackhole blackhole) throws IOException {
+        read(StatementFormat.CAMT053, camt053, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public void mt940(Blackhole blackhole) throws IOException {
+        read(StatementFormat.MT940, mt940, blackhole);
+    }
+
+    /**
+     * Parse and map a whole file, as the reader stage of an import does
+     */
+    private static void read(StatementFormat format, Path file, Blackhole blackhole) throws IOException {
+        StatementLineMapper mapper = new StatementLineMapper(1L, 1L);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            format.parser().parse(reader, new StatementParser.Sink() {
+                @Override
+                public void accept(StatementLine line) {
+                    blackhole.consume(mapper.map(line));
+                }
+
+                @Override
+                public void reject(long lineNumber, String reason) {
+                    throw new IllegalStateException(STR."line \{lineNumber}: \{reason}");
+                }
+            });
+        }
+    }
+
+    private static String amount(int i) {
+        return BigDecimal.valueOf(i % 100_000 + 1, 2).toPlainString();
+    }
+
+    private static String month(int i) {
+        return String.format("%02d", i % 12 + 1);
+    }
+}
@@ -0,0 +1,351 @@
+package com.eretailgoals.service.statement;
+
+import com.eretailgoals.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the statement parsers and the line mapper
+ * Tests column detection, quoting, SGML and XML OFX, camt.053 entries, MT940 fields, character set
+ * detection and validation of raw values
+ */
+class StatementParsersTest {
+
+    private final StatementLineMapper mapper = new StatementLineMapper(7L, 3L);
+
+    @Test
+    void csv_AmountColumn_ShouldHonourQuotesAndSkipBlankLines() throws IOException {
+        // Given
+        String csv = """
+                \uFEFFDate,Description,Amount,Reference
+                2024-03-01,"Coffee, large",-3.50,R1
+
+                02/03/2024,"Refund \"\"A\"\"",12.00,R2
+                """;
+
+        // When
+        Collected collected = parse(StatementFormat.CSV, csv);
+
+        // Then
+        assertEquals(2, collected.lines.size());
+        StatementLine first = collected.lines.get(0);
+        assertEquals(2, first.lineNumber());
+        assertEquals("Coffee, large", first.description());
+        assertEquals("-3.50", first.amount());
+        assertEquals("Refund \"A\"", collected.lines.get(1).description());
+        assertTrue(collected.rejected.isEmpty());
+    }
+
+    @Test
+    void csv_CreditAndDebitColumns_ShouldNegateDebitsAndRejectAmbiguousRows() throws IOException {
+        // Given
+        String csv = """
+                Transaction Date,Paid In,Paid Out,Details
+                2024-03-01,100.00,,Salary
+                2024-03-02,,25.00,Groceries
+                2024-03-03,5.00,5.00,Both
+                """;
+
+        // When
+        Collected collected = parse(StatementFormat.CSV, csv);
+
+        // Then
+        assertEquals(List.of("100.00", "-25.00"), collected.lines.stream().map(StatementLine::amount).toList());
+        assertEquals(List.of("4: Exactly one of credit and debit must be given"), collected.rejected);
+    }
+
+    @Test
+    void csv_HeaderWithoutAmount_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> parse(StatementFormat.CSV, "Date,Description\n2024-03-01,x\n"));
+        assertThrows(IllegalArgumentException.class, () -> parse(StatementFormat.CSV, ""));
+    }
+
+    @Test
+    void ofx_Sgml_ShouldReadUnclosedLeafElements() throws IOException {
+        // Given
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>SRVCHG
+                <DTPOSTED>20240301120000[0:GMT]
+                <TRNAMT>-2.50
+                <FITID>F1
+                <NAME>Bank &amp; Co
+                <MEMO>Monthly fee
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240302
+                <TRNAMT>40.00
+                <CHECKNUM>1001
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+
+        // When
+        Collected collected = parse(StatementFormat.OFX, ofx);
+
+        // Then
+        assertEquals(2, collected.lines.size());
+        StatementLine fee = collected.lines.get(0);
+        assertEquals("SRVCHG", fee.type());
+        assertEquals("20240301120000[0:GMT]", fee.date());
+        assertEquals("F1", fee.reference());
+        assertEquals("Bank & Co - Monthly fee", fee.description());
+        assertEquals("1001", collected.lines.get(1).reference());
+    }
+
+    @Test
+    void ofx_Xml_ShouldReadClosedElements() throws IOException {
+        // Given
+        String ofx = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <?OFX OFXHEADER="200" VERSION="220"?>
+                <OFX><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>INT</TRNTYPE><DTPOSTED>20240331</DTPOSTED><TRNAMT>1.25</TRNAMT><FITID>I9</FITID></STMTTRN>
+                <STMTTRN><TRNTYPE>DEBIT</TRNTYPE>
+                """;
+
+        // When
+        Collected collected = parse(StatementFormat.OFX, ofx);
+
+        // Then
+        assertEquals(1, collected.lines.size());
+        assertEquals("1.25", collected.lines.get(0).amount());
+        assertEquals(List.of("2: Statement ends inside a transaction"), collected.rejected);
+    }
+
+    @Test
+    void camt053_Entries_ShouldReadBookingDateSignAndCounterparty() throws IOException {
+        // Given
+        String camt = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.053.001.02">
+                <BkToCstmrStmt><Stmt><Id>S1</Id>
+                <Ntry>
+                  <Amt Ccy="EUR">12.50</Amt><CdtDbtInd>DBIT</CdtDbtInd><Sts>BOOK</Sts>
+                  <BookgDt><Dt>2024-03-01</Dt></BookgDt><ValDt><Dt>2024-03-02</Dt></ValDt>
+                  <AcctSvcrRef>BANK-1</AcctSvcrRef>
+                  <BkTxCd><Domn><Cd>PMNT</Cd><Fmly><Cd>CCRD</Cd><SubFmlyCd>CHRG</SubFmlyCd></Fmly></Domn></BkTxCd>
+                  <NtryDtls><TxDtls>
+                    <Amt Ccy="EUR">99.00</Amt><CdtDbtInd>CRDT</CdtDbtInd>
+                    <RltdPties><Dbtr><Nm>Us Ltd</Nm></Dbtr><Cdtr><Nm>Card &amp; Co</Nm></Cdtr></RltdPties>
+                    <RmtInf><Ustrd>March fee</Ustrd></RmtInf>
+                  </TxDtls></NtryDtls>
+                </Ntry>
+                <Ntry>
+                  <Amt Ccy="EUR">40.00</Amt><CdtDbtInd>CRDT</CdtDbtInd>
+                  <BookgDt><DtTm>2024-03-03T09:15:00</DtTm></BookgDt>
+                  <NtryDtls><TxDtls><Refs><EndToEndId>E2E-7</EndToEndId></Refs>
+                    <RltdPties><Dbtr><Nm>Customer</Nm></Dbtr></RltdPties></TxDtls></NtryDtls>
+                </Ntry>
+                <Ntry><Amt Ccy="EUR">1.00</Amt><CdtDbtInd>XXXX</CdtDbtInd></Ntry>
+                </Stmt></BkToCstmrStmt></Document>
+                """;
+
+        // When
+        Collected collected = parse(StatementFormat.CAMT053, camt);
+
+        // Then
+        assertEquals(2, collected.lines.size());
+        StatementLine fee = collected.lines.get(0);
+        assertEquals("2024-03-01", fee.date());
+        assertEquals("-12.50", fee.amount());
+        assertEquals("FEE", fee.type());
+        assertEquals("BANK-1", fee.reference());
+        assertEquals("Card & Co - March fee", fee.description());
+        StatementLine credit = collected.lines.get(1);
+        assertEquals("2024-03-03", credit.date());
+        assertEquals("E2E-7", credit.reference());
+        assertEquals("Customer", credit.description());
+        assertEquals(List.of("3: Unknown credit/debit indicator 'XXXX'"), collected.rejected);
+    }
+
+    @Test
+    void camt053_MalformedXml_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                     () -> parse(StatementFormat.CAMT053, "<Document><Ntry><Amt>1</Amt></Document>"));
+    }
+
+    @Test
+    void mt940_StatementLines_ShouldAttachInformationAndHandleReversals() throws IOException {
+        // Given
+        String mt940 = """
+                :20:STMT240301
+                :25:12345678/0001234567
+                :28C:00001/001
+                :60F:C240229EUR1000,00
+                :61:2403010301D12,50NCHGNONREF//BANK-1
+                :86:166?00CHARGES?20Account?21 fee March?32Bank
+                 AG
+                :61:240302C1500,NTRFINV-42
+                :86:Payment for invoice
+                INV-42
+                :61:240303RC7,NDDTNONREF
+                :61:240304X1,00NTRFNONREF
+                :62F:C240304EUR2480,50
+                -
+                """;
+
+        // When
+        Collected collected = parse(StatementFormat.MT940, mt940);
+
+        // Then
+        assertEquals(3, collected.lines.size());
+        StatementLine fee = collected.lines.get(0);
+        assertEquals(5, fee.lineNumber());
+        assertEquals("20240301", fee.date());
+        assertEquals("-12.50", fee.amount());
+        assertEquals("FEE", fee.type());
+        assertEquals("BANK-1", fee.reference());
+        assertEquals("Bank AG - Account fee March", fee.description());
+        StatementLine payment = collected.lines.get(1);
+        assertEquals("1500", payment.amount());
+        assertEquals("INV-42", payment.reference());
+        assertEquals("Payment for invoiceINV-42", payment.description());
+        StatementLine reversal = collected.lines.get(2);
+        assertEquals("-7", reversal.amount());
+        assertEquals("DIRECTDEBIT", reversal.type());
+        assertNull(reversal.reference());
+        assertEquals(List.of("12: Unreadable :61: statement line"), collected.rejected);
+    }
+
+    @Test
+    void map_ValidLines_ShouldPickTypeFromSignAndOfxType() {
+        // When
+        Transaction fee = mapper.map(line("20240301", "-2.50", "SRVCHG", "F1"));
+        Transaction interest = mapper.map(line("2024-03-31", "1.25", "INT", null));
+        Transaction withdrawal = mapper.map(line("05/03/2024", "(1,200.00)", null, null));
+        Transaction deposit = mapper.map(line("2024-03-06", "£10", "", ""));
+
+        // Then
+        assertEquals(Transaction.TransactionType.FEE, fee.getTransactionType());
+        assertEquals(new BigDecimal("2.50"), fee.getTransactionAmount());
+        assertEquals(LocalDate.of(2024, 3, 1), fee.getTransactionDate());
+        assertEquals(7L, fee.getBankAccount().getId());
+        assertEquals(3L, fee.getAdminId());
+        assertEquals("F1", fee.getReferenceNumber());
+        assertEquals(Transaction.TransactionType.INTEREST, interest.getTransactionType());
+        assertEquals(Transaction.TransactionType.WITHDRAWAL, withdrawal.getTransactionType());
+        assertEquals(new BigDecimal("1200.00"), withdrawal.getTransactionAmount());
+        assertEquals(LocalDate.of(2024, 3, 5), withdrawal.getTransactionDate());
+        assertEquals(Transaction.TransactionType.DEPOSIT, deposit.getTransactionType());
+        assertEquals(new BigDecimal("10.00"), deposit.getTransactionAmount());
+        assertNull(deposit.getReferenceNumber());
+    }
+
+    @Test
+    void map_InvalidLines_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> mapper.map(line(null, "1.00", null, null)));
+        assertThrows(IllegalArgumentException.class, () -> mapper.map(line("2024-02-30", "1.00", null, null)));
+        assertThrows(IllegalArgumentException.class, () -> mapper.map(line("2024-03-01", "abc", null, null)));
+        assertThrows(IllegalArgumentException.class, () -> mapper.map(line("2024-03-01", "0.00", null, null)));
+        assertThrows(IllegalArgumentException.class, () -> mapper.map(line("2024-03-01", "1.005", null, null)));
+        assertThrows(IllegalArgumentException.class, () -> mapper.map(line("2024-03-01", "1.00", null, "R".repeat(101))));
+    }
+
+    @Test
+    void charset_DeclaredEncodings_ShouldBeHonoured() {
+        // Given
+        String ofxSgml = "OFXHEADER:100\nDATA:OFXSGML\nENCODING:USASCII\nCHARSET:1252\n<OFX>";
+        String ofxSgmlUtf8 = "OFXHEADER:100\nDATA:OFXSGML\nENCODING:UTF-8\nCHARSET:NONE\n<OFX>";
+        String ofxSgmlLatin1 = "OFXHEADER:100\nDATA:OFXSGML\nENCODING:USASCII\nCHARSET:ISO-8859-1\n<OFX>";
+        String camtLatin1 = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><Document/>";
+
+        // When & Then
+        assertEquals(Charset.forName("windows-1252"), StatementFormat.OFX.charset(ascii(ofxSgml)));
+        assertEquals(StandardCharsets.UTF_8, StatementFormat.OFX.charset(ascii(ofxSgmlUtf8)));
+        assertEquals(StandardCharsets.ISO_8859_1, StatementFormat.OFX.charset(ascii(ofxSgmlLatin1)));
+        assertEquals(StandardCharsets.ISO_8859_1, StatementFormat.CAMT053.charset(ascii(camtLatin1)));
+        assertEquals(StandardCharsets.UTF_8, StatementFormat.CAMT053.charset(ascii("<Document/>")));
+        assertEquals(StandardCharsets.ISO_8859_1, StatementFormat.MT940.charset(ascii(":20:STMT")));
+        assertEquals(StandardCharsets.UTF_8, StatementFormat.CSV.charset(ascii("Date,Amount")));
+    }
+
+    @Test
+    void openStatement_Latin1Mt940_ShouldDecodeAccentedNames(@TempDir Path dir) throws IOException {
+        // Given
+        Path file = dir.resolve("statement.sta");
+        Files.write(file, """
+                :20:STMT240301
+                :61:240302C15,00NTRFNONREF
+                :86:Caf\u00e9 M\u00fcller
+                -
+                """.getBytes(StandardCharsets.ISO_8859_1));
+
+        // When
+        Collected collected = new Collected();
+        try (Reader reader = StatementImportService.openStatement(file, StatementFormat.MT940)) {
+            StatementFormat.MT940.parser().parse(reader, collected);
+        }
+
+        // Then
+        assertEquals("Caf\u00e9 M\u00fcller", collected.lines.get(0).description());
+    }
+
+    @Test
+    void openStatement_InvalidUtf8_ShouldReplaceBadBytes(@TempDir Path dir) throws IOException {
+        // Given
+        Path file = dir.resolve("statement.csv");
+        byte[] content = "Date,Description,Amount\n2024-03-01,Caf\u00e9,1.00\n".getBytes(StandardCharsets.ISO_8859_1);
+        Files.write(file, content);
+
+        // When
+        Collected collected = new Collected();
+        try (Reader reader = StatementImportService.openStatement(file, StatementFormat.CSV)) {
+            StatementFormat.CSV.parser().parse(reader, collected);
+        }
+
+        // Then
+        assertEquals("Caf\uFFFD", collected.lines.get(0).description());
+    }
+
+    private static StatementLine line(String date, String amount, String type, String reference) {
+        return new StatementLine(1, date, amount, type, reference, null);
+    }
+
+    private static Collected parse(StatementFormat format, String content) throws IOException {
+        Collected collected = new Collected();
+        format.parser().parse(new StringReader(content), collected);
+        return collected;
+    }
+
+    private static byte[] ascii(String header) {
+        return header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static class Collected implements StatementParser.Sink {
+
+        private final List<StatementLine> lines = new ArrayList<>();
+        private final List<String> rejected = new ArrayList<>();
+
+        @Override
+        public void accept(StatementLine line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void reject(long lineNumber, String reason) {
+            rejected.add(lineNumber + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+-- Schema Hibernate 6.4 (H2Dialect) generated from the entities before Flyway, when the application ran with ddl-auto
+-- Databases adopted through the version 1 baseline have this schema rather than V1's
+
+create table bank_accounts (
+    current_balance numeric(19,2) not null,
+    is_active boolean,
+    opening_balance numeric(19,2) not null,
+    admin_id bigint,
+    date_created timestamp(6) not null,
+    id bigint generated by default as identity,
+    last_modified timestamp(6),
+    sort_code varchar(20),
+    account_number varchar(50) not null,
+    account_name varchar(200) not null,
+    account_type varchar(255) not null check (account_type in ('CURRENT','SAVINGS','CASH')),
+    primary key (id)
+);
+
+create table invoice_items (
+    discount numeric(19,2),
+    line_total numeric(19,2),
+    quantity integer not null check (quantity>=1),
+    unit_price numeric(19,2) not null,
+    vat_rate numeric(5,2),
+    date_created timestamp(6) not null,
+    id bigint generated by default as identity,
+    invoice_id bigint not null,
+    last_modified timestamp(6),
+    unit varchar(20),
+    item_code varchar(50),
+    item_description varchar(500) not null,
+    primary key (id)
+);
+
+create table invoices (
+    due_date date,
+    invoice_amount numeric(19,2) not null,
+    invoice_date date not null,
+    invoice_paid_amount numeric(19,2),
+    vat_amount numeric(19,2),
+    admin_id bigint,
+    date_created timestamp(6) not null,
+    id bigint generated by default as identity,
+    last_modified timestamp(6),
+    user_id bigint not null,
+    invoice_number varchar(50) not null unique,
+    invoice_note TEXT,
+    invoice_status varchar(255) not null check (invoice_status in ('OPEN','PARTIAL_PAID','PAID','OVERDUE','CANCELLED')),
+    invoice_type varchar(255) check (invoice_type in ('STANDARD','CREDIT_NOTE','PROFORMA','RECURRING')),
+    primary key (id)
+);
+
+create table transactions (
+    amount_received numeric(19,2),
+    amount_transferred numeric(19,2),
+    ending_balance numeric(19,2),
+    is_reconciled boolean,
+    transaction_amount numeric(19,2) not null,
+    transaction_date date not null,
+    admin_id bigint,
+    bank_account_id bigint not null,
+    date_created timestamp(6) not null,
+    id bigint generated by default as identity,
+    invoice_id bigint,
+    last_modified timestamp(6),
+    user_id bigint,
+    reference_number varchar(100),
+    expense_type varchar(255) check (expense_type in ('OFFICE_SUPPLIES','TRAVEL','UTILITIES','RENT','INSURANCE','PROFESSIONAL_SERVICES','MARKETING','EQUIPMENT','MEALS','OTHER')),
+    notes TEXT,
+    transaction_type varchar(255) not null check (transaction_type in ('RECEIVE','PAYMENT','TRANSFER','DEPOSIT','WITHDRAWAL','FEE','INTEREST')),
+    primary key (id)
+);
+
+create table users (
+    is_active boolean,
+    admin_id bigint,
+    date_created timestamp(6) not null,
+    id bigint generated by default as identity,
+    last_modified timestamp(6),
+    login_timestamp timestamp(6),
+    fax varchar(20),
+    mobile varchar(20),
+    phone_home varchar(20),
+    phone_office varchar(20),
+    postcode varchar(20),
+    shipping_postcode varchar(20),
+    username varchar(50) unique,
+    vat_number varchar(50),
+    first_name varchar(100) not null,
+    last_name varchar(100) not null,
+    company_name varchar(200),
+    address TEXT,
+    email varchar(255) not null unique,
+    password varchar(255),
+    shipping_address TEXT,
+    user_type varchar(255) not null check (user_type in ('ADMIN','SUPPLIER','CLIENT')),
+    primary key (id)
+);
+
+alter table if exists invoice_items 
+   add constraint FK46ae0lhu1oqs7cv91fn6y9n7w 
+   foreign key (invoice_id) 
+   references invoices;
+
+alter table if exists invoices 
+   add constraint FKbwr4d4vyqf2bkoetxtt8j9dx7 
+   foreign key (user_id) 
+   references users;
+
+alter table if exists transactions 
+   add constraint FK59wy892j0r3ye2oxj71rrj02 
+   foreign key (bank_account_id) 
+   references bank_accounts;
+
+alter table if exists transactions 
+   add constraint FKm5goxujeqrwf774cgr0r04553 
+   foreign key (invoice_id) 
+   references invoices;
+
+alter table if exists transactions 
+   add constraint FKqwv7rmvc8va8rep7piikrojds 
+   foreign key (user_id) 
+   references users;